@@ -2,8 +2,10 @@ package com.bbva.clientmanager;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC solo lo usa la variante reactiva (ReactiveClientManagerApplication); acá la persistencia es JPA.
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class ClientManagerApplication {
 
 	public static void main(String[] args) {
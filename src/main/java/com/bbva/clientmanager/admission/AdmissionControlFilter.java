@@ -0,0 +1,132 @@
+package com.bbva.clientmanager.admission;
+
+import com.bbva.clientmanager.dto.ExceptionDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Control de admisión por usuario y por clase de endpoint.
+ *
+ * Corre en la cadena de Spring Security inmediatamente después de {JwtAuthFilter}, así
+ * conoce al usuario autenticado (o usa la IP si no hay token). Cada clase de endpoint tiene
+ * un token bucket por usuario y las clases costosas (listados y operaciones masivas)
+ * comparten además un límite global de requests simultáneos. Cuando no hay capacidad
+ * responde 429 con Retry-After en lugar de encolar, para no retener hilos ni conexiones.
+ *
+ * Los rechazos se publican en la métrica clientmanager.admission.rejected (tags clase y motivo).
+ *
+ * Viene apagado (clientmanager.admission.enabled=false): los límites de application.yml son un
+ * punto de partida y hay que ajustarlos al tráfico de cada despliegue antes de activarlo.
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final int FRANJAS = 8192;
+    private static final String MESSAGE_LIMITE = "Demasiadas solicitudes, reintente en %d segundos.";
+    private static final String MESSAGE_CONCURRENCIA = "El servidor está atendiendo demasiadas consultas costosas, reintente en %d segundos.";
+
+    private final ObjectMapper objectMapper;
+    private final boolean habilitado;
+    private final Semaphore costosas;
+    private final Map<ClaseEndpoint, TokenBuckets> buckets = new EnumMap<>(ClaseEndpoint.class);
+    private final Map<ClaseEndpoint, Counter> rechazosPorTasa = new EnumMap<>(ClaseEndpoint.class);
+    private final Map<ClaseEndpoint, Counter> rechazosPorConcurrencia = new EnumMap<>(ClaseEndpoint.class);
+
+    public AdmissionControlFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry, Environment environment,
+                                  @Value("${clientmanager.admission.enabled:false}") boolean habilitado,
+                                  @Value("${clientmanager.admission.max-concurrent-expensive:4}") int maxCostosas) {
+        this.objectMapper = objectMapper;
+        this.habilitado = habilitado;
+        this.costosas = new Semaphore(maxCostosas);
+        for (ClaseEndpoint clase : ClaseEndpoint.values()) {
+            String prefijo = "clientmanager.admission." + clase.name().toLowerCase();
+            buckets.put(clase, new TokenBuckets(
+                    environment.getProperty(prefijo + ".per-second", Double.class, 100.0),
+                    environment.getProperty(prefijo + ".burst", Integer.class, 200),
+                    FRANJAS));
+            rechazosPorTasa.put(clase, Counter.builder("clientmanager.admission.rejected")
+                    .tag("clase", clase.name()).tag("motivo", "tasa").register(meterRegistry));
+            if (clase.isCostosa()) {
+                rechazosPorConcurrencia.put(clase, Counter.builder("clientmanager.admission.rejected")
+                        .tag("clase", clase.name()).tag("motivo", "concurrencia").register(meterRegistry));
+            }
+        }
+        Gauge.builder("clientmanager.admission.expensive.in-flight", costosas, s -> maxCostosas - s.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || ClaseEndpoint.clasificar(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ClaseEndpoint clase = ClaseEndpoint.clasificar(request);
+        String usuario = usuario(request);
+
+        long espera = buckets.get(clase).intentar(usuario);
+        if (espera > 0) {
+            rechazosPorTasa.get(clase).increment();
+            rechazar(response, MESSAGE_LIMITE, segundos(espera));
+            log.warn("Request rechazado por límite de tasa: usuario={} clase={}", usuario, clase);
+            return;
+        }
+        if (!clase.isCostosa()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!costosas.tryAcquire()) {
+            rechazosPorConcurrencia.get(clase).increment();
+            rechazar(response, MESSAGE_CONCURRENCIA, 1);
+            log.warn("Request rechazado por concurrencia de consultas costosas: usuario={} clase={}", usuario, clase);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            costosas.release();
+        }
+    }
+
+    private static String usuario(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? "u:" + auth.getName() : "ip:" + request.getRemoteAddr();
+    }
+
+    private static long segundos(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private void rechazar(HttpServletResponse response, String mensaje, long reintentarEn) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(reintentarEn));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ExceptionDTO(String.format(mensaje, reintentarEn)));
+    }
+}
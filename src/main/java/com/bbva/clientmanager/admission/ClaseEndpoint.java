@@ -0,0 +1,59 @@
+package com.bbva.clientmanager.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.regex.Pattern;
+
+/**
+ * Clases de endpoints para el control de admisión. Cada clase tiene su propio límite de
+ * requests por usuario; las costosas además comparten un límite global de concurrencia.
+ */
+public enum ClaseEndpoint {
+    /** Listados que recorren la tabla completa o gran parte de ella. */
+    LISTADO(true),
+    /** Lecturas puntuales por id, conteos y HEAD (no leen filas de clientes). */
+    LECTURA(false),
+    /** Altas, modificaciones y bajas de un cliente. */
+    ESCRITURA(false),
+    /** Operaciones masivas y jobs. */
+    MASIVA(true);
+
+    private static final Pattern POR_ID = Pattern.compile("^/(clients|jobs)/\\d+$");
+
+    private final boolean costosa;
+
+    ClaseEndpoint(boolean costosa) {
+        this.costosa = costosa;
+    }
+
+    public boolean isCostosa() {
+        return costosa;
+    }
+
+    /**
+     * Clasifica un request según método y ruta.
+     *
+     * @return la clase del endpoint, o null si no está sujeto a control de admisión
+     */
+    public static ClaseEndpoint clasificar(HttpServletRequest request) {
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        String metodo = request.getMethod();
+        if (!ruta.startsWith("/clients") && !ruta.startsWith("/jobs")) {
+            return null;
+        }
+        if (ruta.startsWith("/clients/productos/") || ruta.startsWith("/clients/view/")
+                || ("POST".equals(metodo) && ruta.equals("/jobs"))) {
+            return MASIVA;
+        }
+        if ("HEAD".equals(metodo) || ("GET".equals(metodo) && ruta.equals("/clients/count"))) {
+            return LECTURA;
+        }
+        if ("GET".equals(metodo)) {
+            return POR_ID.matcher(ruta).matches() ? LECTURA : LISTADO;
+        }
+        if ("POST".equals(metodo) && ruta.equals("/clients/lookup")) {
+            return LISTADO;
+        }
+        return ESCRITURA;
+    }
+}
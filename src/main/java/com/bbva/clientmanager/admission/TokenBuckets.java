@@ -0,0 +1,60 @@
+package com.bbva.clientmanager.admission;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token buckets sin locks, repartidos en franjas de un AtomicLongArray.
+ *
+ * Cada franja guarda un único long con el "tiempo teórico de llegada" del algoritmo GCRA,
+ * equivalente a un token bucket de la tasa y ráfaga indicadas: admitir un request es un
+ * compareAndSet que adelanta ese tiempo un intervalo. La clave (el usuario) elige la franja
+ * por hash, así la memoria es fija sin importar cuántos usuarios haya; dos usuarios que
+ * caen en la misma franja comparten el límite.
+ */
+final class TokenBuckets {
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final AtomicLongArray llegadas;
+    private final int mascara;
+    private final long origen = System.nanoTime();
+
+    TokenBuckets(double porSegundo, int rafaga, int franjas) {
+        if (porSegundo <= 0 || rafaga < 1) {
+            throw new IllegalArgumentException("La tasa debe ser positiva y la ráfaga al menos 1");
+        }
+        this.intervaloNanos = (long) (1_000_000_000L / porSegundo);
+        this.toleranciaNanos = intervaloNanos * (rafaga - 1);
+        int tamanio = Integer.highestOneBit(Math.max(1, franjas - 1) << 1);
+        this.llegadas = new AtomicLongArray(tamanio);
+        this.mascara = tamanio - 1;
+    }
+
+    /**
+     * Intenta tomar un token para la clave.
+     *
+     * @return 0 si se admite, o los nanosegundos a esperar hasta que haya un token
+     */
+    long intentar(String clave) {
+        return intentar(clave, System.nanoTime() - origen);
+    }
+
+    long intentar(String clave, long ahora) {
+        int franja = franja(clave);
+        while (true) {
+            long actual = llegadas.get(franja);
+            long base = Math.max(actual, ahora);
+            long espera = base - ahora - toleranciaNanos;
+            if (espera > 0) {
+                return espera;
+            }
+            if (llegadas.compareAndSet(franja, actual, base + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    private int franja(String clave) {
+        int h = clave.hashCode();
+        return (h ^ (h >>> 16)) & mascara;
+    }
+}
@@ -0,0 +1,398 @@
+package com.bbva.clientmanager.archive;
+
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.readmodel.ClientRecordCodec;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Archivo de clientes fríos en disco local, en segmentos que solo se escriben una vez.
+ *
+ * Cada llamada a {archivar} escribe un segmento nuevo con los clientes ordenados por id, en
+ * bloques de block-clients registros (ClientRecordCodec) comprimidos con Deflate. Al final del
+ * segmento va un índice disperso con una entrada por bloque (primer y último id, posición,
+ * largos y CRC32) y un pie que apunta al índice. Al arrancar se leen solo los índices; buscar
+ * un id descomprime un único bloque por segmento candidato, del más nuevo al más viejo.
+ *
+ * Cuando un cliente archivado vuelve a la tabla clients o se elimina, se agrega a retiros.log
+ * el id con el último segmento existente: las copias de ese id en segmentos anteriores dejan
+ * de valer, sin reescribir ningún archivo.
+ *
+ * clientmanager.archive.dir es obligatorio: los clientes archivados ya no están en la base, así que
+ * el directorio tiene que ser durable y no tiene valor por defecto. Al arrancar se borran los
+ * segmentos .seg.tmp que quedaron de una escritura interrumpida.
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "clientmanager.archive.enabled", havingValue = "true")
+public class ArchivoClientes {
+    private static final int MAGIA = 0x434d4131;
+    private static final int PIE = 4 + 8 + 4;
+    private static final int ENTRADA_INDICE = 8 + 8 + 8 + 4 + 4 + 8;
+    private static final String RETIROS = "retiros.log";
+
+    private final Path directorio;
+    private final int clientesPorBloque;
+    private final Map<Long, Integer> retirados = new ConcurrentHashMap<>();
+    private volatile List<Segmento> segmentos = List.of();
+
+    public ArchivoClientes(@Value("${clientmanager.archive.dir:#{null}}") Path directorio,
+                           @Value("${clientmanager.archive.block-clients:64}") int clientesPorBloque,
+                           MeterRegistry meterRegistry) {
+        if (directorio == null || directorio.toString().isBlank()) {
+            throw new IllegalStateException("clientmanager.archive.dir es obligatorio con clientmanager.archive.enabled");
+        }
+        if (clientesPorBloque < 1) {
+            throw new IllegalArgumentException("clientmanager.archive.block-clients debe ser mayor a 0");
+        }
+        this.directorio = directorio;
+        this.clientesPorBloque = clientesPorBloque;
+        try {
+            Files.createDirectories(directorio);
+            cargar();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el archivo de clientes en " + directorio, e);
+        }
+        Gauge.builder("clientmanager.archive.segments", this, ArchivoClientes::getSegmentos).register(meterRegistry);
+        Gauge.builder("clientmanager.archive.bytes", this, ArchivoClientes::getBytes).register(meterRegistry);
+    }
+
+    /**
+     * Busca la copia vigente de un cliente archivado.
+     *
+     * @param id identificador del cliente
+     * @return el cliente, o vacío si no está archivado o fue retirado
+     */
+    public Optional<ClientResponseDTO> buscar(Long id) {
+        int retiradoHasta = retirados.getOrDefault(id, 0);
+        List<Segmento> vigentes = segmentos;
+        for (int i = vigentes.size() - 1; i >= 0 && vigentes.get(i).numero > retiradoHasta; i--) {
+            Optional<ClientResponseDTO> client = vigentes.get(i).buscar(id);
+            if (client.isPresent()) {
+                return client;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Escribe un segmento nuevo con los clientes dados. El segmento y la entrada del directorio
+     * que lo nombra quedan en disco (fsync) antes de volver, así que los clientes ya pueden
+     * borrarse de la tabla.
+     */
+    public synchronized void archivar(List<Client> clients) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        List<Client> ordenados = clients.stream().sorted(Comparator.comparing(Client::getId)).toList();
+        int numero = ultimoNumero() + 1;
+        Path destino = directorio.resolve(String.format("segmento-%08d.seg", numero));
+        Path temporal = directorio.resolve(destino.getFileName() + ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                escribir(canal, ordenados);
+                canal.force(true);
+            }
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+            forzarDirectorio();
+            List<Segmento> nuevos = new ArrayList<>(segmentos);
+            nuevos.add(Segmento.abrir(destino, numero));
+            segmentos = List.copyOf(nuevos);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el segmento " + destino, e);
+        }
+        log.atInfo().addKeyValue("segmento", numero).addKeyValue("cantidad", ordenados.size())
+                .log("Segmento de clientes archivados escrito");
+    }
+
+    /**
+     * Invalida las copias archivadas del cliente, porque volvió a la tabla clients o se eliminó.
+     */
+    public synchronized void retirar(Long id) {
+        int hasta = ultimoNumero();
+        if (hasta == 0 || retirados.getOrDefault(id, 0) >= hasta) {
+            return;
+        }
+        ByteBuffer entrada = ByteBuffer.allocate(12).putLong(id).putInt(hasta).flip();
+        Path retiros = directorio.resolve(RETIROS);
+        boolean nuevo = !Files.exists(retiros);
+        try (FileChannel canal = FileChannel.open(retiros, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (entrada.hasRemaining()) {
+                canal.write(entrada);
+            }
+            canal.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo registrar el retiro del cliente " + id, e);
+        }
+        if (nuevo) {
+            try {
+                forzarDirectorio();
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo registrar el retiro del cliente " + id, e);
+            }
+        }
+        retirados.put(id, hasta);
+    }
+
+    public int getSegmentos() {
+        return segmentos.size();
+    }
+
+    public long getBytes() {
+        return segmentos.stream().mapToLong(segmento -> segmento.bytes).sum();
+    }
+
+    @PreDestroy
+    public synchronized void cerrar() {
+        for (Segmento segmento : segmentos) {
+            segmento.cerrar();
+        }
+        segmentos = List.of();
+    }
+
+    /**
+     * fsync del directorio: sin esto, después de una caída el rename de un segmento o la creación
+     * de retiros.log pueden perderse aunque el contenido del archivo ya esté en disco. Hay sistemas
+     * (Windows) que no permiten abrir un directorio como canal; ahí se omite.
+     */
+    private void forzarDirectorio() throws IOException {
+        FileChannel canal;
+        try {
+            canal = FileChannel.open(directorio, StandardOpenOption.READ);
+        } catch (IOException e) {
+            log.debug("No se puede abrir {} para hacer fsync del directorio: {}", directorio, e.getMessage());
+            return;
+        }
+        try (canal) {
+            canal.force(true);
+        }
+    }
+
+    private int ultimoNumero() {
+        List<Segmento> actuales = segmentos;
+        return actuales.isEmpty() ? 0 : actuales.get(actuales.size() - 1).numero;
+    }
+
+    private void cargar() throws IOException {
+        List<Segmento> encontrados = new ArrayList<>();
+        try (Stream<Path> temporales = Files.list(directorio)) {
+            for (Path temporal : temporales.filter(a -> a.getFileName().toString().endsWith(".seg.tmp")).toList()) {
+                log.warn("Se descarta el segmento incompleto {}", temporal.getFileName());
+                Files.delete(temporal);
+            }
+        }
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            for (Path archivo : archivos.filter(a -> a.getFileName().toString().matches("segmento-\\d{8}\\.seg")).toList()) {
+                String nombre = archivo.getFileName().toString();
+                encontrados.add(Segmento.abrir(archivo, Integer.parseInt(nombre.substring(9, 17))));
+            }
+        }
+        encontrados.sort(Comparator.comparingInt(segmento -> segmento.numero));
+        segmentos = List.copyOf(encontrados);
+        Path retiros = directorio.resolve(RETIROS);
+        if (Files.exists(retiros)) {
+            ByteBuffer entradas = ByteBuffer.wrap(Files.readAllBytes(retiros));
+            while (entradas.remaining() >= 12) {
+                retirados.merge(entradas.getLong(), entradas.getInt(), Math::max);
+            }
+        }
+        log.atInfo().addKeyValue("segmentos", segmentos.size()).addKeyValue("retirados", retirados.size())
+                .log("Archivo de clientes abierto");
+    }
+
+    private void escribir(FileChannel canal, List<Client> ordenados) throws IOException {
+        ByteBuffer indice = ByteBuffer.allocate(ENTRADA_INDICE * ((ordenados.size() - 1) / clientesPorBloque + 1));
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            long posicion = 0;
+            for (int desde = 0; desde < ordenados.size(); desde += clientesPorBloque) {
+                List<Client> bloque = ordenados.subList(desde, Math.min(desde + clientesPorBloque, ordenados.size()));
+                ByteArrayOutputStream registros = new ByteArrayOutputStream();
+                for (Client client : bloque) {
+                    registros.writeBytes(ClientRecordCodec.codificar(client));
+                }
+                byte[] comprimido = comprimir(deflater, registros.toByteArray());
+                CRC32 crc = new CRC32();
+                crc.update(comprimido);
+                indice.putLong(bloque.get(0).getId()).putLong(bloque.get(bloque.size() - 1).getId())
+                        .putLong(posicion).putInt(comprimido.length).putInt(registros.size()).putLong(crc.getValue());
+                posicion += escribirTodo(canal, ByteBuffer.wrap(comprimido));
+            }
+            indice.flip();
+            int bloques = indice.remaining() / ENTRADA_INDICE;
+            escribirTodo(canal, indice);
+            escribirTodo(canal, ByteBuffer.allocate(PIE).putInt(bloques).putLong(posicion).putInt(MAGIA).flip());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] comprimir(Deflater deflater, byte[] datos) {
+        deflater.reset();
+        deflater.setInput(datos);
+        deflater.finish();
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 2 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            salida.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return salida.toByteArray();
+    }
+
+    private static int escribirTodo(FileChannel canal, ByteBuffer datos) throws IOException {
+        int escritos = 0;
+        while (datos.hasRemaining()) {
+            escritos += canal.write(datos);
+        }
+        return escritos;
+    }
+
+    /**
+     * Segmento abierto: índice disperso en memoria y canal para leer bloques por posición.
+     */
+    private static final class Segmento {
+        private final int numero;
+        private final FileChannel canal;
+        private final long bytes;
+        private final long[] primeros;
+        private final long[] ultimos;
+        private final long[] posiciones;
+        private final int[] largos;
+        private final int[] largosOriginales;
+        private final long[] crcs;
+
+        private Segmento(int numero, FileChannel canal, long bytes, int bloques) {
+            this.numero = numero;
+            this.canal = canal;
+            this.bytes = bytes;
+            this.primeros = new long[bloques];
+            this.ultimos = new long[bloques];
+            this.posiciones = new long[bloques];
+            this.largos = new int[bloques];
+            this.largosOriginales = new int[bloques];
+            this.crcs = new long[bloques];
+        }
+
+        static Segmento abrir(Path archivo, int numero) throws IOException {
+            FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ);
+            try {
+                long bytes = canal.size();
+                ByteBuffer pie = leer(canal, bytes - PIE, PIE);
+                int bloques = pie.getInt();
+                long posicionIndice = pie.getLong();
+                if (pie.getInt() != MAGIA) {
+                    throw new IOException("Segmento inválido: " + archivo);
+                }
+                Segmento segmento = new Segmento(numero, canal, bytes, bloques);
+                ByteBuffer indice = leer(canal, posicionIndice, bloques * ENTRADA_INDICE);
+                for (int i = 0; i < bloques; i++) {
+                    segmento.primeros[i] = indice.getLong();
+                    segmento.ultimos[i] = indice.getLong();
+                    segmento.posiciones[i] = indice.getLong();
+                    segmento.largos[i] = indice.getInt();
+                    segmento.largosOriginales[i] = indice.getInt();
+                    segmento.crcs[i] = indice.getLong();
+                }
+                return segmento;
+            } catch (IOException | RuntimeException e) {
+                canal.close();
+                throw e;
+            }
+        }
+
+        Optional<ClientResponseDTO> buscar(long id) {
+            if (primeros.length == 0 || id < primeros[0] || id > ultimos[ultimos.length - 1]) {
+                return Optional.empty();
+            }
+            int bloque = Arrays.binarySearch(primeros, id);
+            bloque = bloque >= 0 ? bloque : -bloque - 2;
+            if (id > ultimos[bloque]) {
+                return Optional.empty();
+            }
+            ByteBuffer registros = descomprimir(bloque);
+            while (registros.hasRemaining()) {
+                int posicion = registros.position();
+                int largo = registros.getInt(posicion);
+                if (registros.getLong(posicion + ClientRecordCodec.POSICION_ID) == id) {
+                    return Optional.of(ClientRecordCodec.decodificar(registros, posicion));
+                }
+                registros.position(posicion + largo);
+            }
+            return Optional.empty();
+        }
+
+        void cerrar() {
+            try {
+                canal.close();
+            } catch (IOException e) {
+                log.warn("No se pudo cerrar el segmento {}", numero, e);
+            }
+        }
+
+        private ByteBuffer descomprimir(int bloque) {
+            Inflater inflater = new Inflater();
+            try {
+                ByteBuffer comprimido = leer(canal, posiciones[bloque], largos[bloque]);
+                CRC32 crc = new CRC32();
+                crc.update(comprimido.duplicate());
+                if (crc.getValue() != crcs[bloque]) {
+                    throw new IOException("CRC inválido en el bloque " + bloque + " del segmento " + numero);
+                }
+                inflater.setInput(comprimido);
+                ByteBuffer registros = ByteBuffer.allocate(largosOriginales[bloque]);
+                while (registros.hasRemaining() && !inflater.finished()) {
+                    inflater.inflate(registros);
+                }
+                return registros.flip();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Bloque corrupto en el segmento " + numero, e);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        private static ByteBuffer leer(FileChannel canal, long posicion, int largo) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(largo);
+            while (buffer.hasRemaining()) {
+                if (canal.read(buffer, posicion + buffer.position()) < 0) {
+                    throw new IOException("Fin de archivo inesperado");
+                }
+            }
+            return buffer.flip();
+        }
+    }
+}
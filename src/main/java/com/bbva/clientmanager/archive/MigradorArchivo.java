@@ -0,0 +1,146 @@
+package com.bbva.clientmanager.archive;
+
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.event.ClientModificadoEvent;
+import com.bbva.clientmanager.repository.IClientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mueve en segundo plano los clientes fríos de la tabla clients al {ArchivoClientes}.
+ *
+ * Cada clientmanager.archive.interval-ms recorre clients por clave primaria en lotes de
+ * batch-size, buscando los que no se modifican desde hace más de cold-after-days días. Cada lote
+ * corre en su propia transacción: se leen los clientes con sus productos, se escribe el segmento
+ * y recién entonces se borran de la tabla, volviendo a verificar la fecha bajo lock. Los que se
+ * modificaron en el medio, o todo el lote si la transacción falla, quedan en clients y su
+ * copia archivada se retira. Entre lotes se espera pause-ms para no competir con el tráfico.
+ *
+ * Métrica: clientmanager.archive.migrated (clientes movidos al archivo).
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "clientmanager.archive.enabled", havingValue = "true")
+public class MigradorArchivo {
+    private final IClientRepository clientRepository;
+    private final ArchivoClientes archivo;
+    private final TransactionTemplate transaccion;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long diasSinModificar;
+    private final int tamanioLote;
+    private final long pausaMs;
+    private final long intervaloMs;
+    private final Counter migrados;
+    private final ScheduledExecutorService planificador;
+
+    public MigradorArchivo(IClientRepository clientRepository, ArchivoClientes archivo,
+                           PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${clientmanager.archive.cold-after-days:365}") long diasSinModificar,
+                           @Value("${clientmanager.archive.batch-size:1000}") int tamanioLote,
+                           @Value("${clientmanager.archive.pause-ms:200}") long pausaMs,
+                           @Value("${clientmanager.archive.interval-ms:3600000}") long intervaloMs) {
+        if (diasSinModificar < 0 || tamanioLote < 1 || pausaMs < 0 || intervaloMs < 1) {
+            throw new IllegalArgumentException("Configuración inválida de clientmanager.archive");
+        }
+        this.clientRepository = clientRepository;
+        this.archivo = archivo;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.diasSinModificar = diasSinModificar;
+        this.tamanioLote = tamanioLote;
+        this.pausaMs = pausaMs;
+        this.intervaloMs = intervaloMs;
+        this.migrados = Counter.builder("clientmanager.archive.migrated").register(meterRegistry);
+        this.planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "migracion-archivo");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        planificador.scheduleWithFixedDelay(() -> {
+            try {
+                migrar();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Falló la migración de clientes al archivo", e);
+            }
+        }, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        planificador.shutdownNow();
+    }
+
+    /**
+     * Recorre toda la tabla una vez y archiva los clientes fríos.
+     *
+     * @return cantidad de clientes movidos al archivo
+     */
+    public long migrar() throws InterruptedException {
+        LocalDateTime limite = LocalDateTime.now().minusDays(diasSinModificar);
+        long total = 0;
+        long desdeId = 0;
+        List<Long> ids;
+        do {
+            ids = clientRepository.buscarFrios(limite, desdeId, tamanioLote);
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Long> lote = ids;
+            Set<Long> quitados;
+            try {
+                quitados = new HashSet<>(transaccion.execute(status -> migrarLote(lote, limite)));
+            } catch (RuntimeException e) {
+                lote.forEach(archivo::retirar);
+                throw e;
+            }
+            lote.stream().filter(id -> !quitados.contains(id)).forEach(archivo::retirar);
+            migrados.increment(quitados.size());
+            total += quitados.size();
+            desdeId = ids.get(ids.size() - 1);
+            if (ids.size() == tamanioLote && pausaMs > 0) {
+                Thread.sleep(pausaMs);
+            }
+        } while (ids.size() == tamanioLote);
+        if (total > 0) {
+            log.atInfo().addKeyValue("cantidad", total).log("Clientes movidos al archivo");
+        }
+        return total;
+    }
+
+    private List<Long> migrarLote(List<Long> ids, LocalDateTime limite) {
+        List<Client> clients = clientRepository.findAllWithProductosByIdIn(ids);
+        archivo.archivar(clients);
+        List<Long> quitados = clientRepository.quitarArchivados(ids, limite);
+        if (!quitados.isEmpty()) {
+            eventPublisher.publishEvent(new ClientModificadoEvent(quitados, ClientModificadoEvent.TipoModificacion.BAJA, null));
+        }
+        return quitados;
+    }
+}
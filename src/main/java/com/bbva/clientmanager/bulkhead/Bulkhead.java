@@ -0,0 +1,85 @@
+package com.bbva.clientmanager.bulkhead;
+
+import com.bbva.clientmanager.exception.CapacidadExcedidaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compartimento estanco: limita cuántas operaciones de un tipo se ejecutan a la vez,
+ * cuántas pueden esperar turno y cuánto esperan. Lo que excede cualquiera de los límites
+ * se rechaza con {CapacidadExcedidaException} (503) en lugar de ocupar más hilos.
+ *
+ * @author Veronica
+ */
+public class Bulkhead {
+    private static final String MESSAGE_CAPACIDAD = "Capacidad de %s agotada, reintente más tarde.";
+
+    private final String nombre;
+    private final Semaphore permisos;
+    private final int maxEnEspera;
+    private final long timeoutMs;
+    private final AtomicInteger enEspera = new AtomicInteger();
+    private final Counter rechazos;
+
+    public Bulkhead(String nombre, int maxConcurrentes, int maxEnEspera, long timeoutMs, MeterRegistry meterRegistry) {
+        this.nombre = nombre;
+        this.permisos = new Semaphore(maxConcurrentes, true);
+        this.maxEnEspera = maxEnEspera;
+        this.timeoutMs = timeoutMs;
+        this.rechazos = Counter.builder("clientmanager.bulkhead.rejected").tag("bulkhead", nombre).register(meterRegistry);
+        Gauge.builder("clientmanager.bulkhead.in-flight", permisos, s -> maxConcurrentes - s.availablePermits())
+                .tag("bulkhead", nombre).register(meterRegistry);
+        Gauge.builder("clientmanager.bulkhead.queued", enEspera, AtomicInteger::get)
+                .tag("bulkhead", nombre).register(meterRegistry);
+    }
+
+    /**
+     * Operación protegida por el bulkhead.
+     */
+    @FunctionalInterface
+    public interface Operacion {
+        Object ejecutar() throws Throwable;
+    }
+
+    public Object ejecutar(Operacion operacion) throws Throwable {
+        if (!permisos.tryAcquire()) {
+            esperarTurno();
+        }
+        try {
+            return operacion.ejecutar();
+        } finally {
+            permisos.release();
+        }
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    private void esperarTurno() {
+        if (enEspera.incrementAndGet() > maxEnEspera) {
+            enEspera.decrementAndGet();
+            rechazar();
+        }
+        try {
+            if (!permisos.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                rechazar();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rechazar();
+        } finally {
+            enEspera.decrementAndGet();
+        }
+    }
+
+    private void rechazar() {
+        rechazos.increment();
+        throw new CapacidadExcedidaException(String.format(MESSAGE_CAPACIDAD, nombre));
+    }
+}
@@ -0,0 +1,51 @@
+package com.bbva.clientmanager.bulkhead;
+
+import com.bbva.clientmanager.service.ClientService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deriva cada operación de {IClientService} al {Bulkhead} que le corresponde según el
+ * {Transactional} de {ClientService}: las read-only al de lectura y el resto al de escritura.
+ *
+ * Corre después de {LecturaCompartidaAspect}: los requests que se unen a una carga en curso
+ * esperan su resultado sin tomar un permiso, y solo la carga que va a la base ocupa uno. Corre
+ * antes que la transacción, para que nadie tome una conexión sin tener permiso.
+ *
+ * @author Veronica
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class BulkheadAspect {
+    private final Bulkhead lectura;
+    private final Bulkhead escritura;
+    private final Map<Method, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public BulkheadAspect(Bulkhead lectura, Bulkhead escritura) {
+        this.lectura = lectura;
+        this.escritura = escritura;
+    }
+
+    @Around("execution(* com.bbva.clientmanager.service.IClientService.*(..)) "
+            + "&& target(com.bbva.clientmanager.service.ClientService)")
+    public Object limitar(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(method, m -> {
+            Transactional tx = AnnotatedElementUtils.findMergedAnnotation(
+                    AopUtils.getMostSpecificMethod(m, ClientService.class), Transactional.class);
+            return tx != null && tx.readOnly() ? lectura : escritura;
+        });
+        return bulkhead.ejecutar(joinPoint::proceed);
+    }
+}
@@ -0,0 +1,145 @@
+package com.bbva.clientmanager.cache;
+
+import com.bbva.clientmanager.event.ClientModificadoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache de respuestas JSON ya serializadas de GET /clients/{id}, en texto plano y comprimidas.
+ * El límite se expresa en bytes totales y no en cantidad de entradas: es una cache Caffeine
+ * acotada por peso, cuyo weigher cuenta los bytes de cada entrada. Las lecturas no toman ningún
+ * lock y el desalojo (W-TinyLFU) favorece a los clientes más pedidos.
+ *
+ * Cada id tiene una generación (repartida en un arreglo de contadores) que se incrementa al
+ * invalidar. Quien serializa una respuesta toma la generación antes de leer la base y solo
+ * puede guardarla si sigue vigente, así un lector lento no vuelve a cachear datos viejos
+ * después de una modificación. La verificación y el guardado, igual que el incremento y el
+ * borrado al invalidar, se hacen dentro de un compute sobre el id, atómico solo para ese id.
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Component
+public class ClientResponseCache {
+    private static final int FRANJAS = 1024;
+    private static final int OVERHEAD_ENTRADA = 64;
+
+    private final boolean habilitada;
+    private final long maxBytes;
+    private final AtomicLongArray generaciones = new AtomicLongArray(FRANJAS);
+    private final Cache<Long, Entrada> entradas;
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    public ClientResponseCache(@Value("${clientmanager.response-cache.enabled:true}") boolean habilitada,
+                               @Value("${clientmanager.response-cache.max-bytes:67108864}") long maxBytes) {
+        this.habilitada = habilitada;
+        this.maxBytes = maxBytes;
+        this.entradas = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, Entrada entrada) -> (int) Math.min(entrada.tamanio(), Integer.MAX_VALUE))
+                .build();
+    }
+
+    /**
+     * Respuesta serializada de un cliente.
+     *
+     * @param json cuerpo JSON sin comprimir
+     * @param gzip el mismo cuerpo comprimido con gzip
+     */
+    public record Entrada(byte[] json, byte[] gzip) {
+        long tamanio() {
+            return (long) json.length + gzip.length + OVERHEAD_ENTRADA;
+        }
+    }
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public Entrada get(Long id) {
+        Entrada entrada = entradas.getIfPresent(id);
+        (entrada != null ? aciertos : fallos).increment();
+        return entrada;
+    }
+
+    public long generacion(Long id) {
+        return generaciones.get(franja(id));
+    }
+
+    /**
+     * Guarda el JSON de un cliente si la generación leída antes de consultarlo sigue vigente.
+     *
+     * @return true si la respuesta quedó en cache
+     */
+    public boolean put(Long id, long generacionLeida, byte[] json) {
+        Entrada entrada = new Entrada(json, comprimir(json));
+        if (entrada.tamanio() > maxBytes) {
+            return false;
+        }
+        boolean[] guardada = new boolean[1];
+        entradas.asMap().compute(id, (clave, actual) -> {
+            guardada[0] = generaciones.get(franja(id)) == generacionLeida;
+            return guardada[0] ? entrada : actual;
+        });
+        return guardada[0];
+    }
+
+    public void invalidar(Long id) {
+        entradas.asMap().compute(id, (clave, actual) -> {
+            generaciones.incrementAndGet(franja(id));
+            return null;
+        });
+    }
+
+    /**
+     * Invalida los clientes modificados una vez confirmada la transacción que los modificó.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientModificado(ClientModificadoEvent event) {
+        event.ids().forEach(this::invalidar);
+    }
+
+    public long getBytesUsados() {
+        entradas.cleanUp();
+        return entradas.policy().eviction().orElseThrow().weightedSize().orElse(0);
+    }
+
+    public int getCantidad() {
+        entradas.cleanUp();
+        return (int) entradas.estimatedSize();
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    private static int franja(Long id) {
+        return (int) ((id ^ (id >>> 32)) & (FRANJAS - 1));
+    }
+
+    private static byte[] comprimir(byte[] json) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(json.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+}
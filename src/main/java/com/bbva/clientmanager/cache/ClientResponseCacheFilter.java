@@ -0,0 +1,86 @@
+package com.bbva.clientmanager.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Filtro que atiende GET /clients/{id} desde {ClientResponseCache}.
+ * En un acierto escribe los bytes guardados directamente en la respuesta, sin pasar por
+ * el controlador, el mapeo a DTO ni Jackson. En un fallo deja seguir el request y guarda
+ * el cuerpo JSON producido por el controlador.
+ *
+ * Corre después de la cadena de Spring Security, por lo que solo ve requests autenticados.
+ *
+ * @author Veronica
+ */
+@Component
+public class ClientResponseCacheFilter extends OncePerRequestFilter {
+    private static final Pattern GET_CLIENTE = Pattern.compile("^/clients/(\\d{1,18})$");
+    static final String HEADER_CACHE = "X-Cache";
+
+    private final ClientResponseCache cache;
+
+    public ClientResponseCacheFilter(ClientResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !cache.isHabilitada()
+                || !"GET".equals(request.getMethod())
+                || request.getQueryString() != null
+                || !GET_CLIENTE.matcher(request.getRequestURI().substring(request.getContextPath().length())).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Matcher matcher = GET_CLIENTE.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+        matcher.matches();
+        Long id = Long.valueOf(matcher.group(1));
+
+        ClientResponseCache.Entrada entrada = cache.get(id);
+        if (entrada != null) {
+            escribir(request, response, entrada);
+            return;
+        }
+
+        long generacion = cache.generacion(id);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        wrapper.setHeader(HEADER_CACHE, "MISS");
+        filterChain.doFilter(request, wrapper);
+        if (wrapper.getStatus() == HttpStatus.OK.value()) {
+            cache.put(id, generacion, wrapper.getContentAsByteArray());
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void escribir(HttpServletRequest request, HttpServletResponse response, ClientResponseCache.Entrada entrada)
+            throws IOException {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        byte[] cuerpo = gzip ? entrada.gzip() : entrada.json();
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HEADER_CACHE, "HIT");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(cuerpo.length);
+        response.getOutputStream().write(cuerpo);
+    }
+}
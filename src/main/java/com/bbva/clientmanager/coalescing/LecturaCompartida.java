@@ -0,0 +1,17 @@
+package com.bbva.clientmanager.coalescing;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca una lectura cuyas invocaciones concurrentes con los mismos argumentos pueden
+ * compartir una única carga. Solo tiene efecto con clientmanager.coalescing.enabled.
+ *
+ * @author Veronica
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LecturaCompartida {
+}
@@ -0,0 +1,103 @@
+package com.bbva.clientmanager.coalescing;
+
+import com.bbva.clientmanager.event.ClientModificadoEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.bbva.clientmanager.replica.ReadYourWrites;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalescencia de lecturas {LecturaCompartida}: requests concurrentes idénticos (mismo
+ * método y argumentos) comparten una sola carga de la base y su resultado o su error.
+ *
+ * Es el aspecto más externo, antes del bulkhead y de abrir la transacción, para que quienes
+ * esperan no tomen permisos de {Bulkhead} ni conexiones. La clave incluye una generación que avanza con cada
+ * {ClientModificadoEvent} confirmado: una lectura que llega después de una escritura no se
+ * une a una carga que empezó antes y podría no verla. Con réplicas, quien debe leer del
+ * primario ({ReadYourWrites}) tampoco se une a una carga que va a una réplica. Las lecturas
+ * hechas dentro de una transacción ya abierta no se coalescen.
+ *
+ * Métricas: clientmanager.coalescing.loads (cargas ejecutadas), clientmanager.coalescing.saved
+ * (cargas evitadas) por operación y clientmanager.coalescing.in-flight.
+ *
+ * @author Veronica
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "clientmanager.coalescing.enabled", havingValue = "true", matchIfMissing = true)
+public class LecturaCompartidaAspect {
+    private final SingleFlight<Clave, Object> singleFlight = new SingleFlight<>();
+    private final AtomicLong generacion = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<ReadYourWrites> readYourWrites;
+    private final Map<String, Counter> cargas = new ConcurrentHashMap<>();
+    private final Map<String, Counter> ahorradas = new ConcurrentHashMap<>();
+
+    public LecturaCompartidaAspect(MeterRegistry meterRegistry, ObjectProvider<ReadYourWrites> readYourWrites) {
+        this.meterRegistry = meterRegistry;
+        this.readYourWrites = readYourWrites;
+        Gauge.builder("clientmanager.coalescing.in-flight", singleFlight, SingleFlight::getEnVuelo)
+                .register(meterRegistry);
+    }
+
+    private record Clave(String operacion, List<Object> argumentos, long generacion, boolean primario) {
+    }
+
+    @Around("@annotation(com.bbva.clientmanager.coalescing.LecturaCompartida)")
+    public Object compartir(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Quien ya está en una transacción puede leer sus propias escrituras sin confirmar:
+            // su resultado no se comparte ni se une a cargas que no las ven.
+            return joinPoint.proceed();
+        }
+        String operacion = joinPoint.getSignature().toShortString();
+        Clave clave = new Clave(operacion, Arrays.asList(joinPoint.getArgs()), generacion.get(),
+                readYourWrites.stream().anyMatch(ReadYourWrites::debeLeerDelPrimario));
+        SingleFlight.Resultado<Object> resultado;
+        try {
+            resultado = singleFlight.ejecutar(clave, () -> {
+                try {
+                    return joinPoint.proceed();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new CargaFallidaException(e);
+                }
+            });
+        } catch (CargaFallidaException e) {
+            throw e.getCause();
+        }
+        (resultado.compartido() ? ahorradas : cargas).computeIfAbsent(operacion, op -> Counter.builder(
+                resultado.compartido() ? "clientmanager.coalescing.saved" : "clientmanager.coalescing.loads")
+                .tag("operacion", op).register(meterRegistry)).increment();
+        return resultado.valor();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientModificado(ClientModificadoEvent event) {
+        generacion.incrementAndGet();
+    }
+
+    private static final class CargaFallidaException extends RuntimeException {
+        CargaFallidaException(Throwable causa) {
+            super(causa);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.bbva.clientmanager.coalescing;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa cargas idénticas concurrentes: el primer llamador de una clave ejecuta la carga
+ * y los que llegan mientras está en curso esperan su resultado en lugar de repetirla.
+ *
+ * No hay locks: cada clave en vuelo es un CompletableFuture en un ConcurrentHashMap y
+ * el que logra registrarlo con putIfAbsent es quien carga. Si la carga falla, todos los
+ * que esperaban reciben la misma excepción. Terminada la carga la clave se libera, así
+ * que nunca se sirve un resultado guardado: esto no es una cache.
+ *
+ * @author Veronica
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> enVuelo = new ConcurrentHashMap<>();
+
+    /**
+     * Resultado de una carga, indicando si se compartió con otra en curso.
+     */
+    public record Resultado<V>(V valor, boolean compartido) {
+    }
+
+    public Resultado<V> ejecutar(K clave, Supplier<V> carga) {
+        CompletableFuture<V> propio = new CompletableFuture<>();
+        CompletableFuture<V> existente = enVuelo.putIfAbsent(clave, propio);
+        if (existente != null) {
+            return new Resultado<>(esperar(existente), true);
+        }
+        try {
+            V valor = carga.get();
+            enVuelo.remove(clave, propio);
+            propio.complete(valor);
+            return new Resultado<>(valor, false);
+        } catch (RuntimeException | Error e) {
+            enVuelo.remove(clave, propio);
+            propio.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int getEnVuelo() {
+        return enVuelo.size();
+    }
+
+    private static <V> V esperar(CompletableFuture<V> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
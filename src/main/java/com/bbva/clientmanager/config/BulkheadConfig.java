@@ -0,0 +1,112 @@
+package com.bbva.clientmanager.config;
+
+import com.bbva.clientmanager.bulkhead.Bulkhead;
+import com.bbva.clientmanager.bulkhead.BulkheadAspect;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Separa el tráfico de lectura del de escritura en dos compartimentos estancos.
+ *
+ * Conexiones: dos pools Hikari sobre la misma base, "lectura" y "escritura". Las
+ * transacciones read-only toman conexiones del pool de lectura mediante
+ * {LazyConnectionDataSourceProxy}, que demora la obtención de la conexión hasta saber si
+ * la transacción es de solo lectura.
+ *
+ * Ejecución: las operaciones de {IClientService} pasan por un {Bulkhead} según el
+ * {Transactional} de su implementación ({BulkheadAspect}); las read-only por el de lectura y
+ * el resto por el de escritura, cada uno con su límite de concurrencia, de espera y su
+ * timeout. Así una ráfaga de escrituras no puede ocupar todos los hilos ni todas las
+ * conexiones. Las lecturas coalescidas toman un solo permiso por carga compartida. El máximo
+ * de concurrencia de cada bulkhead no puede superar el tamaño de su pool.
+ *
+ * @author Veronica
+ */
+@Configuration
+@ConditionalOnProperty(name = "clientmanager.bulkhead.enabled", havingValue = "true")
+public class BulkheadConfig {
+
+    @Bean
+    public HikariDataSource dataSourceEscritura(DataSourceProperties properties,
+                                                @Value("${clientmanager.bulkhead.escritura.pool-size:4}") int tamanio,
+                                                @Value("${clientmanager.bulkhead.escritura.timeout-ms:2000}") long timeoutMs) {
+        return pool(properties, "escritura", tamanio, timeoutMs);
+    }
+
+    @Bean
+    public HikariDataSource dataSourceLectura(DataSourceProperties properties,
+                                              @Value("${clientmanager.bulkhead.lectura.pool-size:6}") int tamanio,
+                                              @Value("${clientmanager.bulkhead.lectura.timeout-ms:1000}") long timeoutMs) {
+        HikariDataSource dataSource = pool(properties, "lectura", tamanio, timeoutMs);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourceEscritura") DataSource escritura,
+                                 @Qualifier("dataSourceLectura") DataSource lectura) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(escritura);
+        dataSource.setReadOnlyDataSource(lectura);
+        return dataSource;
+    }
+
+    @Bean
+    public Bulkhead bulkheadLectura(MeterRegistry meterRegistry,
+                                    @Value("${clientmanager.bulkhead.lectura.max-concurrent:6}") int maxConcurrentes,
+                                    @Value("${clientmanager.bulkhead.lectura.max-queue:32}") int maxEnEspera,
+                                    @Value("${clientmanager.bulkhead.lectura.timeout-ms:1000}") long timeoutMs,
+                                    @Value("${clientmanager.bulkhead.lectura.pool-size:6}") int tamanioPool) {
+        validarConcurrencia("lectura", maxConcurrentes, tamanioPool);
+        return new Bulkhead("lectura", maxConcurrentes, maxEnEspera, timeoutMs, meterRegistry);
+    }
+
+    @Bean
+    public Bulkhead bulkheadEscritura(MeterRegistry meterRegistry,
+                                      @Value("${clientmanager.bulkhead.escritura.max-concurrent:4}") int maxConcurrentes,
+                                      @Value("${clientmanager.bulkhead.escritura.max-queue:16}") int maxEnEspera,
+                                      @Value("${clientmanager.bulkhead.escritura.timeout-ms:2000}") long timeoutMs,
+                                      @Value("${clientmanager.bulkhead.escritura.pool-size:4}") int tamanioPool) {
+        validarConcurrencia("escritura", maxConcurrentes, tamanioPool);
+        return new Bulkhead("escritura", maxConcurrentes, maxEnEspera, timeoutMs, meterRegistry);
+    }
+
+    /**
+     * Aspecto que deriva cada operación de {IClientService} al bulkhead que le corresponde.
+     */
+    @Bean
+    public BulkheadAspect bulkheadAspect(@Qualifier("bulkheadLectura") Bulkhead lectura,
+                                         @Qualifier("bulkheadEscritura") Bulkhead escritura) {
+        return new BulkheadAspect(lectura, escritura);
+    }
+
+    /**
+     * Cada operación con permiso usa a lo sumo una conexión de su pool. Con más permisos que
+     * conexiones, los sobrantes esperarían una conexión hasta el timeout de Hikari y fallarían
+     * con 500 en lugar de rechazarse con 503 en el bulkhead.
+     */
+    static void validarConcurrencia(String nombre, int maxConcurrentes, int tamanioPool) {
+        if (maxConcurrentes > tamanioPool) {
+            throw new IllegalStateException("clientmanager.bulkhead." + nombre + ".max-concurrent (" + maxConcurrentes
+                    + ") no puede superar clientmanager.bulkhead." + nombre + ".pool-size (" + tamanioPool + ")");
+        }
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String nombre, int tamanio, long timeoutMs) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(nombre);
+        dataSource.setMaximumPoolSize(tamanio);
+        dataSource.setConnectionTimeout(Math.max(250, timeoutMs));
+        return dataSource;
+    }
+}
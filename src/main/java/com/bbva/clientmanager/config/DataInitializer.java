@@ -1,30 +1,36 @@
 package com.bbva.clientmanager.config;
 
-import com.bbva.clientmanager.entity.ProductoBancario;
 import com.bbva.clientmanager.entity.TipoProductoBancario;
-import com.bbva.clientmanager.repository.IProductoBancarioRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
 /**
  * Se inicializa la tabla de productos_bancarios en memoria
  * a fines del challenge
  * Con el contenido de la clase TipoProductoBancario
  *
+ * Todos los tipos se cargan con un único MERGE, que solo inserta los que todavía no
+ * existen, en lugar de consultar e insertar cada uno por separado durante el arranque.
+ * Corre antes que los demás runners, que pueden necesitar los productos (WarmUpRunner).
+ *
  * @author Veronica
  */
 @Configuration
 public class DataInitializer {
     @Bean
-    CommandLineRunner initDatabase(IProductoBancarioRepository productoBancarioRepository) {
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    CommandLineRunner initDatabase(JdbcTemplate jdbcTemplate) {
         return args -> {
-            for (TipoProductoBancario tipo : TipoProductoBancario.values()) {
-                if (!productoBancarioRepository.existsByTipoProductoBancario(tipo)) {
-                    ProductoBancario producto = new ProductoBancario();
-                    producto.setTipoProductoBancario(tipo);
-                    productoBancarioRepository.save(producto);
-                }
-            }
+            TipoProductoBancario[] tipos = TipoProductoBancario.values();
+            String valores = Arrays.stream(tipos).map(tipo -> "(?)").collect(Collectors.joining(", "));
+            jdbcTemplate.update("MERGE INTO productos_bancarios (tipo_producto_bancario) KEY (tipo_producto_bancario) VALUES "
+                    + valores, (Object[]) Arrays.stream(tipos).map(Enum::name).toArray(String[]::new));
         };
     }
 }
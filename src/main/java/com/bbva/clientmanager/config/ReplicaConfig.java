@@ -0,0 +1,37 @@
+package com.bbva.clientmanager.config;
+
+import com.bbva.clientmanager.replica.ReadYourWrites;
+import com.bbva.clientmanager.replica.ReplicaRoutingDataSource;
+import com.bbva.clientmanager.replica.ReplicaSet;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Envuelve el DataSource principal (con o sin bulkheads) en un {ReplicaRoutingDataSource},
+ * de modo que las lecturas marcadas con {LecturaEnReplica} puedan resolverse en réplicas.
+ *
+ * @author Veronica
+ */
+@Configuration
+@ConditionalOnProperty(name = "clientmanager.replica.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    public static BeanPostProcessor replicaRoutingPostProcessor(ObjectProvider<ReplicaSet> replicaSet,
+                                                                ObjectProvider<ReadYourWrites> readYourWrites) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new ReplicaRoutingDataSource(dataSource, replicaSet, readYourWrites);
+                }
+                return bean;
+            }
+        };
+    }
+}
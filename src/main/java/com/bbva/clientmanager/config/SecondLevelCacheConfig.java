@@ -0,0 +1,144 @@
+package com.bbva.clientmanager.config;
+
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.entity.ProductoBancario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Cache de segundo nivel de Hibernate, local y acotada (Caffeine vía JCache).
+ *
+ * Regiones: ProductoBancario (solo lectura, es dato de referencia), Client y su colección
+ * productoBancarioList (read-write: Hibernate bloquea la entrada mientras la transacción
+ * que la modifica no confirma), y la cache de consultas de
+ * findByProductoBancarioList_TipoProductoBancario, que se invalida cuando se escribe en
+ * clients o clients_productos_bancarios. Cada región tiene un máximo de entradas; la de
+ * timestamps de la cache de consultas no se acota porque tiene una entrada por tabla.
+ *
+ * No se habilita con réplicas de lectura: una lectura desde una réplica atrasada
+ * guardaría en la cache compartida datos viejos que después verían todos. Cuando no se
+ * habilita, se apaga explícitamente la cache de segundo nivel y la de consultas.
+ *
+ * La cache sirve a las lecturas que pasan por la entidad Client, que es el camino por defecto
+ * de ClientService. Con client_view o el read model habilitados, GET /clients/{id} y la
+ * búsqueda por producto no leen la entidad y no usan estas regiones.
+ *
+ * Métricas: las de Hibernate (hibernate.second.level.cache.requests, hibernate.cache.query.*)
+ * y por región clientmanager.l2cache.entries, clientmanager.l2cache.max-entries y
+ * clientmanager.l2cache.hit-ratio. Las estadísticas se generan solo para esas métricas: el
+ * resumen por sesión que Hibernate loguearía en cada request queda apagado.
+ *
+ * @author Veronica
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    private static final String HABILITADA =
+            "${clientmanager.second-level-cache.enabled:true} and !${clientmanager.replica.enabled:false}";
+
+    public static final String REGION_CLIENT = Client.class.getName();
+    public static final String REGION_PRODUCTOS_CLIENT = Client.class.getName() + ".productoBancarioList";
+    public static final String REGION_PRODUCTOS = ProductoBancario.class.getName();
+    public static final String REGION_CONSULTAS = "default-query-results-region";
+    public static final String REGION_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression(HABILITADA)
+    public CacheManager cacheManagerSegundoNivel(
+            @Value("${clientmanager.second-level-cache.client.max-entries:10000}") long maxClients,
+            @Value("${clientmanager.second-level-cache.client-productos.max-entries:10000}") long maxProductosClient,
+            @Value("${clientmanager.second-level-cache.productos.max-entries:100}") long maxProductos,
+            @Value("${clientmanager.second-level-cache.query.max-entries:500}") long maxConsultas) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("clientmanager-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        crear(cacheManager, REGION_CLIENT, OptionalLong.of(maxClients));
+        crear(cacheManager, REGION_PRODUCTOS_CLIENT, OptionalLong.of(maxProductosClient));
+        crear(cacheManager, REGION_PRODUCTOS, OptionalLong.of(maxProductos));
+        crear(cacheManager, REGION_CONSULTAS, OptionalLong.of(maxConsultas));
+        crear(cacheManager, REGION_TIMESTAMPS, OptionalLong.empty());
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnExpression(HABILITADA)
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager cacheManagerSegundoNivel) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+            properties.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    @ConditionalOnExpression("!(" + HABILITADA + ")")
+    public HibernatePropertiesCustomizer sinCacheSegundoNivel() {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
+
+    @Bean
+    @ConditionalOnExpression(HABILITADA)
+    public MeterBinder metricasCacheSegundoNivel(EntityManagerFactory entityManagerFactory, CacheManager cacheManagerSegundoNivel) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            Map<String, String> regiones = new LinkedHashMap<>();
+            regiones.put("client", REGION_CLIENT);
+            regiones.put("client-productos", REGION_PRODUCTOS_CLIENT);
+            regiones.put("productos", REGION_PRODUCTOS);
+            regiones.put("consultas", REGION_CONSULTAS);
+            regiones.forEach((nombre, region) -> {
+                Cache<?, ?> cache = cacheManagerSegundoNivel.getCache(region)
+                        .unwrap(Cache.class);
+                Gauge.builder("clientmanager.l2cache.entries", cache, Cache::estimatedSize)
+                        .tag("region", nombre).register(registry);
+                Gauge.builder("clientmanager.l2cache.max-entries", cache,
+                                c -> c.policy().eviction().map(e -> (double) e.getMaximum()).orElse(Double.NaN))
+                        .tag("region", nombre).register(registry);
+                Gauge.builder("clientmanager.l2cache.hit-ratio", statistics, s -> tasaDeAciertos(s, region))
+                        .tag("region", nombre).register(registry);
+            });
+        };
+    }
+
+    static double tasaDeAciertos(Statistics statistics, String region) {
+        CacheRegionStatistics estadisticas = statistics.getCacheRegionStatistics(region);
+        if (estadisticas == null) {
+            return Double.NaN;
+        }
+        long consultas = estadisticas.getHitCount() + estadisticas.getMissCount();
+        return consultas == 0 ? Double.NaN : (double) estadisticas.getHitCount() / consultas;
+    }
+
+    private static void crear(CacheManager cacheManager, String region, OptionalLong maxEntradas) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setMaximumSize(maxEntradas);
+        configuracion.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuracion);
+    }
+}
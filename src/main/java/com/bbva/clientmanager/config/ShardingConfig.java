@@ -0,0 +1,69 @@
+package com.bbva.clientmanager.config;
+
+import com.bbva.clientmanager.repository.IClientRepository;
+import com.bbva.clientmanager.shard.ShardedClientRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reparte la tabla clients entre varias bases (shards).
+ *
+ * Con clientmanager.sharding.enabled los servicios reciben un {IClientRepository} que
+ * deriva cada operación al método del mismo nombre y parámetros de
+ * {ShardedClientRepository}. Las operaciones que el almacenamiento particionado no
+ * implementa (actualizaciones masivas, proyecciones, búsqueda y conteo combinados, baja
+ * lógica, archivo de clientes fríos) fallan con UnsupportedOperationException en lugar de leer la tabla vacía de la
+ * base principal.
+ *
+ * @author Veronica
+ */
+@Configuration
+@ConditionalOnProperty(name = "clientmanager.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public IClientRepository clientRepositoryParticionado(ShardedClientRepository shardedClientRepository) {
+        Map<Method, Optional<Method>> destinos = new ConcurrentHashMap<>();
+        return (IClientRepository) Proxy.newProxyInstance(IClientRepository.class.getClassLoader(),
+                new Class<?>[]{IClientRepository.class}, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.invoke(shardedClientRepository, args);
+                    }
+                    Method destino = destinos.computeIfAbsent(method, ShardingConfig::equivalente)
+                            .orElseThrow(() -> new UnsupportedOperationException(
+                                    "IClientRepository." + method.getName() + " no está disponible con sharding"));
+                    try {
+                        return destino.invoke(shardedClientRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private static Optional<Method> equivalente(Method method) {
+        return Arrays.stream(ShardedClientRepository.class.getMethods())
+                .filter(candidato -> candidato.getDeclaringClass() == ShardedClientRepository.class)
+                .filter(candidato -> candidato.getName().equals(method.getName())
+                        && candidato.getParameterCount() == method.getParameterCount())
+                .filter(candidato -> {
+                    for (int i = 0; i < method.getParameterCount(); i++) {
+                        if (!method.getParameterTypes()[i].isAssignableFrom(candidato.getParameterTypes()[i])) {
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .findFirst();
+    }
+}
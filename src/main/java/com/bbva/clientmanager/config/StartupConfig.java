@@ -0,0 +1,73 @@
+package com.bbva.clientmanager.config;
+
+import com.bbva.clientmanager.logging.AnilloAsyncAppender;
+import com.bbva.clientmanager.logging.MuestreoFilter;
+import com.bbva.clientmanager.security.JwtKeys;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Ajustes de arranque para el perfil startup (application-startup.yml) y la imagen nativa.
+ *
+ * Con lazy-initialization los beans se crean en el primer uso, salvo los que validan
+ * configuración o recursos externos (claves JWT, EntityManagerFactory y esquema): un error en
+ * ellos tiene que impedir el arranque en vez de aparecer en el primer request.
+ *
+ * @author Veronica
+ */
+@Configuration
+@ImportRuntimeHints({StartupConfig.JwtRuntimeHints.class, StartupConfig.LoggingRuntimeHints.class})
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter recursosAlArrancar() {
+        return LazyInitializationExcludeFilter.forBeanTypes(JwtKeys.class, EntityManagerFactory.class);
+    }
+
+    /**
+     * jjwt-api instancia su implementación por reflexión (Classes.newInstance), algo que la
+     * imagen nativa no detecta sola.
+     */
+    static class JwtRuntimeHints implements RuntimeHintsRegistrar {
+        private static final List<String> CLASES = List.of(
+                "io.jsonwebtoken.impl.DefaultClaims",
+                "io.jsonwebtoken.impl.DefaultHeader",
+                "io.jsonwebtoken.impl.DefaultJwsHeader",
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParser",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+                "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+                "io.jsonwebtoken.impl.crypto.EllipticCurveProvider",
+                "io.jsonwebtoken.impl.crypto.MacProvider",
+                "io.jsonwebtoken.impl.crypto.RsaProvider");
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String clase : CLASES) {
+                hints.reflection().registerType(TypeReference.of(clase),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+        }
+    }
+
+    /**
+     * logback-spring.xml instancia el appender asincrónico y el filtro de muestreo por nombre de clase.
+     */
+    static class LoggingRuntimeHints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection().registerTypes(TypeReference.listOf(AnilloAsyncAppender.class, MuestreoFilter.class),
+                    tipo -> tipo.withMembers(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+        }
+    }
+}
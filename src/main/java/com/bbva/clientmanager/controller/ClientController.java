@@ -1,12 +1,19 @@
 package com.bbva.clientmanager.controller;
 
+import com.bbva.clientmanager.dto.ClientCountResponseDTO;
+import com.bbva.clientmanager.dto.ClientLookupRequestDTO;
+import com.bbva.clientmanager.dto.ClientLookupResponseDTO;
 import com.bbva.clientmanager.dto.ClientRequestDTO;
 import com.bbva.clientmanager.dto.ClientRequestUpdateDTO;
 import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.ClientSearchRequestDTO;
+import com.bbva.clientmanager.dto.ClientSearchResponseDTO;
 import com.bbva.clientmanager.dto.TelefonoUpdateDTO;
+import com.bbva.clientmanager.service.ClientGroupCommitService;
 import com.bbva.clientmanager.service.IClientService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
@@ -18,14 +25,20 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
+import java.util.Map;
 /**
  * Controlador REST para gestionar los clientes de la aplicación.
  * Provee endpoints para crear, buscar, actualizar y eliminar clientes,
  * así como para búsquedas por producto bancario, actualizaciones parciales y
  * actualizacion de telefono a pedido del challenge.
  *
+ * Los HEAD de los listados y de la búsqueda devuelven solo el total en X-Total-Count,
+ * calculado con un COUNT (o estimado, para la tabla completa grande) sin leer clientes.
+ *
  * URL base: /clients
  *
  * @author Veronica
@@ -34,22 +47,31 @@ import java.util.List;
 @RestController
 @RequestMapping("/clients")
 public class ClientController {
+    static final String TOTAL = "X-Total-Count";
+    static final String TOTAL_ESTIMADO = "X-Total-Count-Estimated";
+
     private final IClientService clientService;
+    private final ClientGroupCommitService groupCommitService;
 
-    public ClientController(IClientService clientService){
+    public ClientController(IClientService clientService, ClientGroupCommitService groupCommitService){
         this.clientService = clientService;
+        this.groupCommitService = groupCommitService;
     }
 
     /**
      * Endpoint para crear un nuevo cliente.
+     * Con clientmanager.group-commit.enabled el alta se confirma junto con otras concurrentes.
      *
      * @param clientRequestDTO objeto con los datos del cliente a crear
      * @return ResponseEntity con el cliente creado y código HTTP 201 Created
      */
     @PostMapping
     public ResponseEntity<ClientResponseDTO> create(@Valid @RequestBody ClientRequestDTO clientRequestDTO){
-        log.info("POST /clients - Creando cliente con documento: {}", clientRequestDTO.getDocumento());
-        return ResponseEntity.status(HttpStatus.CREATED).body(clientService.create(clientRequestDTO));
+        log.atInfo().addKeyValue("documento", clientRequestDTO.getDocumento()).log("POST /clients - Creando cliente");
+        ClientResponseDTO creado = groupCommitService.isHabilitado()
+                ? groupCommitService.create(clientRequestDTO)
+                : clientService.create(clientRequestDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(creado);
     }
 
     /**
@@ -63,6 +85,108 @@ public class ClientController {
         return ResponseEntity.status(HttpStatus.OK).body(clientService.findAll());
     }
 
+    /**
+     * Endpoint para conocer la cantidad total de clientes sin recuperarlos.
+     *
+     * @return ResponseEntity sin cuerpo, con el total en X-Total-Count
+     */
+    @RequestMapping(method = RequestMethod.HEAD)
+    public ResponseEntity<Void> headAll(){
+        return conTotal(clientService.count(new ClientSearchRequestDTO())).build();
+    }
+
+    /**
+     * Endpoint para contar clientes, opcionalmente filtrando con los mismos criterios de /search.
+     * Sin criterios, en tablas grandes el total es una estimación (estimado = true).
+     *
+     * @param clientSearchRequestDTO criterios opcionales
+     * @return ResponseEntity con el total y si es estimado
+     */
+    @GetMapping("/count")
+    public ResponseEntity<ClientCountResponseDTO> count(ClientSearchRequestDTO clientSearchRequestDTO){
+        log.info("GET /clients/count - Contando clientes");
+        return ResponseEntity.ok(clientService.count(clientSearchRequestDTO));
+    }
+
+    /**
+     * Endpoint para recuperar todos los clientes con solo algunos campos.
+     *
+     * @param fields campos a devolver separados por coma (ej. ?fields=nombre,apellido,celular)
+     * @return ResponseEntity con la lista de clientes reducida y código HTTP 200 OK
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAll(@RequestParam List<String> fields){
+        log.atInfo().addKeyValue("fields", fields).log("GET /clients - Recuperando todos los clientes");
+        return ResponseEntity.ok(clientService.findAll(fields));
+    }
+
+    /**
+     * Endpoint para recuperar varios clientes por ID en un único request.
+     *
+     * @param ids identificadores separados por coma (ej. ?ids=1,2,3)
+     * @return ResponseEntity con los clientes en el orden pedido y los ids no encontrados
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ClientLookupResponseDTO> getAllById(@RequestParam List<Long> ids){
+        log.atInfo().addKeyValue("cantidad", ids.size()).log("GET /clients?ids - Buscando clientes por id");
+        return ResponseEntity.ok(clientService.findAllById(ids));
+    }
+
+    /**
+     * Endpoint para recuperar varios clientes por ID, recibiendo la lista en el cuerpo.
+     * Pensado para listas largas que no entran cómodamente en la URL.
+     *
+     * @param clientLookupRequestDTO objeto con la lista de ids
+     * @return ResponseEntity con los clientes en el orden pedido y los ids no encontrados
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<ClientLookupResponseDTO> lookup(@RequestBody ClientLookupRequestDTO clientLookupRequestDTO){
+        log.info("POST /clients/lookup - Buscando clientes por lista de ids");
+        return ResponseEntity.ok(clientService.findAllById(clientLookupRequestDTO.getIds()));
+    }
+
+    /**
+     * Endpoint para buscar clientes combinando criterios opcionales, paginado por id.
+     * Ejemplo: /clients/search?codigoPostal=C1416&apellido=Seb&tipoDocumento=DNI
+     * &fechaDesde=2024-01-01T00:00:00&fechaHasta=2025-01-01T00:00:00&productoBancario=CJAH&tamanio=20
+     * La página siguiente se pide con &despuesDe={siguiente} de la respuesta.
+     *
+     * @param clientSearchRequestDTO criterios presentes, cursor despuesDe y tamaño de página
+     * @return ResponseEntity con los clientes de la página, si hay más y el cursor de la siguiente
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ClientSearchResponseDTO> search(ClientSearchRequestDTO clientSearchRequestDTO,
+                                                          @RequestParam(defaultValue = "false") boolean total){
+        log.info("GET /clients/search - Buscando clientes por criterios");
+        ClientSearchResponseDTO pagina = clientService.search(clientSearchRequestDTO);
+        ResponseEntity.BodyBuilder respuesta = total
+                ? conTotal(clientService.count(clientSearchRequestDTO))
+                : ResponseEntity.ok();
+        return respuesta.body(pagina);
+    }
+
+    /**
+     * Endpoint para conocer cuántos clientes devuelve una búsqueda, sin recuperarlos.
+     *
+     * @param clientSearchRequestDTO criterios de la búsqueda
+     * @return ResponseEntity sin cuerpo, con el total en X-Total-Count
+     */
+    @RequestMapping(value = "/search", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> headSearch(ClientSearchRequestDTO clientSearchRequestDTO){
+        return conTotal(clientService.count(clientSearchRequestDTO)).build();
+    }
+
+    /**
+     * Endpoint para verificar si existe un cliente sin leerlo.
+     *
+     * @param id identificador del cliente
+     * @return ResponseEntity sin cuerpo: 200 OK si existe, 404 Not Found si no
+     */
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> existsById(@PathVariable Long id){
+        return clientService.existsById(id) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
     /**
      * Endpoint para buscar un cliente por su ID.
      *
@@ -71,10 +195,23 @@ public class ClientController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<ClientResponseDTO> findById(@PathVariable Long id){
-        log.info("GET /clients/{} - Buscando cliente por id", id);
+        log.atInfo().addKeyValue("id", id).log("GET /clients/{id} - Buscando cliente por id");
         return ResponseEntity.status(HttpStatus.OK).body(clientService.findById(id));
     }
 
+    /**
+     * Endpoint para buscar un cliente por su ID con solo algunos campos.
+     *
+     * @param id identificador del cliente
+     * @param fields campos a devolver separados por coma
+     * @return ResponseEntity con el cliente reducido y código HTTP 200 OK
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> findById(@PathVariable Long id, @RequestParam List<String> fields){
+        log.atInfo().addKeyValue("id", id).addKeyValue("fields", fields).log("GET /clients/{id} - Buscando cliente por id");
+        return ResponseEntity.ok(clientService.findById(id, fields));
+    }
+
     /**
      * Endpoint para buscar clientes por tipo de producto bancario.
      *
@@ -84,10 +221,38 @@ public class ClientController {
     @GetMapping("/producto/{tipoProductoBancario}")
     public ResponseEntity<List<ClientResponseDTO>> getClientsByProductoBancario(
             @PathVariable String tipoProductoBancario){
-        log.info("GET /clients/producto/{} - Buscando clientes por producto bancario", tipoProductoBancario);
+        log.atInfo().addKeyValue("producto", tipoProductoBancario).log("GET /clients/producto/{producto} - Buscando clientes por producto bancario");
         return ResponseEntity.ok(clientService.findByProductoBancario(tipoProductoBancario));
     }
 
+    /**
+     * Endpoint para conocer cuántos clientes tienen un producto bancario, sin recuperarlos.
+     *
+     * @param tipoProductoBancario tipo de producto bancario (ej. "CHEQ")
+     * @return ResponseEntity sin cuerpo, con el total en X-Total-Count
+     */
+    @RequestMapping(value = "/producto/{tipoProductoBancario}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> headClientsByProductoBancario(@PathVariable String tipoProductoBancario){
+        ClientSearchRequestDTO criterios = new ClientSearchRequestDTO();
+        criterios.setProductoBancario(tipoProductoBancario);
+        return conTotal(clientService.count(criterios)).build();
+    }
+
+    /**
+     * Endpoint para buscar clientes por tipo de producto bancario con solo algunos campos.
+     *
+     * @param tipoProductoBancario tipo de producto bancario (ej. "CHEQ")
+     * @param fields campos a devolver separados por coma
+     * @return ResponseEntity con la lista de clientes reducida
+     */
+    @GetMapping(value = "/producto/{tipoProductoBancario}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getClientsByProductoBancario(
+            @PathVariable String tipoProductoBancario, @RequestParam List<String> fields){
+        log.atInfo().addKeyValue("producto", tipoProductoBancario).addKeyValue("fields", fields)
+                .log("GET /clients/producto/{producto} - Buscando clientes por producto bancario");
+        return ResponseEntity.ok(clientService.findByProductoBancario(tipoProductoBancario, fields));
+    }
+
     /**
      * Endpoint para eliminar un cliente por su ID.
      *
@@ -96,7 +261,7 @@ public class ClientController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteById(@PathVariable Long id){
-        log.info("DELETE /clients/{} - Eliminando cliente", id);
+        log.atInfo().addKeyValue("id", id).log("DELETE /clients/{id} - Eliminando cliente");
         clientService.deleteById(id);
         return ResponseEntity.noContent().build();
     }
@@ -111,7 +276,7 @@ public class ClientController {
     @PutMapping("/{id}")
     public ResponseEntity<ClientResponseDTO> update(@PathVariable Long id,
                                                     @Valid @RequestBody ClientRequestDTO clientRequestDTO){
-        log.info("PUT /clients/{} - Actualizando cliente", id);
+        log.atInfo().addKeyValue("id", id).log("PUT /clients/{id} - Actualizando cliente");
         return ResponseEntity.status(HttpStatus.OK).body(clientService.update(id, clientRequestDTO));
     }
 
@@ -126,7 +291,7 @@ public class ClientController {
     public ResponseEntity<ClientResponseDTO> partialUpdate(
             @PathVariable Long id,
             @RequestBody ClientRequestUpdateDTO clientRequestUpdateDTO) {
-        log.info("PATCH /clients/{} - Actualización parcial de cliente", id);
+        log.atInfo().addKeyValue("id", id).log("PATCH /clients/{id} - Actualización parcial de cliente");
         return ResponseEntity.status(HttpStatus.OK).body(clientService.partialUpdate(id, clientRequestUpdateDTO));
     }
 
@@ -141,9 +306,14 @@ public class ClientController {
     public ResponseEntity<ClientResponseDTO> updateTelefono(
             @PathVariable Long id,
             @RequestBody TelefonoUpdateDTO telefonoUpdateDTO){
-        log.info("PATCH /clients/{}/telefono - Actualizando teléfono", id);
+        log.atInfo().addKeyValue("id", id).log("PATCH /clients/{id}/telefono - Actualizando teléfono");
         return ResponseEntity.ok(clientService.updateTelefono(id, telefonoUpdateDTO));
     }
 
+    private static ResponseEntity.BodyBuilder conTotal(ClientCountResponseDTO conteo) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok().header(TOTAL, String.valueOf(conteo.getTotal()));
+        return conteo.isEstimado() ? respuesta.header(TOTAL_ESTIMADO, "true") : respuesta;
+    }
+
 
 }
@@ -0,0 +1,40 @@
+package com.bbva.clientmanager.controller;
+
+import com.bbva.clientmanager.dto.ConsistenciaViewDTO;
+import com.bbva.clientmanager.service.IClientViewService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para verificar la tabla desnormalizada client_view contra clients.
+ *
+ * URL base: /clients/view
+ *
+ * @author Veronica
+ */
+@Slf4j
+@RestController
+@RequestMapping("/clients/view")
+public class ClientViewController {
+    private final IClientViewService clientViewService;
+
+    public ClientViewController(IClientViewService clientViewService) {
+        this.clientViewService = clientViewService;
+    }
+
+    /**
+     * Endpoint para detectar, y opcionalmente reparar, diferencias entre clients y client_view.
+     *
+     * @param reparar si es true corrige las filas faltantes, desactualizadas y huérfanas
+     * @return ResponseEntity con el resultado de la verificación y código HTTP 200 OK
+     */
+    @PostMapping("/verificacion")
+    public ResponseEntity<ConsistenciaViewDTO> verificar(@RequestParam(defaultValue = "false") boolean reparar) {
+        log.info("POST /clients/view/verificacion - reparar={}", reparar);
+        return ResponseEntity.ok(clientViewService.verificar(reparar));
+    }
+}
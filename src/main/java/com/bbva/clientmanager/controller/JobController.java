@@ -0,0 +1,70 @@
+package com.bbva.clientmanager.controller;
+
+import com.bbva.clientmanager.dto.JobRequestDTO;
+import com.bbva.clientmanager.dto.JobResponseDTO;
+import com.bbva.clientmanager.service.IJobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para operaciones masivas asincrónicas (importación, cambios masivos
+ * de productos y exportación completa).
+ *
+ * URL base: /jobs
+ *
+ * @author Veronica
+ */
+@Slf4j
+@RestController
+@RequestMapping("/jobs")
+public class JobController {
+    private final IJobService jobService;
+
+    public JobController(IJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * Endpoint para encolar un job.
+     *
+     * @param jobRequestDTO tipo de job y sus parámetros
+     * @return ResponseEntity con el id y estado del job y código HTTP 202 Accepted
+     */
+    @PostMapping
+    public ResponseEntity<JobResponseDTO> submit(@RequestBody JobRequestDTO jobRequestDTO) {
+        log.info("POST /jobs - Encolando job de tipo {}", jobRequestDTO.getTipo());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobService.submit(jobRequestDTO));
+    }
+
+    /**
+     * Endpoint para consultar progreso, throughput y errores de un job.
+     *
+     * @param id identificador del job
+     * @return ResponseEntity con el estado del job y código HTTP 200 OK
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<JobResponseDTO> findById(@PathVariable Long id) {
+        log.info("GET /jobs/{} - Consultando job", id);
+        return ResponseEntity.ok(jobService.findById(id));
+    }
+
+    /**
+     * Endpoint para cancelar un job pendiente o en curso.
+     *
+     * @param id identificador del job
+     * @return ResponseEntity con el estado del job y código HTTP 202 Accepted
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<JobResponseDTO> cancel(@PathVariable Long id) {
+        log.info("DELETE /jobs/{} - Cancelando job", id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobService.cancel(id));
+    }
+}
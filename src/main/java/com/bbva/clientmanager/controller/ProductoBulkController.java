@@ -0,0 +1,60 @@
+package com.bbva.clientmanager.controller;
+
+import com.bbva.clientmanager.dto.ProductoBulkRequestDTO;
+import com.bbva.clientmanager.dto.ProductoBulkResponseDTO;
+import com.bbva.clientmanager.service.IProductoBulkService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para altas y bajas masivas de productos bancarios.
+ * Reemplaza el PATCH cliente por cliente cuando hay que modificar muchos clientes a la vez,
+ * seleccionándolos por lista de ids o por filtro.
+ *
+ * URL base: /clients/productos
+ *
+ * @author Veronica
+ */
+@Slf4j
+@RestController
+@RequestMapping("/clients/productos")
+public class ProductoBulkController {
+    private final IProductoBulkService productoBulkService;
+
+    public ProductoBulkController(IProductoBulkService productoBulkService) {
+        this.productoBulkService = productoBulkService;
+    }
+
+    /**
+     * Endpoint para asignar un producto bancario a todos los clientes seleccionados.
+     *
+     * @param tipoProductoBancario producto a asignar (ej. "TJCREDITO")
+     * @param dto ids o filtro (codigoPostal, productoBancario existente)
+     * @return ResponseEntity con la cantidad de clientes afectados y código HTTP 200 OK
+     */
+    @PostMapping("/{tipoProductoBancario}/assign")
+    public ResponseEntity<ProductoBulkResponseDTO> assign(@PathVariable String tipoProductoBancario,
+                                                          @RequestBody ProductoBulkRequestDTO dto) {
+        log.info("POST /clients/productos/{}/assign - Asignación masiva", tipoProductoBancario);
+        return ResponseEntity.ok(productoBulkService.asignar(tipoProductoBancario, dto));
+    }
+
+    /**
+     * Endpoint para quitar un producto bancario a todos los clientes seleccionados.
+     *
+     * @param tipoProductoBancario producto a quitar (ej. "TJCREDITO")
+     * @param dto ids o filtro (codigoPostal, productoBancario existente)
+     * @return ResponseEntity con la cantidad de clientes afectados y código HTTP 200 OK
+     */
+    @PostMapping("/{tipoProductoBancario}/revoke")
+    public ResponseEntity<ProductoBulkResponseDTO> revoke(@PathVariable String tipoProductoBancario,
+                                                          @RequestBody ProductoBulkRequestDTO dto) {
+        log.info("POST /clients/productos/{}/revoke - Baja masiva", tipoProductoBancario);
+        return ResponseEntity.ok(productoBulkService.revocar(tipoProductoBancario, dto));
+    }
+}
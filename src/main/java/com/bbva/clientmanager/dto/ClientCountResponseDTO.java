@@ -0,0 +1,15 @@
+package com.bbva.clientmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClientCountResponseDTO {
+    private long total;
+    private boolean estimado;
+}
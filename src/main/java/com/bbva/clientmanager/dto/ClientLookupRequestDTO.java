@@ -0,0 +1,12 @@
+package com.bbva.clientmanager.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ClientLookupRequestDTO {
+    private List<Long> ids;
+}
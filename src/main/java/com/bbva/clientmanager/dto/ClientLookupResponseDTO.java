@@ -0,0 +1,17 @@
+package com.bbva.clientmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClientLookupResponseDTO {
+    private List<ClientResponseDTO> clients;
+    private List<Long> noEncontrados;
+}
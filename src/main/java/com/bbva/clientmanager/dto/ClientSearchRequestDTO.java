@@ -0,0 +1,22 @@
+package com.bbva.clientmanager.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class ClientSearchRequestDTO {
+    private String codigoPostal;
+    private String apellido;
+    private String tipoDocumento;
+    private String productoBancario;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime fechaDesde;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime fechaHasta;
+    private Long despuesDe;
+    private Integer tamanio;
+}
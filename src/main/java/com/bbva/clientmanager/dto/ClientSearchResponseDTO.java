@@ -0,0 +1,19 @@
+package com.bbva.clientmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClientSearchResponseDTO {
+    private List<ClientResponseDTO> clients;
+    private int tamanio;
+    private boolean hayMas;
+    private Long siguiente;
+}
@@ -0,0 +1,18 @@
+package com.bbva.clientmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConsistenciaViewDTO {
+    private long clientesRevisados;
+    private long filasFaltantes;
+    private long filasDesactualizadas;
+    private long filasHuerfanas;
+    private boolean reparado;
+}
@@ -0,0 +1,15 @@
+package com.bbva.clientmanager.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class JobRequestDTO {
+    private String tipo;
+    private String productoBancario;
+    private ProductoBulkRequestDTO filtro;
+    private List<ClientRequestDTO> clientes;
+}
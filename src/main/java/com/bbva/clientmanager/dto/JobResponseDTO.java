@@ -0,0 +1,23 @@
+package com.bbva.clientmanager.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class JobResponseDTO {
+    private Long id;
+    private String tipo;
+    private String estado;
+    private long procesados;
+    private Long total;
+    private long errores;
+    private String ultimoError;
+    private double procesadosPorSegundo;
+    private String resultado;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+}
@@ -0,0 +1,14 @@
+package com.bbva.clientmanager.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ProductoBulkRequestDTO {
+    private List<Long> ids;
+    private String codigoPostal;
+    private String productoBancario;
+}
@@ -0,0 +1,17 @@
+package com.bbva.clientmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductoBulkResponseDTO {
+    private String productoBancario;
+    private String operacion;
+    private int clientesAfectados;
+    private int lotes;
+}
@@ -1,5 +1,6 @@
 package com.bbva.clientmanager.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
@@ -11,19 +12,47 @@ import jakarta.persistence.ManyToMany;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Column;
+import jakarta.persistence.Index;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
+/**
+ * Cliente del banco.
+ *
+ * Los índices de clients cubren cada criterio de la búsqueda combinada (GET /clients/search):
+ * código postal solo o con prefijo de apellido, prefijo de apellido, tipo de documento solo o con
+ * rango de fecha de creación, y rango de fecha de creación. El índice de la tabla intermedia
+ * resuelve el filtro por producto bancario sin recorrer todos los clientes.
+ *
+ * Con la baja lógica (clientmanager.soft-delete.enabled) la baja solo marca eliminado y
+ * fecha_eliminacion; la restricción de la entidad excluye esas filas de toda consulta de
+ * Hibernate hasta que el purgador las borra físicamente. idx_clients_fecha_creacion incluye
+ * eliminado para que el rango de fechas se siga resolviendo solo con el índice.
+ */
 @Getter
 @Setter
 @Entity
-@Table(name = "clients")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@SQLRestriction("eliminado = false")
+@Table(name = "clients", indexes = {
+        @Index(name = "idx_clients_codigo_postal_apellido", columnList = "codigoPostal, apellido"),
+        @Index(name = "idx_clients_apellido", columnList = "apellido"),
+        @Index(name = "idx_clients_tipo_documento_fecha", columnList = "TipoDocumento, fecha_creacion"),
+        @Index(name = "idx_clients_fecha_creacion", columnList = "fecha_creacion, eliminado"),
+        @Index(name = "idx_clients_fecha_eliminacion", columnList = "fecha_eliminacion")
+})
 public class Client {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -39,12 +68,14 @@ public class Client {
     private String telefono;
     private String celular;
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "clients_productos_bancarios",
             joinColumns = @JoinColumn(name = "clients_id"),
-            inverseJoinColumns = @JoinColumn(name = "producto_bancario_id")
+            inverseJoinColumns = @JoinColumn(name = "producto_bancario_id"),
+            indexes = @Index(name = "idx_clients_productos_producto", columnList = "producto_bancario_id, clients_id")
     )
-    private List<ProductoBancario> productoBancarioList;
+    private Set<ProductoBancario> productoBancarioList = new LinkedHashSet<>();
     @Column(name = "fecha_creacion", updatable = false)
     @CreationTimestamp
     private LocalDateTime fechaCreacion;
@@ -52,4 +83,11 @@ public class Client {
     @Column(name = "fecha_modificacion")
     @UpdateTimestamp
     private LocalDateTime fechaModificacion;
+
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean eliminado;
+
+    @Column(name = "fecha_eliminacion")
+    private LocalDateTime fechaEliminacion;
 }
@@ -0,0 +1,142 @@
+package com.bbva.clientmanager.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Vista desnormalizada de un cliente: una fila por cliente con sus productos bancarios
+ * codificados como máscara de bits (un bit por ordinal de TipoProductoBancario).
+ * Se mantiene en la misma transacción que las escrituras sobre {Client} y permite
+ * resolver las lecturas sin joins.
+ *
+ * El id es el del cliente, por eso se asigna a mano e implementa {Persistable}
+ * para que las altas no hagan un SELECT previo.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "client_view", indexes = @Index(name = "idx_client_view_productos", columnList = "productos, id"))
+public class ClientView implements Persistable<Long> {
+    @Id
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    private TipoDocumento tipoDocumento;
+    private String documento;
+    private String nombre;
+    private String apellido;
+    private String calle;
+    private Integer numero;
+    private String codigoPostal;
+    private String telefono;
+    private String celular;
+    @Column(nullable = false)
+    private int productos;
+    @Column(name = "fecha_creacion")
+    private LocalDateTime fechaCreacion;
+    @Column(name = "fecha_modificacion")
+    private LocalDateTime fechaModificacion;
+    @Transient
+    private boolean nueva = true;
+
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistida() {
+        nueva = false;
+    }
+
+    public static int bit(TipoProductoBancario tipo) {
+        return 1 << tipo.ordinal();
+    }
+
+    public static int mascara(Collection<ProductoBancario> productos) {
+        int mascara = 0;
+        for (ProductoBancario producto : productos) {
+            mascara |= bit(producto.getTipoProductoBancario());
+        }
+        return mascara;
+    }
+
+    /**
+     * Todas las máscaras posibles que incluyen el producto indicado, para buscar por
+     * igualdad sobre el índice en lugar de evaluar una operación de bits por fila.
+     */
+    public static List<Integer> mascarasCon(TipoProductoBancario tipo) {
+        int total = 1 << TipoProductoBancario.values().length;
+        List<Integer> mascaras = new ArrayList<>(total / 2);
+        for (int mascara = 0; mascara < total; mascara++) {
+            if ((mascara & bit(tipo)) != 0) {
+                mascaras.add(mascara);
+            }
+        }
+        return mascaras;
+    }
+
+    public List<String> getProductosBancarios() {
+        List<String> nombres = new ArrayList<>();
+        for (TipoProductoBancario tipo : TipoProductoBancario.values()) {
+            if ((productos & bit(tipo)) != 0) {
+                nombres.add(tipo.name());
+            }
+        }
+        return nombres;
+    }
+
+    /**
+     * Copia los datos del cliente en la vista.
+     */
+    public void copiarDe(Client client) {
+        id = client.getId();
+        tipoDocumento = client.getTipoDocumento();
+        documento = client.getDocumento();
+        nombre = client.getNombre();
+        apellido = client.getApellido();
+        calle = client.getCalle();
+        numero = client.getNumero();
+        codigoPostal = client.getCodigoPostal();
+        telefono = client.getTelefono();
+        celular = client.getCelular();
+        productos = mascara(client.getProductoBancarioList());
+        fechaCreacion = client.getFechaCreacion();
+        fechaModificacion = client.getFechaModificacion();
+    }
+
+    /**
+     * Indica si la vista refleja exactamente los datos actuales del cliente.
+     */
+    public boolean coincideCon(Client client) {
+        return Objects.equals(tipoDocumento, client.getTipoDocumento())
+                && Objects.equals(documento, client.getDocumento())
+                && Objects.equals(nombre, client.getNombre())
+                && Objects.equals(apellido, client.getApellido())
+                && Objects.equals(calle, client.getCalle())
+                && Objects.equals(numero, client.getNumero())
+                && Objects.equals(codigoPostal, client.getCodigoPostal())
+                && Objects.equals(telefono, client.getTelefono())
+                && Objects.equals(celular, client.getCelular())
+                && productos == mascara(client.getProductoBancarioList())
+                && Objects.equals(fechaCreacion, client.getFechaCreacion())
+                && Objects.equals(fechaModificacion, client.getFechaModificacion());
+    }
+}
@@ -0,0 +1,9 @@
+package com.bbva.clientmanager.entity;
+
+public enum EstadoJob {
+    PENDIENTE,
+    EN_CURSO,
+    COMPLETADO,
+    FALLIDO,
+    CANCELADO
+}
@@ -0,0 +1,55 @@
+package com.bbva.clientmanager.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Operación masiva ejecutada en segundo plano.
+ * El cursor y los contadores se guardan al final de cada lote, en la misma transacción
+ * que el lote, y sirven de checkpoint para reanudar el job después de una caída.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "jobs")
+public class Job {
+    public static final int LARGO_ULTIMO_ERROR = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    private TipoJob tipo;
+    @Enumerated(EnumType.STRING)
+    private EstadoJob estado;
+    @Lob
+    private String parametros;
+    @Column(updatable = false)
+    private String usuario;
+    private long cursor;
+    private long procesados;
+    private long errores;
+    private Long total;
+    @Column(length = LARGO_ULTIMO_ERROR)
+    private String ultimoError;
+    private String resultado;
+    private long posicionArchivo;
+    private boolean cancelacionSolicitada;
+    @Column(name = "fecha_creacion", updatable = false)
+    @CreationTimestamp
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+}
@@ -1,5 +1,6 @@
 package com.bbva.clientmanager.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
@@ -8,14 +9,20 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Column;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
-import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @Table(name = "productos_bancarios")
 public class ProductoBancario {
     @Id
@@ -23,8 +30,25 @@ public class ProductoBancario {
     private Long id;
 
     @Enumerated(EnumType.STRING)
+    @Column(unique = true)
     private TipoProductoBancario tipoProductoBancario;
 
     @ManyToMany(mappedBy = "productoBancarioList")
-    private List<Client> clientList;
+    private Set<Client> clientList;
+
+    /**
+     * Igualdad por clave natural: cada tipo de producto existe una sola vez en la tabla,
+     * lo que permite usar el producto dentro de un Set sin depender del id generado.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ProductoBancario that)) return false;
+        return tipoProductoBancario != null && tipoProductoBancario == that.getTipoProductoBancario();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(tipoProductoBancario);
+    }
 }
@@ -0,0 +1,8 @@
+package com.bbva.clientmanager.entity;
+
+public enum TipoJob {
+    ASIGNAR_PRODUCTO,
+    REVOCAR_PRODUCTO,
+    IMPORTAR,
+    EXPORTAR
+}
@@ -0,0 +1,32 @@
+package com.bbva.clientmanager.event;
+
+import java.util.List;
+
+/**
+ * Evento publicado por la capa de servicio cada vez que cambian datos de clientes,
+ * dentro de la transacción que hizo el cambio. Lo consumen las vistas y caches
+ * derivadas de la tabla clients para mantenerse consistentes.
+ *
+ * @param ids clientes afectados
+ * @param tipo tipo de cambio
+ * @param usuario quién pidió el cambio, capturado en el hilo del request; null si lo hizo el sistema
+ */
+public record ClientModificadoEvent(List<Long> ids, TipoModificacion tipo, String usuario) {
+    public enum TipoModificacion {
+        ALTA,
+        MODIFICACION,
+        BAJA
+    }
+
+    public static ClientModificadoEvent alta(Long id, String usuario) {
+        return new ClientModificadoEvent(List.of(id), TipoModificacion.ALTA, usuario);
+    }
+
+    public static ClientModificadoEvent modificacion(Long id, String usuario) {
+        return new ClientModificadoEvent(List.of(id), TipoModificacion.MODIFICACION, usuario);
+    }
+
+    public static ClientModificadoEvent baja(Long id, String usuario) {
+        return new ClientModificadoEvent(List.of(id), TipoModificacion.BAJA, usuario);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bbva.clientmanager.exception;
+
+public class CapacidadExcedidaException extends RuntimeException {
+    public CapacidadExcedidaException(String message) {
+        super(message);
+    }
+}
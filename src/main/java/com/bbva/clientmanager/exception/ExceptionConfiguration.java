@@ -17,8 +17,10 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
  *
  * Se encarga de:
  *
- *   Manejo de cliente no encontrado.
+ *   Manejo de cliente o job no encontrado.
  *   Errores en enums inválidos.
+ *   Solicitudes con parámetros inconsistentes.
+ *   Capacidad de procesamiento agotada.
  *   Errores de validación de campos.
  *   Errores de tipo de parámetros en requests.
  *   Errores de formato de mensajes JSON.
@@ -40,6 +42,30 @@ public class ExceptionConfiguration {
         return new ResponseEntity<>(exceptionDTO, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Maneja la excepción cuando no se encuentra un job.
+     *
+     * @param e excepción lanzada
+     * @return respuesta con mensaje y estado NOT_FOUND
+     */
+    @ExceptionHandler(JobNotFoundException.class)
+    public ResponseEntity<ExceptionDTO> handleJobNotFound(JobNotFoundException e){
+        ExceptionDTO exceptionDTO = new ExceptionDTO(e.getMessage());
+        return new ResponseEntity<>(exceptionDTO, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Maneja la excepción cuando no hay capacidad para aceptar más trabajo.
+     *
+     * @param e excepción lanzada
+     * @return respuesta con mensaje y estado SERVICE_UNAVAILABLE
+     */
+    @ExceptionHandler(CapacidadExcedidaException.class)
+    public ResponseEntity<ExceptionDTO> handleCapacidadExcedida(CapacidadExcedidaException e){
+        ExceptionDTO exceptionDTO = new ExceptionDTO(e.getMessage());
+        return new ResponseEntity<>(exceptionDTO, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Maneja la excepción cuando se recibe un valor de enum inválido.
      *
@@ -52,6 +78,18 @@ public class ExceptionConfiguration {
         return new ResponseEntity<>(exceptionDTO, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Maneja la excepción cuando la combinación de parámetros de la solicitud no es válida.
+     *
+     * @param e excepción lanzada
+     * @return respuesta con mensaje y estado BAD_REQUEST
+     */
+    @ExceptionHandler(SolicitudInvalidaException.class)
+    public ResponseEntity<ExceptionDTO> handleSolicitudInvalida(SolicitudInvalidaException e){
+        ExceptionDTO exceptionDTO = new ExceptionDTO(e.getMessage());
+        return new ResponseEntity<>(exceptionDTO, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Maneja los errores de validación de campos en requests.
      *
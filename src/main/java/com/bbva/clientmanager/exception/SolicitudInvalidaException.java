@@ -0,0 +1,7 @@
+package com.bbva.clientmanager.exception;
+
+public class SolicitudInvalidaException extends RuntimeException {
+    public SolicitudInvalidaException(String message) {
+        super(message);
+    }
+}
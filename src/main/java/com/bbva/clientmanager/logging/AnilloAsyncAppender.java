@@ -0,0 +1,195 @@
+package com.bbva.clientmanager.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appender asincrónico de Logback sobre un buffer circular sin locks.
+ *
+ * Los hilos de los requests reservan una posición con un compareAndSet sobre la cola y dejan el
+ * evento; un único hilo consumidor los entrega en orden a los appenders adjuntos (la consola), así
+ * que la escritura a stdout sale del camino del request. A diferencia del AsyncAppender de
+ * Logback, que usa un ArrayBlockingQueue, ningún productor toma un lock.
+ *
+ * Con el buffer lleno, los eventos debajo de WARN se descartan y se cuentan; los WARN y ERROR
+ * esperan lugar, para no perder nunca un error. Al detenerse vacía el buffer hasta maxFlushTime.
+ *
+ * @author Veronica
+ */
+public class AnilloAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+    private static final int REINTENTOS_ANTES_DE_DORMIR = 100;
+    private static final long ESPERA_CONSUMIDOR_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLong cola = new AtomicLong();
+    private final AtomicLong cabeza = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private AtomicReferenceArray<ILoggingEvent> eventos;
+    private int mascara;
+    private int bufferSize = 8192;
+    private int maxFlushTime = 1000;
+    private volatile boolean durmiendo;
+    private volatile boolean corriendo;
+    private Thread consumidor;
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (bufferSize < 1) {
+            addError("bufferSize tiene que ser positivo: " + bufferSize);
+            return;
+        }
+        int capacidad = Integer.highestOneBit(bufferSize - 1) << 1;
+        eventos = new AtomicReferenceArray<>(Math.max(capacidad, 1));
+        mascara = eventos.length() - 1;
+        corriendo = true;
+        consumidor = new Thread(this::consumir, "log-async-" + getName());
+        consumidor.setDaemon(true);
+        consumidor.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        corriendo = false;
+        LockSupport.unpark(consumidor);
+        try {
+            consumidor.join(maxFlushTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (consumidor.isAlive()) {
+            addWarn("Quedaron " + (cola.get() - cabeza.get()) + " eventos sin escribir al detener el appender");
+        }
+        if (descartados.get() > 0) {
+            addInfo("Eventos descartados por buffer lleno: " + descartados.get());
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent evento) {
+        evento.prepareForDeferredProcessing();
+        boolean importante = evento.getLevel().isGreaterOrEqual(Level.WARN);
+        while (true) {
+            long posicion = cola.get();
+            if (posicion - cabeza.get() >= eventos.length()) {
+                if (!importante) {
+                    descartados.incrementAndGet();
+                    return;
+                }
+                despertar();
+                Thread.onSpinWait();
+                continue;
+            }
+            if (cola.compareAndSet(posicion, posicion + 1)) {
+                eventos.lazySet((int) (posicion & mascara), evento);
+                break;
+            }
+        }
+        if (durmiendo) {
+            despertar();
+        }
+    }
+
+    private void despertar() {
+        LockSupport.unpark(consumidor);
+    }
+
+    private void consumir() {
+        int vacios = 0;
+        while (corriendo || cabeza.get() < cola.get()) {
+            long posicion = cabeza.get();
+            int indice = (int) (posicion & mascara);
+            ILoggingEvent evento = eventos.get(indice);
+            if (evento == null) {
+                if (!corriendo && posicion >= cola.get()) {
+                    break;
+                }
+                if (++vacios < REINTENTOS_ANTES_DE_DORMIR) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                durmiendo = true;
+                if (eventos.get(indice) == null) {
+                    LockSupport.parkNanos(this, ESPERA_CONSUMIDOR_NANOS);
+                }
+                durmiendo = false;
+                vacios = 0;
+                continue;
+            }
+            vacios = 0;
+            eventos.lazySet(indice, null);
+            cabeza.lazySet(posicion + 1);
+            try {
+                appenders.appendLoopOnAppenders(evento);
+            } catch (RuntimeException e) {
+                addError("Error escribiendo un evento de log", e);
+            }
+        }
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String nombre) {
+        return appenders.getAppender(nombre);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String nombre) {
+        return appenders.detachAppender(nombre);
+    }
+}
@@ -0,0 +1,135 @@
+package com.bbva.clientmanager.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filtro de Logback que muestrea las líneas de éxito de alto volumen por categoría.
+ *
+ * Una categoría es un prefijo de nombre de logger (la más larga que coincida gana) con una de
+ * dos reglas:
+ *
+ *   muestreo: "com.bbva.clientmanager.controller=100" deja pasar 1 de cada 100 eventos.
+ *   límites: "org.hibernate.SQL=20" deja pasar hasta 20 eventos por segundo.
+ *
+ * La categoría "*" se aplica a los loggers que no coinciden con ningún prefijo (por ejemplo el
+ * resumen por sesión de Hibernate); sin ella, esos eventos pasan completos. Los eventos WARN y
+ * ERROR (por ejemplo un ClientNotFoundException) pasan siempre completos. Las reglas se configuran
+ * como listas separadas por coma en clientmanager.logging.sampling y clientmanager.logging.rate-limits.
+ *
+ * @author Veronica
+ */
+public class MuestreoFilter extends Filter<ILoggingEvent> {
+    private static final long SEGUNDO_MS = 1000;
+    private static final String RESTO = "*";
+
+    private final List<Categoria> categorias = new ArrayList<>();
+    private final Map<String, Optional<Categoria>> porLogger = new ConcurrentHashMap<>();
+    private Categoria resto;
+    private String muestreo = "";
+    private String limites = "";
+
+    public void setMuestreo(String muestreo) {
+        this.muestreo = muestreo;
+    }
+
+    public void setLimites(String limites) {
+        this.limites = limites;
+    }
+
+    @Override
+    public void start() {
+        categorias.clear();
+        porLogger.clear();
+        resto = null;
+        try {
+            parsear(muestreo, true);
+            parsear(limites, false);
+        } catch (IllegalArgumentException e) {
+            addError("Configuración de muestreo inválida: " + e.getMessage());
+            return;
+        }
+        categorias.sort(Comparator.comparingInt((Categoria categoria) -> categoria.prefijo.length()).reversed());
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent evento) {
+        if (!isStarted() || evento.getLevel().isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        Optional<Categoria> categoria = porLogger.computeIfAbsent(evento.getLoggerName(), this::buscar);
+        if (categoria.isEmpty() || categoria.get().admite()) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+
+    private Optional<Categoria> buscar(String logger) {
+        return categorias.stream()
+                .filter(categoria -> logger.equals(categoria.prefijo) || logger.startsWith(categoria.prefijo + "."))
+                .findFirst()
+                .or(() -> Optional.ofNullable(resto));
+    }
+
+    private void parsear(String reglas, boolean esMuestreo) {
+        if (reglas == null || reglas.isBlank()) {
+            return;
+        }
+        for (String regla : reglas.split(",")) {
+            String[] partes = regla.trim().split("=");
+            if (partes.length != 2 || partes[0].isBlank()) {
+                throw new IllegalArgumentException("se esperaba logger=valor: " + regla);
+            }
+            int valor = Integer.parseInt(partes[1].trim());
+            if (valor < 1) {
+                throw new IllegalArgumentException("el valor tiene que ser positivo: " + regla);
+            }
+            Categoria categoria = new Categoria(partes[0].trim(), esMuestreo ? valor : 0, esMuestreo ? 0 : valor);
+            if (RESTO.equals(categoria.prefijo)) {
+                if (resto != null) {
+                    throw new IllegalArgumentException("la categoría * se configuró dos veces: " + regla);
+                }
+                resto = categoria;
+            } else {
+                categorias.add(categoria);
+            }
+        }
+    }
+
+    private static final class Categoria {
+        private final String prefijo;
+        private final int unoDeCada;
+        private final int porSegundo;
+        private final AtomicLong eventos = new AtomicLong();
+        private volatile long segundo;
+
+        private Categoria(String prefijo, int unoDeCada, int porSegundo) {
+            this.prefijo = prefijo;
+            this.unoDeCada = unoDeCada;
+            this.porSegundo = porSegundo;
+        }
+
+        private boolean admite() {
+            if (unoDeCada > 0) {
+                return eventos.getAndIncrement() % unoDeCada == 0;
+            }
+            long ahora = System.currentTimeMillis() / SEGUNDO_MS;
+            if (ahora != segundo) {
+                segundo = ahora;
+                eventos.set(0);
+            }
+            return eventos.incrementAndGet() <= porSegundo;
+        }
+    }
+}
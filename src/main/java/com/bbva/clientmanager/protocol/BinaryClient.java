@@ -0,0 +1,199 @@
+package com.bbva.clientmanager.protocol;
+
+import com.bbva.clientmanager.dto.ClientLookupResponseDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.exception.CapacidadExcedidaException;
+import com.bbva.clientmanager.exception.ClientNotFoundException;
+import com.bbva.clientmanager.exception.SolicitudInvalidaException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Cliente Java del protocolo binario para servicios internos.
+ *
+ * Usa una única conexión autenticada y es seguro entre hilos: cada consulta se envía de inmediato
+ * con su propio id y devuelve un CompletableFuture que se completa cuando llega su respuesta, sin
+ * esperar a las anteriores. Conviene compartir una instancia en lugar de abrir una por consulta.
+ *
+ * Los errores llegan como ClientNotFoundException, SolicitudInvalidaException o
+ * CapacidadExcedidaException, igual que en la API REST; si se corta la conexión, las consultas
+ * pendientes fallan con UncheckedIOException.
+ *
+ * @author Veronica
+ */
+@Slf4j
+public class BinaryClient implements AutoCloseable {
+    private static final int TAMANIO_SALIDA = 64 * 1024;
+
+    private final SocketChannel canal;
+    private final ByteBuffer salida = ByteBuffer.allocateDirect(TAMANIO_SALIDA);
+    private final Map<Integer, CompletableFuture<ByteBuffer>> pendientes = new ConcurrentHashMap<>();
+    private final AtomicInteger ids = new AtomicInteger();
+    private final Thread lector;
+    private volatile boolean cerrado;
+
+    private BinaryClient(SocketChannel canal) {
+        this.canal = canal;
+        this.lector = new Thread(this::leer, "binary-client-reader");
+        this.lector.setDaemon(true);
+        this.lector.start();
+    }
+
+    /**
+     * Abre la conexión y la autentica con el token JWT.
+     *
+     * @throws IOException si no se puede conectar o el servidor rechaza el token
+     */
+    public static BinaryClient conectar(String host, int puerto, String token) throws IOException {
+        SocketChannel canal = SocketChannel.open(new InetSocketAddress(host, puerto));
+        canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        BinaryClient client = new BinaryClient(canal);
+        byte[] bytes = token.getBytes(StandardCharsets.UTF_8);
+        try {
+            client.enviar(ProtocoloBinario.AUTENTICAR, bytes.length, buffer -> buffer.put(bytes)).join();
+            return client;
+        } catch (CompletionException e) {
+            client.close();
+            throw new IOException("No se pudo autenticar la conexión binaria: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public CompletableFuture<ClientResponseDTO> findById(long id) {
+        return enviar(ProtocoloBinario.BUSCAR_POR_ID, 8, buffer -> buffer.putLong(id))
+                .thenApply(ClientBinaryCodec::leer);
+    }
+
+    public CompletableFuture<ClientLookupResponseDTO> findAllById(List<Long> ids) {
+        return enviar(ProtocoloBinario.BUSCAR_POR_IDS, 4 + ids.size() * 8, buffer -> {
+            buffer.putInt(ids.size());
+            for (Long id : ids) {
+                buffer.putLong(id);
+            }
+        }).thenApply(datos -> {
+            List<ClientResponseDTO> clients = leerClientes(datos);
+            int cantidad = datos.getInt();
+            List<Long> noEncontrados = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                noEncontrados.add(datos.getLong());
+            }
+            return new ClientLookupResponseDTO(clients, noEncontrados);
+        });
+    }
+
+    public CompletableFuture<List<ClientResponseDTO>> findByProductoBancario(TipoProductoBancario tipo) {
+        return enviar(ProtocoloBinario.BUSCAR_POR_PRODUCTO, 1, buffer -> buffer.put((byte) tipo.ordinal()))
+                .thenApply(BinaryClient::leerClientes);
+    }
+
+    @Override
+    public void close() {
+        cerrado = true;
+        try {
+            canal.close();
+        } catch (IOException e) {
+            log.debug("Error cerrando la conexión binaria", e);
+        }
+        fallarPendientes(new IOException("Conexión binaria cerrada"));
+    }
+
+    private static List<ClientResponseDTO> leerClientes(ByteBuffer datos) {
+        int cantidad = datos.getInt();
+        List<ClientResponseDTO> clients = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            clients.add(ClientBinaryCodec.leer(datos));
+        }
+        return clients;
+    }
+
+    private CompletableFuture<ByteBuffer> enviar(byte operacion, int largoDatos, Consumer<ByteBuffer> datos) {
+        int id = ids.incrementAndGet();
+        CompletableFuture<ByteBuffer> respuesta = new CompletableFuture<>();
+        pendientes.put(id, respuesta);
+        if (cerrado) {
+            pendientes.remove(id);
+            return CompletableFuture.failedFuture(new UncheckedIOException(new IOException("Conexión binaria cerrada")));
+        }
+        int largo = ProtocoloBinario.ENCABEZADO + largoDatos;
+        synchronized (salida) {
+            ByteBuffer buffer = largo <= salida.capacity() ? salida.clear() : ByteBuffer.allocate(largo);
+            buffer.putInt(largo - 4);
+            buffer.putInt(id);
+            buffer.put(operacion);
+            datos.accept(buffer);
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+            } catch (IOException e) {
+                pendientes.remove(id);
+                respuesta.completeExceptionally(new UncheckedIOException(e));
+            }
+        }
+        return respuesta;
+    }
+
+    private void leer() {
+        try {
+            DataInputStream entrada = new DataInputStream(new BufferedInputStream(Channels.newInputStream(canal), TAMANIO_SALIDA));
+            while (true) {
+                int largo = entrada.readInt();
+                int id = entrada.readInt();
+                byte estado = entrada.readByte();
+                byte[] datos = new byte[largo - 5];
+                entrada.readFully(datos);
+                CompletableFuture<ByteBuffer> respuesta = pendientes.remove(id);
+                if (respuesta == null) {
+                    log.warn("Respuesta binaria {} sin solicitud pendiente, estado {}", id, estado);
+                    continue;
+                }
+                if (estado == ProtocoloBinario.OK) {
+                    respuesta.complete(ByteBuffer.wrap(datos));
+                } else {
+                    respuesta.completeExceptionally(excepcion(estado, new String(datos, StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (EOFException e) {
+            fallarPendientes(new IOException("El servidor cerró la conexión binaria"));
+        } catch (IOException e) {
+            fallarPendientes(e);
+        }
+    }
+
+    private static RuntimeException excepcion(byte estado, String mensaje) {
+        return switch (estado) {
+            case ProtocoloBinario.NO_ENCONTRADO -> new ClientNotFoundException(mensaje);
+            case ProtocoloBinario.SOLICITUD_INVALIDA -> new SolicitudInvalidaException(mensaje);
+            case ProtocoloBinario.SATURADO -> new CapacidadExcedidaException(mensaje);
+            default -> new IllegalStateException(mensaje);
+        };
+    }
+
+    private void fallarPendientes(IOException causa) {
+        cerrado = true;
+        for (Integer id : List.copyOf(pendientes.keySet())) {
+            CompletableFuture<ByteBuffer> respuesta = pendientes.remove(id);
+            if (respuesta != null) respuesta.completeExceptionally(new UncheckedIOException(causa));
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package com.bbva.clientmanager.protocol;
+
+import com.bbva.clientmanager.dto.ClientLookupResponseDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.exception.CapacidadExcedidaException;
+import com.bbva.clientmanager.exception.ClientNotFoundException;
+import com.bbva.clientmanager.exception.SolicitudInvalidaException;
+import com.bbva.clientmanager.exception.ValorEnumInvalidoException;
+import com.bbva.clientmanager.security.JwtUtil;
+import com.bbva.clientmanager.service.IClientService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Listener del protocolo binario interno (ver ProtocoloBinario), en paralelo a ClientController.
+ *
+ * Un único hilo atiende todas las conexiones con un Selector: lee y separa las tramas, valida el
+ * token de la conexión y escribe las respuestas. Las consultas se ejecutan en un pool acotado de
+ * workers contra IClientService, así que pasan por los mismos caches, réplicas y validaciones que
+ * la API REST. Cada worker arma su respuesta sobre buffers directos del pool y el selector las
+ * escribe en el orden en que terminan, juntando varias en una sola escritura gather.
+ *
+ * Cada conexión admite hasta max-in-flight solicitudes sin responder; al llegar al límite se deja
+ * de leer su socket hasta que se escriban respuestas, y el cliente queda frenado por TCP. Si la
+ * cola de workers está llena la solicitud se responde SATURADO.
+ *
+ * La conexión se autentica con el JWT de la primera trama, sin volver a verificar la firma en cada
+ * solicitud, y queda autenticada hasta el vencimiento del token o hasta que se borre la clave que lo
+ * firmó. Desde entonces cada solicitud se responde NO_AUTENTICADO y la conexión se cierra: el
+ * cliente se vuelve a conectar con un token nuevo.
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Component
+public class BinaryClientServer {
+    private static final int MAX_TRAMAS_POR_ESCRITURA = 64;
+    private static final String MESSAGE_NO_AUTENTICADO = "La conexión no está autenticada.";
+    private static final String MESSAGE_TOKEN_INVALIDO = "Token inválido o expirado.";
+    private static final String MESSAGE_TOKEN_VENCIDO = "El token de la conexión expiró o fue revocado.";
+    private static final String MESSAGE_TRAMA_INVALIDA = "Trama inválida.";
+    private static final String MESSAGE_OPERACION_DESCONOCIDA = "Operación desconocida: ";
+    private static final String MESSAGE_SATURADO = "El servidor binario está saturado, reintente más tarde.";
+    private static final String MESSAGE_ERROR = "Error interno al procesar la solicitud.";
+    private static final TipoProductoBancario[] TIPOS_PRODUCTO = TipoProductoBancario.values();
+
+    private final IClientService clientService;
+    private final JwtUtil jwtUtil;
+    private final boolean habilitado;
+    private final int puertoConfigurado;
+    private final int maxEnVuelo;
+    private final int maxTrama;
+    private final BufferPool pool;
+    private final ThreadPoolExecutor workers;
+    private final Queue<Conexion> conRespuestas = new ConcurrentLinkedQueue<>();
+    private Selector selector;
+    private ServerSocketChannel servidor;
+    private Thread hiloSelector;
+    private volatile boolean activo;
+
+    public BinaryClientServer(IClientService clientService, JwtUtil jwtUtil,
+                              @Value("${clientmanager.binary.enabled:false}") boolean habilitado,
+                              @Value("${clientmanager.binary.port:9090}") int puerto,
+                              @Value("${clientmanager.binary.workers:8}") int cantidadWorkers,
+                              @Value("${clientmanager.binary.queue-capacity:1000}") int capacidadCola,
+                              @Value("${clientmanager.binary.max-in-flight:256}") int maxEnVuelo,
+                              @Value("${clientmanager.binary.max-frame-bytes:65536}") int maxTrama,
+                              @Value("${clientmanager.binary.buffer-bytes:65536}") int tamanioBuffer,
+                              @Value("${clientmanager.binary.max-pooled-buffers:256}") int maxBuffers) {
+        this.clientService = clientService;
+        this.jwtUtil = jwtUtil;
+        this.habilitado = habilitado;
+        this.puertoConfigurado = puerto;
+        this.maxEnVuelo = maxEnVuelo;
+        this.maxTrama = maxTrama;
+        this.pool = new BufferPool(tamanioBuffer, maxBuffers);
+        AtomicInteger numero = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(cantidadWorkers, cantidadWorkers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), tarea -> {
+            Thread hilo = new Thread(tarea, "binary-worker-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Lo que ejecuta un worker para una solicitud ya decodificada: consulta el servicio y escribe
+     * los datos de la respuesta OK en la trama.
+     */
+    @FunctionalInterface
+    private interface Consulta {
+        void responder(Trama trama);
+    }
+
+    private final class Conexion {
+        private final SocketChannel canal;
+        private final SelectionKey key;
+        private final Queue<Trama> listas = new ConcurrentLinkedQueue<>();
+        private final Deque<Trama> enEscritura = new ArrayDeque<>();
+        private final AtomicInteger enVuelo = new AtomicInteger();
+        private ByteBuffer entrada = ByteBuffer.allocate(4096);
+        private String usuario;
+        private String kid;
+        private long expiraEn;
+        private boolean cerrarAlVaciar;
+        private volatile boolean cerrada;
+
+        private Conexion(SocketChannel canal, SelectionKey key) {
+            this.canal = canal;
+            this.key = key;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() throws IOException {
+        if (!habilitado || activo) {
+            return;
+        }
+        selector = Selector.open();
+        servidor = ServerSocketChannel.open();
+        servidor.bind(new InetSocketAddress(puertoConfigurado));
+        servidor.configureBlocking(false);
+        servidor.register(selector, SelectionKey.OP_ACCEPT);
+        activo = true;
+        hiloSelector = new Thread(this::atender, "binary-selector");
+        hiloSelector.setDaemon(true);
+        hiloSelector.start();
+        log.info("Protocolo binario escuchando en el puerto {}", getPuerto());
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * @return el puerto en el que escucha, o -1 si no está iniciado
+     */
+    public int getPuerto() {
+        return servidor != null ? servidor.socket().getLocalPort() : -1;
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (!activo) {
+            return;
+        }
+        activo = false;
+        selector.wakeup();
+        try {
+            hiloSelector.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdownNow();
+    }
+
+    private void atender() {
+        try {
+            while (activo) {
+                selector.select();
+                Conexion conexion;
+                while ((conexion = conRespuestas.poll()) != null) {
+                    if (conexion.key.isValid()) {
+                        conexion.key.interestOps(conexion.key.interestOps() | SelectionKey.OP_WRITE);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    procesar(key);
+                }
+            }
+        } catch (IOException e) {
+            log.error("El selector del protocolo binario se detuvo", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Conexion conexion) cerrar(conexion);
+            }
+            try {
+                servidor.close();
+                selector.close();
+            } catch (IOException e) {
+                log.warn("Error cerrando el protocolo binario", e);
+            }
+        }
+    }
+
+    private void procesar(SelectionKey key) {
+        Conexion conexion = (Conexion) key.attachment();
+        try {
+            if (key.isAcceptable()) {
+                aceptar();
+                return;
+            }
+            if (key.isReadable()) {
+                leer(conexion);
+            }
+            if (key.isValid() && key.isWritable()) {
+                escribir(conexion);
+            }
+        } catch (IOException | CancelledKeyException e) {
+            log.debug("Conexión binaria cerrada: {}", e.getMessage());
+            cerrar(conexion);
+        }
+    }
+
+    private void aceptar() throws IOException {
+        SocketChannel canal = servidor.accept();
+        if (canal == null) {
+            return;
+        }
+        canal.configureBlocking(false);
+        canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = canal.register(selector, SelectionKey.OP_READ);
+        key.attach(new Conexion(canal, key));
+    }
+
+    private void leer(Conexion conexion) throws IOException {
+        if (conexion.canal.read(conexion.entrada) < 0) {
+            cerrar(conexion);
+            return;
+        }
+        ByteBuffer entrada = conexion.entrada;
+        entrada.flip();
+        while (entrada.remaining() >= 4 && !conexion.cerrarAlVaciar) {
+            int inicio = entrada.position();
+            int largo = entrada.getInt(inicio);
+            if (largo < ProtocoloBinario.ENCABEZADO - 4 || largo > maxTrama) {
+                responder(conexion, Trama.error(pool, 0, ProtocoloBinario.SOLICITUD_INVALIDA, MESSAGE_TRAMA_INVALIDA));
+                cerrarAlVaciar(conexion);
+                entrada.clear();
+                return;
+            }
+            if (entrada.remaining() < 4 + largo) {
+                break;
+            }
+            int idSolicitud = entrada.getInt(inicio + 4);
+            byte operacion = entrada.get(inicio + 8);
+            ByteBuffer datos = entrada.slice(inicio + ProtocoloBinario.ENCABEZADO, largo - 5);
+            entrada.position(inicio + 4 + largo);
+            despachar(conexion, idSolicitud, operacion, datos);
+        }
+        entrada.compact();
+        if (!entrada.hasRemaining() && entrada.capacity() < maxTrama + 4) {
+            ByteBuffer mayor = ByteBuffer.allocate(Math.min(entrada.capacity() * 2, maxTrama + 4));
+            entrada.flip();
+            mayor.put(entrada);
+            conexion.entrada = mayor;
+        }
+    }
+
+    private void despachar(Conexion conexion, int idSolicitud, byte operacion, ByteBuffer datos) {
+        if (operacion == ProtocoloBinario.AUTENTICAR) {
+            autenticar(conexion, idSolicitud, StandardCharsets.UTF_8.decode(datos).toString());
+            return;
+        }
+        if (conexion.usuario == null) {
+            responder(conexion, Trama.error(pool, idSolicitud, ProtocoloBinario.NO_AUTENTICADO, MESSAGE_NO_AUTENTICADO));
+            cerrarAlVaciar(conexion);
+            return;
+        }
+        if (System.currentTimeMillis() >= conexion.expiraEn || !jwtUtil.isClaveVigente(conexion.kid)) {
+            log.debug("Token vencido o revocado en la conexión binaria de {}", conexion.usuario);
+            conexion.usuario = null;
+            responder(conexion, Trama.error(pool, idSolicitud, ProtocoloBinario.NO_AUTENTICADO, MESSAGE_TOKEN_VENCIDO));
+            cerrarAlVaciar(conexion);
+            return;
+        }
+        Consulta consulta;
+        try {
+            consulta = decodificar(operacion, datos);
+        } catch (BufferUnderflowException | SolicitudInvalidaException e) {
+            String mensaje = e instanceof SolicitudInvalidaException ? e.getMessage() : MESSAGE_TRAMA_INVALIDA;
+            responder(conexion, Trama.error(pool, idSolicitud, ProtocoloBinario.SOLICITUD_INVALIDA, mensaje));
+            return;
+        }
+        if (conexion.enVuelo.incrementAndGet() >= maxEnVuelo) {
+            conexion.key.interestOps(conexion.key.interestOps() & ~SelectionKey.OP_READ);
+        }
+        try {
+            workers.execute(() -> encolar(conexion, resolver(idSolicitud, consulta)));
+        } catch (RejectedExecutionException e) {
+            encolar(conexion, Trama.error(pool, idSolicitud, ProtocoloBinario.SATURADO, MESSAGE_SATURADO));
+        }
+    }
+
+    private void autenticar(Conexion conexion, int idSolicitud, String token) {
+        Jws<Claims> verificado = jwtUtil.extractValidClaims(token)
+                .filter(jws -> jws.getBody().getSubject() != null && jws.getBody().getExpiration() != null)
+                .orElse(null);
+        conexion.usuario = verificado == null ? null : verificado.getBody().getSubject();
+        if (conexion.usuario == null) {
+            responder(conexion, Trama.error(pool, idSolicitud, ProtocoloBinario.NO_AUTENTICADO, MESSAGE_TOKEN_INVALIDO));
+            cerrarAlVaciar(conexion);
+            return;
+        }
+        conexion.kid = verificado.getHeader().getKeyId();
+        conexion.expiraEn = verificado.getBody().getExpiration().getTime();
+        log.debug("Conexión binaria autenticada para {}", conexion.usuario);
+        responder(conexion, new Trama(pool, idSolicitud, ProtocoloBinario.OK).terminar());
+    }
+
+    private Consulta decodificar(byte operacion, ByteBuffer datos) {
+        switch (operacion) {
+            case ProtocoloBinario.BUSCAR_POR_ID -> {
+                long id = datos.getLong();
+                return trama -> trama.putCliente(clientService.findById(id));
+            }
+            case ProtocoloBinario.BUSCAR_POR_IDS -> {
+                int cantidad = datos.getInt();
+                if (cantidad < 0 || cantidad * 8L != datos.remaining()) {
+                    throw new SolicitudInvalidaException(MESSAGE_TRAMA_INVALIDA);
+                }
+                List<Long> ids = new ArrayList<>(cantidad);
+                for (int i = 0; i < cantidad; i++) {
+                    ids.add(datos.getLong());
+                }
+                return trama -> {
+                    ClientLookupResponseDTO respuesta = clientService.findAllById(ids);
+                    trama.putInt(respuesta.getClients().size());
+                    for (ClientResponseDTO dto : respuesta.getClients()) {
+                        trama.putCliente(dto);
+                    }
+                    trama.putInt(respuesta.getNoEncontrados().size());
+                    for (Long id : respuesta.getNoEncontrados()) {
+                        trama.putLong(id);
+                    }
+                };
+            }
+            case ProtocoloBinario.BUSCAR_POR_PRODUCTO -> {
+                byte ordinal = datos.get();
+                if (ordinal < 0 || ordinal >= TIPOS_PRODUCTO.length) {
+                    throw new SolicitudInvalidaException("Producto bancario inválido: " + ordinal);
+                }
+                String tipo = TIPOS_PRODUCTO[ordinal].name();
+                return trama -> {
+                    List<ClientResponseDTO> clients = clientService.findByProductoBancario(tipo);
+                    trama.putInt(clients.size());
+                    for (ClientResponseDTO dto : clients) {
+                        trama.putCliente(dto);
+                    }
+                };
+            }
+            default -> throw new SolicitudInvalidaException(MESSAGE_OPERACION_DESCONOCIDA + operacion);
+        }
+    }
+
+    private Trama resolver(int idSolicitud, Consulta consulta) {
+        Trama trama = new Trama(pool, idSolicitud, ProtocoloBinario.OK);
+        try {
+            consulta.responder(trama);
+            return trama.terminar();
+        } catch (ClientNotFoundException e) {
+            trama.liberar();
+            return Trama.error(pool, idSolicitud, ProtocoloBinario.NO_ENCONTRADO, e.getMessage());
+        } catch (ValorEnumInvalidoException | SolicitudInvalidaException e) {
+            trama.liberar();
+            return Trama.error(pool, idSolicitud, ProtocoloBinario.SOLICITUD_INVALIDA, e.getMessage());
+        } catch (CapacidadExcedidaException e) {
+            trama.liberar();
+            return Trama.error(pool, idSolicitud, ProtocoloBinario.SATURADO, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Error procesando la solicitud binaria {}", idSolicitud, e);
+            trama.liberar();
+            return Trama.error(pool, idSolicitud, ProtocoloBinario.ERROR, MESSAGE_ERROR);
+        }
+    }
+
+    /**
+     * Respuesta generada en el hilo del selector, que no pasó por los workers.
+     */
+    private void responder(Conexion conexion, Trama trama) {
+        conexion.enVuelo.incrementAndGet();
+        encolar(conexion, trama);
+    }
+
+    private void encolar(Conexion conexion, Trama trama) {
+        conexion.listas.add(trama);
+        if (conexion.cerrada) {
+            liberar(conexion.listas);
+            return;
+        }
+        conRespuestas.add(conexion);
+        selector.wakeup();
+    }
+
+    private void escribir(Conexion conexion) throws IOException {
+        int escritas = 0;
+        try {
+            while (true) {
+                if (conexion.enEscritura.isEmpty()) {
+                    Trama trama;
+                    while (conexion.enEscritura.size() < MAX_TRAMAS_POR_ESCRITURA && (trama = conexion.listas.poll()) != null) {
+                        conexion.enEscritura.add(trama);
+                    }
+                    if (conexion.enEscritura.isEmpty()) {
+                        conexion.key.interestOps(conexion.key.interestOps() & ~SelectionKey.OP_WRITE);
+                        if (conexion.cerrarAlVaciar) cerrar(conexion);
+                        return;
+                    }
+                }
+                ByteBuffer[] segmentos = conexion.enEscritura.stream()
+                        .flatMap(trama -> Arrays.stream(trama.segmentos()))
+                        .filter(ByteBuffer::hasRemaining)
+                        .toArray(ByteBuffer[]::new);
+                conexion.canal.write(segmentos);
+                while (!conexion.enEscritura.isEmpty() && conexion.enEscritura.peek().escrita()) {
+                    conexion.enEscritura.poll().liberar();
+                    escritas++;
+                }
+                if (!conexion.enEscritura.isEmpty()) {
+                    return;
+                }
+            }
+        } finally {
+            if (escritas > 0 && conexion.enVuelo.addAndGet(-escritas) < maxEnVuelo
+                    && !conexion.cerrarAlVaciar && conexion.key.isValid()) {
+                conexion.key.interestOps(conexion.key.interestOps() | SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    /**
+     * Deja de leer la conexión y la cierra cuando termine de escribir las respuestas pendientes.
+     */
+    private void cerrarAlVaciar(Conexion conexion) {
+        conexion.cerrarAlVaciar = true;
+        conexion.key.interestOps(conexion.key.interestOps() & ~SelectionKey.OP_READ);
+    }
+
+    private void cerrar(Conexion conexion) {
+        if (conexion == null || conexion.cerrada) {
+            return;
+        }
+        conexion.cerrada = true;
+        conexion.key.cancel();
+        try {
+            conexion.canal.close();
+        } catch (IOException e) {
+            log.debug("Error cerrando la conexión binaria", e);
+        }
+        liberar(conexion.enEscritura);
+        liberar(conexion.listas);
+    }
+
+    private static void liberar(Queue<Trama> tramas) {
+        Trama trama;
+        while ((trama = tramas.poll()) != null) {
+            trama.liberar();
+        }
+    }
+}
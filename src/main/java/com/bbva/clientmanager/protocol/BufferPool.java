@@ -0,0 +1,52 @@
+package com.bbva.clientmanager.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de ByteBuffers directos de tamaño fijo para armar las respuestas del protocolo binario.
+ * Se escriben al socket sin copia intermedia y se reutilizan, así que el servidor no asigna
+ * memoria fuera del heap por cada respuesta. Si el pool está vacío se crea un buffer nuevo, y al
+ * devolverlo solo se conservan hasta maxRetenidos.
+ */
+final class BufferPool {
+    private final int tamanio;
+    private final int maxRetenidos;
+    private final Queue<ByteBuffer> libres = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger retenidos = new AtomicInteger();
+
+    BufferPool(int tamanio, int maxRetenidos) {
+        this.tamanio = tamanio;
+        this.maxRetenidos = maxRetenidos;
+    }
+
+    int getTamanio() {
+        return tamanio;
+    }
+
+    ByteBuffer tomar() {
+        ByteBuffer buffer = libres.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(tamanio);
+        }
+        retenidos.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Devuelve un buffer al pool; los que no salieron de él (otro tamaño) se descartan.
+     */
+    void devolver(ByteBuffer buffer) {
+        if (!buffer.isDirect() || buffer.capacity() != tamanio) {
+            return;
+        }
+        if (retenidos.incrementAndGet() > maxRetenidos) {
+            retenidos.decrementAndGet();
+            return;
+        }
+        buffer.clear();
+        libres.offer(buffer);
+    }
+}
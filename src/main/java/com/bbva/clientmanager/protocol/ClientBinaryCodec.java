@@ -0,0 +1,137 @@
+package com.bbva.clientmanager.protocol;
+
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.entity.TipoDocumento;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codificación de ClientResponseDTO para el protocolo binario, con el mismo diseño que el
+ * registro del read model: [long id][byte tipoDocumento][short productos][int numero]
+ * [long+int fechaCreacion][long+int fechaModificacion] en posiciones fijas y luego los textos
+ * (documento, nombre, apellido, calle, codigoPostal, telefono, celular) como [short largo][UTF-8],
+ * con largo -1 para null. Los productos son una máscara de bits por ordinal de TipoProductoBancario.
+ *
+ * @author Veronica
+ */
+public final class ClientBinaryCodec {
+    private static final int FIJO = 8 + 1 + 2 + 4 + 12 + 12;
+    private static final TipoDocumento[] TIPOS_DOCUMENTO = TipoDocumento.values();
+    private static final TipoProductoBancario[] TIPOS_PRODUCTO = TipoProductoBancario.values();
+
+    private ClientBinaryCodec() {
+    }
+
+    /**
+     * Escribe el cliente a partir de la posición actual del buffer.
+     *
+     * @throws BufferOverflowException si no entra; la posición del buffer queda indefinida
+     */
+    public static void escribir(ByteBuffer buffer, ClientResponseDTO dto) {
+        buffer.putLong(dto.getId());
+        buffer.put((byte) (dto.getTipoDocumento() != null ? TipoDocumento.valueOf(dto.getTipoDocumento()).ordinal() + 1 : 0));
+        buffer.putShort(mascara(dto.getProductoBancarioList()));
+        buffer.putInt(dto.getNumero() != null ? dto.getNumero() : Integer.MIN_VALUE);
+        putFecha(buffer, dto.getFechaCreacion());
+        putFecha(buffer, dto.getFechaModificacion());
+        for (String texto : textos(dto)) {
+            putTexto(buffer, texto);
+        }
+    }
+
+    /**
+     * @return la cantidad de bytes que ocupa el cliente codificado
+     */
+    public static int tamanio(ClientResponseDTO dto) {
+        int tamanio = FIJO;
+        for (String texto : textos(dto)) {
+            tamanio += 2 + (texto != null ? texto.getBytes(StandardCharsets.UTF_8).length : 0);
+        }
+        return tamanio;
+    }
+
+    /**
+     * Lee un cliente desde la posición actual del buffer y la avanza hasta el final del registro.
+     */
+    public static ClientResponseDTO leer(ByteBuffer buffer) {
+        ClientResponseDTO dto = new ClientResponseDTO();
+        dto.setId(buffer.getLong());
+        byte tipoDocumento = buffer.get();
+        dto.setTipoDocumento(tipoDocumento > 0 ? TIPOS_DOCUMENTO[tipoDocumento - 1].name() : null);
+        dto.setProductoBancarioList(productos(buffer.getShort()));
+        int numero = buffer.getInt();
+        dto.setNumero(numero != Integer.MIN_VALUE ? numero : null);
+        dto.setFechaCreacion(getFecha(buffer));
+        dto.setFechaModificacion(getFecha(buffer));
+        dto.setDocumento(getTexto(buffer));
+        dto.setNombre(getTexto(buffer));
+        dto.setApellido(getTexto(buffer));
+        dto.setCalle(getTexto(buffer));
+        dto.setCodigoPostal(getTexto(buffer));
+        dto.setTelefono(getTexto(buffer));
+        dto.setCelular(getTexto(buffer));
+        return dto;
+    }
+
+    private static String[] textos(ClientResponseDTO dto) {
+        return new String[]{dto.getDocumento(), dto.getNombre(), dto.getApellido(), dto.getCalle(),
+                dto.getCodigoPostal(), dto.getTelefono(), dto.getCelular()};
+    }
+
+    private static short mascara(List<String> productos) {
+        short mascara = 0;
+        if (productos != null) {
+            for (String producto : productos) {
+                mascara |= (short) (1 << TipoProductoBancario.valueOf(producto).ordinal());
+            }
+        }
+        return mascara;
+    }
+
+    private static List<String> productos(short mascara) {
+        List<String> productos = new ArrayList<>();
+        for (TipoProductoBancario tipo : TIPOS_PRODUCTO) {
+            if ((mascara & (1 << tipo.ordinal())) != 0) productos.add(tipo.name());
+        }
+        return productos;
+    }
+
+    private static void putFecha(ByteBuffer buffer, LocalDateTime fecha) {
+        buffer.putLong(fecha != null ? fecha.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE);
+        buffer.putInt(fecha != null ? fecha.getNano() : 0);
+    }
+
+    private static LocalDateTime getFecha(ByteBuffer buffer) {
+        long segundos = buffer.getLong();
+        int nanos = buffer.getInt();
+        return segundos != Long.MIN_VALUE ? LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC) : null;
+    }
+
+    private static void putTexto(ByteBuffer buffer, String texto) {
+        if (texto == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Texto demasiado largo para el protocolo binario: " + bytes.length + " bytes");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getTexto(ByteBuffer buffer) {
+        short largo = buffer.getShort();
+        if (largo < 0) return null;
+        byte[] bytes = new byte[largo];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
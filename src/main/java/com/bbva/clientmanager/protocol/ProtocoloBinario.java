@@ -0,0 +1,37 @@
+package com.bbva.clientmanager.protocol;
+
+/**
+ * Constantes del protocolo binario interno de consulta de clientes.
+ *
+ * Cada trama es [int largo][int idSolicitud][byte código][datos], donde largo cuenta los bytes que
+ * siguen al propio campo. En las solicitudes el código es la operación y en las respuestas el estado;
+ * la respuesta lleva el id de su solicitud, así que un cliente puede enviar varias sin esperar
+ * (pipelining) y recibirlas en cualquier orden por la misma conexión (multiplexado).
+ *
+ * La primera solicitud de cada conexión debe ser AUTENTICAR con un token JWT en UTF-8; el resto de la
+ * conexión usa esa identidad hasta que el token vence o se revoca su clave. Datos de cada operación y de su respuesta OK:
+ * - BUSCAR_POR_ID: [long id] → un cliente.
+ * - BUSCAR_POR_IDS: [int n][n × long id] → [int n][n × cliente][int m][m × long id no encontrado].
+ * - BUSCAR_POR_PRODUCTO: [byte ordinal de TipoProductoBancario] → [int n][n × cliente].
+ * Los clientes se codifican con ClientBinaryCodec. Las respuestas con error llevan el mensaje en UTF-8.
+ *
+ * @author Veronica
+ */
+public final class ProtocoloBinario {
+    public static final int ENCABEZADO = 4 + 4 + 1;
+
+    public static final byte AUTENTICAR = 1;
+    public static final byte BUSCAR_POR_ID = 2;
+    public static final byte BUSCAR_POR_IDS = 3;
+    public static final byte BUSCAR_POR_PRODUCTO = 4;
+
+    public static final byte OK = 0;
+    public static final byte NO_ENCONTRADO = 1;
+    public static final byte SOLICITUD_INVALIDA = 2;
+    public static final byte NO_AUTENTICADO = 3;
+    public static final byte SATURADO = 4;
+    public static final byte ERROR = 5;
+
+    private ProtocoloBinario() {
+    }
+}
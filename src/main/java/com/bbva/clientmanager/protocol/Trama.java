@@ -0,0 +1,113 @@
+package com.bbva.clientmanager.protocol;
+
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trama de respuesta armada directamente sobre buffers del pool. Si no entra en uno se encadena
+ * otro, y el servidor la escribe al socket con una escritura gather sobre todos los segmentos.
+ * Un cliente nunca se parte entre segmentos: si no entra en lo que queda del actual se escribe en
+ * el siguiente, y si no entra en un buffer completo se le asigna uno de su tamaño.
+ */
+final class Trama {
+    private final BufferPool pool;
+    private final List<ByteBuffer> segmentos = new ArrayList<>(1);
+    private ByteBuffer actual;
+    private ByteBuffer[] paraEscribir;
+
+    Trama(BufferPool pool, int idSolicitud, byte estado) {
+        this.pool = pool;
+        agregar(pool.tomar());
+        actual.putInt(0);
+        actual.putInt(idSolicitud);
+        actual.put(estado);
+    }
+
+    static Trama error(BufferPool pool, int idSolicitud, byte estado, String mensaje) {
+        Trama trama = new Trama(pool, idSolicitud, estado);
+        byte[] bytes = (mensaje != null ? mensaje : "").getBytes(StandardCharsets.UTF_8);
+        int escritos = 0;
+        while (escritos < bytes.length) {
+            if (!trama.actual.hasRemaining()) trama.agregar(pool.tomar());
+            int largo = Math.min(trama.actual.remaining(), bytes.length - escritos);
+            trama.actual.put(bytes, escritos, largo);
+            escritos += largo;
+        }
+        return trama.terminar();
+    }
+
+    void putInt(int valor) {
+        asegurar(4);
+        actual.putInt(valor);
+    }
+
+    void putLong(long valor) {
+        asegurar(8);
+        actual.putLong(valor);
+    }
+
+    void putCliente(ClientResponseDTO dto) {
+        int inicio = actual.position();
+        try {
+            ClientBinaryCodec.escribir(actual, dto);
+            return;
+        } catch (BufferOverflowException e) {
+            actual.position(inicio);
+        }
+        ByteBuffer siguiente = pool.tomar();
+        try {
+            ClientBinaryCodec.escribir(siguiente, dto);
+            agregar(siguiente);
+        } catch (BufferOverflowException e) {
+            pool.devolver(siguiente);
+            ByteBuffer propio = ByteBuffer.allocateDirect(ClientBinaryCodec.tamanio(dto));
+            ClientBinaryCodec.escribir(propio, dto);
+            agregar(propio);
+        }
+    }
+
+    /**
+     * Completa el largo del encabezado y deja los segmentos listos para escribir.
+     */
+    Trama terminar() {
+        int total = 0;
+        for (ByteBuffer segmento : segmentos) {
+            total += segmento.position();
+        }
+        segmentos.get(0).putInt(0, total - 4);
+        for (ByteBuffer segmento : segmentos) {
+            segmento.flip();
+        }
+        paraEscribir = segmentos.toArray(ByteBuffer[]::new);
+        return this;
+    }
+
+    ByteBuffer[] segmentos() {
+        return paraEscribir;
+    }
+
+    boolean escrita() {
+        return !paraEscribir[paraEscribir.length - 1].hasRemaining();
+    }
+
+    void liberar() {
+        for (ByteBuffer segmento : segmentos) {
+            pool.devolver(segmento);
+        }
+        segmentos.clear();
+    }
+
+    private void asegurar(int bytes) {
+        if (actual.remaining() < bytes) agregar(pool.tomar());
+    }
+
+    private void agregar(ByteBuffer segmento) {
+        segmentos.add(segmento);
+        actual = segmento;
+    }
+}
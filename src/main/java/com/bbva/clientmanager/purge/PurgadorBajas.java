@@ -0,0 +1,155 @@
+package com.bbva.clientmanager.purge;
+
+import com.bbva.clientmanager.event.ClientModificadoEvent;
+import com.bbva.clientmanager.repository.IClientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Borra físicamente, en segundo plano, los clientes dados de baja lógica.
+ *
+ * Cada clientmanager.soft-delete.purge.interval-ms revisa si la hora actual está dentro de la
+ * ventana de baja actividad [window-start, window-end) (puede cruzar la medianoche; si ambas
+ * horas son iguales no hay restricción horaria). Dentro de la ventana purga lotes de batch-size
+ * clientes con más de min-age-ms desde la baja, cada lote en su propia transacción y con una
+ * pausa de pause-ms entre lotes, hasta que no queden pendientes o se cierre la ventana. Así los DELETE en cascada sobre clients y
+ * clients_productos_bancarios no compiten con el tráfico ni retienen locks por mucho tiempo.
+ *
+ * Métricas: clientmanager.purge.clients (clientes borrados), clientmanager.purge.batches
+ * (duración de cada lote) y clientmanager.purge.pending (bajas pendientes al terminar la
+ * última pasada).
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "clientmanager.soft-delete.enabled", havingValue = "true")
+public class PurgadorBajas {
+    private final IClientRepository clientRepository;
+    private final TransactionTemplate transaccion;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int tamanioLote;
+    private final long pausaMs;
+    private final long antiguedadMinimaMs;
+    private final long intervaloMs;
+    private final LocalTime inicioVentana;
+    private final LocalTime finVentana;
+    private final Counter purgados;
+    private final Timer lotes;
+    private final AtomicLong pendientes = new AtomicLong();
+    private final ScheduledExecutorService planificador;
+
+    public PurgadorBajas(IClientRepository clientRepository, PlatformTransactionManager transactionManager,
+                         ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                         @Value("${clientmanager.soft-delete.purge.batch-size:500}") int tamanioLote,
+                         @Value("${clientmanager.soft-delete.purge.pause-ms:200}") long pausaMs,
+                         @Value("${clientmanager.soft-delete.purge.min-age-ms:3600000}") long antiguedadMinimaMs,
+                         @Value("${clientmanager.soft-delete.purge.interval-ms:60000}") long intervaloMs,
+                         @Value("${clientmanager.soft-delete.purge.window-start:01:00}") String inicioVentana,
+                         @Value("${clientmanager.soft-delete.purge.window-end:05:00}") String finVentana) {
+        if (tamanioLote < 1 || pausaMs < 0 || antiguedadMinimaMs < 0 || intervaloMs < 1) {
+            throw new IllegalArgumentException("Configuración inválida de clientmanager.soft-delete.purge");
+        }
+        this.clientRepository = clientRepository;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.tamanioLote = tamanioLote;
+        this.pausaMs = pausaMs;
+        this.antiguedadMinimaMs = antiguedadMinimaMs;
+        this.intervaloMs = intervaloMs;
+        this.inicioVentana = LocalTime.parse(inicioVentana);
+        this.finVentana = LocalTime.parse(finVentana);
+        this.purgados = Counter.builder("clientmanager.purge.clients").register(meterRegistry);
+        this.lotes = Timer.builder("clientmanager.purge.batches").register(meterRegistry);
+        Gauge.builder("clientmanager.purge.pending", pendientes, AtomicLong::get).register(meterRegistry);
+        this.planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "purga-bajas");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        planificador.scheduleWithFixedDelay(() -> {
+            try {
+                if (enVentana(LocalTime.now(), inicioVentana, finVentana)) {
+                    purgar();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Falló la purga de clientes dados de baja", e);
+            }
+        }, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        planificador.shutdownNow();
+    }
+
+    /**
+     * Purga lotes de bajas mientras haya pendientes y la hora siga dentro de la ventana.
+     *
+     * @return cantidad de clientes borrados
+     */
+    public long purgar() throws InterruptedException {
+        long total = 0;
+        int borrados;
+        do {
+            LocalDateTime hasta = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(antiguedadMinimaMs));
+            borrados = lotes.record(() -> transaccion.execute(status -> purgarLote(hasta)));
+            purgados.increment(borrados);
+            total += borrados;
+            if (borrados == tamanioLote && pausaMs > 0) {
+                Thread.sleep(pausaMs);
+            }
+        } while (borrados == tamanioLote && enVentana(LocalTime.now(), inicioVentana, finVentana));
+        pendientes.set(clientRepository.contarEliminados());
+        if (total > 0) {
+            log.atInfo().addKeyValue("cantidad", total).addKeyValue("pendientes", pendientes.get())
+                    .log("Clientes dados de baja purgados");
+        }
+        return total;
+    }
+
+    private int purgarLote(LocalDateTime hasta) {
+        List<Long> ids = clientRepository.buscarEliminados(hasta, tamanioLote);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int borrados = clientRepository.purgar(ids);
+        eventPublisher.publishEvent(new ClientModificadoEvent(ids, ClientModificadoEvent.TipoModificacion.BAJA, null));
+        return borrados;
+    }
+
+    static boolean enVentana(LocalTime ahora, LocalTime inicio, LocalTime fin) {
+        if (inicio.equals(fin)) {
+            return true;
+        }
+        return inicio.isBefore(fin)
+                ? !ahora.isBefore(inicio) && ahora.isBefore(fin)
+                : !ahora.isBefore(inicio) || ahora.isBefore(fin);
+    }
+}
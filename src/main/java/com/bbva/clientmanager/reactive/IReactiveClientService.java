@@ -0,0 +1,26 @@
+package com.bbva.clientmanager.reactive;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientRequestUpdateDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.TelefonoUpdateDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface IReactiveClientService {
+    Mono<ClientResponseDTO> create (ClientRequestDTO clientRequestDTO);
+
+    Flux<ClientResponseDTO> findAll();
+
+    Mono<ClientResponseDTO> findById(Long id);
+
+    Flux<ClientResponseDTO> findByProductoBancario(String tipoProductoBancario);
+
+    Mono<Void> deleteById(Long id);
+
+    Mono<ClientResponseDTO> update(Long id, ClientRequestDTO clientRequestDTO);
+
+    Mono<ClientResponseDTO> partialUpdate(Long id, ClientRequestUpdateDTO dto);
+
+    Mono<ClientResponseDTO> updateTelefono(Long id, TelefonoUpdateDTO telefonoUpdateDTO);
+}
@@ -0,0 +1,150 @@
+package com.bbva.clientmanager.reactive;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientRequestUpdateDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.TelefonoUpdateDTO;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador REST reactivo de clientes, con las mismas rutas, validaciones y respuestas que
+ * ClientController.
+ *
+ * Los listados devuelven un Flux: con Accept: application/x-ndjson se escribe un cliente por línea
+ * a medida que se leen de la base, respetando el ritmo del cliente HTTP (backpressure); con
+ * application/json se devuelve el arreglo habitual.
+ *
+ * URL base: /clients
+ *
+ * @author Veronica
+ */
+@Slf4j
+@RestController
+@RequestMapping("/clients")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveClientController {
+    private final IReactiveClientService clientService;
+
+    public ReactiveClientController(IReactiveClientService clientService) {
+        this.clientService = clientService;
+    }
+
+    /**
+     * Endpoint para crear un nuevo cliente.
+     *
+     * @param clientRequestDTO objeto con los datos del cliente a crear
+     * @return el cliente creado y código HTTP 201 Created
+     */
+    @PostMapping
+    public Mono<ResponseEntity<ClientResponseDTO>> create(@Valid @RequestBody ClientRequestDTO clientRequestDTO) {
+        log.atInfo().addKeyValue("documento", clientRequestDTO.getDocumento()).log("POST /clients - Creando cliente");
+        return clientService.create(clientRequestDTO)
+                .map(creado -> ResponseEntity.status(HttpStatus.CREATED).body(creado));
+    }
+
+    /**
+     * Endpoint para recuperar todos los clientes.
+     *
+     * @return los clientes ordenados por id
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ClientResponseDTO> getAll() {
+        log.info("GET /clients - Recuperando todos los clientes");
+        return clientService.findAll();
+    }
+
+    /**
+     * Endpoint para buscar un cliente por su ID.
+     *
+     * @param id identificador del cliente
+     * @return el cliente encontrado
+     */
+    @GetMapping("/{id}")
+    public Mono<ClientResponseDTO> findById(@PathVariable Long id) {
+        log.atInfo().addKeyValue("id", id).log("GET /clients/{id} - Buscando cliente por id");
+        return clientService.findById(id);
+    }
+
+    /**
+     * Endpoint para buscar clientes por tipo de producto bancario.
+     *
+     * @param tipoProductoBancario tipo de producto bancario (ej. "CHEQ")
+     * @return los clientes que poseen dicho producto, ordenados por id
+     */
+    @GetMapping(value = "/producto/{tipoProductoBancario}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ClientResponseDTO> getClientsByProductoBancario(@PathVariable String tipoProductoBancario) {
+        log.atInfo().addKeyValue("producto", tipoProductoBancario).log("GET /clients/producto/{producto} - Buscando clientes por producto bancario");
+        return clientService.findByProductoBancario(tipoProductoBancario);
+    }
+
+    /**
+     * Endpoint para eliminar un cliente por su ID.
+     *
+     * @param id identificador del cliente a eliminar
+     * @return respuesta sin contenido y código HTTP 204 No Content
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteById(@PathVariable Long id) {
+        log.atInfo().addKeyValue("id", id).log("DELETE /clients/{id} - Eliminando cliente");
+        return clientService.deleteById(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Endpoint para actualizar completamente los datos de un cliente.
+     *
+     * @param id identificador del cliente a actualizar
+     * @param clientRequestDTO objeto con los nuevos datos del cliente
+     * @return el cliente actualizado
+     */
+    @PutMapping("/{id}")
+    public Mono<ClientResponseDTO> update(@PathVariable Long id,
+                                          @Valid @RequestBody ClientRequestDTO clientRequestDTO) {
+        log.atInfo().addKeyValue("id", id).log("PUT /clients/{id} - Actualizando cliente");
+        return clientService.update(id, clientRequestDTO);
+    }
+
+    /**
+     * Endpoint para actualizar parcialmente los datos de un cliente.
+     *
+     * @param id identificador del cliente a actualizar
+     * @param clientRequestUpdateDTO objeto con los campos a actualizar
+     * @return el cliente actualizado parcialmente
+     */
+    @PatchMapping("/{id}")
+    public Mono<ClientResponseDTO> partialUpdate(@PathVariable Long id,
+                                                 @RequestBody ClientRequestUpdateDTO clientRequestUpdateDTO) {
+        log.atInfo().addKeyValue("id", id).log("PATCH /clients/{id} - Actualización parcial de cliente");
+        return clientService.partialUpdate(id, clientRequestUpdateDTO);
+    }
+
+    /**
+     * Endpoint para actualizar el teléfono de un cliente.
+     *
+     * @param id identificador del cliente
+     * @param telefonoUpdateDTO objeto con el nuevo número de teléfono
+     * @return el cliente actualizado
+     */
+    @PatchMapping("/{id}/telefono")
+    public Mono<ClientResponseDTO> updateTelefono(@PathVariable Long id,
+                                                  @RequestBody TelefonoUpdateDTO telefonoUpdateDTO) {
+        log.atInfo().addKeyValue("id", id).log("PATCH /clients/{id}/telefono - Actualizando teléfono");
+        return clientService.updateTelefono(id, telefonoUpdateDTO);
+    }
+}
@@ -0,0 +1,58 @@
+package com.bbva.clientmanager.reactive;
+
+import com.bbva.clientmanager.controller.AuthController;
+import com.bbva.clientmanager.exception.ExceptionConfiguration;
+import com.bbva.clientmanager.security.JwtKeys;
+import com.bbva.clientmanager.security.JwtUtil;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Variante reactiva de la API de clientes: servidor HTTP no bloqueante (Reactor Netty) y acceso a H2
+ * por R2DBC, sin JPA ni pool de hilos por request.
+ *
+ * Solo carga el paquete reactive más las piezas compartidas con la variante servlet: claves y
+ * tokens JWT, login y manejo de errores. Todos sus beans exigen una aplicación web reactiva,
+ * así que no se activan dentro de ClientManagerApplication aunque estén en su paquete.
+ *
+ * Se levanta con el perfil reactive (application-reactive.yml).
+ *
+ * @author Veronica
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = {
+        DataSourceAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        ReactiveUserDetailsServiceAutoConfiguration.class
+})
+@ComponentScan
+@Import({JwtKeys.class, JwtUtil.class, AuthController.class, ExceptionConfiguration.class})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveClientManagerApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveClientManagerApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+
+    /**
+     * Fuerza Reactor Netty: Tomcat también está en el classpath (por la variante servlet) y Spring Boot
+     * lo preferiría como servidor reactivo.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,384 @@
+package com.bbva.clientmanager.reactive;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientRequestUpdateDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.TelefonoUpdateDTO;
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.entity.TipoDocumento;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.exception.ClientNotFoundException;
+import com.bbva.clientmanager.service.ValidacionCliente;
+import io.r2dbc.spi.Readable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Implementación reactiva del servicio de clientes sobre R2DBC.
+ *
+ * Aplica las mismas reglas que ClientService (ValidacionCliente y las validaciones de
+ * ClientRequestDTO) y escribe en las mismas tablas. Los listados se leen con una sola consulta
+ * ordenada por id con los productos en LEFT JOIN, y cada cliente se arma al cambiar el id, así
+ * que se emiten de a uno a medida que el cliente HTTP los consume, sin juntar la lista en memoria.
+ *
+ * No mantiene las estructuras derivadas de la variante servlet (client_view, read model, caches).
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveClientService implements IReactiveClientService {
+    private static final String MESSAGE_CLIENT = "No se encuentra el cliente con id ";
+    private static final String SELECT_CLIENTS = "SELECT c.id, c.tipo_documento, c.documento, c.nombre, c.apellido, "
+            + "c.calle, c.numero, c.codigo_postal, c.telefono, c.celular, c.fecha_creacion, c.fecha_modificacion, "
+            + "p.tipo_producto_bancario FROM clients c "
+            + "LEFT JOIN clients_productos_bancarios cp ON cp.clients_id = c.id "
+            + "LEFT JOIN productos_bancarios p ON p.id = cp.producto_bancario_id ";
+    private static final String WHERE_PRODUCTO = "WHERE c.id IN (SELECT cp2.clients_id FROM clients_productos_bancarios cp2 "
+            + "JOIN productos_bancarios p2 ON p2.id = cp2.producto_bancario_id WHERE p2.tipo_producto_bancario = :tipo) ";
+    private static final String INSERT_CLIENT = "INSERT INTO clients (tipo_documento, documento, nombre, apellido, "
+            + "calle, numero, codigo_postal, telefono, celular, fecha_creacion, fecha_modificacion) VALUES "
+            + "(:tipoDocumento, :documento, :nombre, :apellido, :calle, :numero, :codigoPostal, :telefono, "
+            + ":celular, :fechaModificacion, :fechaModificacion)";
+    private static final String UPDATE_CLIENT = "UPDATE clients SET tipo_documento = :tipoDocumento, "
+            + "documento = :documento, nombre = :nombre, apellido = :apellido, calle = :calle, numero = :numero, "
+            + "codigo_postal = :codigoPostal, telefono = :telefono, celular = :celular, "
+            + "fecha_modificacion = :fechaModificacion WHERE id = :id";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveClientService(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Fila del listado: datos del cliente y, como mucho, uno de sus productos.
+     */
+    private record Fila(Client client, String producto) {
+    }
+
+    /**
+     * Crea un nuevo cliente.
+     *
+     * @param clientRequestDTO datos del cliente a crear
+     * @return cliente creado como ClientResponseDTO
+     */
+    @Override
+    @Transactional
+    public Mono<ClientResponseDTO> create(ClientRequestDTO clientRequestDTO) {
+        log.atInfo().addKeyValue("documento", clientRequestDTO.getDocumento()).log("Creando cliente");
+        return validarProductosBancarios(productos(clientRequestDTO.getProductoBancarioList()))
+                .flatMap(productos -> databaseClient.sql(INSERT_CLIENT)
+                        .bindValues(columnas(aplicarDatos(new Client(), clientRequestDTO)))
+                        .filter(statement -> statement.returnGeneratedValues("id"))
+                        .map(row -> row.get("id", Long.class))
+                        .one()
+                        .flatMap(id -> agregarProductos(id, productos).then(findById(id))));
+    }
+
+    /**
+     * Recupera todos los clientes ordenados por id, a medida que se consumen.
+     *
+     * @return clientes como ClientResponseDTO
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<ClientResponseDTO> findAll() {
+        log.info("Recuperando todos los clientes");
+        return leer(databaseClient.sql(SELECT_CLIENTS + "ORDER BY c.id"));
+    }
+
+    /**
+     * Busca un cliente por su ID.
+     *
+     * @param id identificador del cliente
+     * @return cliente encontrado, o error ClientNotFoundException si no existe
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<ClientResponseDTO> findById(Long id) {
+        log.atInfo().addKeyValue("id", id).log("Buscando cliente");
+        return leer(databaseClient.sql(SELECT_CLIENTS + "WHERE c.id = :id").bind("id", id))
+                .next()
+                .switchIfEmpty(noEncontrado(id));
+    }
+
+    /**
+     * Busca clientes que tengan un producto bancario específico, a medida que se consumen.
+     *
+     * @param tipoProductoBancario nombre del producto bancario
+     * @return clientes con dicho producto, o error ValorEnumInvalidoException si el producto no es válido
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<ClientResponseDTO> findByProductoBancario(String tipoProductoBancario) {
+        log.atInfo().addKeyValue("producto", tipoProductoBancario).log("Buscando clientes por producto bancario");
+        return Flux.defer(() -> leer(databaseClient.sql(SELECT_CLIENTS + WHERE_PRODUCTO + "ORDER BY c.id")
+                .bind("tipo", ValidacionCliente.tipoProducto(tipoProductoBancario).name())));
+    }
+
+    /**
+     * Elimina un cliente por su ID junto con sus productos asociados.
+     *
+     * @param id identificador del cliente
+     * @return vacío al terminar, o error ClientNotFoundException si no existe
+     */
+    @Override
+    @Transactional
+    public Mono<Void> deleteById(Long id) {
+        log.atInfo().addKeyValue("id", id).log("Eliminando cliente");
+        return cargar(id)
+                .then(databaseClient.sql("DELETE FROM clients_productos_bancarios WHERE clients_id = :id")
+                        .bind("id", id).then())
+                .then(databaseClient.sql("DELETE FROM clients WHERE id = :id").bind("id", id).then())
+                .doOnSuccess(v -> log.atInfo().addKeyValue("id", id).log("Cliente eliminado"));
+    }
+
+    /**
+     * Actualiza completamente un cliente, escribiendo solo las diferencias de productos.
+     *
+     * @param id identificador del cliente
+     * @param clientRequestDTO nuevos datos del cliente
+     * @return cliente actualizado como ClientResponseDTO
+     */
+    @Override
+    @Transactional
+    public Mono<ClientResponseDTO> update(Long id, ClientRequestDTO clientRequestDTO) {
+        log.atInfo().addKeyValue("id", id).log("Actualizando cliente");
+        return cargar(id)
+                .flatMap(client -> validarProductosBancarios(productos(clientRequestDTO.getProductoBancarioList()))
+                        .flatMap(productos -> guardar(id, aplicarDatos(client, clientRequestDTO), productos)))
+                .doOnSuccess(c -> log.atInfo().addKeyValue("id", id).log("Cliente actualizado"));
+    }
+
+    /**
+     * Realiza una actualización parcial de un cliente con los mismos campos que ClientService.
+     *
+     * @param id identificador del cliente
+     * @param dto datos parciales a actualizar
+     * @return cliente actualizado como ClientResponseDTO
+     */
+    @Override
+    @Transactional
+    public Mono<ClientResponseDTO> partialUpdate(Long id, ClientRequestUpdateDTO dto) {
+        log.atInfo().addKeyValue("id", id).log("Actualización parcial de cliente");
+        return cargar(id).flatMap(client -> {
+            if (dto.getNombre() != null) client.setNombre(dto.getNombre());
+            if (dto.getApellido() != null) client.setApellido(dto.getApellido());
+            if (dto.getCalle() != null) client.setCalle(dto.getCalle());
+            if (dto.getNumero() != null) client.setNumero(dto.getNumero());
+            if (dto.getCodigoPostal() != null) client.setCodigoPostal(dto.getCodigoPostal());
+            if (dto.getTelefono() != null) client.setTelefono(dto.getTelefono());
+            if (dto.getCelular() != null) client.setCelular(dto.getCelular());
+
+            if (dto.getTipoDocumento() != null) {
+                client.setTipoDocumento(ValidacionCliente.tipoDocumento(dto.getTipoDocumento()));
+            }
+
+            if (dto.getProductoBancarioList() == null) {
+                return guardar(id, client, null);
+            }
+            return validarProductosBancarios(dto.getProductoBancarioList())
+                    .flatMap(productos -> guardar(id, client, productos));
+        }).doOnSuccess(c -> log.atInfo().addKeyValue("id", id).log("Actualización parcial completada"));
+    }
+
+    /**
+     * Actualiza solo el teléfono de un cliente.
+     *
+     * @param id identificador del cliente
+     * @param telefonoUpdateDTO nuevo teléfono a actualizar
+     * @return cliente actualizado como ClientResponseDTO
+     */
+    @Override
+    @Transactional
+    public Mono<ClientResponseDTO> updateTelefono(Long id, TelefonoUpdateDTO telefonoUpdateDTO) {
+        log.atInfo().addKeyValue("id", id).log("Actualizando teléfono del cliente");
+        return cargar(id)
+                .flatMap(client -> {
+                    client.setTelefono(telefonoUpdateDTO.getTelefono());
+                    return guardar(id, client, null);
+                })
+                .doOnSuccess(c -> log.atInfo().addKeyValue("id", id).log("Teléfono actualizado"));
+    }
+
+    /**
+     * Agrupa las filas consecutivas de un mismo cliente; la consulta debe venir ordenada por id.
+     */
+    private Flux<ClientResponseDTO> leer(DatabaseClient.GenericExecuteSpec consulta) {
+        return consulta.map(row -> new Fila(mapToEntity(row), row.get("tipo_producto_bancario", String.class)))
+                .all()
+                .bufferUntilChanged(fila -> fila.client().getId())
+                .map(this::mapToDTO);
+    }
+
+    private Mono<Client> cargar(Long id) {
+        return databaseClient.sql("SELECT * FROM clients WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveClientService::mapToEntity)
+                .one()
+                .switchIfEmpty(noEncontrado(id));
+    }
+
+    /**
+     * Escribe las columnas del cliente y, si productos no es nulo, lleva sus productos a ese conjunto.
+     */
+    private Mono<ClientResponseDTO> guardar(Long id, Client client, List<Long> productos) {
+        Map<String, Parameter> columnas = columnas(client);
+        columnas.put("id", Parameter.from(id));
+        Mono<Void> escribirProductos = productos != null ? sincronizarProductos(id, productos) : Mono.empty();
+        return escribirProductos
+                .then(databaseClient.sql(UPDATE_CLIENT).bindValues(columnas).then())
+                .then(findById(id));
+    }
+
+    /**
+     * Borra e inserta únicamente las filas de clients_productos_bancarios que cambian.
+     */
+    private Mono<Void> sincronizarProductos(Long id, List<Long> deseados) {
+        return databaseClient.sql("SELECT producto_bancario_id FROM clients_productos_bancarios WHERE clients_id = :id")
+                .bind("id", id)
+                .map(row -> row.get(0, Long.class))
+                .all()
+                .collect(HashSet<Long>::new, Set::add)
+                .flatMap(actuales -> {
+                    List<Long> quitados = actuales.stream().filter(p -> !deseados.contains(p)).toList();
+                    List<Long> agregados = deseados.stream().filter(p -> !actuales.contains(p)).toList();
+                    Mono<Void> borrar = quitados.isEmpty() ? Mono.empty()
+                            : databaseClient.sql("DELETE FROM clients_productos_bancarios "
+                                    + "WHERE clients_id = :id AND producto_bancario_id IN (:productos)")
+                            .bind("id", id)
+                            .bind("productos", quitados)
+                            .then();
+                    return borrar.then(agregarProductos(id, agregados));
+                });
+    }
+
+    private Mono<Void> agregarProductos(Long id, List<Long> productos) {
+        return Flux.fromIterable(productos)
+                .concatMap(producto -> databaseClient.sql("INSERT INTO clients_productos_bancarios "
+                                + "(clients_id, producto_bancario_id) VALUES (:id, :producto)")
+                        .bind("id", id)
+                        .bind("producto", producto)
+                        .then())
+                .then();
+    }
+
+    /**
+     * Valida los nombres con ValidacionCliente y devuelve los ids de los productos existentes.
+     */
+    private Mono<List<Long>> validarProductosBancarios(List<String> nombres) {
+        return Mono.defer(() -> {
+            List<TipoProductoBancario> tipos = ValidacionCliente.tiposProducto(nombres);
+            if (tipos.isEmpty()) {
+                return Mono.just(List.of());
+            }
+            return databaseClient.sql("SELECT id FROM productos_bancarios WHERE tipo_producto_bancario IN (:tipos)")
+                    .bind("tipos", tipos.stream().map(Enum::name).distinct().toList())
+                    .map(row -> row.get(0, Long.class))
+                    .all()
+                    .collectList()
+                    .doOnNext(productos -> ValidacionCliente.verificarProductos(tipos, productos));
+        });
+    }
+
+    private static List<String> productos(List<String> nombres) {
+        // Igual que en ClientService, una lista nula en un alta o reemplazo significa "sin productos".
+        return nombres != null ? nombres : List.of();
+    }
+
+    private static <T> Mono<T> noEncontrado(Long id) {
+        return Mono.error(() -> {
+            log.atWarn().addKeyValue("id", id).log("No se encontró el cliente");
+            return new ClientNotFoundException(MESSAGE_CLIENT + id);
+        });
+    }
+
+    private static Client aplicarDatos(Client client, ClientRequestDTO clientRequestDTO) {
+        client.setDocumento(clientRequestDTO.getDocumento());
+        client.setNombre(clientRequestDTO.getNombre());
+        client.setApellido(clientRequestDTO.getApellido());
+        client.setCalle(clientRequestDTO.getCalle());
+        client.setNumero(clientRequestDTO.getNumero());
+        client.setCodigoPostal(clientRequestDTO.getCodigoPostal());
+        client.setTelefono(clientRequestDTO.getTelefono());
+        client.setCelular(clientRequestDTO.getCelular());
+        client.setTipoDocumento(ValidacionCliente.tipoDocumento(clientRequestDTO.getTipoDocumento()));
+        return client;
+    }
+
+    private static Map<String, Parameter> columnas(Client client) {
+        Map<String, Parameter> columnas = new LinkedHashMap<>();
+        columnas.put("tipoDocumento", Parameter.fromOrEmpty(
+                client.getTipoDocumento() != null ? client.getTipoDocumento().name() : null, String.class));
+        columnas.put("documento", Parameter.fromOrEmpty(client.getDocumento(), String.class));
+        columnas.put("nombre", Parameter.fromOrEmpty(client.getNombre(), String.class));
+        columnas.put("apellido", Parameter.fromOrEmpty(client.getApellido(), String.class));
+        columnas.put("calle", Parameter.fromOrEmpty(client.getCalle(), String.class));
+        columnas.put("numero", Parameter.fromOrEmpty(client.getNumero(), Integer.class));
+        columnas.put("codigoPostal", Parameter.fromOrEmpty(client.getCodigoPostal(), String.class));
+        columnas.put("telefono", Parameter.fromOrEmpty(client.getTelefono(), String.class));
+        columnas.put("celular", Parameter.fromOrEmpty(client.getCelular(), String.class));
+        columnas.put("fechaModificacion", Parameter.from(LocalDateTime.now()));
+        return columnas;
+    }
+
+    private static Client mapToEntity(Readable row) {
+        Client client = new Client();
+        String tipoDocumento = row.get("tipo_documento", String.class);
+        client.setId(row.get("id", Long.class));
+        client.setTipoDocumento(tipoDocumento != null ? TipoDocumento.valueOf(tipoDocumento) : null);
+        client.setDocumento(row.get("documento", String.class));
+        client.setNombre(row.get("nombre", String.class));
+        client.setApellido(row.get("apellido", String.class));
+        client.setCalle(row.get("calle", String.class));
+        client.setNumero(row.get("numero", Integer.class));
+        client.setCodigoPostal(row.get("codigo_postal", String.class));
+        client.setTelefono(row.get("telefono", String.class));
+        client.setCelular(row.get("celular", String.class));
+        client.setFechaCreacion(row.get("fecha_creacion", LocalDateTime.class));
+        client.setFechaModificacion(row.get("fecha_modificacion", LocalDateTime.class));
+        return client;
+    }
+
+    private ClientResponseDTO mapToDTO(List<Fila> filas) {
+        Client client = filas.get(0).client();
+        ClientResponseDTO clientResponseDTO = new ClientResponseDTO();
+
+        clientResponseDTO.setId(client.getId());
+        clientResponseDTO.setTipoDocumento(client.getTipoDocumento().toString());
+        clientResponseDTO.setDocumento(client.getDocumento());
+        clientResponseDTO.setNombre(client.getNombre());
+        clientResponseDTO.setApellido(client.getApellido());
+        clientResponseDTO.setCalle(client.getCalle());
+        clientResponseDTO.setNumero(client.getNumero());
+        clientResponseDTO.setCodigoPostal(client.getCodigoPostal());
+        clientResponseDTO.setTelefono(client.getTelefono());
+        clientResponseDTO.setCelular(client.getCelular());
+        clientResponseDTO.setFechaCreacion(client.getFechaCreacion());
+        clientResponseDTO.setFechaModificacion(client.getFechaModificacion());
+        clientResponseDTO.setProductoBancarioList(filas.stream()
+                .map(Fila::producto)
+                .filter(Objects::nonNull)
+                .map(TipoProductoBancario::valueOf)
+                .sorted()
+                .map(TipoProductoBancario::name)
+                .toList());
+        return clientResponseDTO;
+    }
+}
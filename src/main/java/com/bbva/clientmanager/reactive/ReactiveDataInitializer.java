@@ -0,0 +1,29 @@
+package com.bbva.clientmanager.reactive;
+
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.Arrays;
+
+/**
+ * Equivalente reactivo de DataInitializer: carga en productos_bancarios los tipos de
+ * TipoProductoBancario que todavía no existan, con un único MERGE.
+ *
+ * @author Veronica
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDataInitializer {
+    @Bean
+    CommandLineRunner initDatabase(DatabaseClient databaseClient) {
+        return args -> databaseClient.sql("MERGE INTO productos_bancarios (tipo_producto_bancario) "
+                        + "KEY (tipo_producto_bancario) VALUES :tipos")
+                .bind("tipos", Arrays.stream(TipoProductoBancario.values()).map(tipo -> new Object[]{tipo.name()}).toList())
+                .then()
+                .block();
+    }
+}
@@ -0,0 +1,58 @@
+package com.bbva.clientmanager.reactive;
+
+import com.bbva.clientmanager.dto.ExceptionDTO;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * Manejo de las excepciones propias de WebFlux con los mismos mensajes que ExceptionConfiguration
+ * da para sus equivalentes servlet. Las excepciones de negocio las sigue manejando ExceptionConfiguration.
+ *
+ * @author Veronica
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionConfiguration {
+    /**
+     * Maneja los errores de validación de campos en requests.
+     *
+     * @param ex excepción lanzada
+     * @return respuesta con detalle del campo y mensaje de error, estado BAD_REQUEST
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ExceptionDTO> handleValidationException(WebExchangeBindException ex) {
+        FieldError fieldError = ex.getBindingResult().getFieldError();
+        String message;
+        if (fieldError != null) {
+            message = "Error en el campo '" + fieldError.getField() + "': " + fieldError.getDefaultMessage();
+        } else {
+            message = "Error de validación.";
+        }
+        return new ResponseEntity<>(new ExceptionDTO(message), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Maneja parámetros con tipo inválido y cuerpos JSON mal formados.
+     *
+     * @param ex excepción lanzada
+     * @return respuesta con mensaje de error, estado BAD_REQUEST
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ExceptionDTO> handleServerWebInput(ServerWebInputException ex) {
+        String message;
+        if (ex.getCause() instanceof TypeMismatchException tm && ex.getMethodParameter() != null) {
+            message = "El parámetro '" + ex.getMethodParameter().getParameterName()
+                    + "' debe ser un número válido. Valor recibido: '" + tm.getValue() + "'";
+        } else {
+            message = "Error en el formato del JSON: " + ex.getReason();
+        }
+        return new ResponseEntity<>(new ExceptionDTO(message), HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,73 @@
+package com.bbva.clientmanager.reactive;
+
+import com.bbva.clientmanager.security.JwtUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.server.WebFilter;
+
+import java.util.Collections;
+
+/**
+ * Configuración de seguridad de la variante reactiva, equivalente a SecurityConfig: mismas rutas
+ * públicas, sin sesión y con el usuario tomado del token JWT validado por JwtUtil, así que acepta
+ * los tokens emitidos por cualquier nodo que comparta las claves.
+ *
+ * @author Veronica
+ */
+@Configuration
+@EnableWebFluxSecurity
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+    private final JwtUtil jwtUtil;
+
+    /**
+     * Define la cadena de filtros y las reglas de autorización para las solicitudes HTTP.
+     *
+     * @param http el objeto ServerHttpSecurity
+     * @return la configuración de la cadena de filtros
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(auth -> auth
+                        .pathMatchers("/auth/**", "/actuator/health/**").permitAll()
+                        .anyExchange().authenticated()
+                )
+                .exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+                .addFilterAt(jwtAuthFilter(), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * Si el encabezado Authorization trae un token válido, autentica la solicitud con su usuario.
+     */
+    private WebFilter jwtAuthFilter() {
+        return (exchange, chain) -> {
+            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return chain.filter(exchange);
+            }
+            return jwtUtil.extractValidUsername(authHeader.substring(7))
+                    .map(username -> chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                            new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList()))))
+                    .orElseGet(() -> chain.filter(exchange));
+        };
+    }
+}
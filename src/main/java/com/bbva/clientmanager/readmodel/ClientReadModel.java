@@ -0,0 +1,539 @@
+package com.bbva.clientmanager.readmodel;
+
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.event.ClientModificadoEvent;
+import com.bbva.clientmanager.repository.IClientRepository;
+import com.bbva.clientmanager.repository.ResumenIds;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Read model de clientes fuera del heap: los perfiles se guardan codificados en un archivo
+ * mapeado en memoria (log de registros que solo crece) y un índice id → posición vive en un
+ * ByteBuffer directo. Así millones de perfiles no cargan al GC y las lecturas por id o por
+ * producto no pasan por JPA.
+ *
+ * Se mantiene al día escuchando {ClientModificadoEvent} después del commit, antes de que se
+ * invalide la cache de respuestas. Mientras se carga, o si está deshabilitado, {isDisponible}
+ * devuelve false y el servicio lee de la base como siempre. Cuando el archivo se llena se
+ * compacta copiando solo los registros vigentes.
+ *
+ * El archivo es clients.rm en clientmanager.read-model.dir y sobrevive a los reinicios. Empieza
+ * con una cabecera (magia, versión, estado, fin de los datos, CRC32 de los datos y momento del
+ * cierre) que solo se marca como cerrada al terminar el contexto sin errores. Al arrancar, si la
+ * cabecera y el CRC son válidos se reabre: se rearma el índice recorriendo los registros, se
+ * releen los clientes modificados desde el cierre y, si la cantidad, el id máximo y la suma y
+ * huella de los ids ({ResumenIds}) coinciden con los de la base, queda disponible sin cargar la
+ * tabla: un alta y una baja perdidas no se compensan como con el conteo solo. Si no, o tras una caída, se reconstruye desde la base.
+ * Un archivo .lock evita que dos instancias usen el mismo directorio.
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Component
+public class ClientReadModel {
+    private static final int LOTE_CARGA = 500;
+    private static final String NOMBRE_ARCHIVO = "clients.rm";
+    private static final int MAGIA = 0x434d524d;
+    private static final int VERSION = 1;
+    private static final int ABIERTO = 1;
+    private static final int CERRADO = 2;
+    static final int CABECERA = 4 + 4 + 4 + 4 + 8 + 8;
+    private static final int REGISTRO_MINIMO = 13;
+    // Escrituras confirmadas justo antes del cierre pueden tener una fecha algo anterior.
+    private static final Duration MARGEN_REAPERTURA = Duration.ofMinutes(1);
+
+    private final IClientRepository clientRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final Path directorio;
+    private final Path archivo;
+    private FileChannel canalLock;
+    private FileLock lockArchivo;
+    private final int maxBytes;
+    private final int tamanioPagina;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final OffHeapLongIndex indice = new OffHeapLongIndex(1024);
+    private final Set<Long> tocadosDuranteCarga = ConcurrentHashMap.newKeySet();
+    private MappedByteBuffer registros;
+    private int posicionEscritura;
+    private volatile boolean disponible;
+    private volatile boolean cargando;
+    private volatile boolean desactualizado;
+
+    public ClientReadModel(IClientRepository clientRepository, PlatformTransactionManager transactionManager,
+                           @Value("${clientmanager.read-model.enabled:false}") boolean habilitado,
+                           @Value("${clientmanager.read-model.dir:data/read-model}") Path directorio,
+                           @Value("${clientmanager.read-model.max-bytes:268435456}") int maxBytes,
+                           @Value("${clientmanager.read-model.page-size:1000}") int tamanioPagina) {
+        this.clientRepository = clientRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.habilitado = habilitado;
+        this.directorio = directorio;
+        this.archivo = directorio.resolve(NOMBRE_ARCHIVO);
+        this.maxBytes = maxBytes;
+        this.tamanioPagina = tamanioPagina;
+    }
+
+    public boolean isDisponible() {
+        return disponible;
+    }
+
+    /**
+     * Reabre el archivo del arranque anterior si es válido; si no, vuelca todos los clientes de
+     * la base al read model, por páginas ordenadas por id. Los clientes modificados durante la
+     * carga los escribe el listener de eventos y la carga no los pisa con una versión anterior.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        if (!habilitado || !bloquearDirectorio()) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            disponible = false;
+            cargando = true;
+            desactualizado = false;
+            tocadosDuranteCarga.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (reabrir(inicio)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            registros = mapear(archivo, true);
+            posicionEscritura = CABECERA;
+            indice.clear();
+            escribirCabecera(ABIERTO);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            long ultimoId = 0;
+            List<Client> pagina;
+            do {
+                long desde = ultimoId;
+                pagina = transactionTemplate.execute(status -> cargarPagina(desde));
+                for (Client client : pagina) {
+                    if (!tocadosDuranteCarga.contains(client.getId())) {
+                        escribir(client);
+                    }
+                    ultimoId = client.getId();
+                }
+            } while (pagina.size() == tamanioPagina);
+            disponible = !desactualizado;
+            log.info("Read model reconstruido: {} clientes, {} bytes en {} ms", getCantidad(),
+                    getBytesUsados(), (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("No se pudo reconstruir el read model, se sigue leyendo de la base", e);
+        } finally {
+            cargando = false;
+        }
+    }
+
+    public Optional<ClientResponseDTO> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            long posicion = indice.get(id);
+            return posicion == OffHeapLongIndex.AUSENTE
+                    ? Optional.empty()
+                    : Optional.of(ClientRecordCodec.decodificar(registros, (int) posicion));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Clientes que tienen el producto indicado, ordenados por id. El filtro mira solo la
+     * máscara de productos de cada registro y decodifica únicamente los que coinciden.
+     */
+    public List<ClientResponseDTO> findByProductoBancario(TipoProductoBancario tipo) {
+        short bit = ClientRecordCodec.bit(tipo);
+        List<ClientResponseDTO> clients = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            indice.forEach((id, posicion) -> {
+                if ((registros.getShort((int) posicion + ClientRecordCodec.POSICION_PRODUCTOS) & bit) != 0) {
+                    clients.add(ClientRecordCodec.decodificar(registros, (int) posicion));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        clients.sort(Comparator.comparing(ClientResponseDTO::getId));
+        return clients;
+    }
+
+    /**
+     * Aplica los cambios confirmados releyendo los clientes desde la base. Corre antes que la
+     * invalidación de la cache de respuestas para que un lector no vuelva a cachear datos viejos.
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientModificado(ClientModificadoEvent event) {
+        if (!habilitado || (!disponible && !cargando)) {
+            return;
+        }
+        if (cargando) {
+            tocadosDuranteCarga.addAll(event.ids());
+        }
+        try {
+            if (event.tipo() == ClientModificadoEvent.TipoModificacion.BAJA) {
+                event.ids().forEach(this::eliminar);
+                return;
+            }
+            for (int i = 0; i < event.ids().size(); i += LOTE_CARGA) {
+                List<Long> lote = event.ids().subList(i, Math.min(i + LOTE_CARGA, event.ids().size()));
+                List<Client> clients = transactionTemplate.execute(
+                        status -> clientRepository.findAllWithProductosByIdIn(lote));
+                clients.forEach(this::escribir);
+            }
+        } catch (RuntimeException e) {
+            disponible = false;
+            desactualizado = true;
+            log.error("No se pudo actualizar el read model, se deshabilita hasta la próxima reconstrucción", e);
+        }
+    }
+
+    private ResumenIds resumirIds() {
+        long[] resumen = new long[4];
+        lock.readLock().lock();
+        try {
+            indice.forEach((id, posicion) -> {
+                resumen[0]++;
+                resumen[1] = Math.max(resumen[1], id);
+                resumen[2] += id;
+                resumen[3] += ResumenIds.huella(id);
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ResumenIds(resumen[0], resumen[1], resumen[2], resumen[3]);
+    }
+
+    public int getCantidad() {
+        lock.readLock().lock();
+        try {
+            return indice.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getBytesUsados() {
+        lock.readLock().lock();
+        try {
+            return posicionEscritura;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getBytesIndice() {
+        lock.readLock().lock();
+        try {
+            return indice.bytesFueraDelHeap();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Marca el archivo como cerrado, con el CRC de los datos, para que el próximo arranque lo
+     * reabra. Si quedó desactualizado o no llegó a estar disponible se deja abierto y se
+     * reconstruye.
+     */
+    @PreDestroy
+    public void cerrar() {
+        boolean estabaDisponible = disponible;
+        disponible = false;
+        lock.writeLock().lock();
+        try {
+            if (registros != null && estabaDisponible && !desactualizado) {
+                escribirCabecera(CERRADO);
+                registros.force();
+                log.info("Read model guardado: {} clientes, {} bytes", indice.size(), posicionEscritura);
+            }
+        } finally {
+            lock.writeLock().unlock();
+            liberarDirectorio();
+        }
+    }
+
+    private boolean reabrir(long inicio) {
+        if (!Files.exists(archivo)) {
+            return false;
+        }
+        try {
+            lock.writeLock().lock();
+            LocalDateTime cerradoEn;
+            try {
+                registros = mapear(archivo, false);
+                indice.clear();
+                cerradoEn = validar();
+                if (cerradoEn == null) {
+                    return false;
+                }
+                escribirCabecera(ABIERTO);
+                registros.force();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            LocalDateTime desde = cerradoEn.minus(MARGEN_REAPERTURA);
+            long ultimoId = 0;
+            int releidos = 0;
+            List<Client> pagina;
+            do {
+                long desdeId = ultimoId;
+                pagina = transactionTemplate.execute(status -> cargarModificados(desde, desdeId));
+                for (Client client : pagina) {
+                    if (!tocadosDuranteCarga.contains(client.getId())) {
+                        escribir(client);
+                    }
+                    ultimoId = client.getId();
+                }
+                releidos += pagina.size();
+            } while (pagina.size() == tamanioPagina);
+            ResumenIds enBase = transactionTemplate.execute(status -> clientRepository.resumirIds());
+            ResumenIds guardado = resumirIds();
+            if (!guardado.equals(enBase)) {
+                log.warn("El read model guardado no coincide con la base ({} contra {}), se reconstruye", guardado, enBase);
+                return false;
+            }
+            disponible = !desactualizado;
+            log.info("Read model reabierto: {} clientes, {} releídos desde la base, en {} ms", getCantidad(),
+                    releidos, (System.nanoTime() - inicio) / 1_000_000);
+            cargando = false;
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("No se pudo reabrir el read model guardado, se reconstruye", e);
+            return false;
+        }
+    }
+
+    /**
+     * Verifica cabecera, versión, estado y CRC y rearma el índice recorriendo los registros.
+     * Se llama con el lock de escritura tomado.
+     *
+     * @return momento del cierre, o null si el archivo no es válido
+     */
+    private LocalDateTime validar() {
+        if (registros.getInt(0) != MAGIA || registros.getInt(4) != VERSION) {
+            log.warn("El archivo del read model {} no tiene una cabecera válida", archivo);
+            return null;
+        }
+        int fin = registros.getInt(12);
+        if (registros.getInt(8) != CERRADO || fin < CABECERA || fin > maxBytes) {
+            log.warn("El read model {} no se cerró correctamente", archivo);
+            return null;
+        }
+        if (crc(fin) != registros.getLong(16)) {
+            log.warn("El CRC del read model {} no coincide", archivo);
+            return null;
+        }
+        int posicion = CABECERA;
+        while (posicion < fin) {
+            int largo = registros.getInt(posicion);
+            if (largo < REGISTRO_MINIMO || posicion + largo > fin) {
+                indice.clear();
+                return null;
+            }
+            long id = registros.getLong(posicion + ClientRecordCodec.POSICION_ID);
+            if (registros.get(posicion + 4) == ClientRecordCodec.VIVO) {
+                indice.put(id, posicion);
+            } else {
+                indice.remove(id);
+            }
+            posicion += largo;
+        }
+        posicionEscritura = fin;
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(registros.getLong(24)), ZoneId.systemDefault());
+    }
+
+    private void escribirCabecera(int estado) {
+        registros.putInt(0, MAGIA);
+        registros.putInt(4, VERSION);
+        registros.putInt(8, estado);
+        registros.putInt(12, posicionEscritura);
+        registros.putLong(16, estado == CERRADO ? crc(posicionEscritura) : 0);
+        registros.putLong(24, System.currentTimeMillis());
+    }
+
+    private long crc(int fin) {
+        CRC32 crc = new CRC32();
+        crc.update(registros.slice(CABECERA, fin - CABECERA));
+        return crc.getValue();
+    }
+
+    private boolean bloquearDirectorio() {
+        if (lockArchivo != null) {
+            return true;
+        }
+        try {
+            Files.createDirectories(directorio);
+            canalLock = FileChannel.open(directorio.resolve(NOMBRE_ARCHIVO + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            lockArchivo = canalLock.tryLock();
+        } catch (IOException | OverlappingFileLockException e) {
+            lockArchivo = null;
+        }
+        if (lockArchivo == null) {
+            log.error("El directorio del read model {} está en uso por otra instancia, se sigue leyendo de la base",
+                    directorio);
+            liberarDirectorio();
+            return false;
+        }
+        return true;
+    }
+
+    private void liberarDirectorio() {
+        try {
+            if (lockArchivo != null) {
+                lockArchivo.release();
+            }
+            if (canalLock != null) {
+                canalLock.close();
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo liberar el lock del read model en {}", directorio, e);
+        } finally {
+            lockArchivo = null;
+            canalLock = null;
+        }
+    }
+
+    private List<Client> cargarModificados(LocalDateTime desde, long desdeId) {
+        List<Client> pagina = clientRepository.findByFechaModificacionGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+                desde, desdeId, Limit.of(tamanioPagina));
+        pagina.forEach(client -> client.getProductoBancarioList().size());
+        return pagina;
+    }
+
+    private List<Client> cargarPagina(long desde) {
+        List<Client> pagina = clientRepository.findByIdGreaterThanOrderByIdAsc(desde, Limit.of(tamanioPagina));
+        pagina.forEach(client -> client.getProductoBancarioList().size());
+        return pagina;
+    }
+
+    private void escribir(Client client) {
+        byte[] registro = ClientRecordCodec.codificar(client);
+        lock.writeLock().lock();
+        try {
+            asegurarEspacio(registro.length);
+            registros.put(posicionEscritura, registro);
+            indice.put(client.getId(), posicionEscritura);
+            posicionEscritura += registro.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void eliminar(Long id) {
+        byte[] registro = ClientRecordCodec.baja(id);
+        lock.writeLock().lock();
+        try {
+            if (indice.get(id) == OffHeapLongIndex.AUSENTE) {
+                return;
+            }
+            asegurarEspacio(registro.length);
+            registros.put(posicionEscritura, registro);
+            posicionEscritura += registro.length;
+            indice.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Si el registro no entra, reescribe en un archivo nuevo solo los registros vigentes
+     * y lo reemplaza. Se llama con el lock de escritura tomado.
+     */
+    private void asegurarEspacio(int largo) {
+        if (posicionEscritura + largo <= maxBytes) {
+            return;
+        }
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        MappedByteBuffer compactado = mapear(temporal, true);
+        List<long[]> vigentes = new ArrayList<>(indice.size());
+        indice.forEach((id, posicion) -> vigentes.add(new long[]{id, posicion}));
+        vigentes.sort(Comparator.comparingLong(vigente -> vigente[1]));
+        int destino = CABECERA;
+        indice.clear();
+        for (long[] vigente : vigentes) {
+            int origen = (int) vigente[1];
+            int tamanio = registros.getInt(origen);
+            compactado.put(destino, registros, origen, tamanio);
+            indice.put(vigente[0], destino);
+            destino += tamanio;
+        }
+        try {
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        registros = compactado;
+        posicionEscritura = destino;
+        escribirCabecera(ABIERTO);
+        log.info("Read model compactado: {} clientes, {} bytes", vigentes.size(), destino);
+        if (posicionEscritura + largo > maxBytes) {
+            throw new IllegalStateException("El read model supera clientmanager.read-model.max-bytes=" + maxBytes);
+        }
+    }
+
+    private MappedByteBuffer mapear(Path archivo, boolean truncar) {
+        try {
+            Files.createDirectories(directorio);
+            Set<StandardOpenOption> opciones = truncar
+                    ? EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)
+                    : EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try (FileChannel canal = FileChannel.open(archivo, opciones)) {
+                return canal.map(FileChannel.MapMode.READ_WRITE, 0, maxBytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.bbva.clientmanager.readmodel;
+
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.entity.ProductoBancario;
+import com.bbva.clientmanager.entity.TipoDocumento;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codificación binaria compacta de un cliente para el read model y para los segmentos del
+ * archivo de clientes fríos.
+ *
+ * Registro: [int largo][byte estado][long id][byte tipoDocumento][short productos]
+ * [int numero][long+int fechaCreacion][long+int fechaModificacion] y luego los textos
+ * (documento, nombre, apellido, calle, codigoPostal, telefono, celular) como [short largo][UTF-8].
+ * Los productos son una máscara de bits por ordinal de TipoProductoBancario y están en
+ * una posición fija, para filtrar por producto sin decodificar el registro.
+ */
+public final class ClientRecordCodec {
+    static final byte VIVO = 1;
+    static final byte BAJA = 0;
+    public static final int POSICION_ID = 5;
+    static final int POSICION_PRODUCTOS = 14;
+    private static final int FIJO = 4 + 1 + 8 + 1 + 2 + 4 + 12 + 12;
+    private static final TipoDocumento[] TIPOS_DOCUMENTO = TipoDocumento.values();
+    private static final TipoProductoBancario[] TIPOS_PRODUCTO = TipoProductoBancario.values();
+
+    private ClientRecordCodec() {
+    }
+
+    public static byte[] codificar(Client client) {
+        byte[][] textos = {
+                utf8(client.getDocumento()), utf8(client.getNombre()), utf8(client.getApellido()),
+                utf8(client.getCalle()), utf8(client.getCodigoPostal()), utf8(client.getTelefono()),
+                utf8(client.getCelular())};
+        int largo = FIJO;
+        for (byte[] texto : textos) {
+            largo += 2 + (texto != null ? texto.length : 0);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(largo);
+        buffer.putInt(largo);
+        buffer.put(VIVO);
+        buffer.putLong(client.getId());
+        buffer.put((byte) (client.getTipoDocumento() != null ? client.getTipoDocumento().ordinal() + 1 : 0));
+        buffer.putShort(mascara(client));
+        buffer.putInt(client.getNumero() != null ? client.getNumero() : Integer.MIN_VALUE);
+        putFecha(buffer, client.getFechaCreacion());
+        putFecha(buffer, client.getFechaModificacion());
+        for (byte[] texto : textos) {
+            buffer.putShort((short) (texto != null ? texto.length : -1));
+            if (texto != null) buffer.put(texto);
+        }
+        return buffer.array();
+    }
+
+    static byte[] baja(long id) {
+        ByteBuffer buffer = ByteBuffer.allocate(13);
+        buffer.putInt(13);
+        buffer.put(BAJA);
+        buffer.putLong(id);
+        return buffer.array();
+    }
+
+    public static ClientResponseDTO decodificar(ByteBuffer origen, int posicion) {
+        ByteBuffer buffer = origen.duplicate();
+        buffer.position(posicion + POSICION_ID);
+        ClientResponseDTO dto = new ClientResponseDTO();
+        dto.setId(buffer.getLong());
+        byte tipoDocumento = buffer.get();
+        dto.setTipoDocumento(tipoDocumento > 0 ? TIPOS_DOCUMENTO[tipoDocumento - 1].name() : null);
+        dto.setProductoBancarioList(productos(buffer.getShort()));
+        int numero = buffer.getInt();
+        dto.setNumero(numero != Integer.MIN_VALUE ? numero : null);
+        dto.setFechaCreacion(getFecha(buffer));
+        dto.setFechaModificacion(getFecha(buffer));
+        dto.setDocumento(getTexto(buffer));
+        dto.setNombre(getTexto(buffer));
+        dto.setApellido(getTexto(buffer));
+        dto.setCalle(getTexto(buffer));
+        dto.setCodigoPostal(getTexto(buffer));
+        dto.setTelefono(getTexto(buffer));
+        dto.setCelular(getTexto(buffer));
+        return dto;
+    }
+
+    static short bit(TipoProductoBancario tipo) {
+        return (short) (1 << tipo.ordinal());
+    }
+
+    private static short mascara(Client client) {
+        short mascara = 0;
+        if (client.getProductoBancarioList() != null) {
+            for (ProductoBancario producto : client.getProductoBancarioList()) {
+                mascara |= bit(producto.getTipoProductoBancario());
+            }
+        }
+        return mascara;
+    }
+
+    private static List<String> productos(short mascara) {
+        List<String> productos = new ArrayList<>();
+        for (TipoProductoBancario tipo : TIPOS_PRODUCTO) {
+            if ((mascara & bit(tipo)) != 0) productos.add(tipo.name());
+        }
+        return productos;
+    }
+
+    private static void putFecha(ByteBuffer buffer, LocalDateTime fecha) {
+        buffer.putLong(fecha != null ? fecha.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE);
+        buffer.putInt(fecha != null ? fecha.getNano() : 0);
+    }
+
+    private static LocalDateTime getFecha(ByteBuffer buffer) {
+        long segundos = buffer.getLong();
+        int nanos = buffer.getInt();
+        return segundos != Long.MIN_VALUE ? LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC) : null;
+    }
+
+    private static byte[] utf8(String texto) {
+        return texto != null ? texto.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static String getTexto(ByteBuffer buffer) {
+        short largo = buffer.getShort();
+        if (largo < 0) return null;
+        byte[] bytes = new byte[largo];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
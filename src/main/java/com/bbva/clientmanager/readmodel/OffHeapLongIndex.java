@@ -0,0 +1,128 @@
+package com.bbva.clientmanager.readmodel;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Tabla hash de direccionamiento abierto long → long guardada en un ByteBuffer directo,
+ * fuera del heap de Java. Cada slot ocupa 16 bytes (clave y valor); la clave 0 marca un
+ * slot libre y el valor -1 una baja, por lo que las claves deben ser positivas.
+ *
+ * No es thread-safe: el llamador sincroniza los accesos.
+ */
+class OffHeapLongIndex {
+    static final long AUSENTE = -1L;
+    private static final int SLOT = 16;
+    private static final double CARGA_MAXIMA = 0.6;
+
+    private ByteBuffer slots;
+    private int capacidad;
+    private int ocupados;
+    private int vivos;
+
+    OffHeapLongIndex(int capacidadInicial) {
+        asignar(Integer.highestOneBit(Math.max(16, capacidadInicial - 1) << 1));
+    }
+
+    long get(long clave) {
+        int slot = buscar(clave);
+        return slot < 0 ? AUSENTE : slots.getLong(slot * SLOT + 8);
+    }
+
+    void put(long clave, long valor) {
+        if (clave <= 0) {
+            throw new IllegalArgumentException("La clave debe ser positiva: " + clave);
+        }
+        if (ocupados + 1 > capacidad * CARGA_MAXIMA) {
+            redimensionar(vivos + 1 > capacidad * CARGA_MAXIMA / 2 ? capacidad * 2 : capacidad);
+        }
+        int mascara = capacidad - 1;
+        int i = mezclar(clave) & mascara;
+        while (true) {
+            long actual = slots.getLong(i * SLOT);
+            if (actual == 0) {
+                slots.putLong(i * SLOT, clave);
+                slots.putLong(i * SLOT + 8, valor);
+                ocupados++;
+                vivos++;
+                return;
+            }
+            if (actual == clave) {
+                if (slots.getLong(i * SLOT + 8) == AUSENTE) vivos++;
+                slots.putLong(i * SLOT + 8, valor);
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+    }
+
+    void remove(long clave) {
+        int slot = buscar(clave);
+        if (slot >= 0) {
+            slots.putLong(slot * SLOT + 8, AUSENTE);
+            vivos--;
+        }
+    }
+
+    int size() {
+        return vivos;
+    }
+
+    void clear() {
+        asignar(capacidad);
+    }
+
+    void forEach(Visitante visitante) {
+        for (int i = 0; i < capacidad; i++) {
+            long clave = slots.getLong(i * SLOT);
+            long valor = slots.getLong(i * SLOT + 8);
+            if (clave != 0 && valor != AUSENTE) {
+                visitante.visitar(clave, valor);
+            }
+        }
+    }
+
+    long bytesFueraDelHeap() {
+        return (long) capacidad * SLOT;
+    }
+
+    interface Visitante {
+        void visitar(long clave, long valor);
+    }
+
+    private int buscar(long clave) {
+        int mascara = capacidad - 1;
+        int i = mezclar(clave) & mascara;
+        while (true) {
+            long actual = slots.getLong(i * SLOT);
+            if (actual == 0) return -1;
+            if (actual == clave) return slots.getLong(i * SLOT + 8) == AUSENTE ? -1 : i;
+            i = (i + 1) & mascara;
+        }
+    }
+
+    private void redimensionar(int nuevaCapacidad) {
+        ByteBuffer anteriores = slots;
+        int capacidadAnterior = capacidad;
+        asignar(nuevaCapacidad);
+        for (int i = 0; i < capacidadAnterior; i++) {
+            long clave = anteriores.getLong(i * SLOT);
+            long valor = anteriores.getLong(i * SLOT + 8);
+            if (clave != 0 && valor != AUSENTE) {
+                put(clave, valor);
+            }
+        }
+    }
+
+    private void asignar(int nuevaCapacidad) {
+        capacidad = nuevaCapacidad;
+        slots = ByteBuffer.allocateDirect(capacidad * SLOT).order(ByteOrder.nativeOrder());
+        ocupados = 0;
+        vivos = 0;
+    }
+
+    private static int mezclar(long clave) {
+        long h = clave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
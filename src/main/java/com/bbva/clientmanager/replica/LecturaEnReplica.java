@@ -0,0 +1,17 @@
+package com.bbva.clientmanager.replica;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca una operación de solo lectura que puede resolverse en una réplica.
+ * Solo tiene efecto con clientmanager.replica.enabled.
+ *
+ * @author Veronica
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LecturaEnReplica {
+}
@@ -0,0 +1,32 @@
+package com.bbva.clientmanager.replica;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marca el hilo mientras corre un método {LecturaEnReplica}. Se ejecuta antes que la
+ * transacción para que la conexión que ésta obtenga ya pueda venir de una réplica, y
+ * después de {LecturaCompartidaAspect}.
+ *
+ * @author Veronica
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "clientmanager.replica.enabled", havingValue = "true")
+public class LecturaEnReplicaAspect {
+    @Around("@annotation(com.bbva.clientmanager.replica.LecturaEnReplica)")
+    public Object enReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean anterior = ReplicaContext.activar();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaContext.restaurar(anterior);
+        }
+    }
+}
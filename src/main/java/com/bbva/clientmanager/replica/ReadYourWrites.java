@@ -0,0 +1,55 @@
+package com.bbva.clientmanager.replica;
+
+import com.bbva.clientmanager.event.ClientModificadoEvent;
+import com.bbva.clientmanager.security.UsuarioActual;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lectura de las propias escrituras: después de que un usuario modifica clientes, sus
+ * lecturas van al primario durante una ventana configurable, para que no lea de una
+ * réplica que todavía no recibió el cambio.
+ *
+ * La escritura se registra a nombre del usuario que trae el {ClientModificadoEvent}, capturado
+ * en el hilo del request, y no del hilo que publica el evento: las altas agrupadas y los jobs
+ * se confirman en hilos propios.
+ *
+ * @author Veronica
+ */
+@Component
+@ConditionalOnProperty(name = "clientmanager.replica.enabled", havingValue = "true")
+public class ReadYourWrites {
+    private static final int MAX_USUARIOS = 100_000;
+
+    private final long ventanaNanos;
+    private final Map<String, Long> ultimasEscrituras = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(@Value("${clientmanager.replica.read-your-writes-ms:2000}") long ventanaMs) {
+        this.ventanaNanos = ventanaMs * 1_000_000L;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientModificado(ClientModificadoEvent event) {
+        if (ultimasEscrituras.size() >= MAX_USUARIOS) {
+            long ahora = System.nanoTime();
+            ultimasEscrituras.values().removeIf(escritura -> ahora - escritura > ventanaNanos);
+        }
+        if (event.usuario() != null) {
+            ultimasEscrituras.put(event.usuario(), System.nanoTime());
+        }
+    }
+
+    /**
+     * @return true si el usuario actual escribió dentro de la ventana
+     */
+    public boolean debeLeerDelPrimario() {
+        String usuario = UsuarioActual.nombre();
+        Long escritura = usuario != null ? ultimasEscrituras.get(usuario) : null;
+        return escritura != null && System.nanoTime() - escritura < ventanaNanos;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bbva.clientmanager.replica;
+
+/**
+ * Indica si el hilo actual está dentro de una operación marcada con {LecturaEnReplica}.
+ *
+ * @author Veronica
+ */
+final class ReplicaContext {
+    private static final ThreadLocal<Boolean> ACTIVO = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private ReplicaContext() {
+    }
+
+    static boolean activar() {
+        boolean anterior = ACTIVO.get();
+        ACTIVO.set(Boolean.TRUE);
+        return anterior;
+    }
+
+    static void restaurar(boolean anterior) {
+        if (anterior) {
+            ACTIVO.set(Boolean.TRUE);
+        } else {
+            ACTIVO.remove();
+        }
+    }
+
+    static boolean isActivo() {
+        return ACTIVO.get();
+    }
+}
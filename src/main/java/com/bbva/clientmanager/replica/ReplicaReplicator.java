@@ -0,0 +1,137 @@
+package com.bbva.clientmanager.replica;
+
+import com.bbva.clientmanager.event.ClientModificadoEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Alimenta las réplicas locales (instancias H2 aparte) reproduciendo las escrituras del
+ * primario, a modo de replicación asincrónica.
+ *
+ * Al arrancar recrea el esquema de cada réplica y copia las tablas de clientes completas. Luego, por cada
+ * {ClientModificadoEvent} confirmado, reemplaza en cada réplica las filas de esos clientes
+ * en clients, clients_productos_bancarios y client_view por las del primario. La
+ * reproducción corre en un hilo aparte, opcionalmente con una demora configurable para
+ * simular el retraso de replicación.
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "clientmanager.replica.enabled", havingValue = "true")
+public class ReplicaReplicator {
+    private static final int LOTE = 500;
+    private static final List<String> TABLAS_REFERENCIA = List.of("productos_bancarios");
+
+    private final NamedParameterJdbcTemplate primario;
+    private final ReplicaSet replicaSet;
+    private final long demoraMs;
+    private final ExecutorService replicacion;
+
+    public ReplicaReplicator(ReplicaRoutingDataSource dataSource, ReplicaSet replicaSet,
+                             @Value("${clientmanager.replica.replication-delay-ms:0}") long demoraMs) {
+        this.primario = new NamedParameterJdbcTemplate(dataSource.getPrimario());
+        this.replicaSet = replicaSet;
+        this.demoraMs = demoraMs;
+        this.replicacion = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "replica-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void sincronizarInicial() {
+        for (ReplicaSet.Replica replica : replicaSet.getReplicas()) {
+            JdbcTemplate destino = new JdbcTemplate(replica.getDataSource());
+            List<String> esquema = primario.getJdbcTemplate().queryForList("SCRIPT NODATA", String.class);
+            destino.execute("DROP ALL OBJECTS");
+            esquema.stream()
+                    .filter(sentencia -> !sentencia.startsWith("CREATE USER") && !sentencia.startsWith("--"))
+                    .forEach(destino::execute);
+            for (String tabla : TABLAS_REFERENCIA) {
+                copiar(tabla, "1 = 1", new MapSqlParameterSource(), replica);
+            }
+            List<Long> ids = primario.getJdbcTemplate().queryForList("SELECT id FROM clients ORDER BY id", Long.class);
+            for (int i = 0; i < ids.size(); i += LOTE) {
+                reemplazarClientes(ids.subList(i, Math.min(i + LOTE, ids.size())), replica);
+            }
+            replica.setSincronizada(true);
+            log.info("Réplica {} sincronizada con {} clientes", replica.getNombre(), ids.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientModificado(ClientModificadoEvent event) {
+        List<Long> ids = List.copyOf(event.ids());
+        replicacion.execute(() -> {
+            try {
+                if (demoraMs > 0) {
+                    Thread.sleep(demoraMs);
+                }
+                for (ReplicaSet.Replica replica : replicaSet.getReplicas()) {
+                    if (replica.isDisponible()) {
+                        reemplazarClientes(ids, replica);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("No se pudieron replicar los clientes {}", ids, e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void detener() {
+        replicacion.shutdownNow();
+    }
+
+    private void reemplazarClientes(List<Long> ids, ReplicaSet.Replica replica) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource("ids", ids);
+        NamedParameterJdbcTemplate destino = new NamedParameterJdbcTemplate(replica.getDataSource());
+        new TransactionTemplate(new DataSourceTransactionManager(replica.getDataSource())).executeWithoutResult(status -> {
+            destino.update("DELETE FROM clients_productos_bancarios WHERE clients_id IN (:ids)", parametros);
+            destino.update("DELETE FROM client_view WHERE id IN (:ids)", parametros);
+            destino.update("DELETE FROM clients WHERE id IN (:ids)", parametros);
+            copiar("clients", "id IN (:ids)", parametros, replica);
+            copiar("clients_productos_bancarios", "clients_id IN (:ids)", parametros, replica);
+            copiar("client_view", "id IN (:ids)", parametros, replica);
+        });
+    }
+
+    private void copiar(String tabla, String condicion, MapSqlParameterSource parametros, ReplicaSet.Replica replica) {
+        List<Map<String, Object>> filas = primario.queryForList("SELECT * FROM " + tabla + " WHERE " + condicion, parametros);
+        if (filas.isEmpty()) {
+            return;
+        }
+        List<String> columnas = List.copyOf(filas.get(0).keySet());
+        String insert = "INSERT INTO " + tabla + " (" + String.join(", ", columnas) + ") VALUES ("
+                + columnas.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")";
+        new JdbcTemplate(replica.getDataSource()).batchUpdate(insert,
+                filas.stream().map(fila -> columnas.stream().map(fila::get).toArray()).toList());
+    }
+}
@@ -0,0 +1,61 @@
+package com.bbva.clientmanager.replica;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * DataSource que entrega conexiones de una réplica a las operaciones {LecturaEnReplica}
+ * y del primario a todo lo demás. También usa el primario cuando el usuario escribió hace
+ * poco ({ReadYourWrites}), cuando no hay réplicas disponibles y cuando la réplica elegida
+ * no entrega una conexión, en cuyo caso además queda marcada como caída.
+ *
+ * @author Veronica
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    private final DataSource primario;
+    private final ObjectProvider<ReplicaSet> replicaSet;
+    private final ObjectProvider<ReadYourWrites> readYourWrites;
+
+    public ReplicaRoutingDataSource(DataSource primario, ObjectProvider<ReplicaSet> replicaSet,
+                                    ObjectProvider<ReadYourWrites> readYourWrites) {
+        this.primario = primario;
+        this.replicaSet = replicaSet;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Optional<ReplicaSet.Replica> replica = elegirReplica();
+        if (replica.isPresent()) {
+            try {
+                Connection connection = replica.get().getDataSource().getConnection();
+                connection.setReadOnly(true);
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                replica.get().marcarCaida(e);
+            }
+        }
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primario.getConnection(username, password);
+    }
+
+    public DataSource getPrimario() {
+        return primario;
+    }
+
+    private Optional<ReplicaSet.Replica> elegirReplica() {
+        if (!ReplicaContext.isActivo() || readYourWrites.getObject().debeLeerDelPrimario()) {
+            return Optional.empty();
+        }
+        return replicaSet.getObject().siguiente();
+    }
+}
@@ -0,0 +1,142 @@
+package com.bbva.clientmanager.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Réplicas de lectura y su estado de salud.
+ *
+ * Una réplica recibe lecturas solo si está sincronizada (terminó la copia inicial) y sana.
+ * Un chequeo periódico valida una conexión de cada réplica; si falla, o si falla una
+ * conexión pedida por una lectura, la réplica se marca caída y las lecturas vuelven al
+ * primario hasta que el chequeo la encuentre sana de nuevo.
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "clientmanager.replica.enabled", havingValue = "true")
+public class ReplicaSet {
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger turno = new AtomicInteger();
+    private final ScheduledExecutorService chequeos;
+
+    public ReplicaSet(DataSourceProperties properties,
+                      @Value("${clientmanager.replica.urls}") List<String> urls,
+                      @Value("${clientmanager.replica.pool-size:4}") int tamanioPool,
+                      @Value("${clientmanager.replica.health-check-ms:1000}") long intervaloChequeoMs) {
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class).url(urls.get(i)).build();
+            dataSource.setPoolName("replica-" + (i + 1));
+            dataSource.setMaximumPoolSize(tamanioPool);
+            dataSource.setConnectionTimeout(500);
+            replicas.add(new Replica("replica-" + (i + 1), dataSource));
+        }
+        this.chequeos = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        chequeos.scheduleWithFixedDelay(this::chequear, intervaloChequeoMs, intervaloChequeoMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Réplica de lectura con su pool de conexiones.
+     */
+    public static class Replica {
+        private final String nombre;
+        private final HikariDataSource dataSource;
+        private volatile boolean sana = true;
+        private volatile boolean sincronizada;
+
+        Replica(String nombre, HikariDataSource dataSource) {
+            this.nombre = nombre;
+            this.dataSource = dataSource;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public HikariDataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isDisponible() {
+            return sana && sincronizada;
+        }
+
+        void setSincronizada(boolean sincronizada) {
+            this.sincronizada = sincronizada;
+        }
+
+        void marcarCaida(Exception causa) {
+            if (sana) {
+                log.warn("Réplica {} fuera de servicio, las lecturas vuelven al primario: {}", nombre, causa.getMessage());
+            }
+            sana = false;
+        }
+
+        void marcarSana() {
+            if (!sana) {
+                log.info("Réplica {} nuevamente disponible", nombre);
+            }
+            sana = true;
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Próxima réplica disponible, en round robin.
+     */
+    public Optional<Replica> siguiente() {
+        int cantidad = replicas.size();
+        int inicio = Math.floorMod(turno.getAndIncrement(), Math.max(cantidad, 1));
+        for (int i = 0; i < cantidad; i++) {
+            Replica replica = replicas.get((inicio + i) % cantidad);
+            if (replica.isDisponible()) {
+                return Optional.of(replica);
+            }
+        }
+        return Optional.empty();
+    }
+
+    void chequear() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.getDataSource().getConnection()) {
+                if (connection.isValid(1)) {
+                    replica.marcarSana();
+                } else {
+                    replica.marcarCaida(new SQLException("Conexión inválida"));
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.marcarCaida(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        chequeos.shutdownNow();
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+}
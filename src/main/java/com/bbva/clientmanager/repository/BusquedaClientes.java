@@ -0,0 +1,27 @@
+package com.bbva.clientmanager.repository;
+
+import com.bbva.clientmanager.entity.TipoDocumento;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+
+import java.time.LocalDateTime;
+
+/**
+ * Criterios de la búsqueda combinada de clientes.
+ * Los campos nulos no restringen la búsqueda.
+ *
+ * @param codigoPostal código postal exacto
+ * @param apellido prefijo del apellido
+ * @param tipoDocumento tipo de documento
+ * @param fechaDesde fecha de creación mínima (inclusive)
+ * @param fechaHasta fecha de creación máxima (exclusiva)
+ * @param productoBancario producto bancario que el cliente debe poseer
+ */
+public record BusquedaClientes(String codigoPostal, String apellido, TipoDocumento tipoDocumento,
+                               LocalDateTime fechaDesde, LocalDateTime fechaHasta,
+                               TipoProductoBancario productoBancario) {
+
+    public boolean isVacia() {
+        return codigoPostal == null && apellido == null && tipoDocumento == null
+                && fechaDesde == null && fechaHasta == null && productoBancario == null;
+    }
+}
@@ -0,0 +1,76 @@
+package com.bbva.clientmanager.repository;
+
+import com.bbva.clientmanager.entity.Client;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.Cache;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Mantiene la cache de segundo nivel y la de consultas al día con las sentencias nativas que
+ * modifican clients o clients_productos_bancarios, sin vaciar regiones enteras.
+ *
+ * Si una sentencia nativa declara la entidad Client o una de sus tablas, Hibernate desaloja toda
+ * la región de Client o de su colección aunque toque un solo cliente. Por eso las sentencias
+ * declaran solo {ESPACIO}, que no corresponde a ninguna tabla mapeada, y {invalidar} desaloja
+ * los clientes afectados y marca como viejas las consultas cacheadas sobre esas tablas. Ambas
+ * cosas se repiten al terminar la transacción, como hace Hibernate con sus sentencias masivas,
+ * para que una lectura concurrente no deje cacheado el estado anterior al commit.
+ *
+ * @author Veronica
+ */
+final class CacheNativa {
+    static final String ESPACIO = "clientmanager_sql_nativo";
+    private static final String[] TABLAS = {"clients", "clients_productos_bancarios"};
+    private static final String ROL_PRODUCTOS = Client.class.getName() + ".productoBancarioList";
+
+    private CacheNativa() {
+    }
+
+    /**
+     * Ejecuta la sentencia declarando solo {ESPACIO}. Antes baja a la base los cambios pendientes
+     * de la sesión, como haría Hibernate con una sentencia nativa sin espacios declarados.
+     */
+    static int ejecutar(EntityManager entityManager, Query sentencia) {
+        entityManager.flush();
+        return sentencia.unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(ESPACIO)
+                .executeUpdate();
+    }
+
+    /**
+     * Desaloja de la cache de segundo nivel los clientes indicados y su colección de productos, e
+     * invalida las consultas cacheadas sobre clients y clients_productos_bancarios.
+     */
+    static void invalidar(EntityManager entityManager, Collection<Long> ids) {
+        SessionImplementor sesion = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor fabrica = sesion.getFactory();
+        Cache cache = fabrica.getCache();
+        TimestampsCache consultas = fabrica.getSessionFactoryOptions().isQueryCacheEnabled()
+                ? fabrica.getCache().getTimestampsCache() : null;
+        List<Long> afectados = List.copyOf(ids);
+        if (consultas != null) {
+            consultas.preInvalidate(TABLAS, sesion);
+        }
+        desalojar(cache, afectados);
+        sesion.getActionQueue().registerProcess((exito, s) -> {
+            desalojar(cache, afectados);
+            if (consultas != null) {
+                consultas.invalidate(TABLAS, s);
+            }
+        });
+    }
+
+    private static void desalojar(Cache cache, List<Long> ids) {
+        for (Long id : ids) {
+            cache.evictEntityData(Client.class, id);
+            cache.evictCollectionData(ROL_PRODUCTOS, id);
+        }
+    }
+}
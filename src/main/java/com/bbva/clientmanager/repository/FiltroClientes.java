@@ -0,0 +1,16 @@
+package com.bbva.clientmanager.repository;
+
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+
+import java.util.List;
+
+/**
+ * Criterios para seleccionar clientes en operaciones masivas.
+ * Los campos nulos no restringen la selección.
+ *
+ * @param ids ids puntuales de clientes
+ * @param codigoPostal código postal exacto
+ * @param productoExistente producto bancario que el cliente ya debe poseer
+ */
+public record FiltroClientes(List<Long> ids, String codigoPostal, TipoProductoBancario productoExistente) {
+}
@@ -0,0 +1,33 @@
+package com.bbva.clientmanager.repository;
+
+import com.bbva.clientmanager.entity.Client;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Movimiento de clientes entre la tabla clients y el archivo de clientes fríos.
+ */
+public interface IClientArchivoRepository {
+    /**
+     * Devuelve, en orden de id, los ids posteriores a desdeId de clientes sin modificar desde antes de la fecha.
+     *
+     * @param modificadoAntesDe fecha de modificación máxima (exclusiva)
+     * @param desdeId último id ya revisado
+     * @param limite cantidad máxima de ids a devolver
+     */
+    List<Long> buscarFrios(LocalDateTime modificadoAntesDe, long desdeId, int limite);
+
+    /**
+     * Borra de clients y clients_productos_bancarios los clientes indicados que siguen sin
+     * modificar desde antes de la fecha. Los que cambiaron mientras se archivaban se conservan.
+     *
+     * @return ids efectivamente borrados
+     */
+    List<Long> quitarArchivados(List<Long> ids, LocalDateTime modificadoAntesDe);
+
+    /**
+     * Vuelve a insertar en clients, con su id original y sus productos, un cliente leído del archivo.
+     */
+    void restaurar(Client client);
+}
@@ -0,0 +1,97 @@
+package com.bbva.clientmanager.repository;
+
+import com.bbva.clientmanager.entity.Client;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementación con SQL nativo de {IClientArchivoRepository}.
+ * La búsqueda de clientes fríos avanza por la clave primaria desde el último id revisado, para
+ * no sumar un índice sobre fecha_modificacion que cambiaría en cada escritura. Al quitar, los
+ * clientes se bloquean y se vuelve a verificar la fecha, así una modificación concurrente no se
+ * pierde. Igual que en {IClientBulkRepositoryImpl}, las sentencias pasan por {CacheNativa}, que
+ * desaloja de la cache de segundo nivel solo los clientes afectados.
+ *
+ * @author Veronica
+ */
+public class IClientArchivoRepositoryImpl implements IClientArchivoRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> buscarFrios(LocalDateTime modificadoAntesDe, long desdeId, int limite) {
+        List<?> filas = entityManager.createNativeQuery(
+                        "SELECT id FROM clients WHERE id > :desde AND fecha_modificacion < :fecha " +
+                        "AND eliminado = FALSE ORDER BY id")
+                .setParameter("desde", desdeId)
+                .setParameter("fecha", modificadoAntesDe)
+                .setMaxResults(limite)
+                .getResultList();
+        return aIds(filas);
+    }
+
+    @Override
+    public List<Long> quitarArchivados(List<Long> ids, LocalDateTime modificadoAntesDe) {
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        List<Long> quitados = aIds(entityManager.createNativeQuery(
+                        "SELECT id FROM clients WHERE id IN (:ids) AND fecha_modificacion < :fecha " +
+                        "AND eliminado = FALSE FOR UPDATE")
+                .setParameter("ids", ids)
+                .setParameter("fecha", modificadoAntesDe)
+                .getResultList());
+        if (quitados.isEmpty()) {
+            return quitados;
+        }
+        CacheNativa.invalidar(entityManager, quitados);
+        CacheNativa.ejecutar(entityManager, entityManager.createNativeQuery(
+                        "DELETE FROM clients_productos_bancarios WHERE clients_id IN (:ids)")
+                .setParameter("ids", quitados));
+        CacheNativa.ejecutar(entityManager, entityManager.createNativeQuery(
+                        "DELETE FROM clients WHERE id IN (:ids)")
+                .setParameter("ids", quitados));
+        return quitados;
+    }
+
+    @Override
+    public void restaurar(Client client) {
+        CacheNativa.invalidar(entityManager, List.of(client.getId()));
+        CacheNativa.ejecutar(entityManager, entityManager.createNativeQuery(
+                        "INSERT INTO clients (id, tipo_documento, documento, nombre, apellido, calle, numero, " +
+                        "codigo_postal, telefono, celular, fecha_creacion, fecha_modificacion, eliminado) VALUES " +
+                        "(:id, :tipoDocumento, :documento, :nombre, :apellido, :calle, :numero, :codigoPostal, " +
+                        ":telefono, :celular, :fechaCreacion, :fechaModificacion, FALSE)")
+                .setParameter("id", client.getId())
+                .setParameter("tipoDocumento", client.getTipoDocumento() != null ? client.getTipoDocumento().name() : null)
+                .setParameter("documento", client.getDocumento())
+                .setParameter("nombre", client.getNombre())
+                .setParameter("apellido", client.getApellido())
+                .setParameter("calle", client.getCalle())
+                .setParameter("numero", client.getNumero())
+                .setParameter("codigoPostal", client.getCodigoPostal())
+                .setParameter("telefono", client.getTelefono())
+                .setParameter("celular", client.getCelular())
+                .setParameter("fechaCreacion", client.getFechaCreacion())
+                .setParameter("fechaModificacion", client.getFechaModificacion()));
+        List<String> tipos = client.getProductoBancarioList().stream()
+                .map(producto -> producto.getTipoProductoBancario().name())
+                .toList();
+        if (tipos.isEmpty()) {
+            return;
+        }
+        CacheNativa.ejecutar(entityManager, entityManager.createNativeQuery(
+                        "INSERT INTO clients_productos_bancarios (clients_id, producto_bancario_id) " +
+                        "SELECT :id, p.id FROM productos_bancarios p WHERE p.tipo_producto_bancario IN (:tipos)")
+                .setParameter("id", client.getId())
+                .setParameter("tipos", tipos));
+    }
+
+    private static List<Long> aIds(List<?> filas) {
+        return filas.stream().map(fila -> ((Number) fila).longValue()).toList();
+    }
+}
@@ -0,0 +1,46 @@
+package com.bbva.clientmanager.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Baja lógica de clientes y purga física de las filas dadas de baja.
+ */
+public interface IClientBajaRepository {
+    /**
+     * Marca el cliente como eliminado con un único UPDATE, sin leerlo ni tocar sus productos.
+     *
+     * @param id identificador del cliente
+     * @param ahora fecha de eliminación a registrar
+     * @return true si el cliente existía y no estaba dado de baja
+     */
+    boolean marcarEliminado(Long id, LocalDateTime ahora);
+
+    /**
+     * Borra físicamente un cliente activo y sus productos asociados con dos DELETE, sin leerlo antes.
+     *
+     * @param id identificador del cliente
+     * @return true si el cliente existía y no estaba dado de baja
+     */
+    boolean eliminar(Long id);
+
+    /**
+     * Devuelve los ids de clientes dados de baja antes de la fecha indicada, los más antiguos primero.
+     *
+     * @param hasta fecha de eliminación máxima (exclusiva)
+     * @param limite cantidad máxima de ids a devolver
+     */
+    List<Long> buscarEliminados(LocalDateTime hasta, int limite);
+
+    /**
+     * Borra físicamente los clientes dados de baja indicados y sus productos asociados.
+     *
+     * @return cantidad de clientes borrados
+     */
+    int purgar(List<Long> ids);
+
+    /**
+     * Cantidad de clientes dados de baja pendientes de purga.
+     */
+    long contarEliminados();
+}
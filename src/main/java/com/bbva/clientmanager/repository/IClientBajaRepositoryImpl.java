@@ -0,0 +1,78 @@
+package com.bbva.clientmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementación con SQL nativo de {IClientBajaRepository}.
+ * Las consultas de Hibernate no ven las filas con eliminado = true (restricción de Client),
+ * por eso estas sentencias trabajan directamente sobre clients. La búsqueda de pendientes
+ * recorre idx_clients_fecha_eliminacion, que solo tiene valores para las filas dadas de baja.
+ * Igual que en {IClientBulkRepositoryImpl}, las sentencias pasan por {CacheNativa}, que desaloja
+ * de la cache de segundo nivel solo los clientes afectados.
+ *
+ * @author Veronica
+ */
+public class IClientBajaRepositoryImpl implements IClientBajaRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public boolean marcarEliminado(Long id, LocalDateTime ahora) {
+        CacheNativa.invalidar(entityManager, List.of(id));
+        return CacheNativa.ejecutar(entityManager, entityManager.createNativeQuery(
+                        "UPDATE clients SET eliminado = TRUE, fecha_eliminacion = :ahora " +
+                        "WHERE id = :id AND eliminado = FALSE")
+                .setParameter("ahora", ahora)
+                .setParameter("id", id)) > 0;
+    }
+
+    @Override
+    public boolean eliminar(Long id) {
+        CacheNativa.invalidar(entityManager, List.of(id));
+        CacheNativa.ejecutar(entityManager, entityManager.createNativeQuery(
+                        "DELETE FROM clients_productos_bancarios " +
+                        "WHERE clients_id IN (SELECT id FROM clients WHERE id = :id AND eliminado = FALSE)")
+                .setParameter("id", id));
+        return CacheNativa.ejecutar(entityManager, entityManager.createNativeQuery(
+                        "DELETE FROM clients WHERE id = :id AND eliminado = FALSE")
+                .setParameter("id", id)) > 0;
+    }
+
+    @Override
+    public List<Long> buscarEliminados(LocalDateTime hasta, int limite) {
+        List<?> filas = entityManager.createNativeQuery(
+                        "SELECT id FROM clients WHERE fecha_eliminacion < :hasta AND eliminado = TRUE " +
+                        "ORDER BY fecha_eliminacion, id")
+                .setParameter("hasta", hasta)
+                .setMaxResults(limite)
+                .getResultList();
+        return filas.stream().map(fila -> ((Number) fila).longValue()).toList();
+    }
+
+    @Override
+    public int purgar(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        CacheNativa.invalidar(entityManager, ids);
+        CacheNativa.ejecutar(entityManager, entityManager.createNativeQuery(
+                        "DELETE FROM clients_productos_bancarios WHERE clients_id IN (:ids)")
+                .setParameter("ids", ids));
+        return CacheNativa.ejecutar(entityManager, entityManager.createNativeQuery(
+                        "DELETE FROM clients WHERE id IN (:ids) AND eliminado = TRUE")
+                .setParameter("ids", ids));
+    }
+
+    @Override
+    public long contarEliminados() {
+        Number total = (Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(*) FROM clients WHERE fecha_eliminacion IS NOT NULL AND eliminado = TRUE")
+                .getSingleResult();
+        return total.longValue();
+    }
+}
@@ -0,0 +1,32 @@
+package com.bbva.clientmanager.repository;
+
+import java.util.List;
+
+/**
+ * Operaciones masivas sobre la tabla clients_productos_bancarios resueltas con
+ * sentencias set-based por lote, sin cargar entidades.
+ */
+public interface IClientBulkRepository {
+    /**
+     * Siguiente página, en orden de id, de los clientes con id mayor a cursor que cumplen el filtro.
+     * Recorre ids reales (WHERE id > cursor ORDER BY id), así que los huecos en la secuencia no
+     * generan lotes vacíos.
+     *
+     * @return hasta limite ids; vacía si no quedan clientes por recorrer
+     */
+    List<Long> siguientesIds(FiltroClientes filtro, long cursor, int limite);
+
+    /**
+     * Agrega el producto a los clientes del rango [desde, hasta] que cumplen el filtro y aún no lo tienen.
+     *
+     * @return ids de los clientes modificados
+     */
+    List<Long> asignarProducto(Long productoId, FiltroClientes filtro, long desde, long hasta);
+
+    /**
+     * Quita el producto a los clientes del rango [desde, hasta] que cumplen el filtro y lo tienen.
+     *
+     * @return ids de los clientes modificados
+     */
+    List<Long> revocarProducto(Long productoId, FiltroClientes filtro, long desde, long hasta);
+}
@@ -0,0 +1,122 @@
+package com.bbva.clientmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementación con SQL nativo de {IClientBulkRepository}.
+ * Cada lote identifica primero los clientes alcanzados (acotados por el rango de ids),
+ * marca su fecha_modificacion y luego ejecuta un único INSERT ... SELECT o DELETE sobre
+ * la tabla intermedia, componiendo solo los predicados presentes en el filtro. Los clientes
+ * dados de baja lógica quedan afuera.
+ * Los ids devueltos permiten invalidar caches y vistas de esos clientes. Las sentencias pasan
+ * por {CacheNativa}: en la cache de segundo nivel se desalojan solo los clientes del lote y su
+ * colección de productos, en lugar de las regiones enteras.
+ *
+ * @author Veronica
+ */
+public class IClientBulkRepositoryImpl implements IClientBulkRepository {
+    private static final String TIENE_PRODUCTO =
+            "EXISTS (SELECT 1 FROM clients_productos_bancarios x " +
+            "WHERE x.clients_id = c.id AND x.producto_bancario_id = :productoId)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> siguientesIds(FiltroClientes filtro, long cursor, int limite) {
+        Query select = entityManager.createNativeQuery(
+                "SELECT c.id FROM clients c WHERE c.id > :cursor AND " + filtros(filtro) + " ORDER BY c.id");
+        select.setParameter("cursor", cursor).setMaxResults(limite);
+        List<?> filas = parametrosFiltro(select, filtro).getResultList();
+        return filas.stream().map(fila -> ((Number) fila).longValue()).toList();
+    }
+
+    @Override
+    public List<Long> asignarProducto(Long productoId, FiltroClientes filtro, long desde, long hasta) {
+        List<Long> afectados = seleccionar(seleccion(filtro) + " AND NOT " + TIENE_PRODUCTO, productoId, filtro, desde, hasta);
+        if (afectados.isEmpty()) {
+            return afectados;
+        }
+        marcarModificados(afectados);
+        CacheNativa.ejecutar(entityManager, entityManager.createNativeQuery(
+                        "INSERT INTO clients_productos_bancarios (clients_id, producto_bancario_id) " +
+                        "SELECT c.id, :productoId FROM clients c WHERE c.id IN (:afectados) AND NOT " + TIENE_PRODUCTO)
+                .setParameter("productoId", productoId)
+                .setParameter("afectados", afectados));
+        return afectados;
+    }
+
+    @Override
+    public List<Long> revocarProducto(Long productoId, FiltroClientes filtro, long desde, long hasta) {
+        List<Long> afectados = seleccionar(seleccion(filtro) + " AND " + TIENE_PRODUCTO, productoId, filtro, desde, hasta);
+        if (afectados.isEmpty()) {
+            return afectados;
+        }
+        marcarModificados(afectados);
+        CacheNativa.ejecutar(entityManager, entityManager.createNativeQuery(
+                        "DELETE FROM clients_productos_bancarios " +
+                        "WHERE producto_bancario_id = :productoId AND clients_id IN (:afectados)")
+                .setParameter("productoId", productoId)
+                .setParameter("afectados", afectados));
+        return afectados;
+    }
+
+    private List<Long> seleccionar(String seleccion, Long productoId, FiltroClientes filtro, long desde, long hasta) {
+        Query select = entityManager.createNativeQuery("SELECT c.id FROM clients c WHERE " + seleccion);
+        List<?> filas = parametros(select, productoId, filtro, desde, hasta).getResultList();
+        return filas.stream().map(fila -> ((Number) fila).longValue()).toList();
+    }
+
+    private void marcarModificados(List<Long> afectados) {
+        CacheNativa.invalidar(entityManager, afectados);
+        CacheNativa.ejecutar(entityManager, entityManager.createNativeQuery(
+                        "UPDATE clients SET fecha_modificacion = :ahora WHERE id IN (:afectados)")
+                .setParameter("ahora", LocalDateTime.now())
+                .setParameter("afectados", afectados));
+    }
+
+    private String seleccion(FiltroClientes filtro) {
+        return "c.id BETWEEN :desde AND :hasta AND " + filtros(filtro);
+    }
+
+    private String filtros(FiltroClientes filtro) {
+        StringBuilder sql = new StringBuilder("c.eliminado = FALSE");
+        if (filtro.ids() != null) {
+            sql.append(" AND c.id IN (:ids)");
+        }
+        if (filtro.codigoPostal() != null) {
+            sql.append(" AND c.codigo_postal = :codigoPostal");
+        }
+        if (filtro.productoExistente() != null) {
+            sql.append(" AND EXISTS (SELECT 1 FROM clients_productos_bancarios e ")
+               .append("JOIN productos_bancarios pe ON pe.id = e.producto_bancario_id ")
+               .append("WHERE e.clients_id = c.id AND pe.tipo_producto_bancario = :productoExistente)");
+        }
+        return sql.toString();
+    }
+
+    private Query parametros(Query query, Long productoId, FiltroClientes filtro, long desde, long hasta) {
+        query.setParameter("productoId", productoId);
+        query.setParameter("desde", desde);
+        query.setParameter("hasta", hasta);
+        return parametrosFiltro(query, filtro);
+    }
+
+    private Query parametrosFiltro(Query query, FiltroClientes filtro) {
+        if (filtro.ids() != null) {
+            query.setParameter("ids", filtro.ids());
+        }
+        if (filtro.codigoPostal() != null) {
+            query.setParameter("codigoPostal", filtro.codigoPostal());
+        }
+        if (filtro.productoExistente() != null) {
+            query.setParameter("productoExistente", filtro.productoExistente().name());
+        }
+        return query;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bbva.clientmanager.repository;
+
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import jakarta.persistence.Tuple;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consultas que leen solo algunas columnas de clients, para respuestas con fields.
+ */
+public interface IClientProjectionRepository {
+    /**
+     * Selecciona únicamente los atributos indicados de Client. El resultado trae cada valor
+     * con alias igual al nombre del atributo.
+     *
+     * @param atributos atributos escalares de Client a leer
+     * @param id si no es nulo, restringe a ese cliente
+     * @param tipoProductoBancario si no es nulo, restringe a clientes con ese producto
+     */
+    List<Tuple> findProyeccion(List<String> atributos, Long id, TipoProductoBancario tipoProductoBancario);
+
+    /**
+     * Devuelve pares (id de cliente, tipo de producto) para los clientes indicados,
+     * sin hidratar entidades.
+     */
+    List<Object[]> findTiposProductoByClientIdIn(Collection<Long> ids);
+
+    /**
+     * Resumen de los ids de los clientes activos, calculado en la base sin traer las filas.
+     */
+    ResumenIds resumirIds();
+}
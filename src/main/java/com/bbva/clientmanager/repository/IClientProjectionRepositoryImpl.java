@@ -0,0 +1,63 @@
+package com.bbva.clientmanager.repository;
+
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementación con Criteria API de {IClientProjectionRepository}. El resumen de ids usa la
+ * misma sentencia SQL nativa que los shards ({ResumenIds}).
+ *
+ * @author Veronica
+ */
+public class IClientProjectionRepositoryImpl implements IClientProjectionRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findProyeccion(List<String> atributos, Long id, TipoProductoBancario tipoProductoBancario) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Client> client = query.from(Client.class);
+        List<Selection<?>> columnas = new ArrayList<>();
+        atributos.forEach(atributo -> columnas.add(client.get(atributo).alias(atributo)));
+        query.multiselect(columnas);
+
+        List<Predicate> predicados = new ArrayList<>();
+        if (id != null) {
+            predicados.add(cb.equal(client.get("id"), id));
+        }
+        if (tipoProductoBancario != null) {
+            predicados.add(cb.equal(client.join("productoBancarioList").get("tipoProductoBancario"), tipoProductoBancario));
+        }
+        query.where(predicados.toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<Object[]> findTiposProductoByClientIdIn(Collection<Long> ids) {
+        return entityManager.createQuery(
+                        "select c.id, p.tipoProductoBancario from Client c join c.productoBancarioList p where c.id in :ids",
+                        Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    @Override
+    public ResumenIds resumirIds() {
+        Object[] fila = (Object[]) entityManager.createNativeQuery(ResumenIds.SQL + " WHERE eliminado = FALSE")
+                .getSingleResult();
+        return ResumenIds.de(fila);
+    }
+}
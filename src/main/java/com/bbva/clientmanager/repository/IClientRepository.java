@@ -2,12 +2,30 @@ package com.bbva.clientmanager.repository;
 
 import com.bbva.clientmanager.entity.Client;
 import com.bbva.clientmanager.entity.TipoProductoBancario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface IClientRepository extends JpaRepository<Client, Long> {
+public interface IClientRepository extends JpaRepository<Client, Long>, IClientBulkRepository,
+        IClientProjectionRepository, IClientSearchRepository, IClientBajaRepository, IClientArchivoRepository {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Client> findByProductoBancarioList_TipoProductoBancario(TipoProductoBancario tipoProductoBancario);
+
+    List<Client> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Client> findByFechaModificacionGreaterThanEqualAndIdGreaterThanOrderByIdAsc(LocalDateTime fecha, Long id,
+                                                                                   Limit limit);
+
+    @Query("select distinct c from Client c left join fetch c.productoBancarioList where c.id in :ids")
+    List<Client> findAllWithProductosByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,30 @@
+package com.bbva.clientmanager.repository;
+
+import java.util.List;
+
+/**
+ * Búsqueda y conteo combinados de clientes, con los criterios presentes en {BusquedaClientes}.
+ */
+public interface IClientSearchRepository {
+    /**
+     * Devuelve los ids de los clientes que cumplen todos los criterios no nulos, ordenados por id.
+     * Pagina por clave (id > despuesDe), sin saltear filas con OFFSET.
+     *
+     * @param busqueda criterios; al menos uno no nulo
+     * @param despuesDe último id de la página anterior, o null para la primera
+     * @param limite cantidad máxima de ids a devolver
+     */
+    List<Long> buscarIds(BusquedaClientes busqueda, Long despuesDe, int limite);
+
+    /**
+     * Cuenta los clientes que cumplen todos los criterios no nulos, sin leer entidades.
+     *
+     * @param busqueda criterios; al menos uno no nulo
+     */
+    long contar(BusquedaClientes busqueda);
+
+    /**
+     * Estimación de la cantidad de filas de clients que mantiene la base, sin recorrer la tabla.
+     */
+    long estimarTotal();
+}
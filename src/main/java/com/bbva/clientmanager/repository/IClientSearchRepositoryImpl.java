@@ -0,0 +1,126 @@
+package com.bbva.clientmanager.repository;
+
+import com.bbva.clientmanager.entity.Client;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implementación con Criteria API de {IClientSearchRepository}.
+ * Compone solo los predicados de los criterios presentes, para que la base elija el índice
+ * de clients (o de la tabla intermedia, para el producto) que corresponde a esa combinación.
+ * El filtro por producto es un join: cada cliente tiene cada producto una sola vez, así que
+ * no duplica filas. Las páginas siguen desde el último id de la anterior (id > despuesDe ORDER BY id
+ * LIMIT n), sin saltear con OFFSET las filas de las páginas anteriores. El cursor se compara como
+ * id + 0: si fuera un rango sobre la clave primaria, con solo criterios de rango (prefijo de
+ * apellido o fechas) H2 recorrería la tabla por id en lugar de usar el índice de esos criterios.
+ *
+ * Los conteos usan COUNT con los mismos predicados. Con solo el producto como criterio se recorre
+ * el índice de clients_productos_bancarios y cada cliente se verifica por clave primaria, para
+ * excluir los dados de baja lógica (el SQL nativo no aplica la restricción de Client).
+ * El total de la tabla puede estimarse con la cantidad de filas que lleva H2 en
+ * INFORMATION_SCHEMA.TABLES, sin recorrerla; la estimación incluye las bajas aún no purgadas.
+ *
+ * @author Veronica
+ */
+public class IClientSearchRepositoryImpl implements IClientSearchRepository {
+    private static final char ESCAPE = '\\';
+    private static final String CONTAR_POR_PRODUCTO =
+            "SELECT COUNT(*) FROM clients_productos_bancarios x JOIN clients c ON c.id = x.clients_id " +
+            "WHERE x.producto_bancario_id = (SELECT p.id FROM productos_bancarios p " +
+            "WHERE p.tipo_producto_bancario = :tipo) AND c.eliminado = FALSE";
+    private static final String ESTIMAR_TOTAL =
+            "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES " +
+            "WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND TABLE_NAME = 'CLIENTS'";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> buscarIds(BusquedaClientes busqueda, Long despuesDe, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Client> client = query.from(Client.class);
+        query.select(client.get("id"));
+        Predicate[] predicados = predicados(cb, client, busqueda);
+        if (despuesDe != null) {
+            predicados = Arrays.copyOf(predicados, predicados.length + 1);
+            predicados[predicados.length - 1] = cb.greaterThan(cb.sum(client.get("id"), cb.literal(0L)), despuesDe);
+        }
+        query.where(predicados);
+        query.orderBy(cb.asc(client.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public long contar(BusquedaClientes busqueda) {
+        if (soloProducto(busqueda)) {
+            Number total = (Number) entityManager.createNativeQuery(CONTAR_POR_PRODUCTO)
+                    .setParameter("tipo", busqueda.productoBancario().name())
+                    .getSingleResult();
+            return total.longValue();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Client> client = query.from(Client.class);
+        query.select(cb.count(client));
+        query.where(predicados(cb, client, busqueda));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public long estimarTotal() {
+        Number estimado = (Number) entityManager.createNativeQuery(ESTIMAR_TOTAL).getSingleResult();
+        return estimado.longValue();
+    }
+
+    private Predicate[] predicados(CriteriaBuilder cb, Root<Client> client, BusquedaClientes busqueda) {
+        List<Predicate> predicados = new ArrayList<>();
+        if (busqueda.codigoPostal() != null) {
+            predicados.add(cb.equal(client.get("codigoPostal"), busqueda.codigoPostal()));
+        }
+        if (busqueda.apellido() != null) {
+            predicados.add(cb.like(client.get("apellido"), prefijo(busqueda.apellido()), ESCAPE));
+        }
+        if (busqueda.tipoDocumento() != null) {
+            predicados.add(cb.equal(client.get("TipoDocumento"), busqueda.tipoDocumento()));
+        }
+        if (busqueda.fechaDesde() != null) {
+            predicados.add(cb.greaterThanOrEqualTo(client.get("fechaCreacion"), busqueda.fechaDesde()));
+        }
+        if (busqueda.fechaHasta() != null) {
+            predicados.add(cb.lessThan(client.get("fechaCreacion"), busqueda.fechaHasta()));
+        }
+        if (busqueda.productoBancario() != null) {
+            predicados.add(cb.equal(client.join("productoBancarioList").get("tipoProductoBancario"),
+                    busqueda.productoBancario()));
+        }
+        return predicados.toArray(Predicate[]::new);
+    }
+
+    private static boolean soloProducto(BusquedaClientes busqueda) {
+        return busqueda.productoBancario() != null
+                && new BusquedaClientes(busqueda.codigoPostal(), busqueda.apellido(), busqueda.tipoDocumento(),
+                busqueda.fechaDesde(), busqueda.fechaHasta(), null).isVacia();
+    }
+
+    private static String prefijo(String apellido) {
+        StringBuilder patron = new StringBuilder(apellido.length() + 1);
+        for (char c : apellido.toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                patron.append(ESCAPE);
+            }
+            patron.append(c);
+        }
+        return patron.append('%').toString();
+    }
+}
@@ -0,0 +1,25 @@
+package com.bbva.clientmanager.repository;
+
+import com.bbva.clientmanager.entity.ClientView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IClientViewRepository extends JpaRepository<ClientView, Long> {
+    List<ClientView> findAllByOrderByIdAsc();
+
+    /**
+     * Ids de las filas cuya máscara está entre las indicadas. Solo lee el índice
+     * idx_client_view_productos (productos, id), sin tocar las filas.
+     */
+    @Query("select v.id from ClientView v where v.productos in :productos order by v.id")
+    List<Long> findIdsByProductosIn(@Param("productos") Collection<Integer> productos);
+
+    @Query("select v.id from ClientView v where not exists (select c.id from Client c where c.id = v.id)")
+    List<Long> findIdsHuerfanos();
+}
@@ -0,0 +1,27 @@
+package com.bbva.clientmanager.repository;
+
+import com.bbva.clientmanager.entity.EstadoJob;
+import com.bbva.clientmanager.entity.Job;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface IJobRepository extends JpaRepository<Job, Long> {
+    List<Job> findByEstadoInOrderById(Collection<EstadoJob> estados);
+
+    /**
+     * Marca la cancelación sin tocar el resto de las columnas, que sigue actualizando el hilo
+     * que ejecuta el job.
+     *
+     * @return 1 si el job existe y no terminó; 0 en caso contrario
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Job j SET j.cancelacionSolicitada = true WHERE j.id = :id AND j.estado NOT IN :finales")
+    int solicitarCancelacion(@Param("id") Long id, @Param("finales") Collection<EstadoJob> finales);
+}
@@ -5,8 +5,9 @@ import com.bbva.clientmanager.entity.TipoProductoBancario;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface IProductoBancarioRepository  extends JpaRepository<ProductoBancario, Long> {
-    boolean existsByTipoProductoBancario(TipoProductoBancario tipoProductoBancario);
     List<ProductoBancario> findByTipoProductoBancarioIn(List<TipoProductoBancario> tipos);
+    Optional<ProductoBancario> findByTipoProductoBancario(TipoProductoBancario tipoProductoBancario);
 }
@@ -0,0 +1,34 @@
+package com.bbva.clientmanager.repository;
+
+/**
+ * Resumen de un conjunto de ids de clientes: cantidad, máximo, suma y una huella. Dos conjuntos
+ * con el mismo resumen casi con seguridad son iguales, y se comparan sin traer las filas.
+ *
+ * La huella suma MOD(id, 1000003) * MOD(id, 999983) por id; la base la calcula con la misma
+ * expresión en SQL. Las sumas se comparan módulo 2^64.
+ *
+ * @param cantidad cantidad de ids
+ * @param maxId id máximo, 0 si no hay ids
+ * @param suma suma de los ids
+ * @param huella suma de la huella de cada id
+ */
+public record ResumenIds(long cantidad, long maxId, long suma, long huella) {
+    public static final String SQL = "SELECT COUNT(*), COALESCE(MAX(id), 0), COALESCE(SUM(id), 0), "
+            + "COALESCE(SUM(MOD(id, 1000003) * MOD(id, 999983)), 0) FROM clients";
+
+    public static final ResumenIds VACIO = new ResumenIds(0, 0, 0, 0);
+
+    public static long huella(long id) {
+        return (id % 1000003) * (id % 999983);
+    }
+
+    public ResumenIds combinar(ResumenIds otro) {
+        return new ResumenIds(cantidad + otro.cantidad, Math.max(maxId, otro.maxId), suma + otro.suma,
+                huella + otro.huella);
+    }
+
+    static ResumenIds de(Object[] fila) {
+        return new ResumenIds(((Number) fila[0]).longValue(), ((Number) fila[1]).longValue(),
+                ((Number) fila[2]).longValue(), ((Number) fila[3]).longValue());
+    }
+}
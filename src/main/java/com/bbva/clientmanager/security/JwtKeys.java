@@ -0,0 +1,215 @@
+package com.bbva.clientmanager.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Claves de firma y verificación de los tokens JWT, compartidas por todos los nodos.
+ *
+ * Se leen de un directorio (clientmanager.jwt.keys-dir) con un archivo por clave, cuyo nombre
+ * es el kid que viaja en el encabezado del token:
+ * - kid.hs256: secreto HMAC en base64 (firma y verifica con HS256).
+ * - kid.private.pem: clave privada RSA en PKCS#8 (firma con RS256 y verifica con su pública).
+ * - kid.public.pem: clave pública RSA en X.509 (solo verifica).
+ * Un nodo que solo tiene claves públicas valida tokens pero no los emite.
+ *
+ * Rotación: el directorio se relee periódicamente. Se firma con clientmanager.jwt.signing-kid
+ * o, si no está configurado, con la última clave publicada que ya esté activa. Una clave se
+ * considera publicada en la fecha de modificación de su archivo y se activa
+ * clientmanager.jwt.activation-delay-ms después, que no puede ser menor que el intervalo de
+ * recarga: así todos los nodos la verifican antes de que alguno firme con ella. Las claves
+ * anteriores siguen verificando mientras su archivo exista.
+ *
+ * Sin directorio configurado se genera una clave HS256 efímera, solo válida en este nodo
+ * y hasta que se reinicie.
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Component
+public class JwtKeys {
+    static final String KID_EFIMERA = "efimera";
+    private static final String HS256 = ".hs256";
+    private static final String PRIVADA = ".private.pem";
+    private static final String PUBLICA = ".public.pem";
+
+    private final Path directorio;
+    private final String kidFirmaConfigurado;
+    private final long demoraActivacionMs;
+    private final ScheduledExecutorService recargas;
+    private volatile Claves claves;
+
+    /**
+     * Claves vigentes: las de verificación por kid y, si el nodo puede firmar, la de firma.
+     */
+    record Claves(Map<String, Key> verificacion, String kidFirma, Key firma, SignatureAlgorithm algoritmo) {
+        Optional<Key> paraVerificar(String kid) {
+            return Optional.ofNullable(kid).map(verificacion::get);
+        }
+    }
+
+    public JwtKeys(@Value("${clientmanager.jwt.keys-dir:}") String directorio,
+                   @Value("${clientmanager.jwt.signing-kid:}") String kidFirma,
+                   @Value("${clientmanager.jwt.reload-interval-ms:30000}") long intervaloRecargaMs,
+                   @Value("${clientmanager.jwt.activation-delay-ms:60000}") long demoraActivacionMs) {
+        if (demoraActivacionMs < intervaloRecargaMs) {
+            throw new IllegalStateException("clientmanager.jwt.activation-delay-ms (" + demoraActivacionMs
+                    + ") no puede ser menor que clientmanager.jwt.reload-interval-ms (" + intervaloRecargaMs + ")");
+        }
+        this.kidFirmaConfigurado = kidFirma.isBlank() ? null : kidFirma;
+        this.demoraActivacionMs = demoraActivacionMs;
+        if (directorio.isBlank()) {
+            log.warn("clientmanager.jwt.keys-dir no está configurado: se usa una clave efímera y los tokens "
+                    + "solo valen en este nodo hasta que se reinicie");
+            this.directorio = null;
+            this.recargas = null;
+            Key efimera = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+            this.claves = new Claves(Map.of(KID_EFIMERA, efimera), KID_EFIMERA, efimera, SignatureAlgorithm.HS256);
+            return;
+        }
+        this.directorio = Path.of(directorio);
+        this.claves = cargar();
+        this.recargas = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "jwt-keys-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        recargas.scheduleWithFixedDelay(this::recargar, intervaloRecargaMs, intervaloRecargaMs, TimeUnit.MILLISECONDS);
+    }
+
+    Claves getClaves() {
+        return claves;
+    }
+
+    /**
+     * Relee el directorio. Si falla se conservan las claves anteriores.
+     */
+    public void recargar() {
+        if (directorio == null) {
+            return;
+        }
+        try {
+            Claves nuevas = cargar();
+            if (!nuevas.verificacion().keySet().equals(claves.verificacion().keySet())
+                    || !String.valueOf(nuevas.kidFirma()).equals(String.valueOf(claves.kidFirma()))) {
+                log.info("Claves JWT recargadas: kids {}, firma con {}", nuevas.verificacion().keySet(), nuevas.kidFirma());
+            }
+            claves = nuevas;
+        } catch (RuntimeException e) {
+            log.error("No se pudieron recargar las claves JWT de {}, se mantienen las anteriores", directorio, e);
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        if (recargas != null) {
+            recargas.shutdownNow();
+        }
+    }
+
+    private Claves cargar() {
+        Map<String, Key> verificacion = new TreeMap<>();
+        Map<String, Key> firma = new TreeMap<>();
+        Map<String, Long> publicadas = new TreeMap<>();
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            for (Path archivo : archivos.sorted().toList()) {
+                String nombre = archivo.getFileName().toString();
+                if (nombre.endsWith(HS256)) {
+                    Key secreto = Keys.hmacShaKeyFor(Base64.getDecoder().decode(leer(archivo).trim()));
+                    String kid = kid(nombre, HS256);
+                    verificacion.put(kid, secreto);
+                    firma.put(kid, secreto);
+                    publicadas.put(kid, Files.getLastModifiedTime(archivo).toMillis());
+                } else if (nombre.endsWith(PRIVADA)) {
+                    PrivateKey privada = KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(pem(archivo)));
+                    String kid = kid(nombre, PRIVADA);
+                    verificacion.put(kid, publicaDe(privada));
+                    firma.put(kid, privada);
+                    publicadas.put(kid, Files.getLastModifiedTime(archivo).toMillis());
+                } else if (nombre.endsWith(PUBLICA)) {
+                    verificacion.putIfAbsent(kid(nombre, PUBLICA),
+                            KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(pem(archivo))));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Clave JWT inválida en " + directorio, e);
+        }
+        if (verificacion.isEmpty()) {
+            throw new IllegalStateException("No hay claves JWT en " + directorio);
+        }
+        String kidFirma = kidFirmaConfigurado != null ? kidFirmaConfigurado : activa(publicadas);
+        if (kidFirma != null && !firma.containsKey(kidFirma)) {
+            throw new IllegalStateException("No existe la clave de firma " + kidFirma + " en " + directorio);
+        }
+        Key claveFirma = kidFirma != null ? firma.get(kidFirma) : null;
+        SignatureAlgorithm algoritmo = claveFirma instanceof PrivateKey ? SignatureAlgorithm.RS256 : SignatureAlgorithm.HS256;
+        return new Claves(Map.copyOf(verificacion), kidFirma, claveFirma, algoritmo);
+    }
+
+    /**
+     * Entre las claves de firma que ya cumplieron la demora de activación, la publicada más
+     * recientemente. Si ninguna la cumplió (primer arranque, sin clave anterior), la publicada
+     * hace más tiempo.
+     */
+    private String activa(Map<String, Long> publicadas) {
+        long limite = System.currentTimeMillis() - demoraActivacionMs;
+        Comparator<Map.Entry<String, Long>> orden =
+                Map.Entry.<String, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey());
+        return publicadas.entrySet().stream()
+                .filter(publicada -> publicada.getValue() <= limite)
+                .max(orden)
+                .or(() -> publicadas.entrySet().stream().min(orden))
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+
+    private static PublicKey publicaDe(PrivateKey privada) throws GeneralSecurityException {
+        if (!(privada instanceof RSAPrivateCrtKey crt)) {
+            throw new GeneralSecurityException("La clave privada RSA no incluye el exponente público");
+        }
+        return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(crt.getModulus(), crt.getPublicExponent()));
+    }
+
+    private static byte[] pem(Path archivo) throws IOException {
+        String contenido = leer(archivo).replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(contenido);
+    }
+
+    private static String leer(Path archivo) throws IOException {
+        return Files.readString(archivo, StandardCharsets.US_ASCII);
+    }
+
+    private static String kid(String nombre, String sufijo) {
+        return nombre.substring(0, nombre.length() - sufijo.length());
+    }
+}
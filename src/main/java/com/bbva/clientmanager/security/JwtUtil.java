@@ -1,41 +1,70 @@
 package com.bbva.clientmanager.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
 
 /**
  * Clase utilitaria para la generación, extracción y validación de tokens JWT.
  * Esta clase provee métodos para crear tokens JWT para usuarios autenticados,
  * extraer el nombre de usuario de un token, y validar su integridad y expiración.
  *
+ * Las claves las administra JwtKeys: cada token lleva en el encabezado el kid de la
+ * clave que lo firmó y se verifica con esa clave, así un token emitido por un nodo es
+ * válido en cualquier otro que comparta las claves, también después de una rotación.
+ *
  * @author Veronica
  */
 @Component
 public class JwtUtil {
-    /**
-     * Clave secreta utilizada para firmar los tokens JWT.
-     * Debe tener al menos 256 bits para el algoritmo HS256.
-     */
-    private final Key SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    private final JwtKeys jwtKeys;
+    private final long expiracionMs;
+    private final JwtParser parser;
+
+    public JwtUtil(JwtKeys jwtKeys, @Value("${clientmanager.jwt.expiration-ms:3600000}") long expiracionMs) {
+        this.jwtKeys = jwtKeys;
+        this.expiracionMs = expiracionMs;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return jwtKeys.getClaves().paraVerificar(header.getKeyId())
+                                .orElseThrow(() -> new JwtException("kid desconocido: " + header.getKeyId()));
+                    }
+                })
+                .build();
+    }
 
     /**
      * Genera un token JWT que contiene el nombre de usuario como sujeto,
-     * con la fecha de emisión actual y expiración en 1 hora.
+     * con la fecha de emisión actual y la expiración configurada (1 hora por defecto),
+     * firmado con la clave de firma vigente.
      *
      * @param username el nombre de usuario que se incluirá en el token
      * @return el token JWT generado como String
+     * @throws IllegalStateException si este nodo solo tiene claves de verificación
      */
     public String generateToken(String username) {
+        JwtKeys.Claves claves = jwtKeys.getClaves();
+        if (claves.firma() == null) {
+            throw new IllegalStateException("Este nodo no tiene clave de firma para emitir tokens");
+        }
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, claves.kidFirma())
                 .setSubject(username)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
-                .signWith(SECRET_KEY)
+                .setExpiration(new Date(System.currentTimeMillis() + expiracionMs))
+                .signWith(claves.firma(), claves.algoritmo())
                 .compact();
     }
 
@@ -46,13 +75,9 @@ public class JwtUtil {
      * @return el nombre de usuario extraído del token
      */
     public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
+
     /**
      * Valida un token JWT dado, verificando su firma y expiración.
      *
@@ -60,11 +85,42 @@ public class JwtUtil {
      * @return true si el token es válido; false en caso contrario
      */
     public boolean validateToken(String token) {
+        return extractValidUsername(token).isPresent();
+    }
+
+    /**
+     * Valida el token y devuelve su usuario verificando la firma una sola vez.
+     *
+     * @param token el token JWT
+     * @return el nombre de usuario si el token es válido; vacío en caso contrario
+     */
+    public Optional<String> extractValidUsername(String token) {
+        return extractValidClaims(token).map(jws -> jws.getBody().getSubject());
+    }
+
+    /**
+     * Valida el token y devuelve su encabezado y claims (kid, usuario, expiración) verificando
+     * la firma una sola vez.
+     *
+     * @param token el token JWT
+     * @return el token verificado si es válido; vacío en caso contrario
+     */
+    public Optional<Jws<Claims>> extractValidClaims(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(SECRET_KEY).build().parseClaimsJws(token);
-            return true;
+            return Optional.of(parser.parseClaimsJws(token));
         } catch (Exception e) {
-            return false;
+            return Optional.empty();
         }
     }
+
+    /**
+     * Indica si la clave con ese kid sigue entre las de verificación. Al borrarla del directorio
+     * de claves quedan revocados los tokens que firmó.
+     *
+     * @param kid el kid del encabezado del token
+     * @return true si la clave sigue vigente; false en caso contrario
+     */
+    public boolean isClaveVigente(String kid) {
+        return jwtKeys.getClaves().paraVerificar(kid).isPresent();
+    }
 }
@@ -1,5 +1,6 @@
 package com.bbva.clientmanager.security;
 
+import com.bbva.clientmanager.admission.AdmissionControlFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,7 +12,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 /**
  * Clase de configuración de seguridad para Spring Security.
- * Define las reglas de autorización de endpoints y configura el filtro JWT.
+ * Define las reglas de autorización de endpoints y configura el filtro JWT,
+ * seguido del control de admisión por usuario.
  *
  * @author Veronica
  */
@@ -19,6 +21,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
     private final JwtAuthFilter jwtAuthFilter;
+    private final AdmissionControlFilter admissionControlFilter;
     /**
      * Define la cadena de filtros y las configuraciones de seguridad para las solicitudes HTTP.
      *
@@ -37,12 +40,14 @@ public class SecurityConfig {
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
-                                "/h2-console/**"
+                                "/h2-console/**",
+                                "/actuator/health/**"
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(admissionControlFilter, JwtAuthFilter.class);
 
         return http.build();
     }
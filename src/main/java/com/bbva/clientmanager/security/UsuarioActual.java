@@ -0,0 +1,49 @@
+package com.bbva.clientmanager.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+
+/**
+ * Usuario autenticado del hilo actual.
+ *
+ * El SecurityContext solo existe en el hilo del request: el trabajo que sigue en otro hilo
+ * (commit agrupado, jobs) debe capturar el usuario al encolarse y restaurarlo con
+ * {UsuarioActual#ejecutarComo} para que las escrituras queden a su nombre.
+ *
+ * @author Veronica
+ */
+public final class UsuarioActual {
+    private UsuarioActual() {
+    }
+
+    /**
+     * @return nombre del usuario autenticado, o null si el hilo no tiene uno
+     */
+    public static String nombre() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : null;
+    }
+
+    /**
+     * Ejecuta la tarea con el usuario indicado como autenticado y al terminar restaura el contexto anterior.
+     *
+     * @param usuario usuario capturado en el hilo del request; si es null la tarea corre sin usuario
+     */
+    public static void ejecutarComo(String usuario, Runnable tarea) {
+        SecurityContext anterior = SecurityContextHolder.getContext();
+        SecurityContext contexto = SecurityContextHolder.createEmptyContext();
+        if (usuario != null) {
+            contexto.setAuthentication(new UsernamePasswordAuthenticationToken(usuario, null, Collections.emptyList()));
+        }
+        SecurityContextHolder.setContext(contexto);
+        try {
+            tarea.run();
+        } finally {
+            SecurityContextHolder.setContext(anterior);
+        }
+    }
+}
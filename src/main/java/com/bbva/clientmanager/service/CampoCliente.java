@@ -0,0 +1,74 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.exception.SolicitudInvalidaException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Campos de ClientResponseDTO que se pueden pedir con el parámetro fields,
+ * con el atributo de la entidad Client que los respalda.
+ * El id se incluye siempre; productoBancarioList no es una columna y se resuelve aparte.
+ */
+public enum CampoCliente {
+    ID("id", "id"),
+    TIPO_DOCUMENTO("tipoDocumento", "TipoDocumento"),
+    DOCUMENTO("documento", "documento"),
+    NOMBRE("nombre", "nombre"),
+    APELLIDO("apellido", "apellido"),
+    CALLE("calle", "calle"),
+    NUMERO("numero", "numero"),
+    CODIGO_POSTAL("codigoPostal", "codigoPostal"),
+    TELEFONO("telefono", "telefono"),
+    CELULAR("celular", "celular"),
+    PRODUCTO_BANCARIO_LIST("productoBancarioList", null),
+    FECHA_CREACION("fechaCreacion", "fechaCreacion"),
+    FECHA_MODIFICACION("fechaModificacion", "fechaModificacion");
+
+    private static final Map<String, CampoCliente> POR_NOMBRE = Arrays.stream(values())
+            .collect(Collectors.toMap(CampoCliente::getNombre, Function.identity()));
+    private static final String MESSAGE_CAMPO = "Campo inválido en fields: ";
+
+    private final String nombre;
+    private final String atributo;
+
+    CampoCliente(String nombre, String atributo) {
+        this.nombre = nombre;
+        this.atributo = atributo;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getAtributo() {
+        return atributo;
+    }
+
+    public boolean esColumna() {
+        return atributo != null;
+    }
+
+    /**
+     * Convierte la lista recibida en fields (ej. "nombre,apellido") en el conjunto de campos pedidos.
+     *
+     * @throws SolicitudInvalidaException si algún nombre no corresponde a un campo
+     */
+    public static EnumSet<CampoCliente> parsear(List<String> fields) {
+        EnumSet<CampoCliente> campos = EnumSet.of(ID);
+        for (String field : fields) {
+            String nombre = field.trim();
+            if (nombre.isEmpty()) continue;
+            CampoCliente campo = POR_NOMBRE.get(nombre);
+            if (campo == null) {
+                throw new SolicitudInvalidaException(MESSAGE_CAMPO + nombre);
+            }
+            campos.add(campo);
+        }
+        return campos;
+    }
+}
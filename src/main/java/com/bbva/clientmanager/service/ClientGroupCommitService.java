@@ -0,0 +1,213 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.exception.CapacidadExcedidaException;
+import com.bbva.clientmanager.security.UsuarioActual;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Commit agrupado de altas de clientes.
+ *
+ * Con muchos POST /clients concurrentes, cada alta abre su transacción, consulta los
+ * productos bancarios y confirma por separado. Con esta opción habilitada las altas
+ * entran a una cola acotada y un único hilo las agrupa, hasta max-batch solicitudes o
+ * max-wait-ms milisegundos desde la primera, y las confirma juntas con
+ * {IClientService#createAll}. Cada llamador recibe su propio resultado o error de validación.
+ *
+ * Si el grupo completo falla (por ejemplo por un error de la base), cada alta se reintenta
+ * en su propia transacción para que una solicitud inválida no haga fallar a las demás.
+ * Cualquier otro error, incluso un Error de la JVM, hace fallar solo las altas de ese grupo y
+ * el hilo sigue atendiendo la cola. Cada pedido lleva el usuario que lo encoló, para que el
+ * alta quede a su nombre aunque la confirme el hilo del grupo. Un llamador espera a lo sumo timeout-ms; si se vence
+ * recibe CapacidadExcedidaException (si el alta ya estaba en un grupo puede confirmarse igual).
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Service
+public class ClientGroupCommitService {
+    private static final String MESSAGE_CAPACIDAD = "La cola de altas está llena, reintente más tarde.";
+    private static final String MESSAGE_TIMEOUT = "El alta no se confirmó a tiempo, reintente más tarde.";
+
+    private final IClientService clientService;
+    private final boolean habilitado;
+    private final int maxLote;
+    private final long maxEsperaNanos;
+    private final long timeoutMs;
+    private final BlockingQueue<Pedido> cola;
+    private final AtomicLong grupos = new AtomicLong();
+    private final AtomicLong altas = new AtomicLong();
+    private final AtomicLong reintentosIndividuales = new AtomicLong();
+    private volatile boolean activo;
+    private Thread committer;
+
+    public ClientGroupCommitService(IClientService clientService,
+                                    @Value("${clientmanager.group-commit.enabled:false}") boolean habilitado,
+                                    @Value("${clientmanager.group-commit.max-batch:100}") int maxLote,
+                                    @Value("${clientmanager.group-commit.max-wait-ms:5}") long maxEsperaMs,
+                                    @Value("${clientmanager.group-commit.queue-capacity:10000}") int capacidadCola,
+                                    @Value("${clientmanager.group-commit.timeout-ms:5000}") long timeoutMs) {
+        this.clientService = clientService;
+        this.habilitado = habilitado;
+        this.maxLote = maxLote;
+        this.maxEsperaNanos = TimeUnit.MILLISECONDS.toNanos(maxEsperaMs);
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.timeoutMs = timeoutMs;
+    }
+
+    private record Pedido(ClientRequestDTO request, String usuario, CompletableFuture<ClientResponseDTO> resultado) {
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        activo = true;
+        committer = new Thread(this::drenar, "group-commit");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Encola un alta y espera a que se confirme el grupo que la contiene.
+     *
+     * @param clientRequestDTO datos del cliente a crear
+     * @return cliente creado como ClientResponseDTO
+     * @throws CapacidadExcedidaException si la cola de altas está llena o el alta no se confirma en timeout-ms
+     */
+    public ClientResponseDTO create(ClientRequestDTO clientRequestDTO) {
+        Pedido pedido = new Pedido(clientRequestDTO, UsuarioActual.nombre(), new CompletableFuture<>());
+        if (!activo || !cola.offer(pedido)) {
+            throw new CapacidadExcedidaException(MESSAGE_CAPACIDAD);
+        }
+        try {
+            return pedido.resultado().get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cola.remove(pedido);
+            log.warn("Alta sin confirmar después de {} ms", timeoutMs);
+            throw new CapacidadExcedidaException(MESSAGE_TIMEOUT);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Alta interrumpida", e);
+        }
+    }
+
+    public long getGrupos() {
+        return grupos.get();
+    }
+
+    public long getAltas() {
+        return altas.get();
+    }
+
+    public long getReintentosIndividuales() {
+        return reintentosIndividuales.get();
+    }
+
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        if (committer != null) {
+            committer.interrupt();
+        }
+        List<Pedido> pendientes = new ArrayList<>();
+        cola.drainTo(pendientes);
+        pendientes.forEach(p -> p.resultado().completeExceptionally(new CapacidadExcedidaException(MESSAGE_CAPACIDAD)));
+    }
+
+    private void drenar() {
+        while (activo) {
+            try {
+                Pedido primero = cola.poll(100, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                List<Pedido> lote = new ArrayList<>(maxLote);
+                lote.add(primero);
+                long limite = System.nanoTime() + maxEsperaNanos;
+                while (lote.size() < maxLote) {
+                    if (cola.drainTo(lote, maxLote - lote.size()) > 0) {
+                        continue;
+                    }
+                    long resta = limite - System.nanoTime();
+                    Pedido siguiente = resta > 0 ? cola.poll(resta, TimeUnit.NANOSECONDS) : null;
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                }
+                confirmarGrupo(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void confirmarGrupo(List<Pedido> lote) {
+        try {
+            confirmar(lote);
+        } catch (Throwable e) {
+            log.error("Falló el grupo de {} altas", lote.size(), e);
+            lote.forEach(pedido -> pedido.resultado().completeExceptionally(e));
+        }
+    }
+
+    private void confirmar(List<Pedido> lote) {
+        grupos.incrementAndGet();
+        altas.addAndGet(lote.size());
+        List<ResultadoCreacion> resultados;
+        try {
+            resultados = clientService.createAll(lote.stream().map(Pedido::request).toList(),
+                    lote.stream().map(Pedido::usuario).toList());
+        } catch (RuntimeException e) {
+            log.warn("Falló el grupo de {} altas, se reintenta cada una por separado: {}", lote.size(), e.getMessage());
+            reintentosIndividuales.addAndGet(lote.size());
+            lote.forEach(this::confirmarIndividual);
+            return;
+        }
+        for (int i = 0; i < lote.size(); i++) {
+            ResultadoCreacion resultado = resultados.get(i);
+            if (resultado.error() != null) {
+                lote.get(i).resultado().completeExceptionally(resultado.error());
+            } else {
+                lote.get(i).resultado().complete(resultado.client());
+            }
+        }
+    }
+
+    private void confirmarIndividual(Pedido pedido) {
+        UsuarioActual.ejecutarComo(pedido.usuario(), () -> {
+            try {
+                pedido.resultado().complete(clientService.create(pedido.request()));
+            } catch (RuntimeException e) {
+                pedido.resultado().completeExceptionally(e);
+            }
+        });
+    }
+}
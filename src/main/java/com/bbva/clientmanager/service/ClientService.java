@@ -1,22 +1,55 @@
 package com.bbva.clientmanager.service;
 
+import com.bbva.clientmanager.archive.ArchivoClientes;
+import com.bbva.clientmanager.coalescing.LecturaCompartida;
+import com.bbva.clientmanager.dto.ClientCountResponseDTO;
+import com.bbva.clientmanager.dto.ClientLookupResponseDTO;
 import com.bbva.clientmanager.dto.ClientRequestDTO;
 import com.bbva.clientmanager.dto.ClientRequestUpdateDTO;
 import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.ClientSearchRequestDTO;
+import com.bbva.clientmanager.dto.ClientSearchResponseDTO;
 import com.bbva.clientmanager.dto.TelefonoUpdateDTO;
 import com.bbva.clientmanager.entity.Client;
 import com.bbva.clientmanager.entity.ProductoBancario;
 import com.bbva.clientmanager.entity.TipoDocumento;
 import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.event.ClientModificadoEvent;
 import com.bbva.clientmanager.exception.ClientNotFoundException;
+import com.bbva.clientmanager.exception.SolicitudInvalidaException;
 import com.bbva.clientmanager.exception.ValorEnumInvalidoException;
+import com.bbva.clientmanager.readmodel.ClientReadModel;
+import com.bbva.clientmanager.replica.LecturaEnReplica;
+import com.bbva.clientmanager.repository.BusquedaClientes;
 import com.bbva.clientmanager.repository.IClientRepository;
 import com.bbva.clientmanager.repository.IProductoBancarioRepository;
+import com.bbva.clientmanager.security.UsuarioActual;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Tuple;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 /**
  * Implementación del servicio de clientes
@@ -24,7 +57,11 @@ import java.util.stream.Collectors;
  * así como validaciones de tipo de documento y productos bancarios.
  *
  * Usa {IClientRepository} para acceder a los clientes y {IProductoBancarioRepository}
- * para validar los productos bancarios.
+ * para validar los productos bancarios. Cada alta, modificación o baja publica un
+ * {ClientModificadoEvent} para que las caches y vistas derivadas se actualicen.
+ * Si el {ClientReadModel} está disponible, las búsquedas por id y por producto se
+ * resuelven desde él sin consultar la base; si no, y la vista client_view está habilitada,
+ * el listado y esas búsquedas se leen de {IClientViewService} sin joins.
  *
  * @author Veronica
  */
@@ -35,30 +72,109 @@ public class ClientService implements IClientService{
     private final IClientRepository clientRepository;
     private final IProductoBancarioRepository productoBancarioRepository;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClientReadModel readModel;
+    private final IClientViewService clientViewService;
+    private final ObjectProvider<ArchivoClientes> archivo;
+
+    @Value("${clientmanager.lookup.max-ids:5000}")
+    private int maxIdsLookup = 5000;
+    @Value("${clientmanager.lookup.chunk-size:500}")
+    private int tamanioLoteLookup = 500;
+    @Value("${clientmanager.search.default-page-size:20}")
+    private int tamanioPaginaBusqueda = 20;
+    @Value("${clientmanager.search.max-page-size:100}")
+    private int maxTamanioPaginaBusqueda = 100;
+    @Value("${clientmanager.count.estimate-above:100000}")
+    private long umbralEstimacion = 100_000;
+    @Value("${clientmanager.soft-delete.enabled:false}")
+    private boolean bajaLogica;
 
     public ClientService(IClientRepository clientRepository, IProductoBancarioRepository productoBancarioRepository,
-                         ObjectMapper objectMapper){
+                         ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                         ClientReadModel readModel, IClientViewService clientViewService,
+                         ObjectProvider<ArchivoClientes> archivo){
         this.clientRepository = clientRepository;
         this.objectMapper = objectMapper;
         this.productoBancarioRepository = productoBancarioRepository;
+        this.eventPublisher = eventPublisher;
+        this.readModel = readModel;
+        this.clientViewService = clientViewService;
+        this.archivo = archivo;
     }
 
     private static final String MESSAGE_CLIENT = "No se encuentra el cliente con id ";
-    private static final String MESSAGE_TIPO_PRODUCTO = "Tipo de producto bancario inválido: ";
-    private static final String MESSAGE_PRODUCTO = "Ninguno de los productos bancarios indicados existe en la base.";
-    private static final String MESSAGE_TIPO_DOC = "Tipo de documento inválido: ";
+    private static final String MESSAGE_IDS = "Debe indicar entre 1 y %d ids de clientes, sin valores nulos.";
+    private static final String MESSAGE_BUSQUEDA_VACIA = "Debe indicar al menos un criterio de búsqueda.";
+    private static final String MESSAGE_PAGINA = "El cursor despuesDe debe ser mayor o igual a 0 y el tamaño estar entre 1 y %d.";
+    private static final String MESSAGE_FECHAS = "fechaDesde debe ser anterior a fechaHasta.";
 
     /**
      * Crea un nuevo cliente en la base de datos.
      *
+     * Los errores de validación se detectan antes de escribir, por eso no marcan para rollback
+     * una transacción externa (por ejemplo el lote de un job de importación).
+     *
      * @param clientRequestDTO datos del cliente a crear
      * @return cliente creado como ClientResponseDTO
      */
     @Override
+    @Transactional(noRollbackFor = ValorEnumInvalidoException.class)
     public ClientResponseDTO create(ClientRequestDTO clientRequestDTO) {
-        log.info("Creando cliente con documento: {}", clientRequestDTO.getDocumento());
-        Client client = mapToEntity(clientRequestDTO);
-        return mapToDTO(clientRepository.save(client));
+        log.atInfo().addKeyValue("documento", clientRequestDTO.getDocumento()).log("Creando cliente");
+        Client client = clientRepository.save(mapToEntity(clientRequestDTO));
+        eventPublisher.publishEvent(ClientModificadoEvent.alta(client.getId(), UsuarioActual.nombre()));
+        return mapToDTO(client);
+    }
+
+    /**
+     * Crea varios clientes en una sola transacción, usado por el commit agrupado de altas.
+     * Los productos bancarios se leen una sola vez para todo el grupo y un error de
+     * validación queda en el resultado de ese cliente sin impedir el alta de los demás.
+     *
+     * @param clientRequestDTOs datos de los clientes a crear
+     * @param usuarios quién pidió cada alta, en el mismo orden; el grupo se confirma en otro hilo
+     *                 y el {ClientModificadoEvent} de cada usuario lleva solo sus altas
+     * @return un resultado por cada solicitud, en el mismo orden
+     */
+    @Override
+    @Transactional(noRollbackFor = ValorEnumInvalidoException.class)
+    public List<ResultadoCreacion> createAll(List<ClientRequestDTO> clientRequestDTOs, List<String> usuarios) {
+        log.atInfo().addKeyValue("cantidad", clientRequestDTOs.size()).log("Creando clientes en un mismo grupo");
+        Map<TipoProductoBancario, ProductoBancario> productos = new EnumMap<>(TipoProductoBancario.class);
+        productoBancarioRepository.findAll().forEach(p -> productos.put(p.getTipoProductoBancario(), p));
+        Function<List<TipoProductoBancario>, List<ProductoBancario>> buscarProductos = tipos -> tipos.stream()
+                .map(productos::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        Client[] clients = new Client[clientRequestDTOs.size()];
+        RuntimeException[] errores = new RuntimeException[clientRequestDTOs.size()];
+        for (int i = 0; i < clients.length; i++) {
+            try {
+                clients[i] = new Client();
+                aplicarDatos(clients[i], clientRequestDTOs.get(i), buscarProductos);
+            } catch (ValorEnumInvalidoException e) {
+                clients[i] = null;
+                errores[i] = e;
+            }
+        }
+        List<Client> validos = Arrays.stream(clients).filter(Objects::nonNull).toList();
+        clientRepository.saveAll(validos);
+        Map<String, List<Long>> altasPorUsuario = new LinkedHashMap<>();
+        for (int i = 0; i < clients.length; i++) {
+            if (clients[i] != null) {
+                altasPorUsuario.computeIfAbsent(usuarios.get(i), u -> new ArrayList<>()).add(clients[i].getId());
+            }
+        }
+        altasPorUsuario.forEach((usuario, ids) -> eventPublisher.publishEvent(
+                new ClientModificadoEvent(ids, ClientModificadoEvent.TipoModificacion.ALTA, usuario)));
+
+        List<ResultadoCreacion> resultados = new ArrayList<>(clients.length);
+        for (int i = 0; i < clients.length; i++) {
+            resultados.add(errores[i] != null ? ResultadoCreacion.fallido(errores[i]) : ResultadoCreacion.creado(mapToDTO(clients[i])));
+        }
+        return resultados;
     }
 
     /**
@@ -67,32 +183,110 @@ public class ClientService implements IClientService{
      * @return lista de clientes como ClientResponseDTO
      */
     @Override
+    @LecturaEnReplica
+    @Transactional(readOnly = true)
     public List<ClientResponseDTO> findAll() {
         log.info("Recuperando todos los clientes");
-        List<ClientResponseDTO> clientResponseDTOS =  clientRepository.findAll().stream()
+        List<ClientResponseDTO> clientResponseDTOS = clientViewService.isHabilitada()
+                ? clientViewService.findAll()
+                : clientRepository.findAll().stream()
                 .map(this::mapToDTO)
                 .toList();
-        log.info("Cantidad de clientes recuperados: {}", clientResponseDTOS.size());
+        log.atInfo().addKeyValue("cantidad", clientResponseDTOS.size()).log("Clientes recuperados");
         return clientResponseDTOS;
     }
 
+    /**
+     * Recupera una página de clientes ordenada por id, a partir del id indicado (exclusivo).
+     * Permite recorrer la tabla completa por lotes sin OFFSET.
+     *
+     * @param id último id ya recorrido (0 para empezar)
+     * @param limite cantidad máxima de clientes a devolver
+     * @return lista de clientes como ClientResponseDTO
+     */
+    @Override
+    @LecturaEnReplica
+    @Transactional(readOnly = true)
+    public List<ClientResponseDTO> findAllDespuesDe(Long id, int limite) {
+        return clientRepository.findByIdGreaterThanOrderByIdAsc(id, Limit.of(limite)).stream()
+                .map(this::mapToDTO)
+                .toList();
+    }
+
     /**
      * Busca un cliente por su ID.
+     * Con clientmanager.archive.enabled, si no está en la tabla se busca en el archivo de
+     * clientes fríos.
      *
      * @param id identificador del cliente
      * @return cliente encontrado como ClientResponseDTO
      * @throws ClientNotFoundException si no se encuentra el cliente
      */
     @Override
+    @LecturaCompartida
+    @LecturaEnReplica
+    @Transactional(readOnly = true)
     public ClientResponseDTO findById(Long id) {
-        log.info("Buscando cliente con id: {}", id);
-        Client client = clientRepository.findById(id).orElseThrow(
-                () -> {
-                    log.warn("No se encontró cliente con id: {}", id);
-                    return new ClientNotFoundException(MESSAGE_CLIENT + id);
-                });
-        return mapToDTO(client);
+        log.atInfo().addKeyValue("id", id).log("Buscando cliente");
+        Optional<ClientResponseDTO> client;
+        if (readModel.isDisponible()) {
+            client = readModel.findById(id);
+        } else if (clientViewService.isHabilitada()) {
+            client = clientViewService.findById(id);
+        } else {
+            client = clientRepository.findById(id).map(this::mapToDTO);
+        }
+        return client.or(() -> archivado(id)).orElseThrow(() -> {
+            log.atWarn().addKeyValue("id", id).log("No se encontró el cliente");
+            return new ClientNotFoundException(MESSAGE_CLIENT + id);
+        });
+    }
+
+    /**
+     * Busca varios clientes por ID en una sola operación.
+     * Los ids se ordenan y deduplican en un arreglo de long, se resuelven con consultas IN
+     * por lotes que traen también los productos bancarios, y la respuesta respeta el orden
+     * de la solicitud (primera aparición de cada id).
+     *
+     * @param ids identificadores de los clientes
+     * @return clientes encontrados y lista de ids inexistentes
+     * @throws SolicitudInvalidaException si la lista está vacía, tiene nulos o supera el máximo
+     */
+    @Override
+    @LecturaEnReplica
+    @Transactional(readOnly = true)
+    public ClientLookupResponseDTO findAllById(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > maxIdsLookup || ids.stream().anyMatch(Objects::isNull)) {
+            throw new SolicitudInvalidaException(String.format(MESSAGE_IDS, maxIdsLookup));
+        }
+        log.atInfo().addKeyValue("cantidad", ids.size()).log("Buscando clientes por id");
+        long[] pedidos = ids.stream().mapToLong(Long::longValue).toArray();
+        long[] unicos = Arrays.stream(pedidos).sorted().distinct().toArray();
+        Client[] encontrados = new Client[unicos.length];
+
+        for (int desde = 0; desde < unicos.length; desde += tamanioLoteLookup) {
+            long[] lote = Arrays.copyOfRange(unicos, desde, Math.min(desde + tamanioLoteLookup, unicos.length));
+            for (Client client : clientRepository.findAllWithProductosByIdIn(Arrays.stream(lote).boxed().toList())) {
+                encontrados[Arrays.binarySearch(unicos, client.getId())] = client;
+            }
+        }
 
+        boolean[] emitidos = new boolean[unicos.length];
+        List<ClientResponseDTO> clients = new ArrayList<>(unicos.length);
+        List<Long> noEncontrados = new ArrayList<>();
+        for (long id : pedidos) {
+            int posicion = Arrays.binarySearch(unicos, id);
+            if (emitidos[posicion]) continue;
+            emitidos[posicion] = true;
+            if (encontrados[posicion] != null) {
+                clients.add(mapToDTO(encontrados[posicion]));
+            } else {
+                noEncontrados.add(id);
+            }
+        }
+        log.atInfo().addKeyValue("encontrados", clients.size()).addKeyValue("noEncontrados", noEncontrados.size())
+                .log("Clientes buscados por id");
+        return new ClientLookupResponseDTO(clients, noEncontrados);
     }
 
     /**
@@ -103,57 +297,212 @@ public class ClientService implements IClientService{
      * @throws ValorEnumInvalidoException si el producto bancario no es válido
      */
     @Override
+    @LecturaCompartida
+    @LecturaEnReplica
+    @Transactional(readOnly = true)
     public List<ClientResponseDTO> findByProductoBancario(String tipoProductoBancario){
-        log.info("Buscando clientes con producto bancario: {}", tipoProductoBancario);
-        TipoProductoBancario tipo;
-        try {
-            tipo = TipoProductoBancario.valueOf(tipoProductoBancario);
-        } catch (IllegalArgumentException e){
-            log.error("Tipo de producto bancario inválido: {}", tipoProductoBancario);
-            throw new ValorEnumInvalidoException(MESSAGE_TIPO_PRODUCTO + tipoProductoBancario);
+        log.atInfo().addKeyValue("producto", tipoProductoBancario).log("Buscando clientes por producto bancario");
+        TipoProductoBancario tipo = validarTipoProducto(tipoProductoBancario);
+        if (readModel.isDisponible()) {
+            return readModel.findByProductoBancario(tipo);
+        }
+        if (clientViewService.isHabilitada()) {
+            return clientViewService.findByProductoBancario(tipo);
         }
 
         List<Client> clients = clientRepository.findByProductoBancarioList_TipoProductoBancario(tipo);
-        log.info("Se encontraron {} clientes con producto bancario: {}", clients.size(), tipoProductoBancario);
+        log.atInfo().addKeyValue("producto", tipoProductoBancario).addKeyValue("cantidad", clients.size())
+                .log("Clientes encontrados por producto bancario");
         return clients.stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Busca clientes combinando los criterios presentes (código postal, prefijo de apellido,
+     * tipo de documento, rango de fecha de creación y producto bancario), paginado por id.
+     * Cada página empieza después del id indicado en despuesDe (el siguiente de la respuesta
+     * anterior), sin OFFSET. Primero se resuelven los ids de la página con los índices de clients
+     * y después se leen esos clientes con sus productos en una sola consulta. Se pide un id de
+     * más para saber si hay otra página sin contar el total.
+     *
+     * @param clientSearchRequestDTO criterios, cursor despuesDe (vacío para la primera página) y tamaño de página
+     * @return clientes de la página, ordenados por id, y el cursor de la siguiente si hay más
+     * @throws SolicitudInvalidaException si no hay criterios, o el cursor, el tamaño o las fechas son inválidos
+     * @throws ValorEnumInvalidoException si el tipo de documento o el producto no son válidos
+     */
+    @Override
+    @LecturaEnReplica
+    @Transactional(readOnly = true)
+    public ClientSearchResponseDTO search(ClientSearchRequestDTO clientSearchRequestDTO) {
+        BusquedaClientes busqueda = validarBusqueda(clientSearchRequestDTO);
+        Long despuesDe = clientSearchRequestDTO.getDespuesDe();
+        int tamanio = clientSearchRequestDTO.getTamanio() != null ? clientSearchRequestDTO.getTamanio() : tamanioPaginaBusqueda;
+        if ((despuesDe != null && despuesDe < 0) || tamanio < 1 || tamanio > maxTamanioPaginaBusqueda) {
+            throw new SolicitudInvalidaException(String.format(MESSAGE_PAGINA, maxTamanioPaginaBusqueda));
+        }
+        log.atInfo().addKeyValue("busqueda", busqueda).addKeyValue("despuesDe", despuesDe).addKeyValue("tamanio", tamanio)
+                .log("Buscando clientes por criterios");
+
+        List<Long> ids = clientRepository.buscarIds(busqueda, despuesDe, tamanio + 1);
+        boolean hayMas = ids.size() > tamanio;
+        List<Long> idsPagina = hayMas ? ids.subList(0, tamanio) : ids;
+        Map<Long, Client> porId = new HashMap<>();
+        if (!idsPagina.isEmpty()) {
+            clientRepository.findAllWithProductosByIdIn(idsPagina).forEach(client -> porId.put(client.getId(), client));
+        }
+        List<ClientResponseDTO> clients = idsPagina.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToDTO)
+                .toList();
+        Long siguiente = hayMas ? idsPagina.get(idsPagina.size() - 1) : null;
+        return new ClientSearchResponseDTO(clients, tamanio, hayMas, siguiente);
+    }
+
+    /**
+     * Indica si existe un cliente con el id dado, con una consulta COUNT sobre la clave
+     * primaria: no lee la fila ni arma el DTO. Si no está en la tabla se busca en el archivo.
+     *
+     * @param id identificador del cliente
+     * @return true si el cliente existe
+     */
+    @Override
+    @LecturaEnReplica
+    @Transactional(readOnly = true)
+    public boolean existsById(Long id) {
+        return clientRepository.existsById(id) || archivado(id).isPresent();
+    }
+
+    /**
+     * Cuenta los clientes que cumplen los criterios presentes, sin leer filas.
+     * Sin criterios se cuenta la tabla completa: si la estimación de filas que mantiene la
+     * base supera clientmanager.count.estimate-above se devuelve esa estimación, marcada
+     * como tal, en lugar de recorrer la tabla; por debajo se cuenta exacto.
+     *
+     * @param clientSearchRequestDTO criterios opcionales; la página y el tamaño se ignoran
+     * @return total de clientes e indicación de si es una estimación
+     * @throws SolicitudInvalidaException si las fechas son inválidas
+     * @throws ValorEnumInvalidoException si el tipo de documento o el producto no son válidos
+     */
+    @Override
+    @LecturaEnReplica
+    @Transactional(readOnly = true)
+    public ClientCountResponseDTO count(ClientSearchRequestDTO clientSearchRequestDTO) {
+        BusquedaClientes busqueda = criteriosBusqueda(clientSearchRequestDTO);
+        if (!busqueda.isVacia()) {
+            return new ClientCountResponseDTO(clientRepository.contar(busqueda), false);
+        }
+        long estimado = clientRepository.estimarTotal();
+        if (estimado > umbralEstimacion) {
+            return new ClientCountResponseDTO(estimado, true);
+        }
+        return new ClientCountResponseDTO(clientRepository.count(), false);
+    }
+
+    /**
+     * Recupera todos los clientes leyendo solo los campos pedidos.
+     *
+     * @param fields nombres de campos de ClientResponseDTO (el id se incluye siempre)
+     * @return lista de clientes con los campos pedidos
+     */
+    @Override
+    @LecturaEnReplica
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAll(List<String> fields) {
+        log.atInfo().addKeyValue("fields", fields).log("Recuperando todos los clientes");
+        return proyectar(fields, null, null);
+    }
+
+    /**
+     * Busca un cliente por su ID leyendo solo los campos pedidos.
+     *
+     * @param id identificador del cliente
+     * @param fields nombres de campos de ClientResponseDTO (el id se incluye siempre)
+     * @return cliente con los campos pedidos
+     * @throws ClientNotFoundException si no se encuentra el cliente
+     */
+    @Override
+    @LecturaEnReplica
+    @Transactional(readOnly = true)
+    public Map<String, Object> findById(Long id, List<String> fields) {
+        log.atInfo().addKeyValue("id", id).addKeyValue("fields", fields).log("Buscando cliente");
+        List<Map<String, Object>> clients = proyectar(fields, id, null);
+        if (clients.isEmpty()) {
+            log.atWarn().addKeyValue("id", id).log("No se encontró el cliente");
+            throw new ClientNotFoundException(MESSAGE_CLIENT + id);
+        }
+        return clients.get(0);
+    }
+
+    /**
+     * Busca clientes que tengan un producto bancario específico, leyendo solo los campos pedidos.
+     *
+     * @param tipoProductoBancario nombre del producto bancario
+     * @param fields nombres de campos de ClientResponseDTO (el id se incluye siempre)
+     * @return lista de clientes con los campos pedidos
+     * @throws ValorEnumInvalidoException si el producto bancario no es válido
+     */
+    @Override
+    @LecturaEnReplica
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findByProductoBancario(String tipoProductoBancario, List<String> fields) {
+        log.atInfo().addKeyValue("producto", tipoProductoBancario).addKeyValue("fields", fields)
+                .log("Buscando clientes por producto bancario");
+        return proyectar(fields, null, validarTipoProducto(tipoProductoBancario));
+    }
+
     /**
      * Elimina un cliente por su ID.
+     * Con clientmanager.soft-delete.enabled solo se lo marca como eliminado con un UPDATE;
+     * las filas se borran después, en lotes, desde el purgador de bajas. Sin baja lógica se
+     * borran el cliente y sus productos con DELETE directos, sin leerlo antes. La cantidad de
+     * filas afectadas indica si existía; solo si no estaba en la tabla se busca en el archivo de
+     * clientes fríos, y esa copia deja de valer al confirmarse la baja.
      *
      * @param id identificador del cliente
      * @throws ClientNotFoundException si no se encuentra el cliente
      */
     @Override
+    @Transactional
     public void deleteById(Long id) {
-        log.info("Eliminando cliente con id: {}", id);
-        findById(id);
-        clientRepository.deleteById(id);
-        log.info("Cliente con id {} eliminado", id);
+        log.atInfo().addKeyValue("id", id).log("Eliminando cliente");
+        boolean existia = bajaLogica
+                ? clientRepository.marcarEliminado(id, LocalDateTime.now())
+                : clientRepository.eliminar(id);
+        if (!existia) {
+            if (archivado(id).isEmpty()) {
+                log.atWarn().addKeyValue("id", id).log("No se encontró el cliente");
+                throw new ClientNotFoundException(MESSAGE_CLIENT + id);
+            }
+            retirarDelArchivo(id);
+        }
+        eventPublisher.publishEvent(ClientModificadoEvent.baja(id, UsuarioActual.nombre()));
+        log.atInfo().addKeyValue("id", id).log("Cliente eliminado");
     }
 
     /**
      * Actualiza completamente un cliente.
+     * Los datos se aplican sobre la entidad administrada, de modo que solo se escriben
+     * las columnas y los productos bancarios que efectivamente cambiaron.
      *
      * @param id identificador del cliente
      * @param clientRequestDTO nuevos datos del cliente
      * @return cliente actualizado como ClientResponseDTO
      */
     @Override
+    @Transactional
     public ClientResponseDTO update(Long id, ClientRequestDTO clientRequestDTO) {
-        log.info("Actualizando cliente con id: {}", id);
-        Client clientB = clientRepository.findById(id).orElseThrow(
+        log.atInfo().addKeyValue("id", id).log("Actualizando cliente");
+        Client client = clientRepository.findById(id).or(() -> rehidratar(id)).orElseThrow(
                 () -> {
-                    log.warn("No se encontró cliente con id: {}", id);
+                    log.atWarn().addKeyValue("id", id).log("No se encontró el cliente");
                     return new ClientNotFoundException(MESSAGE_CLIENT + id);
                 });
-        Client client = mapToEntity(clientRequestDTO);
-        client.setId(id);
-        client.setFechaCreacion(clientB.getFechaCreacion());
+        aplicarDatos(client, clientRequestDTO);
         ClientResponseDTO clientResponseDTO = mapToDTO(clientRepository.save(client));
-        log.info("Cliente con id {} actualizado", id);
+        eventPublisher.publishEvent(ClientModificadoEvent.modificacion(id, UsuarioActual.nombre()));
+        log.atInfo().addKeyValue("id", id).log("Cliente actualizado");
         return clientResponseDTO;
     }
 
@@ -166,11 +515,12 @@ public class ClientService implements IClientService{
      * @throws ClientNotFoundException si no se encuentra el cliente
      */
     @Override
+    @Transactional
     public ClientResponseDTO partialUpdate(Long id, ClientRequestUpdateDTO dto) {
-        log.info("Actualización parcial de cliente con id: {}", id);
-        Client client = clientRepository.findById(id).orElseThrow(
+        log.atInfo().addKeyValue("id", id).log("Actualización parcial de cliente");
+        Client client = clientRepository.findById(id).or(() -> rehidratar(id)).orElseThrow(
                 () -> {
-                    log.warn("No se encontró cliente con id: {} para actualización parcial", id);
+                    log.atWarn().addKeyValue("id", id).log("No se encontró el cliente para actualización parcial");
                     return new ClientNotFoundException(MESSAGE_CLIENT + id);
                 } );
 
@@ -187,11 +537,12 @@ public class ClientService implements IClientService{
         }
 
         if (dto.getProductoBancarioList() != null) {
-            client.setProductoBancarioList(validarProductosBancarios(dto.getProductoBancarioList()));
+            sincronizarProductos(client, validarProductosBancarios(dto.getProductoBancarioList()));
         }
 
         ClientResponseDTO updatedDto = mapToDTO(clientRepository.save(client));
-        log.info("Actualización parcial completada para cliente id: {}", id);
+        eventPublisher.publishEvent(ClientModificadoEvent.modificacion(id, UsuarioActual.nombre()));
+        log.atInfo().addKeyValue("id", id).log("Actualización parcial completada");
 
         return updatedDto;
     }
@@ -205,19 +556,116 @@ public class ClientService implements IClientService{
      * @throws ClientNotFoundException si no se encuentra el cliente
      */
     @Override
+    @Transactional
     public ClientResponseDTO updateTelefono(Long id, TelefonoUpdateDTO telefonoUpdateDTO){
-        log.info("Actualizando teléfono del cliente con id: {}", id);
-        Client client = clientRepository.findById(id).orElseThrow(
+        log.atInfo().addKeyValue("id", id).log("Actualizando teléfono del cliente");
+        Client client = clientRepository.findById(id).or(() -> rehidratar(id)).orElseThrow(
                 () -> {
-                    log.warn("No se encontró cliente con id: {} para actualizar teléfono", id);
+                    log.atWarn().addKeyValue("id", id).log("No se encontró el cliente para actualizar teléfono");
                     return new ClientNotFoundException(MESSAGE_CLIENT + id);
                 });
         client.setTelefono(telefonoUpdateDTO.getTelefono());
         ClientResponseDTO clientResponseDTO = mapToDTO(clientRepository.save(client));
-        log.info("Teléfono actualizado para cliente id: {}", id);
+        eventPublisher.publishEvent(ClientModificadoEvent.modificacion(id, UsuarioActual.nombre()));
+        log.atInfo().addKeyValue("id", id).log("Teléfono actualizado");
         return clientResponseDTO;
     }
 
+    /**
+     * Arma la respuesta reducida: el SELECT incluye solo las columnas pedidas y los
+     * productos bancarios se consultan únicamente si productoBancarioList está entre los campos.
+     */
+    private List<Map<String, Object>> proyectar(List<String> fields, Long id, TipoProductoBancario tipo) {
+        EnumSet<CampoCliente> campos = CampoCliente.parsear(fields);
+        List<String> atributos = campos.stream()
+                .filter(CampoCliente::esColumna)
+                .map(CampoCliente::getAtributo)
+                .toList();
+
+        List<Map<String, Object>> clients = new ArrayList<>();
+        for (Tuple fila : clientRepository.findProyeccion(atributos, id, tipo)) {
+            Map<String, Object> client = new LinkedHashMap<>();
+            for (CampoCliente campo : campos) {
+                if (campo.esColumna()) {
+                    Object valor = fila.get(campo.getAtributo());
+                    client.put(campo.getNombre(), valor instanceof Enum<?> e ? e.name() : valor);
+                }
+            }
+            clients.add(client);
+        }
+
+        if (campos.contains(CampoCliente.PRODUCTO_BANCARIO_LIST) && !clients.isEmpty()) {
+            Map<Long, List<TipoProductoBancario>> productos = new HashMap<>();
+            List<Long> ids = clients.stream().map(c -> (Long) c.get(CampoCliente.ID.getNombre())).toList();
+            for (int desde = 0; desde < ids.size(); desde += tamanioLoteLookup) {
+                List<Long> lote = ids.subList(desde, Math.min(desde + tamanioLoteLookup, ids.size()));
+                for (Object[] par : clientRepository.findTiposProductoByClientIdIn(lote)) {
+                    productos.computeIfAbsent((Long) par[0], k -> new ArrayList<>()).add((TipoProductoBancario) par[1]);
+                }
+            }
+            for (Map<String, Object> client : clients) {
+                List<TipoProductoBancario> tipos = productos.getOrDefault(client.get(CampoCliente.ID.getNombre()), List.of());
+                client.put(CampoCliente.PRODUCTO_BANCARIO_LIST.getNombre(),
+                        tipos.stream().sorted().map(TipoProductoBancario::name).toList());
+            }
+        }
+        return clients;
+    }
+
+    private Optional<ClientResponseDTO> archivado(Long id) {
+        ArchivoClientes archivoClientes = archivo.getIfAvailable();
+        return archivoClientes != null ? archivoClientes.buscar(id) : Optional.empty();
+    }
+
+    /**
+     * Vuelve a insertar en clients, con su id, un cliente que solo está en el archivo, para que
+     * la escritura en curso se aplique sobre la entidad administrada. La copia archivada se
+     * retira recién al confirmarse la transacción.
+     */
+    private Optional<Client> rehidratar(Long id) {
+        Optional<ClientResponseDTO> archivado = archivado(id);
+        if (archivado.isEmpty()) {
+            return Optional.empty();
+        }
+        ClientResponseDTO dto = archivado.get();
+        Client client = new Client();
+        client.setId(dto.getId());
+        client.setTipoDocumento(validarTipoDocumento(dto.getTipoDocumento()));
+        client.setDocumento(dto.getDocumento());
+        client.setNombre(dto.getNombre());
+        client.setApellido(dto.getApellido());
+        client.setCalle(dto.getCalle());
+        client.setNumero(dto.getNumero());
+        client.setCodigoPostal(dto.getCodigoPostal());
+        client.setTelefono(dto.getTelefono());
+        client.setCelular(dto.getCelular());
+        client.setFechaCreacion(dto.getFechaCreacion());
+        client.setFechaModificacion(LocalDateTime.now());
+        Set<ProductoBancario> productos = validarProductosBancarios(dto.getProductoBancarioList());
+        client.setProductoBancarioList(productos != null ? productos : new LinkedHashSet<>());
+        clientRepository.restaurar(client);
+        log.atInfo().addKeyValue("id", id).log("Cliente restaurado desde el archivo");
+        retirarDelArchivo(id);
+        return clientRepository.findById(id);
+    }
+
+    private void retirarDelArchivo(Long id) {
+        ArchivoClientes archivoClientes = archivo.getIfAvailable();
+        if (archivoClientes == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            archivoClientes.retirar(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                archivoClientes.retirar(id);
+            }
+        });
+    }
+
     private ClientResponseDTO mapToDTO(Client client){
         ClientResponseDTO clientResponseDTO = new ClientResponseDTO();
 
@@ -235,7 +683,9 @@ public class ClientService implements IClientService{
         clientResponseDTO.setFechaModificacion(client.getFechaModificacion());
 
         List<String> productos = client.getProductoBancarioList() != null ? client.getProductoBancarioList().stream()
-                .map(pb -> pb.getTipoProductoBancario().name())
+                .map(ProductoBancario::getTipoProductoBancario)
+                .sorted()
+                .map(TipoProductoBancario::name)
                 .collect(Collectors.toList()) : null;
 
         clientResponseDTO.setProductoBancarioList(productos);
@@ -245,6 +695,16 @@ public class ClientService implements IClientService{
 
     private Client mapToEntity (ClientRequestDTO clientRequestDTO){
         Client client = new Client();
+        aplicarDatos(client, clientRequestDTO);
+        return client;
+    }
+
+    private void aplicarDatos(Client client, ClientRequestDTO clientRequestDTO){
+        aplicarDatos(client, clientRequestDTO, productoBancarioRepository::findByTipoProductoBancarioIn);
+    }
+
+    private void aplicarDatos(Client client, ClientRequestDTO clientRequestDTO,
+                              Function<List<TipoProductoBancario>, List<ProductoBancario>> buscarProductos){
         client.setDocumento(clientRequestDTO.getDocumento());
         client.setNombre(clientRequestDTO.getNombre());
         client.setApellido(clientRequestDTO.getApellido());
@@ -254,40 +714,77 @@ public class ClientService implements IClientService{
         client.setTelefono(clientRequestDTO.getTelefono());
         client.setCelular(clientRequestDTO.getCelular());
 
-        client.setProductoBancarioList(validarProductosBancarios(clientRequestDTO.getProductoBancarioList()));
+        sincronizarProductos(client, validarProductosBancarios(clientRequestDTO.getProductoBancarioList(), buscarProductos));
         client.setTipoDocumento(validarTipoDocumento(clientRequestDTO.getTipoDocumento()));
+    }
 
-        return client;
+    /**
+     * Lleva el conjunto de productos del cliente al conjunto indicado modificando la colección
+     * existente en lugar de reemplazarla, para que Hibernate emita únicamente los INSERT y DELETE
+     * de las filas agregadas o quitadas en clients_productos_bancarios.
+     * Una lista nula se interpreta como "sin productos", igual que antes.
+     */
+    private void sincronizarProductos(Client client, Set<ProductoBancario> nuevos) {
+        Set<ProductoBancario> deseados = nuevos != null ? nuevos : Set.of();
+        Set<ProductoBancario> actuales = client.getProductoBancarioList();
+        if (actuales == null) {
+            client.setProductoBancarioList(new LinkedHashSet<>(deseados));
+            return;
+        }
+        boolean quitados = actuales.retainAll(deseados);
+        boolean agregados = actuales.addAll(deseados);
+        if ((quitados || agregados) && client.getId() != null) {
+            // Un cambio solo en la tabla intermedia no ensucia la entidad; se fuerza
+            // la actualización de fecha_modificacion para reflejarlo.
+            client.setFechaModificacion(LocalDateTime.now());
+        }
+    }
+
+    private Set<ProductoBancario> validarProductosBancarios(List<String> nombres) {
+        return validarProductosBancarios(nombres, productoBancarioRepository::findByTipoProductoBancarioIn);
     }
 
-    private List<ProductoBancario> validarProductosBancarios(List<String> nombres) {
+    private Set<ProductoBancario> validarProductosBancarios(List<String> nombres,
+                                                            Function<List<TipoProductoBancario>, List<ProductoBancario>> buscarProductos) {
         if (nombres == null) return null;
-        List<TipoProductoBancario> tipoProductoBancarios = nombres.stream()
-                .map(nombre -> {
-                    try {
-                        return TipoProductoBancario.valueOf(nombre);
-                    } catch (IllegalArgumentException e) {
-                        log.error(MESSAGE_TIPO_PRODUCTO + nombre);
-                        throw new ValorEnumInvalidoException(MESSAGE_TIPO_PRODUCTO + nombre);
-                    }
-                })
-                .collect(Collectors.toList());
+        List<TipoProductoBancario> tipoProductoBancarios = ValidacionCliente.tiposProducto(nombres);
+        List<ProductoBancario> productos = buscarProductos.apply(tipoProductoBancarios);
+        ValidacionCliente.verificarProductos(tipoProductoBancarios, productos);
+        return new LinkedHashSet<>(productos);
+    }
 
-        List<ProductoBancario> productos = productoBancarioRepository.findByTipoProductoBancarioIn(tipoProductoBancarios);
+    private BusquedaClientes validarBusqueda(ClientSearchRequestDTO dto) {
+        BusquedaClientes busqueda = criteriosBusqueda(dto);
+        if (busqueda.isVacia()) {
+            throw new SolicitudInvalidaException(MESSAGE_BUSQUEDA_VACIA);
+        }
+        return busqueda;
+    }
 
-        if (productos.isEmpty() && !tipoProductoBancarios.isEmpty()) {
-            log.error(MESSAGE_PRODUCTO);
-            throw new ValorEnumInvalidoException(MESSAGE_PRODUCTO);
+    private BusquedaClientes criteriosBusqueda(ClientSearchRequestDTO dto) {
+        BusquedaClientes busqueda = new BusquedaClientes(
+                presente(dto.getCodigoPostal()),
+                presente(dto.getApellido()),
+                presente(dto.getTipoDocumento()) != null ? validarTipoDocumento(dto.getTipoDocumento().trim()) : null,
+                dto.getFechaDesde(),
+                dto.getFechaHasta(),
+                presente(dto.getProductoBancario()) != null ? validarTipoProducto(dto.getProductoBancario().trim()) : null);
+        if (busqueda.fechaDesde() != null && busqueda.fechaHasta() != null
+                && !busqueda.fechaDesde().isBefore(busqueda.fechaHasta())) {
+            throw new SolicitudInvalidaException(MESSAGE_FECHAS);
         }
-        return productos;
+        return busqueda;
+    }
+
+    private static String presente(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+
+    private TipoProductoBancario validarTipoProducto(String tipoProductoBancario) {
+        return ValidacionCliente.tipoProducto(tipoProductoBancario);
     }
 
     private TipoDocumento validarTipoDocumento(String tipoDocumento) {
-        try {
-            return TipoDocumento.valueOf(tipoDocumento);
-        } catch (IllegalArgumentException e) {
-            log.error(MESSAGE_TIPO_DOC + tipoDocumento);
-            throw new ValorEnumInvalidoException(MESSAGE_TIPO_DOC + tipoDocumento);
-        }
+        return ValidacionCliente.tipoDocumento(tipoDocumento);
     }
 }
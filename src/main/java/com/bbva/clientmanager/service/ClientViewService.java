@@ -0,0 +1,213 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.ConsistenciaViewDTO;
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.entity.ClientView;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.event.ClientModificadoEvent;
+import com.bbva.clientmanager.repository.IClientRepository;
+import com.bbva.clientmanager.repository.IClientViewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantenimiento y lectura de la tabla desnormalizada client_view.
+ *
+ * Cada {ClientModificadoEvent} se aplica de forma sincrónica, dentro de la transacción
+ * que modificó al cliente, así la vista nunca queda confirmada con datos distintos a los
+ * de clients. Con clientmanager.client-view.enabled (apagado por defecto) las lecturas por id,
+ * listado y producto bancario de ClientService consultan solo client_view en lugar de la entidad
+ * Client, así que no pasan por la cache de segundo nivel de Client. La búsqueda por producto
+ * resuelve los ids solo con el índice sobre la máscara de productos y después lee esas filas por
+ * clave primaria.
+ *
+ * El verificador recorre clients por páginas, compara cada cliente con su fila y
+ * opcionalmente repara faltantes, diferencias y filas huérfanas. Se ejecuta al arrancar
+ * y puede invocarse a demanda.
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Service
+public class ClientViewService implements IClientViewService {
+    private static final int LOTE = 500;
+
+    private final IClientViewRepository clientViewRepository;
+    private final IClientRepository clientRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitada;
+
+    public ClientViewService(IClientViewRepository clientViewRepository, IClientRepository clientRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${clientmanager.client-view.enabled:false}") boolean habilitada) {
+        this.clientViewRepository = clientViewRepository;
+        this.clientRepository = clientRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitada = habilitada;
+    }
+
+    @Override
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Actualiza la vista en la misma transacción en la que se publicó el evento.
+     */
+    @EventListener
+    public void onClientModificado(ClientModificadoEvent event) {
+        if (!habilitada) {
+            return;
+        }
+        if (event.tipo() == ClientModificadoEvent.TipoModificacion.BAJA) {
+            clientViewRepository.deleteAllByIdInBatch(event.ids());
+            return;
+        }
+        for (int i = 0; i < event.ids().size(); i += LOTE) {
+            List<Long> lote = event.ids().subList(i, Math.min(i + LOTE, event.ids().size()));
+            sincronizar(lote);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClientResponseDTO> findAll() {
+        return clientViewRepository.findAllByOrderByIdAsc().stream().map(this::mapToDTO).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ClientResponseDTO> findById(Long id) {
+        return clientViewRepository.findById(id).map(this::mapToDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClientResponseDTO> findByProductoBancario(TipoProductoBancario tipo) {
+        List<Long> ids = clientViewRepository.findIdsByProductosIn(ClientView.mascarasCon(tipo));
+        return clientViewRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(ClientView::getId))
+                .map(this::mapToDTO)
+                .toList();
+    }
+
+    /**
+     * Compara clients con client_view, una página por transacción.
+     *
+     * @param reparar si es true corrige las diferencias encontradas
+     * @return cantidad de clientes revisados y de filas faltantes, desactualizadas y huérfanas
+     */
+    @Override
+    public ConsistenciaViewDTO verificar(boolean reparar) {
+        ConsistenciaViewDTO resultado = new ConsistenciaViewDTO(0, 0, 0, 0, reparar);
+        long ultimoId = 0;
+        int leidos;
+        do {
+            long desde = ultimoId;
+            List<Long> ids = transactionTemplate.execute(status -> verificarPagina(desde, reparar, resultado));
+            leidos = ids.size();
+            if (leidos > 0) {
+                ultimoId = ids.get(leidos - 1);
+            }
+        } while (leidos == LOTE);
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> huerfanos = clientViewRepository.findIdsHuerfanos();
+            resultado.setFilasHuerfanas(huerfanos.size());
+            if (reparar && !huerfanos.isEmpty()) {
+                clientViewRepository.deleteAllByIdInBatch(huerfanos);
+            }
+        });
+        log.info("Verificación de client_view: {} clientes, {} faltantes, {} desactualizadas, {} huérfanas, reparar={}",
+                resultado.getClientesRevisados(), resultado.getFilasFaltantes(),
+                resultado.getFilasDesactualizadas(), resultado.getFilasHuerfanas(), reparar);
+        return resultado;
+    }
+
+    /**
+     * Al arrancar completa la vista con los clientes que se hayan escrito sin ella.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void repararAlArrancar() {
+        if (habilitada) {
+            verificar(true);
+        }
+    }
+
+    private List<Long> verificarPagina(long desde, boolean reparar, ConsistenciaViewDTO resultado) {
+        List<Long> ids = clientRepository.findByIdGreaterThanOrderByIdAsc(desde, Limit.of(LOTE)).stream()
+                .map(Client::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        Map<Long, ClientView> vistas = clientViewRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ClientView::getId, Function.identity()));
+        List<ClientView> cambios = new ArrayList<>();
+        for (Client client : clientRepository.findAllWithProductosByIdIn(ids)) {
+            ClientView vista = vistas.get(client.getId());
+            if (vista == null) {
+                resultado.setFilasFaltantes(resultado.getFilasFaltantes() + 1);
+                vista = new ClientView();
+            } else if (!vista.coincideCon(client)) {
+                resultado.setFilasDesactualizadas(resultado.getFilasDesactualizadas() + 1);
+            } else {
+                continue;
+            }
+            if (reparar) {
+                vista.copiarDe(client);
+                cambios.add(vista);
+            }
+        }
+        clientViewRepository.saveAll(cambios);
+        resultado.setClientesRevisados(resultado.getClientesRevisados() + ids.size());
+        return ids;
+    }
+
+    private void sincronizar(List<Long> ids) {
+        Map<Long, ClientView> vistas = clientViewRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ClientView::getId, Function.identity()));
+        List<ClientView> cambios = new ArrayList<>();
+        for (Client client : clientRepository.findAllWithProductosByIdIn(ids)) {
+            ClientView vista = vistas.getOrDefault(client.getId(), new ClientView());
+            if (vista.isNew() || !vista.coincideCon(client)) {
+                vista.copiarDe(client);
+                cambios.add(vista);
+            }
+        }
+        clientViewRepository.saveAll(cambios);
+    }
+
+    private ClientResponseDTO mapToDTO(ClientView vista) {
+        ClientResponseDTO dto = new ClientResponseDTO();
+        dto.setId(vista.getId());
+        dto.setTipoDocumento(vista.getTipoDocumento() != null ? vista.getTipoDocumento().name() : null);
+        dto.setDocumento(vista.getDocumento());
+        dto.setNombre(vista.getNombre());
+        dto.setApellido(vista.getApellido());
+        dto.setCalle(vista.getCalle());
+        dto.setNumero(vista.getNumero());
+        dto.setCodigoPostal(vista.getCodigoPostal());
+        dto.setTelefono(vista.getTelefono());
+        dto.setCelular(vista.getCelular());
+        dto.setProductoBancarioList(vista.getProductosBancarios());
+        dto.setFechaCreacion(vista.getFechaCreacion());
+        dto.setFechaModificacion(vista.getFechaModificacion());
+        return dto;
+    }
+}
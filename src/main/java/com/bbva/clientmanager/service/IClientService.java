@@ -1,21 +1,44 @@
 package com.bbva.clientmanager.service;
 
+import com.bbva.clientmanager.dto.ClientCountResponseDTO;
+import com.bbva.clientmanager.dto.ClientLookupResponseDTO;
 import com.bbva.clientmanager.dto.ClientRequestDTO;
 import com.bbva.clientmanager.dto.ClientRequestUpdateDTO;
 import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.ClientSearchRequestDTO;
+import com.bbva.clientmanager.dto.ClientSearchResponseDTO;
 import com.bbva.clientmanager.dto.TelefonoUpdateDTO;
 
 import java.util.List;
+import java.util.Map;
 
 public interface IClientService {
     ClientResponseDTO create (ClientRequestDTO clientRequestDTO);
 
+    List<ResultadoCreacion> createAll(List<ClientRequestDTO> clientRequestDTOs, List<String> usuarios);
+
     List<ClientResponseDTO> findAll();
 
+    List<ClientResponseDTO> findAllDespuesDe(Long id, int limite);
+
     ClientResponseDTO findById(Long id);
 
+    ClientLookupResponseDTO findAllById(List<Long> ids);
+
     List<ClientResponseDTO> findByProductoBancario(String tipoProductoBancario);
 
+    ClientSearchResponseDTO search(ClientSearchRequestDTO clientSearchRequestDTO);
+
+    boolean existsById(Long id);
+
+    ClientCountResponseDTO count(ClientSearchRequestDTO clientSearchRequestDTO);
+
+    List<Map<String, Object>> findAll(List<String> fields);
+
+    Map<String, Object> findById(Long id, List<String> fields);
+
+    List<Map<String, Object>> findByProductoBancario(String tipoProductoBancario, List<String> fields);
+
     void deleteById(Long id);
 
     ClientResponseDTO update(Long id, ClientRequestDTO clientRequestDTO);
@@ -0,0 +1,16 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.ConsistenciaViewDTO;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface IClientViewService {
+    boolean isHabilitada();
+    List<ClientResponseDTO> findAll();
+    Optional<ClientResponseDTO> findById(Long id);
+    List<ClientResponseDTO> findByProductoBancario(TipoProductoBancario tipo);
+    ConsistenciaViewDTO verificar(boolean reparar);
+}
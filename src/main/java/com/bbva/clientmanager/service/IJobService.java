@@ -0,0 +1,12 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.JobRequestDTO;
+import com.bbva.clientmanager.dto.JobResponseDTO;
+
+public interface IJobService {
+    JobResponseDTO submit(JobRequestDTO jobRequestDTO);
+
+    JobResponseDTO findById(Long id);
+
+    JobResponseDTO cancel(Long id);
+}
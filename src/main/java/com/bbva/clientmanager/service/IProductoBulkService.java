@@ -0,0 +1,10 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.ProductoBulkRequestDTO;
+import com.bbva.clientmanager.dto.ProductoBulkResponseDTO;
+
+public interface IProductoBulkService {
+    ProductoBulkResponseDTO asignar(String tipoProductoBancario, ProductoBulkRequestDTO dto);
+
+    ProductoBulkResponseDTO revocar(String tipoProductoBancario, ProductoBulkRequestDTO dto);
+}
@@ -0,0 +1,311 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.JobRequestDTO;
+import com.bbva.clientmanager.dto.JobResponseDTO;
+import com.bbva.clientmanager.entity.EstadoJob;
+import com.bbva.clientmanager.entity.Job;
+import com.bbva.clientmanager.entity.TipoJob;
+import com.bbva.clientmanager.exception.CapacidadExcedidaException;
+import com.bbva.clientmanager.exception.JobNotFoundException;
+import com.bbva.clientmanager.exception.ValorEnumInvalidoException;
+import com.bbva.clientmanager.replica.ReplicaRoutingDataSource;
+import com.bbva.clientmanager.repository.IJobRepository;
+import com.bbva.clientmanager.security.UsuarioActual;
+import com.bbva.clientmanager.service.job.JobHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Motor de jobs asincrónicos.
+ *
+ * Los jobs se ejecutan en un pool acotado, separado de los hilos de Tomcat, y cada lote
+ * corre en su propia transacción junto con el checkpoint del job. Como cada hilo del pool
+ * usa a lo sumo una conexión a la vez, el tamaño del pool limita cuántas conexiones
+ * pueden tomar los jobs; se exige que quede por debajo del máximo del pool de conexiones
+ * que efectivamente usan sus transacciones (el de escritura con bulkheads, el de
+ * spring.datasource.hikari sin ellos) para no dejar sin conexiones a los requests.
+ *
+ * Al iniciar la aplicación se reanudan los jobs que quedaron pendientes o en curso. Si un lote
+ * falla, el job se marca FALLIDO sobre su último checkpoint confirmado, no sobre el cursor y los
+ * contadores que el lote revertido dejó en memoria.
+ *
+ * El job guarda el usuario que lo envió y sus lotes corren a su nombre, para que las
+ * escrituras del job cuenten como suyas (por ejemplo para leer sus propias escrituras).
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Service
+public class JobService implements IJobService {
+    private final IJobRepository jobRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<TipoJob, JobHandler> handlers = new EnumMap<>(TipoJob.class);
+    private final Map<Long, AtomicBoolean> cancelaciones = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+
+    public JobService(IJobRepository jobRepository, ObjectMapper objectMapper,
+                      PlatformTransactionManager transactionManager, List<JobHandler> jobHandlers,
+                      @Value("${clientmanager.jobs.pool-size:2}") int poolSize,
+                      @Value("${clientmanager.jobs.queue-capacity:100}") int capacidadCola,
+                      DataSource dataSource) {
+        int maxConexiones = maximoConexiones(dataSource);
+        if (maxConexiones > 0 && poolSize >= maxConexiones) {
+            throw new IllegalStateException("clientmanager.jobs.pool-size (" + poolSize
+                    + ") debe ser menor que el pool de conexiones (" + maxConexiones + ")");
+        }
+        this.jobRepository = jobRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        jobHandlers.forEach(handler -> handler.tipos().forEach(tipo -> handlers.put(tipo, handler)));
+        AtomicInteger hilos = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), r -> {
+                    Thread thread = new Thread(r, "job-" + hilos.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private static final String MESSAGE_JOB = "No se encuentra el job con id ";
+    private static final String MESSAGE_TIPO_JOB = "Tipo de job inválido: ";
+    private static final String MESSAGE_CAPACIDAD = "La cola de jobs está llena, reintente más tarde.";
+    private static final Set<EstadoJob> ESTADOS_FINALES = Set.of(EstadoJob.COMPLETADO, EstadoJob.FALLIDO, EstadoJob.CANCELADO);
+
+    /**
+     * Valida y encola un job.
+     *
+     * @param jobRequestDTO tipo y parámetros del job
+     * @return el job creado, en estado PENDIENTE
+     * @throws CapacidadExcedidaException si la cola de jobs está llena
+     */
+    @Override
+    public JobResponseDTO submit(JobRequestDTO jobRequestDTO) {
+        TipoJob tipo = validarTipo(jobRequestDTO.getTipo());
+        handlers.get(tipo).validar(tipo, jobRequestDTO);
+
+        Job job = new Job();
+        job.setTipo(tipo);
+        job.setEstado(EstadoJob.PENDIENTE);
+        job.setParametros(serializar(jobRequestDTO));
+        job.setUsuario(UsuarioActual.nombre());
+        job = jobRepository.save(job);
+        log.info("Job {} de tipo {} encolado", job.getId(), tipo);
+
+        try {
+            encolar(job.getId());
+        } catch (RejectedExecutionException e) {
+            job.setEstado(EstadoJob.FALLIDO);
+            job.setUltimoError(MESSAGE_CAPACIDAD);
+            jobRepository.save(job);
+            throw new CapacidadExcedidaException(MESSAGE_CAPACIDAD);
+        }
+        return mapToDTO(job);
+    }
+
+    /**
+     * Devuelve el estado, progreso y throughput de un job.
+     *
+     * @throws JobNotFoundException si no existe el job
+     */
+    @Override
+    public JobResponseDTO findById(Long id) {
+        return mapToDTO(buscar(id));
+    }
+
+    /**
+     * Solicita la cancelación de un job; se hace efectiva al terminar el lote en curso.
+     *
+     * @throws JobNotFoundException si no existe el job
+     */
+    @Override
+    public JobResponseDTO cancel(Long id) {
+        cancelaciones.computeIfPresent(id, (k, cancelado) -> {
+            cancelado.set(true);
+            return cancelado;
+        });
+        if (jobRepository.solicitarCancelacion(id, ESTADOS_FINALES) > 0) {
+            log.info("Cancelación solicitada para job {}", id);
+        }
+        return mapToDTO(buscar(id));
+    }
+
+    /**
+     * Reanuda, desde su último checkpoint, los jobs que no llegaron a terminar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reanudarPendientes() {
+        for (Job job : jobRepository.findByEstadoInOrderById(Set.of(EstadoJob.PENDIENTE, EstadoJob.EN_CURSO))) {
+            log.info("Reanudando job {} desde cursor {}", job.getId(), job.getCursor());
+            try {
+                encolar(job.getId());
+            } catch (RejectedExecutionException e) {
+                log.warn("No hay lugar en la cola para reanudar el job {}", job.getId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+
+    private void encolar(Long id) {
+        cancelaciones.putIfAbsent(id, new AtomicBoolean());
+        executor.execute(() -> {
+            Job job = buscar(id);
+            UsuarioActual.ejecutarComo(job.getUsuario(), () -> ejecutar(job));
+        });
+    }
+
+    private void ejecutar(Job job) {
+        Long id = job.getId();
+        JobHandler handler = handlers.get(job.getTipo());
+        AtomicBoolean cancelado = cancelaciones.get(id);
+        if (job.isCancelacionSolicitada()) {
+            cancelado.set(true);
+        }
+        try {
+            JobRequestDTO parametros = objectMapper.readValue(job.getParametros(), JobRequestDTO.class);
+            if (job.getFechaInicio() == null) {
+                job.setFechaInicio(LocalDateTime.now());
+                handler.iniciar(job, parametros);
+            }
+            job.setEstado(EstadoJob.EN_CURSO);
+            job = jobRepository.save(job);
+
+            boolean pendiente = true;
+            while (pendiente && !cancelado.get()) {
+                Job actual = job;
+                pendiente = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    boolean quedan = handler.procesarLote(actual, parametros);
+                    actual.setCancelacionSolicitada(cancelado.get());
+                    jobRepository.save(actual);
+                    return quedan;
+                }));
+            }
+            job.setEstado(cancelado.get() ? EstadoJob.CANCELADO : EstadoJob.COMPLETADO);
+            log.info("Job {} finalizado en estado {}: {} procesados, {} errores",
+                    id, job.getEstado(), job.getProcesados(), job.getErrores());
+        } catch (Exception e) {
+            log.error("Job {} fallido: {}", id, e.getMessage(), e);
+            job = ultimoCheckpoint(id, job);
+            job.setEstado(EstadoJob.FALLIDO);
+            job.setUltimoError(truncar(e.getMessage()));
+        } finally {
+            job.setFechaFin(LocalDateTime.now());
+            try {
+                jobRepository.save(job);
+            } catch (RuntimeException e) {
+                log.error("No se pudo guardar el estado final {} del job {}", job.getEstado(), id, e);
+            }
+            cancelaciones.remove(id);
+        }
+    }
+
+    private Job ultimoCheckpoint(Long id, Job job) {
+        try {
+            return jobRepository.findById(id).orElse(job);
+        } catch (RuntimeException e) {
+            log.error("No se pudo releer el checkpoint del job {}", id, e);
+            return job;
+        }
+    }
+
+    private static String truncar(String error) {
+        return error != null && error.length() > Job.LARGO_ULTIMO_ERROR
+                ? error.substring(0, Job.LARGO_ULTIMO_ERROR)
+                : error;
+    }
+
+    private Job buscar(Long id) {
+        return jobRepository.findById(id).orElseThrow(() -> {
+            log.warn("No se encontró job con id: {}", id);
+            return new JobNotFoundException(MESSAGE_JOB + id);
+        });
+    }
+
+    private TipoJob validarTipo(String tipo) {
+        try {
+            return TipoJob.valueOf(tipo);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.error(MESSAGE_TIPO_JOB + tipo);
+            throw new ValorEnumInvalidoException(MESSAGE_TIPO_JOB + tipo);
+        }
+    }
+
+    private String serializar(JobRequestDTO jobRequestDTO) {
+        try {
+            return objectMapper.writeValueAsString(jobRequestDTO);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudieron serializar los parámetros del job", e);
+        }
+    }
+
+    private JobResponseDTO mapToDTO(Job job) {
+        JobResponseDTO dto = new JobResponseDTO();
+        dto.setId(job.getId());
+        dto.setTipo(job.getTipo().name());
+        dto.setEstado(job.getEstado().name());
+        dto.setProcesados(job.getProcesados());
+        dto.setTotal(job.getTotal());
+        dto.setErrores(job.getErrores());
+        dto.setUltimoError(job.getUltimoError());
+        dto.setResultado(job.getResultado());
+        dto.setFechaCreacion(job.getFechaCreacion());
+        dto.setFechaInicio(job.getFechaInicio());
+        dto.setFechaFin(job.getFechaFin());
+        if (job.getFechaInicio() != null) {
+            LocalDateTime fin = job.getFechaFin() != null ? job.getFechaFin() : LocalDateTime.now();
+            long millis = Math.max(1, Duration.between(job.getFechaInicio(), fin).toMillis());
+            dto.setProcesadosPorSegundo(job.getProcesados() * 1000.0 / millis);
+        }
+        return dto;
+    }
+
+    /**
+     * Máximo del pool Hikari detrás del DataSource principal, atravesando el ruteo a réplicas
+     * y el proxy de bulkheads (que entrega conexiones del pool de escritura fuera de las
+     * transacciones read-only). Devuelve 0 si no hay un pool Hikari reconocible.
+     */
+    static int maximoConexiones(DataSource dataSource) {
+        DataSource actual = dataSource;
+        while (true) {
+            if (actual instanceof HikariDataSource hikari) {
+                return hikari.getMaximumPoolSize();
+            } else if (actual instanceof ReplicaRoutingDataSource replicas) {
+                actual = replicas.getPrimario();
+            } else if (actual instanceof DelegatingDataSource delegado && delegado.getTargetDataSource() != null) {
+                actual = delegado.getTargetDataSource();
+            } else {
+                log.warn("No se reconoce el pool de conexiones de {}, no se valida clientmanager.jobs.pool-size", actual);
+                return 0;
+            }
+        }
+    }
+}
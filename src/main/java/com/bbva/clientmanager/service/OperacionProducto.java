@@ -0,0 +1,6 @@
+package com.bbva.clientmanager.service;
+
+public enum OperacionProducto {
+    ASIGNAR,
+    REVOCAR
+}
@@ -0,0 +1,180 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.ProductoBulkRequestDTO;
+import com.bbva.clientmanager.dto.ProductoBulkResponseDTO;
+import com.bbva.clientmanager.entity.ProductoBancario;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.event.ClientModificadoEvent;
+import com.bbva.clientmanager.exception.SolicitudInvalidaException;
+import com.bbva.clientmanager.exception.ValorEnumInvalidoException;
+import com.bbva.clientmanager.repository.FiltroClientes;
+import com.bbva.clientmanager.repository.IClientRepository;
+import com.bbva.clientmanager.repository.IProductoBancarioRepository;
+import com.bbva.clientmanager.security.UsuarioActual;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Asignación y baja masiva de un producto bancario.
+ *
+ * El universo de clientes se recorre por lotes ordenados por id; sin lista de ids, cada lote
+ * abarca los siguientes chunk-size clientes que cumplen el filtro, buscados por keyset desde el
+ * cursor, de modo que los huecos en los ids no producen lotes vacíos. Cada lote se resuelve
+ * con sentencias set-based en su propia transacción, de modo que los locks sobre
+ * clients y clients_productos_bancarios duran lo que dura un lote y no la operación completa.
+ * Cada lote publica un {ClientModificadoEvent} con los clientes que cambiaron.
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Service
+public class ProductoBulkService implements IProductoBulkService {
+    private final IClientRepository clientRepository;
+    private final IProductoBancarioRepository productoBancarioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int tamanioLote;
+
+    public ProductoBulkService(IClientRepository clientRepository,
+                               IProductoBancarioRepository productoBancarioRepository,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${clientmanager.bulk.chunk-size:1000}") int tamanioLote) {
+        this.clientRepository = clientRepository;
+        this.eventPublisher = eventPublisher;
+        this.productoBancarioRepository = productoBancarioRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
+    }
+
+    private static final String MESSAGE_TIPO_PRODUCTO = "Tipo de producto bancario inválido: ";
+    private static final String MESSAGE_PRODUCTO = "El producto bancario no existe en la base: ";
+    private static final String MESSAGE_FILTRO = "Debe indicar una lista de ids o al menos un filtro (codigoPostal, productoBancario).";
+
+    /**
+     * Resultado de un lote procesado.
+     *
+     * @param hasta último id cubierto por el lote, usado como cursor del siguiente
+     * @param afectados clientes a los que se agregó o quitó el producto
+     */
+    public record ResultadoLote(long hasta, int afectados) {
+    }
+
+    @Override
+    public ProductoBulkResponseDTO asignar(String tipoProductoBancario, ProductoBulkRequestDTO dto) {
+        return ejecutar(OperacionProducto.ASIGNAR, tipoProductoBancario, dto);
+    }
+
+    @Override
+    public ProductoBulkResponseDTO revocar(String tipoProductoBancario, ProductoBulkRequestDTO dto) {
+        return ejecutar(OperacionProducto.REVOCAR, tipoProductoBancario, dto);
+    }
+
+    private ProductoBulkResponseDTO ejecutar(OperacionProducto operacion, String tipoProductoBancario,
+                                             ProductoBulkRequestDTO dto) {
+        log.info("{} masivo de producto bancario: {}", operacion, tipoProductoBancario);
+        ProductoBancario producto = resolverProducto(tipoProductoBancario);
+        FiltroClientes filtro = resolverFiltro(dto);
+
+        long cursor = 0;
+        int afectados = 0;
+        int lotes = 0;
+        Optional<ResultadoLote> lote;
+        while ((lote = procesarSiguienteLote(operacion, producto.getId(), filtro, cursor)).isPresent()) {
+            cursor = lote.get().hasta();
+            afectados += lote.get().afectados();
+            lotes++;
+        }
+        log.info("{} masivo de {} completado: {} clientes afectados en {} lotes",
+                operacion, tipoProductoBancario, afectados, lotes);
+        return new ProductoBulkResponseDTO(producto.getTipoProductoBancario().name(), operacion.name(), afectados, lotes);
+    }
+
+    /**
+     * Valida el tipo de producto y devuelve la entidad correspondiente.
+     *
+     * @throws ValorEnumInvalidoException si el tipo no es válido o no está cargado
+     */
+    public ProductoBancario resolverProducto(String tipoProductoBancario) {
+        TipoProductoBancario tipo = parsearTipo(tipoProductoBancario);
+        return productoBancarioRepository.findByTipoProductoBancario(tipo).orElseThrow(() -> {
+            log.error(MESSAGE_PRODUCTO + tipoProductoBancario);
+            return new ValorEnumInvalidoException(MESSAGE_PRODUCTO + tipoProductoBancario);
+        });
+    }
+
+    /**
+     * Convierte la solicitud en un filtro. Los ids se ordenan y deduplican para poder recorrerlos por lotes.
+     *
+     * @throws SolicitudInvalidaException si no se indicó ni ids ni ningún criterio
+     */
+    public FiltroClientes resolverFiltro(ProductoBulkRequestDTO dto) {
+        boolean sinIds = dto == null || dto.getIds() == null || dto.getIds().isEmpty();
+        if (sinIds && (dto == null || (dto.getCodigoPostal() == null && dto.getProductoBancario() == null))) {
+            throw new SolicitudInvalidaException(MESSAGE_FILTRO);
+        }
+        List<Long> ids = sinIds ? null : dto.getIds().stream().distinct().sorted().toList();
+        TipoProductoBancario existente = dto.getProductoBancario() != null ? parsearTipo(dto.getProductoBancario()) : null;
+        return new FiltroClientes(ids, dto.getCodigoPostal(), existente);
+    }
+
+    /**
+     * Procesa, en una transacción propia, el lote de clientes con id mayor a cursor.
+     *
+     * @param cursor último id ya procesado (0 para empezar)
+     * @return el resultado del lote, o vacío si no quedan clientes por recorrer
+     */
+    public Optional<ResultadoLote> procesarSiguienteLote(OperacionProducto operacion, Long productoId,
+                                                        FiltroClientes filtro, long cursor) {
+        long desde;
+        long hasta;
+        FiltroClientes filtroLote = filtro;
+        if (filtro.ids() != null) {
+            List<Long> pendientes = filtro.ids().stream().filter(id -> id > cursor).limit(tamanioLote).toList();
+            if (pendientes.isEmpty()) {
+                return Optional.empty();
+            }
+            desde = pendientes.get(0);
+            hasta = pendientes.get(pendientes.size() - 1);
+            filtroLote = new FiltroClientes(pendientes, filtro.codigoPostal(), filtro.productoExistente());
+        } else {
+            List<Long> pagina = clientRepository.siguientesIds(filtro, cursor, tamanioLote);
+            if (pagina.isEmpty()) {
+                return Optional.empty();
+            }
+            desde = cursor + 1;
+            hasta = pagina.get(pagina.size() - 1);
+        }
+
+        FiltroClientes seleccion = filtroLote;
+        List<Long> afectados = transactionTemplate.execute(status -> {
+            List<Long> ids = operacion == OperacionProducto.ASIGNAR
+                    ? clientRepository.asignarProducto(productoId, seleccion, desde, hasta)
+                    : clientRepository.revocarProducto(productoId, seleccion, desde, hasta);
+            if (!ids.isEmpty()) {
+                eventPublisher.publishEvent(new ClientModificadoEvent(ids, ClientModificadoEvent.TipoModificacion.MODIFICACION,
+                        UsuarioActual.nombre()));
+            }
+            return ids;
+        });
+        int cantidad = afectados != null ? afectados.size() : 0;
+        log.debug("Lote {} [{} - {}]: {} clientes", operacion, desde, hasta, cantidad);
+        return Optional.of(new ResultadoLote(hasta, cantidad));
+    }
+
+    private TipoProductoBancario parsearTipo(String tipoProductoBancario) {
+        try {
+            return TipoProductoBancario.valueOf(tipoProductoBancario);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.error(MESSAGE_TIPO_PRODUCTO + tipoProductoBancario);
+            throw new ValorEnumInvalidoException(MESSAGE_TIPO_PRODUCTO + tipoProductoBancario);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+
+/**
+ * Resultado del alta de un cliente dentro de un grupo: el cliente creado o el error
+ * de validación que impidió crearlo.
+ *
+ * @param client cliente creado, null si hubo error
+ * @param error error de validación, null si se creó
+ */
+public record ResultadoCreacion(ClientResponseDTO client, RuntimeException error) {
+    public static ResultadoCreacion creado(ClientResponseDTO client) {
+        return new ResultadoCreacion(client, null);
+    }
+
+    public static ResultadoCreacion fallido(RuntimeException error) {
+        return new ResultadoCreacion(null, error);
+    }
+}
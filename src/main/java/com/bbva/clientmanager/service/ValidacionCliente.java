@@ -0,0 +1,78 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.entity.TipoDocumento;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.exception.ValorEnumInvalidoException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reglas de validación de los datos de un cliente, compartidas por ClientService y por la
+ * variante reactiva de la API para que ambas acepten y rechacen exactamente lo mismo,
+ * con los mismos mensajes.
+ *
+ * @author Veronica
+ */
+@Slf4j
+public final class ValidacionCliente {
+    private static final String MESSAGE_TIPO_PRODUCTO = "Tipo de producto bancario inválido: ";
+    private static final String MESSAGE_PRODUCTO = "Ninguno de los productos bancarios indicados existe en la base.";
+    private static final String MESSAGE_TIPO_DOC = "Tipo de documento inválido: ";
+
+    private ValidacionCliente() {
+    }
+
+    /**
+     * @param tipoDocumento nombre del tipo de documento
+     * @return el tipo de documento
+     * @throws ValorEnumInvalidoException si no es un tipo de documento válido
+     */
+    public static TipoDocumento tipoDocumento(String tipoDocumento) {
+        try {
+            return TipoDocumento.valueOf(tipoDocumento);
+        } catch (IllegalArgumentException e) {
+            log.error(MESSAGE_TIPO_DOC + tipoDocumento);
+            throw new ValorEnumInvalidoException(MESSAGE_TIPO_DOC + tipoDocumento);
+        }
+    }
+
+    /**
+     * @param tipoProductoBancario nombre del producto bancario
+     * @return el tipo de producto bancario
+     * @throws ValorEnumInvalidoException si no es un producto bancario válido
+     */
+    public static TipoProductoBancario tipoProducto(String tipoProductoBancario) {
+        try {
+            return TipoProductoBancario.valueOf(tipoProductoBancario);
+        } catch (IllegalArgumentException e) {
+            log.error(MESSAGE_TIPO_PRODUCTO + tipoProductoBancario);
+            throw new ValorEnumInvalidoException(MESSAGE_TIPO_PRODUCTO + tipoProductoBancario);
+        }
+    }
+
+    /**
+     * @param nombres nombres de productos bancarios, nula si no se indicaron
+     * @return los tipos en el mismo orden, o null si la lista es nula
+     * @throws ValorEnumInvalidoException si algún nombre no es un producto bancario válido
+     */
+    public static List<TipoProductoBancario> tiposProducto(List<String> nombres) {
+        if (nombres == null) return null;
+        return nombres.stream().map(ValidacionCliente::tipoProducto).toList();
+    }
+
+    /**
+     * Rechaza la solicitud si pidió productos y ninguno existe en la base.
+     *
+     * @param pedidos tipos de producto indicados en la solicitud
+     * @param encontrados productos leídos de la base para esos tipos
+     * @throws ValorEnumInvalidoException si no se encontró ninguno de los productos pedidos
+     */
+    public static void verificarProductos(List<TipoProductoBancario> pedidos, Collection<?> encontrados) {
+        if (encontrados.isEmpty() && !pedidos.isEmpty()) {
+            log.error(MESSAGE_PRODUCTO);
+            throw new ValorEnumInvalidoException(MESSAGE_PRODUCTO);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.bbva.clientmanager.service.job;
+
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.JobRequestDTO;
+import com.bbva.clientmanager.entity.Job;
+import com.bbva.clientmanager.entity.TipoJob;
+import com.bbva.clientmanager.repository.IClientRepository;
+import com.bbva.clientmanager.service.IClientService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Exportación completa de clientes a un archivo JSON Lines.
+ * Antes de cada lote el archivo se trunca a la posición del último checkpoint,
+ * así una reanudación no duplica las líneas escritas después de la caída.
+ */
+@Component
+public class ExportJobHandler implements JobHandler {
+    private final IClientService clientService;
+    private final IClientRepository clientRepository;
+    private final ObjectMapper objectMapper;
+    private final Path directorio;
+    private final int tamanioLote;
+
+    public ExportJobHandler(IClientService clientService, IClientRepository clientRepository, ObjectMapper objectMapper,
+                            @Value("${clientmanager.jobs.export-dir:${java.io.tmpdir}/clientmanager-exports}") String directorio,
+                            @Value("${clientmanager.bulk.chunk-size:1000}") int tamanioLote) {
+        this.clientService = clientService;
+        this.clientRepository = clientRepository;
+        this.objectMapper = objectMapper;
+        this.directorio = Path.of(directorio);
+        this.tamanioLote = tamanioLote;
+    }
+
+    @Override
+    public Set<TipoJob> tipos() {
+        return Set.of(TipoJob.EXPORTAR);
+    }
+
+    @Override
+    public void validar(TipoJob tipo, JobRequestDTO parametros) {
+    }
+
+    @Override
+    public void iniciar(Job job, JobRequestDTO parametros) {
+        job.setTotal(clientRepository.count());
+        job.setResultado(directorio.resolve("job-" + job.getId() + ".jsonl").toString());
+    }
+
+    @Override
+    public boolean procesarLote(Job job, JobRequestDTO parametros) {
+        List<ClientResponseDTO> clientes = clientService.findAllDespuesDe(job.getCursor(), tamanioLote);
+        if (clientes.isEmpty()) {
+            return false;
+        }
+        try {
+            Files.createDirectories(directorio);
+            ByteArrayOutputStream lineas = new ByteArrayOutputStream();
+            for (ClientResponseDTO cliente : clientes) {
+                objectMapper.writeValue(lineas, cliente);
+                lineas.write('\n');
+            }
+            try (FileChannel canal = FileChannel.open(Path.of(job.getResultado()),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                canal.truncate(job.getPosicionArchivo());
+                canal.position(job.getPosicionArchivo());
+                ByteBuffer buffer = ByteBuffer.wrap(lineas.toByteArray());
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+                canal.force(false);
+                job.setPosicionArchivo(canal.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        job.setCursor(clientes.get(clientes.size() - 1).getId());
+        job.setProcesados(job.getProcesados() + clientes.size());
+        return clientes.size() == tamanioLote;
+    }
+}
@@ -0,0 +1,82 @@
+package com.bbva.clientmanager.service.job;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.JobRequestDTO;
+import com.bbva.clientmanager.entity.Job;
+import com.bbva.clientmanager.entity.TipoJob;
+import com.bbva.clientmanager.exception.SolicitudInvalidaException;
+import com.bbva.clientmanager.exception.ValorEnumInvalidoException;
+import com.bbva.clientmanager.service.IClientService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Alta masiva de clientes. Cada cliente inválido se cuenta como error y no interrumpe el lote;
+ * el cursor es la posición dentro de la lista recibida.
+ */
+@Component
+public class ImportJobHandler implements JobHandler {
+    private static final String MESSAGE_SIN_CLIENTES = "El job de importación requiere una lista de clientes.";
+
+    private final IClientService clientService;
+    private final Validator validator;
+    private final int tamanioLote;
+
+    public ImportJobHandler(IClientService clientService, Validator validator,
+                            @Value("${clientmanager.bulk.chunk-size:1000}") int tamanioLote) {
+        this.clientService = clientService;
+        this.validator = validator;
+        this.tamanioLote = tamanioLote;
+    }
+
+    @Override
+    public Set<TipoJob> tipos() {
+        return Set.of(TipoJob.IMPORTAR);
+    }
+
+    @Override
+    public void validar(TipoJob tipo, JobRequestDTO parametros) {
+        if (parametros.getClientes() == null || parametros.getClientes().isEmpty()) {
+            throw new SolicitudInvalidaException(MESSAGE_SIN_CLIENTES);
+        }
+    }
+
+    @Override
+    public void iniciar(Job job, JobRequestDTO parametros) {
+        job.setTotal((long) parametros.getClientes().size());
+    }
+
+    @Override
+    public boolean procesarLote(Job job, JobRequestDTO parametros) {
+        List<ClientRequestDTO> clientes = parametros.getClientes();
+        int desde = (int) job.getCursor();
+        int hasta = Math.min(desde + tamanioLote, clientes.size());
+        for (int i = desde; i < hasta; i++) {
+            ClientRequestDTO cliente = clientes.get(i);
+            Set<ConstraintViolation<ClientRequestDTO>> violaciones = validator.validate(cliente);
+            if (!violaciones.isEmpty()) {
+                ConstraintViolation<ClientRequestDTO> violacion = violaciones.iterator().next();
+                registrarError(job, i, "Error en el campo '" + violacion.getPropertyPath() + "': " + violacion.getMessage());
+                continue;
+            }
+            try {
+                clientService.create(cliente);
+            } catch (ValorEnumInvalidoException e) {
+                registrarError(job, i, e.getMessage());
+            }
+        }
+        job.setProcesados(job.getProcesados() + (hasta - desde));
+        job.setCursor(hasta);
+        return hasta < clientes.size();
+    }
+
+    private void registrarError(Job job, int posicion, String mensaje) {
+        job.setErrores(job.getErrores() + 1);
+        job.setUltimoError("Cliente en posición " + posicion + ": " + mensaje);
+    }
+}
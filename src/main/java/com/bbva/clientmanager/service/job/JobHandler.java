@@ -0,0 +1,33 @@
+package com.bbva.clientmanager.service.job;
+
+import com.bbva.clientmanager.dto.JobRequestDTO;
+import com.bbva.clientmanager.entity.Job;
+import com.bbva.clientmanager.entity.TipoJob;
+
+import java.util.Set;
+
+/**
+ * Lógica de un tipo de job. El motor invoca procesarLote repetidamente, cada vez
+ * dentro de una transacción que también persiste el checkpoint del job.
+ */
+public interface JobHandler {
+    Set<TipoJob> tipos();
+
+    /**
+     * Valida los parámetros al momento de encolar, para rechazar el job antes de aceptarlo.
+     */
+    void validar(TipoJob tipo, JobRequestDTO parametros);
+
+    /**
+     * Inicializa los datos del job (por ejemplo el total) antes del primer lote.
+     */
+    default void iniciar(Job job, JobRequestDTO parametros) {
+    }
+
+    /**
+     * Procesa el lote siguiente al cursor del job, actualizando cursor y contadores.
+     *
+     * @return true si quedan lotes pendientes
+     */
+    boolean procesarLote(Job job, JobRequestDTO parametros);
+}
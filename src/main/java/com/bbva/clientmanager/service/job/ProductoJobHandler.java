@@ -0,0 +1,62 @@
+package com.bbva.clientmanager.service.job;
+
+import com.bbva.clientmanager.dto.JobRequestDTO;
+import com.bbva.clientmanager.entity.Job;
+import com.bbva.clientmanager.entity.ProductoBancario;
+import com.bbva.clientmanager.entity.TipoJob;
+import com.bbva.clientmanager.repository.FiltroClientes;
+import com.bbva.clientmanager.service.OperacionProducto;
+import com.bbva.clientmanager.service.ProductoBulkService;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Asignación y baja masiva de productos ejecutada como job, lote a lote,
+ * reutilizando los lotes set-based de {ProductoBulkService}.
+ */
+@Component
+public class ProductoJobHandler implements JobHandler {
+    private final ProductoBulkService productoBulkService;
+
+    public ProductoJobHandler(ProductoBulkService productoBulkService) {
+        this.productoBulkService = productoBulkService;
+    }
+
+    @Override
+    public Set<TipoJob> tipos() {
+        return Set.of(TipoJob.ASIGNAR_PRODUCTO, TipoJob.REVOCAR_PRODUCTO);
+    }
+
+    @Override
+    public void validar(TipoJob tipo, JobRequestDTO parametros) {
+        productoBulkService.resolverProducto(parametros.getProductoBancario());
+        productoBulkService.resolverFiltro(parametros.getFiltro());
+    }
+
+    @Override
+    public void iniciar(Job job, JobRequestDTO parametros) {
+        FiltroClientes filtro = productoBulkService.resolverFiltro(parametros.getFiltro());
+        if (filtro.ids() != null) {
+            job.setTotal((long) filtro.ids().size());
+        }
+    }
+
+    @Override
+    public boolean procesarLote(Job job, JobRequestDTO parametros) {
+        ProductoBancario producto = productoBulkService.resolverProducto(parametros.getProductoBancario());
+        FiltroClientes filtro = productoBulkService.resolverFiltro(parametros.getFiltro());
+        OperacionProducto operacion = job.getTipo() == TipoJob.ASIGNAR_PRODUCTO
+                ? OperacionProducto.ASIGNAR : OperacionProducto.REVOCAR;
+
+        Optional<ProductoBulkService.ResultadoLote> lote =
+                productoBulkService.procesarSiguienteLote(operacion, producto.getId(), filtro, job.getCursor());
+        if (lote.isEmpty()) {
+            return false;
+        }
+        job.setCursor(lote.get().hasta());
+        job.setProcesados(job.getProcesados() + lote.get().afectados());
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package com.bbva.clientmanager.shard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Asigna ids de cliente únicos entre todos los shards.
+ *
+ * Los números salen de una secuencia de la base principal, reservados por bloques
+ * (hi/lo) para no consultarla en cada alta. El id final es numero * shards + shard, así
+ * que el shard de un cliente se deduce de su id sin ninguna tabla de ruteo. El shard
+ * se elige por hash del documento o, con clave "id", repartiendo en round robin.
+ *
+ * @author Veronica
+ */
+@Component
+@ConditionalOnProperty(name = "clientmanager.sharding.enabled", havingValue = "true")
+public class ShardIdAllocator {
+    private final JdbcTemplate principal;
+    private final int cantidadShards;
+    private final int tamanioBloque;
+    private final boolean porDocumento;
+    private long siguiente;
+    private long limite;
+
+    public ShardIdAllocator(DataSource dataSource, ShardSet shardSet,
+                            @Value("${clientmanager.sharding.key:documento}") String clave,
+                            @Value("${clientmanager.sharding.id-block-size:100}") int tamanioBloque) {
+        if (!"documento".equals(clave) && !"id".equals(clave)) {
+            throw new IllegalStateException("clientmanager.sharding.key debe ser documento o id: " + clave);
+        }
+        this.principal = new JdbcTemplate(dataSource);
+        this.cantidadShards = shardSet.cantidad();
+        this.tamanioBloque = tamanioBloque;
+        this.porDocumento = "documento".equals(clave);
+        principal.execute("CREATE SEQUENCE IF NOT EXISTS client_shard_seq");
+    }
+
+    /**
+     * @param documento documento del cliente, usado para elegir el shard si la clave es documento
+     * @return id nuevo, que codifica el shard donde debe guardarse el cliente
+     */
+    public long asignar(String documento) {
+        long numero = siguienteNumero();
+        long shard = porDocumento && documento != null
+                ? Math.floorMod(documento.hashCode(), cantidadShards)
+                : Math.floorMod(numero, cantidadShards);
+        return numero * cantidadShards + shard;
+    }
+
+    private synchronized long siguienteNumero() {
+        if (siguiente >= limite) {
+            Long bloque = principal.queryForObject("SELECT NEXT VALUE FOR client_shard_seq", Long.class);
+            siguiente = bloque * tamanioBloque + 1;
+            limite = (bloque + 1) * tamanioBloque + 1;
+        }
+        return siguiente++;
+    }
+}
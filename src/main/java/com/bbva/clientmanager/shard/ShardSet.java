@@ -0,0 +1,198 @@
+package com.bbva.clientmanager.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bases de datos entre las que se reparten los clientes (shards).
+ *
+ * El shard de un cliente queda codificado en su id ({ShardIdAllocator}): id % cantidad de
+ * shards. Cada shard tiene su pool de conexiones y una copia de productos_bancarios, que
+ * se replica desde la base principal al arrancar. Las consultas que no tienen id se
+ * resuelven en paralelo en todos los shards ({scatter}) y los resultados, ya ordenados
+ * por id en cada shard, se combinan respetando ese orden.
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "clientmanager.sharding.enabled", havingValue = "true")
+public class ShardSet {
+    private static final List<String> TABLAS = List.of("productos_bancarios", "clients", "clients_productos_bancarios");
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final JdbcTemplate principal;
+    private final ExecutorService consultas;
+
+    public ShardSet(DataSource dataSource, DataSourceProperties properties,
+                    @Value("${clientmanager.sharding.urls}") List<String> urls,
+                    @Value("${clientmanager.sharding.pool-size:4}") int tamanioPool,
+                    @Value("${clientmanager.client-view.enabled:true}") boolean vistaHabilitada) {
+        if (vistaHabilitada) {
+            throw new IllegalStateException(
+                    "clientmanager.sharding.enabled requiere clientmanager.client-view.enabled=false: "
+                            + "la vista se verifica contra la tabla clients de la base principal");
+        }
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("clientmanager.sharding.urls no puede estar vacío");
+        }
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class).url(urls.get(i)).build();
+            pool.setPoolName("shard-" + i);
+            pool.setMaximumPoolSize(tamanioPool);
+            shards.add(new Shard(i, pool));
+        }
+        this.principal = new JdbcTemplate(dataSource);
+        this.consultas = Executors.newFixedThreadPool(urls.size() * 2, r -> {
+            Thread thread = new Thread(r, "shard-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Un shard: su pool, plantillas JDBC y transacciones locales.
+     */
+    public static class Shard {
+        private final int indice;
+        private final HikariDataSource dataSource;
+        private final NamedParameterJdbcTemplate jdbc;
+        private final TransactionTemplate transaccion;
+
+        Shard(int indice, HikariDataSource dataSource) {
+            this.indice = indice;
+            this.dataSource = dataSource;
+            this.jdbc = new NamedParameterJdbcTemplate(dataSource);
+            this.transaccion = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+
+        public int getIndice() {
+            return indice;
+        }
+
+        public NamedParameterJdbcTemplate getJdbc() {
+            return jdbc;
+        }
+
+        public TransactionTemplate getTransaccion() {
+            return transaccion;
+        }
+    }
+
+    public int cantidad() {
+        return shards.size();
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public Shard shardDe(long id) {
+        return shards.get(Math.floorMod(id, shards.size()));
+    }
+
+    /**
+     * Crea en cada shard las tablas de clientes con el esquema de la base principal y
+     * replica los datos de referencia (productos_bancarios). Corre después de que el
+     * {DataInitializer} cargó los productos.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        List<String> esquema = principal.queryForList("SCRIPT NODATA TABLE " + String.join(", ", TABLAS), String.class)
+                .stream()
+                .filter(sentencia -> !sentencia.startsWith("CREATE USER") && !sentencia.startsWith("--"))
+                .toList();
+        List<Map<String, Object>> productos = principal.queryForList("SELECT * FROM productos_bancarios");
+        for (Shard shard : shards) {
+            JdbcTemplate destino = shard.getJdbc().getJdbcTemplate();
+            destino.execute("DROP ALL OBJECTS");
+            esquema.forEach(destino::execute);
+            if (!productos.isEmpty()) {
+                List<String> columnas = List.copyOf(productos.get(0).keySet());
+                destino.batchUpdate("INSERT INTO productos_bancarios (" + String.join(", ", columnas) + ") VALUES ("
+                                + columnas.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")",
+                        productos.stream().map(fila -> columnas.stream().map(fila::get).toArray()).toList());
+            }
+        }
+        log.info("{} shards inicializados con {} productos bancarios", shards.size(), productos.size());
+    }
+
+    /**
+     * Ejecuta la consulta en todos los shards en paralelo y combina los resultados.
+     *
+     * @param consulta consulta de un shard, que debe devolver sus filas ordenadas según orden
+     * @param orden orden común de los resultados de cada shard
+     * @return resultados de todos los shards en ese orden
+     */
+    public <T> List<T> scatter(Function<Shard, List<T>> consulta, Comparator<? super T> orden) {
+        List<CompletableFuture<List<T>>> parciales = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> consulta.apply(shard), consultas))
+                .toList();
+        try {
+            return combinar(parciales.stream().map(CompletableFuture::join).toList(), orden);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Combina listas ya ordenadas (k-way merge) sin reordenar todo el resultado.
+     */
+    static <T> List<T> combinar(List<List<T>> listas, Comparator<? super T> orden) {
+        int total = listas.stream().mapToInt(List::size).sum();
+        List<T> resultado = new ArrayList<>(total);
+        PriorityQueue<int[]> cabezas = new PriorityQueue<>(Math.max(1, listas.size()),
+                (a, b) -> orden.compare(listas.get(a[0]).get(a[1]), listas.get(b[0]).get(b[1])));
+        for (int i = 0; i < listas.size(); i++) {
+            if (!listas.get(i).isEmpty()) {
+                cabezas.add(new int[]{i, 0});
+            }
+        }
+        while (!cabezas.isEmpty()) {
+            int[] cabeza = cabezas.poll();
+            List<T> lista = listas.get(cabeza[0]);
+            resultado.add(lista.get(cabeza[1]));
+            if (++cabeza[1] < lista.size()) {
+                cabezas.add(cabeza);
+            }
+        }
+        return resultado;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        consultas.shutdownNow();
+        shards.forEach(shard -> shard.dataSource.close());
+    }
+}
@@ -0,0 +1,244 @@
+package com.bbva.clientmanager.shard;
+
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.entity.ProductoBancario;
+import com.bbva.clientmanager.entity.TipoDocumento;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.repository.ResumenIds;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implementación particionada de las operaciones de {IClientRepository} que usan los
+ * servicios de clientes: altas, modificaciones, bajas y búsquedas por id van al shard del
+ * cliente; listados y búsquedas por producto consultan todos los shards en paralelo y
+ * combinan los resultados por id.
+ *
+ * Los clientes se devuelven como entidades desacopladas: save escribe todas las columnas
+ * y reemplaza los productos asociados. Cada escritura es una transacción local del
+ * shard; un saveAll que abarca varios shards no es atómico entre ellos.
+ *
+ * @author Veronica
+ */
+@Component
+@ConditionalOnProperty(name = "clientmanager.sharding.enabled", havingValue = "true")
+public class ShardedClientRepository {
+    private static final int LOTE = 500;
+    private static final Comparator<Client> POR_ID = Comparator.comparing(Client::getId);
+    private static final String SELECT_CLIENTS = "SELECT id, tipo_documento, documento, nombre, apellido, calle, "
+            + "numero, codigo_postal, telefono, celular, fecha_creacion, fecha_modificacion FROM clients ";
+    private static final String INSERT_CLIENT = "INSERT INTO clients (tipo_documento, documento, nombre, apellido, "
+            + "calle, numero, codigo_postal, telefono, celular, fecha_creacion, fecha_modificacion, id) VALUES "
+            + "(:tipoDocumento, :documento, :nombre, :apellido, :calle, :numero, :codigoPostal, :telefono, "
+            + ":celular, :fechaCreacion, :fechaModificacion, :id)";
+    private static final String UPDATE_CLIENT = "UPDATE clients SET tipo_documento = :tipoDocumento, "
+            + "documento = :documento, nombre = :nombre, apellido = :apellido, calle = :calle, numero = :numero, "
+            + "codigo_postal = :codigoPostal, telefono = :telefono, celular = :celular, "
+            + "fecha_modificacion = :fechaModificacion WHERE id = :id";
+
+    private final ShardSet shardSet;
+    private final ShardIdAllocator idAllocator;
+
+    public ShardedClientRepository(ShardSet shardSet, ShardIdAllocator idAllocator) {
+        this.shardSet = shardSet;
+        this.idAllocator = idAllocator;
+    }
+
+    public Client save(Client client) {
+        ShardSet.Shard shard = prepararEscritura(client);
+        shard.getTransaccion().executeWithoutResult(status -> escribir(shard, List.of(client)));
+        return client;
+    }
+
+    public List<Client> saveAll(Iterable<Client> clients) {
+        List<Client> lista = StreamSupport.stream(clients.spliterator(), false).toList();
+        Map<ShardSet.Shard, List<Client>> porShard = new LinkedHashMap<>();
+        lista.forEach(client -> porShard.computeIfAbsent(prepararEscritura(client), s -> new ArrayList<>()).add(client));
+        porShard.forEach((shard, grupo) -> shard.getTransaccion().executeWithoutResult(status -> escribir(shard, grupo)));
+        return lista;
+    }
+
+    public Optional<Client> findById(Long id) {
+        return buscar(shardSet.shardDe(id), "WHERE id = :id", new MapSqlParameterSource("id", id)).stream().findFirst();
+    }
+
+    public boolean existsById(Long id) {
+        Long cantidad = shardSet.shardDe(id).getJdbc().queryForObject("SELECT COUNT(*) FROM clients WHERE id = :id",
+                new MapSqlParameterSource("id", id), Long.class);
+        return cantidad != null && cantidad > 0;
+    }
+
+    public List<Client> findAll() {
+        return shardSet.scatter(shard -> buscar(shard, "ORDER BY id", new MapSqlParameterSource()), POR_ID);
+    }
+
+    public List<Client> findByProductoBancarioList_TipoProductoBancario(TipoProductoBancario tipoProductoBancario) {
+        SqlParameterSource parametros = new MapSqlParameterSource("tipo", tipoProductoBancario.name());
+        return shardSet.scatter(shard -> buscar(shard, "WHERE id IN (SELECT cp.clients_id FROM clients_productos_bancarios cp "
+                + "JOIN productos_bancarios p ON p.id = cp.producto_bancario_id WHERE p.tipo_producto_bancario = :tipo) "
+                + "ORDER BY id", parametros), POR_ID);
+    }
+
+    public List<Client> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource("id", id).addValue("limite", limit.max());
+        List<Client> clients = shardSet.scatter(
+                shard -> buscar(shard, "WHERE id > :id ORDER BY id LIMIT :limite", parametros), POR_ID);
+        return clients.size() > limit.max() ? clients.subList(0, limit.max()) : clients;
+    }
+
+    public List<Client> findAllWithProductosByIdIn(Collection<Long> ids) {
+        Map<ShardSet.Shard, List<Long>> porShard = ids.stream().filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(shardSet::shardDe));
+        return shardSet.scatter(shard -> {
+            List<Long> propios = porShard.getOrDefault(shard, List.of());
+            List<Client> clients = new ArrayList<>(propios.size());
+            for (int desde = 0; desde < propios.size(); desde += LOTE) {
+                clients.addAll(buscar(shard, "WHERE id IN (:ids) ORDER BY id",
+                        new MapSqlParameterSource("ids", propios.subList(desde, Math.min(desde + LOTE, propios.size())))));
+            }
+            return clients;
+        }, POR_ID);
+    }
+
+    public long count() {
+        return shardSet.scatter(shard -> List.of(shard.getJdbc().getJdbcTemplate()
+                .queryForObject("SELECT COUNT(*) FROM clients", Long.class)), Comparator.<Long>naturalOrder())
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    public ResumenIds resumirIds() {
+        return shardSet.scatter(ShardedClientRepository::resumirIds, Comparator.comparingLong(ResumenIds::maxId))
+                .stream().reduce(ResumenIds.VACIO, ResumenIds::combinar);
+    }
+
+    public long estimarTotal() {
+        return shardSet.scatter(shard -> List.of(shard.getJdbc().getJdbcTemplate().queryForObject(
+                "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = CURRENT_SCHEMA "
+                        + "AND TABLE_NAME = 'CLIENTS'", Long.class)), Comparator.<Long>naturalOrder())
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    public boolean eliminar(Long id) {
+        ShardSet.Shard shard = shardSet.shardDe(id);
+        MapSqlParameterSource parametros = new MapSqlParameterSource("id", id);
+        Integer borrados = shard.getTransaccion().execute(status -> {
+            shard.getJdbc().update("DELETE FROM clients_productos_bancarios WHERE clients_id = :id", parametros);
+            return shard.getJdbc().update("DELETE FROM clients WHERE id = :id", parametros);
+        });
+        return borrados != null && borrados > 0;
+    }
+
+    private ShardSet.Shard prepararEscritura(Client client) {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (client.getId() == null) {
+            client.setId(idAllocator.asignar(client.getDocumento()));
+            client.setFechaCreacion(ahora);
+        }
+        client.setFechaModificacion(ahora);
+        return shardSet.shardDe(client.getId());
+    }
+
+    private void escribir(ShardSet.Shard shard, List<Client> clients) {
+        List<Long> ids = clients.stream().map(Client::getId).toList();
+        List<Long> existentes = shard.getJdbc().queryForList("SELECT id FROM clients WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids), Long.class);
+        List<MapSqlParameterSource> altas = new ArrayList<>();
+        List<MapSqlParameterSource> modificaciones = new ArrayList<>();
+        List<MapSqlParameterSource> productos = new ArrayList<>();
+        for (Client client : clients) {
+            (existentes.contains(client.getId()) ? modificaciones : altas).add(parametros(client));
+            for (ProductoBancario producto : client.getProductoBancarioList()) {
+                productos.add(new MapSqlParameterSource("clientId", client.getId()).addValue("productoId", producto.getId()));
+            }
+        }
+        shard.getJdbc().update("DELETE FROM clients_productos_bancarios WHERE clients_id IN (:ids)",
+                new MapSqlParameterSource("ids", ids));
+        shard.getJdbc().batchUpdate(INSERT_CLIENT, altas.toArray(MapSqlParameterSource[]::new));
+        shard.getJdbc().batchUpdate(UPDATE_CLIENT, modificaciones.toArray(MapSqlParameterSource[]::new));
+        shard.getJdbc().batchUpdate("INSERT INTO clients_productos_bancarios (clients_id, producto_bancario_id) "
+                + "VALUES (:clientId, :productoId)", productos.toArray(MapSqlParameterSource[]::new));
+    }
+
+    private static MapSqlParameterSource parametros(Client client) {
+        return new MapSqlParameterSource("id", client.getId())
+                .addValue("tipoDocumento", client.getTipoDocumento() != null ? client.getTipoDocumento().name() : null)
+                .addValue("documento", client.getDocumento())
+                .addValue("nombre", client.getNombre())
+                .addValue("apellido", client.getApellido())
+                .addValue("calle", client.getCalle())
+                .addValue("numero", client.getNumero())
+                .addValue("codigoPostal", client.getCodigoPostal())
+                .addValue("telefono", client.getTelefono())
+                .addValue("celular", client.getCelular())
+                .addValue("fechaCreacion", client.getFechaCreacion())
+                .addValue("fechaModificacion", client.getFechaModificacion());
+    }
+
+    /**
+     * Lee los clientes de un shard que cumplen la condición y completa sus productos
+     * con una consulta por lote de ids.
+     */
+    private List<Client> buscar(ShardSet.Shard shard, String condicion, SqlParameterSource parametros) {
+        List<Client> clients = shard.getJdbc().query(SELECT_CLIENTS + condicion, parametros, ShardedClientRepository::mapear);
+        Map<Long, Client> porId = clients.stream().collect(Collectors.toMap(Client::getId, c -> c));
+        for (int desde = 0; desde < clients.size(); desde += LOTE) {
+            List<Long> lote = clients.subList(desde, Math.min(desde + LOTE, clients.size())).stream()
+                    .map(Client::getId).toList();
+            shard.getJdbc().query("SELECT cp.clients_id, p.id, p.tipo_producto_bancario FROM clients_productos_bancarios cp "
+                            + "JOIN productos_bancarios p ON p.id = cp.producto_bancario_id WHERE cp.clients_id IN (:ids)",
+                    new MapSqlParameterSource("ids", lote), rs -> {
+                        ProductoBancario producto = new ProductoBancario();
+                        producto.setId(rs.getLong(2));
+                        producto.setTipoProductoBancario(TipoProductoBancario.valueOf(rs.getString(3)));
+                        porId.get(rs.getLong(1)).getProductoBancarioList().add(producto);
+                    });
+        }
+        return clients;
+    }
+
+    private static List<ResumenIds> resumirIds(ShardSet.Shard shard) {
+        ResumenIds resumen = shard.getJdbc().getJdbcTemplate().queryForObject(ResumenIds.SQL,
+                (rs, fila) -> new ResumenIds(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)));
+        return resumen == null ? List.of() : List.of(resumen);
+    }
+
+    private static Client mapear(ResultSet rs, int fila) throws SQLException {
+        Client client = new Client();
+        client.setId(rs.getLong("id"));
+        String tipoDocumento = rs.getString("tipo_documento");
+        client.setTipoDocumento(tipoDocumento != null ? TipoDocumento.valueOf(tipoDocumento) : null);
+        client.setDocumento(rs.getString("documento"));
+        client.setNombre(rs.getString("nombre"));
+        client.setApellido(rs.getString("apellido"));
+        client.setCalle(rs.getString("calle"));
+        client.setNumero((Integer) rs.getObject("numero"));
+        client.setCodigoPostal(rs.getString("codigo_postal"));
+        client.setTelefono(rs.getString("telefono"));
+        client.setCelular(rs.getString("celular"));
+        client.setFechaCreacion(aFecha(rs.getTimestamp("fecha_creacion")));
+        client.setFechaModificacion(aFecha(rs.getTimestamp("fecha_modificacion")));
+        return client;
+    }
+
+    private static LocalDateTime aFecha(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,224 @@
+package com.bbva.clientmanager.warmup;
+
+import com.bbva.clientmanager.controller.ClientController;
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientRequestUpdateDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.ExceptionDTO;
+import com.bbva.clientmanager.dto.TelefonoUpdateDTO;
+import com.bbva.clientmanager.exception.ClientNotFoundException;
+import com.bbva.clientmanager.security.JwtUtil;
+import com.bbva.clientmanager.service.ClientGroupCommitService;
+import com.bbva.clientmanager.service.IClientService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Calentamiento de la instancia antes de declararse lista para recibir tráfico.
+ *
+ * Corre como último ApplicationRunner: Spring Boot publica ReadinessState.ACCEPTING_TRAFFIC
+ * (y /actuator/health/readiness pasa a UP) recién cuando terminan los runners, así que un
+ * balanceador que mire readiness no manda tráfico a la instancia mientras calienta.
+ *
+ * Cada ronda firma y verifica un token con JwtUtil, y dentro de una transacción que siempre se
+ * descarta da de alta clientes sintéticos y los lee, busca por ids y por campos, modifica y
+ * borra a través de ClientController, serializando las respuestas con el ObjectMapper de la
+ * API. Así se compilan esos caminos y se llenan los caches de planes de Hibernate y de
+ * serializadores de Jackson. Como la transacción nunca se confirma, no se publican eventos de
+ * modificación: no quedan rastros en clients, client_view, réplicas, read model ni caches.
+ * Con sharding, donde cada shard confirma por su cuenta, solo se calientan lecturas.
+ *
+ * Termina a los max-duration-ms o antes, cuando el JIT compiló menos de
+ * settled-compilation-ms durante stable-windows ventanas seguidas de window-ms. Mientras corre,
+ * los logs de la aplicación quedan en ERROR para no llenarlos con el tráfico sintético.
+ *
+ * @author Veronica
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmUpRunner implements ApplicationRunner {
+    private static final String USUARIO = "warmup";
+    private static final String LOGGER_APLICACION = "com.bbva.clientmanager";
+    private static final long ID_INEXISTENTE = -1L;
+    private static final List<String> CAMPOS = List.of("nombre", "apellido", "celular", "productoBancarioList");
+
+    private final ClientController clientController;
+    private final IClientService clientService;
+    private final ClientGroupCommitService groupCommitService;
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final LoggingSystem loggingSystem;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final boolean soloLecturas;
+    private final long maxDuracionMs;
+    private final long ventanaMs;
+    private final long compilacionEstableMs;
+    private final int ventanasEstables;
+    private final int clientesPorRonda;
+    private volatile int rondas;
+
+    public WarmUpRunner(ClientController clientController, IClientService clientService,
+                        ClientGroupCommitService groupCommitService, JwtUtil jwtUtil, ObjectMapper objectMapper,
+                        Validator validator, LoggingSystem loggingSystem, PlatformTransactionManager transactionManager,
+                        @Value("${clientmanager.warmup.enabled:false}") boolean habilitado,
+                        @Value("${clientmanager.sharding.enabled:false}") boolean sharding,
+                        @Value("${clientmanager.warmup.max-duration-ms:30000}") long maxDuracionMs,
+                        @Value("${clientmanager.warmup.window-ms:1000}") long ventanaMs,
+                        @Value("${clientmanager.warmup.settled-compilation-ms:20}") long compilacionEstableMs,
+                        @Value("${clientmanager.warmup.stable-windows:3}") int ventanasEstables,
+                        @Value("${clientmanager.warmup.clients-per-round:10}") int clientesPorRonda) {
+        this.clientController = clientController;
+        this.clientService = clientService;
+        this.groupCommitService = groupCommitService;
+        this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.loggingSystem = loggingSystem;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.soloLecturas = sharding;
+        this.maxDuracionMs = maxDuracionMs;
+        this.ventanaMs = ventanaMs;
+        this.compilacionEstableMs = compilacionEstableMs;
+        this.ventanasEstables = ventanasEstables;
+        this.clientesPorRonda = clientesPorRonda;
+    }
+
+    public int getRondas() {
+        return rondas;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!habilitado) {
+            return;
+        }
+        log.info("Calentamiento: hasta {} ms o hasta que el JIT se estabilice", maxDuracionMs);
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean medible = jit != null && jit.isCompilationTimeMonitoringSupported();
+        long inicio = System.currentTimeMillis();
+        long compilacionInicial = medible ? jit.getTotalCompilationTime() : 0;
+        long compilacionAnterior = compilacionInicial;
+        long finVentana = inicio + ventanaMs;
+        int estables = 0;
+        boolean estabilizado = false;
+        LoggerConfiguration logger = loggingSystem.getLoggerConfiguration(LOGGER_APLICACION);
+        LogLevel nivelAnterior = logger != null ? logger.getConfiguredLevel() : null;
+        loggingSystem.setLogLevel(LOGGER_APLICACION, LogLevel.ERROR);
+        try {
+            while (System.currentTimeMillis() - inicio < maxDuracionMs) {
+                ronda(rondas);
+                rondas++;
+                if (System.currentTimeMillis() < finVentana) {
+                    continue;
+                }
+                finVentana = System.currentTimeMillis() + ventanaMs;
+                if (medible) {
+                    long compilacion = jit.getTotalCompilationTime();
+                    estables = compilacion - compilacionAnterior <= compilacionEstableMs ? estables + 1 : 0;
+                    compilacionAnterior = compilacion;
+                    if (estables >= ventanasEstables) {
+                        estabilizado = true;
+                        break;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            loggingSystem.setLogLevel(LOGGER_APLICACION, nivelAnterior);
+            log.error("Calentamiento interrumpido en la ronda {}", rondas, e);
+            return;
+        }
+        loggingSystem.setLogLevel(LOGGER_APLICACION, nivelAnterior);
+        log.info("Calentamiento terminado: {} rondas en {} ms, {} ms de compilación JIT, {}", rondas,
+                System.currentTimeMillis() - inicio, medible ? jit.getTotalCompilationTime() - compilacionInicial : -1,
+                estabilizado ? "JIT estabilizado" : "por tiempo máximo");
+    }
+
+    private void ronda(int numero) {
+        String token = jwtUtil.generateToken(USUARIO);
+        jwtUtil.extractValidUsername(token);
+        serializar(noEncontrado());
+        if (soloLecturas) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            List<Long> ids = new ArrayList<>(clientesPorRonda);
+            for (int i = 0; i < clientesPorRonda; i++) {
+                ClientRequestDTO request = request(numero, i);
+                validator.validate(request);
+                ClientResponseDTO creado = groupCommitService.isHabilitado()
+                        ? clientService.create(request)
+                        : clientController.create(request).getBody();
+                serializar(creado);
+                ids.add(creado.getId());
+            }
+            Long id = ids.get(0);
+            serializar(clientController.findById(id).getBody());
+            serializar(clientController.findById(id, CAMPOS).getBody());
+            serializar(clientController.getAllById(ids).getBody());
+
+            ClientRequestUpdateDTO parcial = new ClientRequestUpdateDTO();
+            parcial.setCalle("Calle Calentamiento " + numero);
+            parcial.setProductoBancarioList(List.of("CJAH", "TJDEBITO"));
+            serializar(clientController.partialUpdate(id, parcial).getBody());
+            TelefonoUpdateDTO telefono = new TelefonoUpdateDTO();
+            telefono.setTelefono("1140000000");
+            serializar(clientController.updateTelefono(id, telefono).getBody());
+            serializar(clientController.update(id, request(numero, 0)).getBody());
+            clientController.deleteById(ids.get(ids.size() - 1));
+        });
+    }
+
+    private ExceptionDTO noEncontrado() {
+        try {
+            clientController.findById(ID_INEXISTENTE);
+            throw new IllegalStateException("El cliente " + ID_INEXISTENTE + " no debería existir");
+        } catch (ClientNotFoundException e) {
+            return new ExceptionDTO(e.getMessage());
+        }
+    }
+
+    private void serializar(Object respuesta) {
+        try {
+            objectMapper.writeValueAsBytes(respuesta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta de calentamiento", e);
+        }
+    }
+
+    private static ClientRequestDTO request(int ronda, int indice) {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento(String.valueOf(90_000_000 + (ronda % 1_000) * 100 + indice));
+        request.setNombre("Calentamiento");
+        request.setApellido("Sintético");
+        request.setCalle("Calle Falsa");
+        request.setNumero(indice);
+        request.setCodigoPostal("C1000");
+        request.setCelular("1150000000");
+        request.setProductoBancarioList(List.of("CJAH", "TJCREDITO"));
+        return request;
+    }
+}
@@ -0,0 +1,28 @@
+-- Mismas tablas que genera Hibernate para Client y ProductoBancario en la variante servlet.
+CREATE TABLE IF NOT EXISTS productos_bancarios (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tipo_producto_bancario VARCHAR(255) UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS clients (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tipo_documento VARCHAR(255),
+    documento VARCHAR(255),
+    nombre VARCHAR(255),
+    apellido VARCHAR(255),
+    calle VARCHAR(255),
+    numero INTEGER,
+    codigo_postal VARCHAR(255),
+    telefono VARCHAR(255),
+    celular VARCHAR(255),
+    fecha_creacion TIMESTAMP(6),
+    fecha_modificacion TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS clients_productos_bancarios (
+    clients_id BIGINT NOT NULL REFERENCES clients (id),
+    producto_bancario_id BIGINT NOT NULL REFERENCES productos_bancarios (id),
+    PRIMARY KEY (clients_id, producto_bancario_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_clients_productos_producto ON clients_productos_bancarios (producto_bancario_id);
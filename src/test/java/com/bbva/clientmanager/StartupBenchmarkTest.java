@@ -0,0 +1,135 @@
+package com.bbva.clientmanager;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Mide el tiempo hasta el primer request exitoso (login y GET /clients/producto/CJAH con el token)
+ * de un proceso nuevo en cada modo de arranque disponible, con la mediana de REPETICIONES corridas.
+ * Necesita el jar armado con el perfil startup; la imagen nativa se mide solo si existe.
+ * Se excluye del build normal; correr con:
+ * mvn -Pstartup package -DskipTests && mvn test -Pbenchmark -Dtest=StartupBenchmarkTest
+ */
+@Tag("benchmark")
+public class StartupBenchmarkTest {
+    private static final int REPETICIONES = 3;
+    private static final long TIMEOUT_MS = 120_000;
+    private static final Path TARGET = Paths.get("target");
+    private static final Path JAR = TARGET.resolve("clientmanager-0.0.1-SNAPSHOT.jar");
+    private static final Path EXTRAIDO = TARGET.resolve("extracted");
+    private static final Path NATIVO = TARGET.resolve("clientmanager");
+    private static final String JAVA = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private record Modo(String nombre, Path directorio, List<String> comando) {
+    }
+
+    @Test
+    void medirArranque() throws Exception {
+        assumeTrue(Files.exists(JAR), "Falta el jar: correr antes mvn -Pstartup package -DskipTests");
+        List<Modo> modos = new ArrayList<>();
+        modos.add(new Modo("jvm", TARGET, List.of(JAVA, "-jar", JAR.getFileName().toString())));
+        modos.add(new Modo("jvm + perfil startup", TARGET,
+                List.of(JAVA, "-jar", JAR.getFileName().toString(), "--spring.profiles.active=startup")));
+        if (tieneAot()) {
+            modos.add(new Modo("aot + perfil startup", TARGET, List.of(JAVA, "-Dspring.aot.enabled=true", "-jar",
+                    JAR.getFileName().toString(), "--spring.profiles.active=startup")));
+        }
+        if (Files.exists(EXTRAIDO.resolve("application.jsa"))) {
+            modos.add(new Modo("aot + cds + perfil startup", EXTRAIDO, List.of(JAVA, "-XX:SharedArchiveFile=application.jsa",
+                    "-Dspring.aot.enabled=true", "-jar", JAR.getFileName().toString(), "--spring.profiles.active=startup")));
+        }
+        if (Files.isExecutable(NATIVO)) {
+            modos.add(new Modo("nativo + perfil startup", TARGET,
+                    List.of(NATIVO.toAbsolutePath().toString(), "--spring.profiles.active=startup")));
+        }
+
+        List<String> resultados = new ArrayList<>();
+        for (Modo modo : modos) {
+            List<Long> tiempos = new ArrayList<>();
+            for (int i = 0; i < REPETICIONES; i++) {
+                tiempos.add(medir(modo));
+            }
+            Collections.sort(tiempos);
+            resultados.add(String.format("%s: primer request exitoso en %d ms (mediana de %d, min %d, max %d)",
+                    modo.nombre(), tiempos.get(tiempos.size() / 2), REPETICIONES, tiempos.get(0), tiempos.get(tiempos.size() - 1)));
+        }
+        resultados.forEach(System.out::println);
+    }
+
+    private long medir(Modo modo) throws Exception {
+        int puerto = puertoLibre();
+        List<String> comando = new ArrayList<>(modo.comando());
+        comando.add("--server.port=" + puerto);
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(comando)
+                .directory(modo.directorio().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            String base = "http://localhost:" + puerto;
+            HttpRequest login = HttpRequest.newBuilder(URI.create(base + "/auth/login?username=sa&password=sa"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            while (true) {
+                if (!proceso.isAlive()) {
+                    throw new IllegalStateException(modo.nombre() + ": el proceso terminó con código " + proceso.exitValue());
+                }
+                if (System.nanoTime() - inicio > TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS)) {
+                    throw new IllegalStateException(modo.nombre() + ": sin respuesta en " + TIMEOUT_MS + " ms");
+                }
+                try {
+                    HttpResponse<String> token = httpClient.send(login, HttpResponse.BodyHandlers.ofString());
+                    if (token.statusCode() == 200) {
+                        HttpResponse<Void> listado = httpClient.send(HttpRequest.newBuilder(URI.create(base + "/clients/producto/CJAH"))
+                                .header("Authorization", "Bearer " + token.body())
+                                .build(), HttpResponse.BodyHandlers.discarding());
+                        if (listado.statusCode() == 200) {
+                            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                        }
+                    }
+                } catch (ConnectException e) {
+                    // todavía no escucha
+                }
+                Thread.sleep(10);
+            }
+        } finally {
+            proceso.destroy();
+            if (!proceso.waitFor(30, TimeUnit.SECONDS)) {
+                proceso.destroyForcibly();
+            }
+        }
+    }
+
+    private static boolean tieneAot() throws IOException {
+        try (JarFile jar = new JarFile(JAR.toFile())) {
+            return jar.getEntry("BOOT-INF/classes/com/bbva/clientmanager/ClientManagerApplication__ApplicationContextInitializer.class") != null;
+        }
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.bbva.clientmanager.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdmissionControlFilterTest {
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("clientmanager.admission.listado.per-second", "1")
+                .withProperty("clientmanager.admission.listado.burst", "2")
+                .withProperty("clientmanager.admission.lectura.per-second", "1000")
+                .withProperty("clientmanager.admission.lectura.burst", "1000");
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter(new ObjectMapper(), meterRegistry, environment, true, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static MockHttpServletRequest request(String metodo, String ruta) {
+        return new MockHttpServletRequest(metodo, ruta);
+    }
+
+    private MockHttpServletResponse ejecutar(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static void autenticar(String usuario) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, Collections.emptyList()));
+    }
+
+    @Test
+    void testClasificaEndpoints() {
+        assertThat(ClaseEndpoint.clasificar(request("GET", "/clients"))).isEqualTo(ClaseEndpoint.LISTADO);
+        assertThat(ClaseEndpoint.clasificar(request("GET", "/clients/producto/CHEQ"))).isEqualTo(ClaseEndpoint.LISTADO);
+        assertThat(ClaseEndpoint.clasificar(request("GET", "/clients/15"))).isEqualTo(ClaseEndpoint.LECTURA);
+        assertThat(ClaseEndpoint.clasificar(request("GET", "/clients/count"))).isEqualTo(ClaseEndpoint.LECTURA);
+        assertThat(ClaseEndpoint.clasificar(request("HEAD", "/clients"))).isEqualTo(ClaseEndpoint.LECTURA);
+        assertThat(ClaseEndpoint.clasificar(request("PUT", "/clients/15"))).isEqualTo(ClaseEndpoint.ESCRITURA);
+        assertThat(ClaseEndpoint.clasificar(request("POST", "/clients/productos/CHEQ/assign"))).isEqualTo(ClaseEndpoint.MASIVA);
+        assertThat(ClaseEndpoint.clasificar(request("POST", "/jobs"))).isEqualTo(ClaseEndpoint.MASIVA);
+        assertThat(ClaseEndpoint.clasificar(request("POST", "/auth/login"))).isNull();
+    }
+
+    @Test
+    void testRechazaCon429PorUsuarioSinAfectarAOtros() throws Exception {
+        FilterChain chain = (req, res) -> { };
+        autenticar("integracion");
+        assertThat(ejecutar(request("GET", "/clients"), chain).getStatus()).isEqualTo(200);
+        assertThat(ejecutar(request("GET", "/clients"), chain).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rechazada = ejecutar(request("GET", "/clients"), chain);
+
+        assertThat(rechazada.getStatus()).isEqualTo(429);
+        assertThat(rechazada.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rechazada.getContentAsString()).contains("Demasiadas solicitudes");
+        assertThat(ejecutar(request("GET", "/clients/1"), chain).getStatus()).isEqualTo(200);
+        autenticar("otro");
+        assertThat(ejecutar(request("GET", "/clients"), chain).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("clientmanager.admission.rejected")
+                .tag("clase", "LISTADO").tag("motivo", "tasa").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testLimiteGlobalDeConcurrenciaEnConsultasCostosas() throws Exception {
+        CountDownLatch adentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicReference<Integer> primera = new AtomicReference<>();
+        Thread lenta = new Thread(() -> {
+            autenticar("a");
+            try {
+                primera.set(ejecutar(request("GET", "/clients"), (req, res) -> {
+                    adentro.countDown();
+                    try {
+                        liberar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }).getStatus());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        lenta.start();
+        adentro.await();
+
+        autenticar("b");
+        MockHttpServletResponse rechazada = ejecutar(request("GET", "/clients"), (req, res) -> { });
+        liberar.countDown();
+        lenta.join();
+
+        assertThat(rechazada.getStatus()).isEqualTo(429);
+        assertThat(rechazada.getHeader("Retry-After")).isNotNull();
+        assertThat(primera.get()).isEqualTo(200);
+        assertThat(ejecutar(request("GET", "/clients"), (req, res) -> { }).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("clientmanager.admission.rejected")
+                .tag("motivo", "concurrencia").tag("clase", "LISTADO").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testBucketRecuperaTokensConElTiempo() {
+        TokenBuckets buckets = new TokenBuckets(10, 2, 16);
+        assertThat(buckets.intentar("u", 0)).isZero();
+        assertThat(buckets.intentar("u", 0)).isZero();
+        assertThat(buckets.intentar("u", 0)).isEqualTo(100_000_000L);
+        assertThat(buckets.intentar("u", 100_000_000L)).isZero();
+    }
+}
@@ -0,0 +1,139 @@
+package com.bbva.clientmanager.archive;
+
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.entity.ProductoBancario;
+import com.bbva.clientmanager.entity.TipoDocumento;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.readmodel.ClientRecordCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ArchivoClientesTest {
+    @TempDir
+    Path directorio;
+
+    private ArchivoClientes archivo() {
+        return new ArchivoClientes(directorio, 4, new SimpleMeterRegistry());
+    }
+
+    private static Client client(long id, String nombre) {
+        Client client = new Client();
+        client.setId(id);
+        client.setTipoDocumento(TipoDocumento.DNI);
+        client.setDocumento("3000000" + id);
+        client.setNombre(nombre);
+        client.setApellido("Pérez");
+        client.setCalle("Calle Falsa");
+        client.setNumero(123);
+        client.setCodigoPostal("C1416");
+        client.setFechaCreacion(LocalDateTime.of(2020, 1, 2, 3, 4, 5));
+        client.setFechaModificacion(LocalDateTime.of(2021, 6, 7, 8, 9, 10));
+        ProductoBancario producto = new ProductoBancario();
+        producto.setTipoProductoBancario(TipoProductoBancario.CJAH);
+        client.getProductoBancarioList().add(producto);
+        return client;
+    }
+
+    private static List<Client> clients(long desde, long hasta) {
+        return LongStream.rangeClosed(desde, hasta).mapToObj(id -> client(id, "Cliente " + id)).toList();
+    }
+
+    @Test
+    void testBuscaCadaClienteEnSuBloque() {
+        ArchivoClientes archivo = archivo();
+        List<Client> desordenados = new ArrayList<>(clients(1, 10));
+        Collections.reverse(desordenados);
+        archivo.archivar(desordenados);
+        archivo.archivar(clients(20, 25));
+
+        for (long id = 1; id <= 10; id++) {
+            assertThat(archivo.buscar(id)).map(ClientResponseDTO::getNombre).contains("Cliente " + id);
+        }
+        ClientResponseDTO veintidos = archivo.buscar(22L).orElseThrow();
+        assertThat(veintidos.getApellido()).isEqualTo("Pérez");
+        assertThat(veintidos.getTipoDocumento()).isEqualTo("DNI");
+        assertThat(veintidos.getFechaModificacion()).isEqualTo(LocalDateTime.of(2021, 6, 7, 8, 9, 10));
+        assertThat(veintidos.getProductoBancarioList()).containsExactly("CJAH");
+        assertThat(archivo.buscar(0L)).isEmpty();
+        assertThat(archivo.buscar(15L)).isEmpty();
+        assertThat(archivo.buscar(30L)).isEmpty();
+        assertThat(archivo.getSegmentos()).isEqualTo(2);
+    }
+
+    @Test
+    void testRetiroInvalidaSoloLasCopiasAnteriores() {
+        ArchivoClientes archivo = archivo();
+        archivo.archivar(clients(1, 5));
+        archivo.retirar(3L);
+
+        assertThat(archivo.buscar(3L)).isEmpty();
+        assertThat(archivo.buscar(4L)).isPresent();
+
+        archivo.archivar(List.of(client(3, "Archivado de nuevo")));
+
+        assertThat(archivo.buscar(3L)).map(ClientResponseDTO::getNombre).contains("Archivado de nuevo");
+    }
+
+    @Test
+    void testReabreIndicesYRetiros() {
+        ArchivoClientes archivo = archivo();
+        archivo.archivar(clients(1, 9));
+        archivo.retirar(7L);
+        archivo.cerrar();
+
+        ArchivoClientes reabierto = archivo();
+
+        assertThat(reabierto.getSegmentos()).isEqualTo(1);
+        assertThat(reabierto.buscar(8L)).map(ClientResponseDTO::getNombre).contains("Cliente 8");
+        assertThat(reabierto.buscar(7L)).isEmpty();
+        reabierto.cerrar();
+    }
+
+    @Test
+    void testDescartaSegmentosIncompletosAlAbrir() throws IOException {
+        ArchivoClientes archivo = archivo();
+        archivo.archivar(clients(1, 5));
+        archivo.cerrar();
+        Path incompleto = directorio.resolve("segmento-00000002.seg.tmp");
+        Files.write(incompleto, new byte[]{1, 2, 3});
+
+        ArchivoClientes reabierto = archivo();
+
+        assertThat(incompleto).doesNotExist();
+        assertThat(reabierto.getSegmentos()).isEqualTo(1);
+        assertThat(reabierto.buscar(3L)).isPresent();
+        reabierto.cerrar();
+    }
+
+    @Test
+    void testExigeElDirectorio() {
+        assertThrows(IllegalStateException.class, () -> new ArchivoClientes(null, 4, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void testComprimeLosBloques() {
+        ArchivoClientes archivo = new ArchivoClientes(directorio, 64, new SimpleMeterRegistry());
+        List<Client> muchos = clients(1, 1000);
+        long original = muchos.stream()
+                .mapToLong(client -> ClientRecordCodec.codificar(client).length).sum();
+
+        archivo.archivar(muchos);
+
+        assertThat(archivo.getBytes()).isLessThan(original / 3);
+        assertThat(archivo.buscar(777L)).map(ClientResponseDTO::getNombre).contains("Cliente 777");
+    }
+}
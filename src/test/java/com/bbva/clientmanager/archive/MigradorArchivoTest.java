@@ -0,0 +1,100 @@
+package com.bbva.clientmanager.archive;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.TelefonoUpdateDTO;
+import com.bbva.clientmanager.exception.ClientNotFoundException;
+import com.bbva.clientmanager.repository.IClientRepository;
+import com.bbva.clientmanager.service.IClientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "clientmanager.archive.enabled=true",
+        "clientmanager.archive.dir=${java.io.tmpdir}/clientmanager-archive-test-${random.uuid}",
+        "clientmanager.archive.cold-after-days=30",
+        "clientmanager.archive.batch-size=2",
+        "clientmanager.archive.pause-ms=0",
+        "clientmanager.archive.interval-ms=3600000"
+})
+public class MigradorArchivoTest {
+    @Autowired
+    private IClientService clientService;
+    @Autowired
+    private IClientRepository clientRepository;
+    @Autowired
+    private MigradorArchivo migradorArchivo;
+    @Autowired
+    private ArchivoClientes archivo;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testMigraClientesFriosYLosRehidrataAlEscribir() throws InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(clientService.create(cliente("3200000" + i)).getId());
+        }
+        for (Long id : ids) {
+            jdbcTemplate.update("UPDATE clients SET fecha_modificacion = ? WHERE id = ?",
+                    LocalDateTime.now().minusDays(400), id);
+        }
+        double migradosAntes = meterRegistry.counter("clientmanager.archive.migrated").count();
+
+        assertThat(migradorArchivo.migrar()).isEqualTo(ids.size());
+
+        assertThat(meterRegistry.counter("clientmanager.archive.migrated").count() - migradosAntes).isEqualTo(ids.size());
+        assertThat(archivo.getSegmentos()).isEqualTo(2);
+        for (Long id : ids) {
+            assertThat(clientRepository.findById(id)).isEmpty();
+            assertThat(clientService.existsById(id)).isTrue();
+            assertThat(clientService.findById(id).getApellido()).isEqualTo("Archivable");
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM clients_productos_bancarios WHERE clients_id = ?",
+                Long.class, ids.get(0))).isZero();
+
+        Long rehidratado = ids.get(1);
+        TelefonoUpdateDTO telefono = new TelefonoUpdateDTO();
+        telefono.setTelefono("1144445555");
+        clientService.updateTelefono(rehidratado, telefono);
+
+        assertThat(clientRepository.findById(rehidratado)).isPresent();
+        assertThat(archivo.buscar(rehidratado)).isEmpty();
+        assertThat(clientService.findById(rehidratado).getTelefono()).isEqualTo("1144445555");
+        assertThat(clientService.findById(rehidratado).getProductoBancarioList()).containsExactly("CJAH");
+
+        Long eliminado = ids.get(2);
+        clientService.deleteById(eliminado);
+
+        assertThatThrownBy(() -> clientService.findById(eliminado)).isInstanceOf(ClientNotFoundException.class);
+        assertThat(clientService.existsById(eliminado)).isFalse();
+        assertThat(migradorArchivo.migrar()).isZero();
+        assertThat(clientService.findById(ids.get(0)).getNombre()).isEqualTo("Frio");
+    }
+
+    private static ClientRequestDTO cliente(String documento) {
+        ClientRequestDTO dto = new ClientRequestDTO();
+        dto.setTipoDocumento("DNI");
+        dto.setDocumento(documento);
+        dto.setNombre("Frio");
+        dto.setApellido("Archivable");
+        dto.setCalle("Calle Falsa");
+        dto.setNumero(123);
+        dto.setCodigoPostal("C1416");
+        dto.setCelular("1550000000");
+        dto.setProductoBancarioList(List.of("CJAH"));
+        return dto;
+    }
+}
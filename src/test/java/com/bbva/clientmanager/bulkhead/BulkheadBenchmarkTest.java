@@ -0,0 +1,119 @@
+package com.bbva.clientmanager.bulkhead;
+
+import com.bbva.clientmanager.ClientManagerApplication;
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.exception.CapacidadExcedidaException;
+import com.bbva.clientmanager.service.IClientService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mide la latencia de GET por id durante una tormenta de escrituras, con y sin bulkheads.
+ * Se excluye del build normal; correr con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+public class BulkheadBenchmarkTest {
+    private static final int CLIENTES = 200;
+    private static final int ESCRITORES = 48;
+    private static final int LECTORES = 4;
+    private static final long DURACION_MS = 5_000;
+
+    @Test
+    void compararLatenciaDeLecturas() throws Exception {
+        long[] sin = medir(false);
+        long[] con = medir(true);
+        System.out.printf("Lecturas p50/p99 (us) sin bulkheads=%d/%d con bulkheads=%d/%d%n",
+                sin[0] / 1000, sin[1] / 1000, con[0] / 1000, con[1] / 1000);
+    }
+
+    private long[] medir(boolean bulkheads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ClientManagerApplication.class)
+                .run("--server.port=0", "--spring.jpa.show-sql=false",
+                        "--spring.datasource.url=jdbc:h2:mem:bulkhead" + bulkheads,
+                        "--clientmanager.bulkhead.enabled=" + bulkheads)) {
+            IClientService clientService = context.getBean(IClientService.class);
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < CLIENTES; i++) {
+                ids.add(clientService.create(request(i, List.of("CJAH"))).getId());
+            }
+
+            AtomicBoolean corriendo = new AtomicBoolean(true);
+            AtomicLong escrituras = new AtomicLong();
+            AtomicLong rechazos = new AtomicLong();
+            List<Long> latencias = Collections.synchronizedList(new ArrayList<>());
+            ExecutorService executor = Executors.newFixedThreadPool(ESCRITORES + LECTORES);
+            for (int w = 0; w < ESCRITORES; w++) {
+                int escritor = w;
+                executor.submit(() -> {
+                    int n = 0;
+                    while (corriendo.get()) {
+                        Long id = ids.get((escritor * 31 + n++) % CLIENTES);
+                        try {
+                            clientService.update(id, request(n, n % 2 == 0
+                                    ? List.of("CTACTE", "PREST", "TJCREDITO") : List.of("CJAH", "TJDEBITO")));
+                            escrituras.incrementAndGet();
+                        } catch (CapacidadExcedidaException e) {
+                            rechazos.incrementAndGet();
+                            pausar();
+                        }
+                    }
+                });
+            }
+            for (int r = 0; r < LECTORES; r++) {
+                int lector = r;
+                executor.submit(() -> {
+                    int n = 0;
+                    while (corriendo.get()) {
+                        long inicio = System.nanoTime();
+                        clientService.findById(ids.get((lector * 17 + n++) % CLIENTES));
+                        latencias.add(System.nanoTime() - inicio);
+                    }
+                });
+            }
+            Thread.sleep(DURACION_MS);
+            corriendo.set(false);
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+
+            List<Long> ordenadas = new ArrayList<>(latencias);
+            Collections.sort(ordenadas);
+            long p50 = ordenadas.get(ordenadas.size() / 2);
+            long p99 = ordenadas.get((int) (ordenadas.size() * 0.99));
+            System.out.printf("bulkheads=%s: %d lecturas (p50=%d us, p99=%d us), %d escrituras, %d escrituras rechazadas%n",
+                    bulkheads, ordenadas.size(), p50 / 1000, p99 / 1000, escrituras.get(), rechazos.get());
+            return new long[]{p50, p99};
+        }
+    }
+
+    private static void pausar() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ClientRequestDTO request(int n, List<String> productos) {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento(String.valueOf(50_000_000 + n));
+        request.setNombre("Carga " + n);
+        request.setApellido("Bulkhead");
+        request.setCalle("Calle Falsa");
+        request.setNumero(n);
+        request.setCodigoPostal("L0001");
+        request.setProductoBancarioList(productos);
+        return request;
+    }
+}
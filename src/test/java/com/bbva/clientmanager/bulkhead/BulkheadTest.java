@@ -0,0 +1,104 @@
+package com.bbva.clientmanager.bulkhead;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.exception.CapacidadExcedidaException;
+import com.bbva.clientmanager.repository.IClientRepository;
+import com.bbva.clientmanager.service.IClientService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "clientmanager.bulkhead.escritura.max-queue=0",
+        "clientmanager.bulkhead.escritura.timeout-ms=100"})
+public class BulkheadTest {
+    @Autowired
+    private IClientService clientService;
+    @Autowired
+    private IClientRepository clientRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    @Qualifier("dataSourceLectura")
+    private HikariDataSource lectura;
+    @Autowired
+    @Qualifier("dataSourceEscritura")
+    private HikariDataSource escritura;
+    @Autowired
+    @Qualifier("bulkheadEscritura")
+    private Bulkhead bulkheadEscritura;
+
+    @Test
+    void testTransaccionesReadOnlyUsanElPoolDeLectura() {
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+        TransactionTemplate escrituraTx = new TransactionTemplate(transactionManager);
+
+        int[] enLectura = soloLectura.execute(status -> {
+            clientRepository.count();
+            return new int[]{lectura.getHikariPoolMXBean().getActiveConnections(),
+                    escritura.getHikariPoolMXBean() != null ? escritura.getHikariPoolMXBean().getActiveConnections() : 0};
+        });
+        int[] enEscritura = escrituraTx.execute(status -> {
+            clientRepository.count();
+            return new int[]{lectura.getHikariPoolMXBean().getActiveConnections(),
+                    escritura.getHikariPoolMXBean().getActiveConnections()};
+        });
+
+        assertThat(enLectura).containsExactly(1, 0);
+        assertThat(enEscritura).containsExactly(0, 1);
+    }
+
+    @Test
+    void testEscriturasSaturadasNoBloqueanLecturas() throws Exception {
+        ClientResponseDTO creado = clientService.create(request());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch ocupados = new CountDownLatch(4);
+        CountDownLatch liberar = new CountDownLatch(1);
+        for (int i = 0; i < 4; i++) {
+            executor.submit(() -> {
+                try {
+                    return bulkheadEscritura.ejecutar(() -> {
+                        ocupados.countDown();
+                        liberar.await();
+                        return null;
+                    });
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        ocupados.await();
+        try {
+            assertThat(clientService.findById(creado.getId()).getNombre()).isEqualTo("Bulkhead");
+            assertThrows(CapacidadExcedidaException.class, () -> clientService.create(request()));
+        } finally {
+            liberar.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static ClientRequestDTO request() {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento("30000999");
+        request.setNombre("Bulkhead");
+        request.setApellido("Test");
+        request.setCodigoPostal("K0001");
+        request.setProductoBancarioList(List.of("CJAH"));
+        return request;
+    }
+}
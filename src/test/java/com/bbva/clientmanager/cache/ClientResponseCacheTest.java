@@ -0,0 +1,118 @@
+package com.bbva.clientmanager.cache;
+
+import com.bbva.clientmanager.event.ClientModificadoEvent;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientResponseCacheTest {
+
+    @Test
+    void testLimitePorBytesDesalojaHastaEntrar() {
+        ClientResponseCache cache = new ClientResponseCache(true, 400);
+        byte[] json = new byte[100];
+
+        cache.put(1L, cache.generacion(1L), json);
+        cache.put(2L, cache.generacion(2L), json);
+        assertEquals(2, cache.getCantidad());
+        long bytesPorEntrada = cache.getBytesUsados() / 2;
+        cache.put(3L, cache.generacion(3L), json);
+
+        assertTrue(bytesPorEntrada > 100);
+        assertTrue(cache.getBytesUsados() <= 400);
+        assertEquals(2, cache.getCantidad());
+    }
+
+    @Test
+    void testLecturasEInvalidacionesConcurrentesNoDejanRespuestasViejas() throws Exception {
+        ClientResponseCache cache = new ClientResponseCache(true, 1 << 20);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int hilo = 0; hilo < 8; hilo++) {
+            tareas.add(executor.submit(() -> {
+                for (long i = 0; i < 2_000; i++) {
+                    long id = i % 50;
+                    long generacion = cache.generacion(id);
+                    cache.get(id);
+                    cache.put(id, generacion, new byte[]{1});
+                    if (i % 7 == 0) {
+                        cache.invalidar(id);
+                    }
+                }
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        executor.shutdown();
+
+        long generacion = cache.generacion(3L);
+        cache.invalidar(3L);
+        assertFalse(cache.put(3L, generacion, new byte[]{2}));
+        assertNull(cache.get(3L));
+        assertEquals(16_000, cache.getAciertos() + cache.getFallos() - 1);
+    }
+
+    @Test
+    void testNoGuardaSiLaGeneracionCambio() {
+        ClientResponseCache cache = new ClientResponseCache(true, 10_000);
+        long generacion = cache.generacion(7L);
+
+        cache.onClientModificado(ClientModificadoEvent.modificacion(7L, null));
+
+        assertFalse(cache.put(7L, generacion, "{}".getBytes(StandardCharsets.UTF_8)));
+        assertNull(cache.get(7L));
+    }
+
+    @Test
+    void testFiltroSirveAciertosSinInvocarAlControlador() throws Exception {
+        ClientResponseCache cache = new ClientResponseCache(true, 10_000);
+        ClientResponseCacheFilter filter = new ClientResponseCacheFilter(cache);
+        AtomicInteger invocaciones = new AtomicInteger();
+        byte[] cuerpo = "{\"id\":5,\"nombre\":\"Veronica\"}".getBytes(StandardCharsets.UTF_8);
+
+        MockHttpServletResponse primera = new MockHttpServletResponse();
+        filter.doFilter(request(), primera, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp)
+                    throws IOException {
+                invocaciones.incrementAndGet();
+                resp.setStatus(200);
+                resp.setContentType("application/json");
+                resp.getOutputStream().write(cuerpo);
+            }
+        }));
+
+        MockHttpServletRequest gzip = request();
+        gzip.addHeader("Accept-Encoding", "gzip, deflate");
+        MockHttpServletResponse segunda = new MockHttpServletResponse();
+        filter.doFilter(gzip, segunda, new MockFilterChain());
+
+        assertEquals(1, invocaciones.get());
+        assertArrayEquals(cuerpo, primera.getContentAsByteArray());
+        assertEquals("HIT", segunda.getHeader(ClientResponseCacheFilter.HEADER_CACHE));
+        assertEquals("gzip", segunda.getHeader("Content-Encoding"));
+        assertArrayEquals(cache.get(5L).gzip(), segunda.getContentAsByteArray());
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/clients/5");
+        request.setRequestURI("/clients/5");
+        return request;
+    }
+}
@@ -0,0 +1,95 @@
+package com.bbva.clientmanager.coalescing;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.entity.TipoDocumento;
+import com.bbva.clientmanager.repository.IClientRepository;
+import com.bbva.clientmanager.service.IClientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Lecturas idénticas concurrentes con los bulkheads por defecto (16 en curso y 32 en espera):
+ * las que se unen a una carga compartida no ocupan permisos de lectura.
+ */
+@SpringBootTest
+public class LecturaCompartidaAspectTest {
+    private static final int LECTURAS = 100;
+
+    @Autowired
+    private IClientService clientService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @MockitoSpyBean
+    private IClientRepository clientRepository;
+
+    @Test
+    void testLecturasIdenticasSeCoalescenAntesDelBulkhead() throws Exception {
+        Long id = clientService.create(request()).getId();
+        Client client = new Client();
+        client.setId(id);
+        client.setTipoDocumento(TipoDocumento.DNI);
+        client.setDocumento("39000001");
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            cargas.incrementAndGet();
+            liberar.await(5, TimeUnit.SECONDS);
+            return Optional.of(client);
+        }).when(clientRepository).findById(id);
+        double rechazosAntes = meterRegistry.counter("clientmanager.bulkhead.rejected", "bulkhead", "lectura").count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(LECTURAS);
+        try {
+            List<Future<ClientResponseDTO>> lecturas = new ArrayList<>();
+            for (int i = 0; i < LECTURAS; i++) {
+                lecturas.add(executor.submit(() -> clientService.findById(id)));
+            }
+            for (int i = 0; i < 100 && cargas.get() == 0; i++) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(300);
+            liberar.countDown();
+
+            for (Future<ClientResponseDTO> lectura : lecturas) {
+                assertThat(lectura.get(5, TimeUnit.SECONDS).getId()).isEqualTo(id);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(cargas.get()).isLessThan(LECTURAS / 2);
+        assertThat(meterRegistry.counter("clientmanager.bulkhead.rejected", "bulkhead", "lectura").count())
+                .isEqualTo(rechazosAntes);
+    }
+
+    private static ClientRequestDTO request() {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento("39000001");
+        request.setNombre("Veronica");
+        request.setApellido("Sebastian");
+        request.setCalle("Calle Falsa");
+        request.setNumero(1234);
+        request.setCodigoPostal("C1416");
+        request.setCelular("1557444444");
+        request.setProductoBancarioList(List.of("CJAH"));
+        return request;
+    }
+}
@@ -0,0 +1,88 @@
+package com.bbva.clientmanager.coalescing;
+
+import com.bbva.clientmanager.exception.ClientNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+    private static final int LLAMADORES = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void testLlamadasConcurrentesCompartenUnaCarga() throws Exception {
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<Future<SingleFlight.Resultado<String>>> resultados = lanzar(() -> singleFlight.ejecutar("cliente-1", () -> {
+            cargas.incrementAndGet();
+            esperar(liberar);
+            return "Juan";
+        }));
+        esperarEnVuelo();
+        liberar.countDown();
+
+        int compartidos = 0;
+        for (Future<SingleFlight.Resultado<String>> resultado : resultados) {
+            assertThat(resultado.get(5, TimeUnit.SECONDS).valor()).isEqualTo("Juan");
+            compartidos += resultado.get().compartido() ? 1 : 0;
+        }
+        assertThat(cargas.get() + compartidos).isEqualTo(LLAMADORES);
+        assertThat(cargas.get()).isLessThan(LLAMADORES);
+        assertThat(singleFlight.getEnVuelo()).isZero();
+    }
+
+    @Test
+    void testElErrorLlegaATodosLosQueEsperan() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<Future<SingleFlight.Resultado<String>>> resultados = lanzar(() -> singleFlight.ejecutar("cliente-2", () -> {
+            esperar(liberar);
+            throw new ClientNotFoundException("No se encuentra el cliente con id 2");
+        }));
+        esperarEnVuelo();
+        liberar.countDown();
+
+        for (Future<SingleFlight.Resultado<String>> resultado : resultados) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> resultado.get(5, TimeUnit.SECONDS));
+            assertThat(e.getCause()).isInstanceOf(ClientNotFoundException.class);
+        }
+        assertThat(singleFlight.ejecutar("cliente-2", () -> "Ana").compartido()).isFalse();
+    }
+
+    private List<Future<SingleFlight.Resultado<String>>> lanzar(Callable<SingleFlight.Resultado<String>> llamada) {
+        ExecutorService executor = Executors.newFixedThreadPool(LLAMADORES);
+        List<Future<SingleFlight.Resultado<String>>> resultados = new ArrayList<>();
+        for (int i = 0; i < LLAMADORES; i++) {
+            resultados.add(executor.submit(llamada));
+        }
+        executor.shutdown();
+        return resultados;
+    }
+
+    private void esperarEnVuelo() throws InterruptedException {
+        while (singleFlight.getEnVuelo() == 0) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(100);
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
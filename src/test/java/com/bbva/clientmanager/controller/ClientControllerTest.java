@@ -1,9 +1,15 @@
 package com.bbva.clientmanager.controller;
 
+import com.bbva.clientmanager.dto.ClientCountResponseDTO;
+import com.bbva.clientmanager.dto.ClientLookupRequestDTO;
+import com.bbva.clientmanager.dto.ClientLookupResponseDTO;
 import com.bbva.clientmanager.dto.ClientRequestDTO;
 import com.bbva.clientmanager.dto.ClientRequestUpdateDTO;
 import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.ClientSearchRequestDTO;
+import com.bbva.clientmanager.dto.ClientSearchResponseDTO;
 import com.bbva.clientmanager.dto.TelefonoUpdateDTO;
+import com.bbva.clientmanager.service.ClientGroupCommitService;
 import com.bbva.clientmanager.service.ClientService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,20 +20,25 @@ import org.springframework.http.ResponseEntity;
 
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class ClientControllerTest {
     @Mock
     private ClientService clientService;
+    @Mock
+    private ClientGroupCommitService groupCommitService;
 
     private ClientController clientController;
 
     @BeforeEach
     void setUp() {
-        clientController = new ClientController(clientService);
+        clientController = new ClientController(clientService, groupCommitService);
     }
 
     @Test
@@ -96,6 +107,85 @@ public class ClientControllerTest {
         assertEquals(1L, response.getBody().getId());
     }
 
+    @Test
+    public void testFindByIdConCampos(){
+        when(clientService.findById(1L, List.of("nombre"))).thenReturn(Map.of("id", 1L, "nombre", "Cliente1"));
+
+        ResponseEntity<Map<String, Object>> response = clientController.findById(1L, List.of("nombre"));
+
+        assertEquals("Cliente1", response.getBody().get("nombre"));
+        assertEquals(2, response.getBody().size());
+    }
+
+    @Test
+    public void testLookup(){
+        ClientResponseDTO dto = new ClientResponseDTO();
+        dto.setId(2L);
+        ClientLookupRequestDTO request = new ClientLookupRequestDTO();
+        request.setIds(List.of(2L, 9L));
+
+        when(clientService.findAllById(List.of(2L, 9L)))
+                .thenReturn(new ClientLookupResponseDTO(List.of(dto), List.of(9L)));
+
+        ResponseEntity<ClientLookupResponseDTO> response = clientController.lookup(request);
+
+        assertEquals(2L, response.getBody().getClients().get(0).getId());
+        assertEquals(List.of(9L), response.getBody().getNoEncontrados());
+    }
+
+    @Test
+    public void testSearch(){
+        ClientResponseDTO dto = new ClientResponseDTO();
+        dto.setId(3L);
+        ClientSearchRequestDTO request = new ClientSearchRequestDTO();
+        request.setCodigoPostal("C1416");
+
+        when(clientService.search(request)).thenReturn(new ClientSearchResponseDTO(List.of(dto), 20, false, null));
+
+        ResponseEntity<ClientSearchResponseDTO> response = clientController.search(request, false);
+
+        assertEquals(3L, response.getBody().getClients().get(0).getId());
+        assertEquals(false, response.getBody().isHayMas());
+        assertNull(response.getHeaders().getFirst(ClientController.TOTAL));
+        verify(clientService, never()).count(any());
+    }
+
+    @Test
+    public void testSearchConTotalYHead(){
+        ClientSearchRequestDTO request = new ClientSearchRequestDTO();
+        request.setCodigoPostal("C1416");
+        when(clientService.search(request)).thenReturn(new ClientSearchResponseDTO(List.of(), 20, false, null));
+        when(clientService.count(request)).thenReturn(new ClientCountResponseDTO(57L, false));
+
+        ResponseEntity<ClientSearchResponseDTO> response = clientController.search(request, true);
+        ResponseEntity<Void> head = clientController.headSearch(request);
+
+        assertEquals("57", response.getHeaders().getFirst(ClientController.TOTAL));
+        assertEquals("57", head.getHeaders().getFirst(ClientController.TOTAL));
+        assertNull(head.getHeaders().getFirst(ClientController.TOTAL_ESTIMADO));
+    }
+
+    @Test
+    public void testHeadAllMarcaTotalEstimado(){
+        when(clientService.count(any())).thenReturn(new ClientCountResponseDTO(1_200_000L, true));
+
+        ResponseEntity<Void> response = clientController.headAll();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("1200000", response.getHeaders().getFirst(ClientController.TOTAL));
+        assertEquals("true", response.getHeaders().getFirst(ClientController.TOTAL_ESTIMADO));
+    }
+
+    @Test
+    public void testExistsById(){
+        when(clientService.existsById(1L)).thenReturn(true);
+        when(clientService.existsById(99L)).thenReturn(false);
+
+        assertEquals(200, clientController.existsById(1L).getStatusCode().value());
+        assertEquals(404, clientController.existsById(99L).getStatusCode().value());
+        verify(clientService, never()).findById(any());
+    }
+
     @Test
     public void testDeleteById(){
         doNothing().when(clientService).deleteById(1L);
@@ -0,0 +1,115 @@
+package com.bbva.clientmanager.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AnilloAsyncAppenderTest {
+    private static final int HILOS = 4;
+    private static final int EVENTOS_POR_HILO = 5_000;
+
+    private final LoggerContext context = new LoggerContext();
+    private final AnilloAsyncAppender async = new AnilloAsyncAppender();
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        async.setContext(context);
+        async.setName("ASYNC");
+        logger = context.getLogger("com.bbva.clientmanager.test");
+        logger.setAdditive(false);
+        logger.addAppender(async);
+    }
+
+    @Test
+    void testEntregaTodosLosEventosDeCadaHiloEnOrden() throws Exception {
+        ListAppender<ILoggingEvent> destino = destino();
+        async.setBufferSize(HILOS * EVENTOS_POR_HILO);
+        async.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        for (int h = 0; h < HILOS; h++) {
+            int hilo = h;
+            executor.submit(() -> {
+                for (int i = 0; i < EVENTOS_POR_HILO; i++) {
+                    logger.atInfo().addKeyValue("hilo", hilo).addKeyValue("n", i).log("evento");
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        async.stop();
+
+        assertThat(destino.list).hasSize(HILOS * EVENTOS_POR_HILO);
+        assertThat(async.getDescartados()).isZero();
+        int[] siguiente = new int[HILOS];
+        for (ILoggingEvent evento : destino.list) {
+            int hilo = (int) evento.getKeyValuePairs().get(0).value;
+            assertThat(evento.getKeyValuePairs().get(1).value).isEqualTo(siguiente[hilo]++);
+        }
+    }
+
+    @Test
+    void testConBufferLlenoDescartaInfoPeroNoErrores() throws Exception {
+        CountDownLatch escribiendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<String> escritos = new ArrayList<>();
+        AppenderBase<ILoggingEvent> lento = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent evento) {
+                escribiendo.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                escritos.add(evento.getFormattedMessage());
+            }
+        };
+        lento.setContext(context);
+        lento.start();
+        async.addAppender(lento);
+        async.setBufferSize(4);
+        async.start();
+
+        logger.info("primero");
+        assertThat(escribiendo.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 10; i++) {
+            logger.info("info {}", i);
+        }
+        Thread error = new Thread(() -> logger.error("error"));
+        error.start();
+        error.join(200);
+        assertThat(error.isAlive()).isTrue();
+
+        liberar.countDown();
+        error.join(5_000);
+        async.stop();
+
+        assertThat(escritos).hasSize(6).startsWith("primero").endsWith("error");
+        assertThat(async.getDescartados()).isEqualTo(6);
+    }
+
+    private ListAppender<ILoggingEvent> destino() {
+        ListAppender<ILoggingEvent> destino = new ListAppender<>();
+        destino.setContext(context);
+        destino.start();
+        async.addAppender(destino);
+        return destino;
+    }
+}
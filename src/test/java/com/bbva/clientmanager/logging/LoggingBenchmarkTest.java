@@ -0,0 +1,116 @@
+package com.bbva.clientmanager.logging;
+
+import com.bbva.clientmanager.ClientManagerApplication;
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.security.JwtUtil;
+import com.bbva.clientmanager.service.IClientService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mide throughput y latencia de la API REST (3 GET por id por cada PATCH de teléfono) con el
+ * logging anterior (appender de consola sincrónico, texto formateado y show-sql) y con el
+ * actual (appender asincrónico, JSON estructurado, muestreo y SQL limitado).
+ * Se excluye del build normal; correr con: mvn test -Pbenchmark -Dtest=LoggingBenchmarkTest
+ */
+@Tag("benchmark")
+public class LoggingBenchmarkTest {
+    private static final int CLIENTES = 200;
+    private static final int HILOS = 16;
+    private static final long CALENTAMIENTO_MS = 3_000;
+    private static final long DURACION_MS = 10_000;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void compararLogging() throws Exception {
+        String sincronico = medir("sincrónico", "--logging.config=classpath:logback-sincronico.xml",
+                "--spring.jpa.show-sql=true", "--logging.level.org.hibernate.SQL=info");
+        String asincronico = medir("asincrónico y muestreado");
+        System.out.println(sincronico);
+        System.out.println(asincronico);
+    }
+
+    private String medir(String nombre, String... extra) throws Exception {
+        List<String> args = new ArrayList<>(List.of("--server.port=0", "--clientmanager.admission.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:logging" + extra.length));
+        args.addAll(List.of(extra));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ClientManagerApplication.class)
+                .run(args.toArray(String[]::new))) {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String token = context.getBean(JwtUtil.class).generateToken("sa");
+            IClientService clientService = context.getBean(IClientService.class);
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < CLIENTES; i++) {
+                ids.add(clientService.create(request(i)).getId());
+            }
+            correr(base, token, ids, CALENTAMIENTO_MS);
+            List<Long> latencias = correr(base, token, ids, DURACION_MS);
+            Collections.sort(latencias);
+            return String.format("%s: %d req/s, p50/p99 (us) %d/%d", nombre, latencias.size() * 1000L / DURACION_MS,
+                    latencias.get(latencias.size() / 2) / 1000, latencias.get(latencias.size() * 99 / 100) / 1000);
+        }
+    }
+
+    private List<Long> correr(String base, String token, List<Long> ids, long duracionMs) throws InterruptedException {
+        AtomicBoolean corriendo = new AtomicBoolean(true);
+        List<Long> latencias = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        for (int h = 0; h < HILOS; h++) {
+            int hilo = h;
+            executor.submit(() -> {
+                int n = 0;
+                while (corriendo.get()) {
+                    Long id = ids.get((hilo * 31 + n) % CLIENTES);
+                    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + "/clients/" + id
+                            + (n % 4 == 3 ? "/telefono" : ""))).header("Authorization", "Bearer " + token);
+                    if (n % 4 == 3) {
+                        request.header("Content-Type", "application/json")
+                                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"telefono\":\"11" + (40_000_000 + n) + "\"}"));
+                    }
+                    n++;
+                    long inicio = System.nanoTime();
+                    try {
+                        httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                    } catch (Exception e) {
+                        return;
+                    }
+                    latencias.add(System.nanoTime() - inicio);
+                }
+            });
+        }
+        Thread.sleep(duracionMs);
+        corriendo.set(false);
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+        return latencias;
+    }
+
+    private static ClientRequestDTO request(int n) {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento(String.valueOf(43_000_000 + n));
+        request.setNombre("Carga " + n);
+        request.setApellido("Logging");
+        request.setCalle("Calle Falsa");
+        request.setNumero(n);
+        request.setCodigoPostal("L0001");
+        request.setCelular("1550000000");
+        request.setProductoBancarioList(List.of("CJAH"));
+        return request;
+    }
+}
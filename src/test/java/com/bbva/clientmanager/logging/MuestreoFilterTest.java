@@ -0,0 +1,86 @@
+package com.bbva.clientmanager.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MuestreoFilterTest {
+    private static final String CONTROLLER = "com.bbva.clientmanager.controller.ClientController";
+    private static final String SQL = "org.hibernate.SQL";
+
+    private final LoggerContext context = new LoggerContext();
+
+    @Test
+    void testMuestreaLasLineasDeExitoDeUnaCategoria() {
+        MuestreoFilter filtro = filtro("com.bbva.clientmanager.controller=10", "");
+
+        assertThat(aceptados(filtro, CONTROLLER, Level.INFO, 100)).isEqualTo(10);
+        assertThat(aceptados(filtro, CONTROLLER, Level.DEBUG, 100)).isEqualTo(10);
+        assertThat(aceptados(filtro, "com.bbva.clientmanager.controllers.Otro", Level.INFO, 100)).isEqualTo(100);
+        assertThat(aceptados(filtro, "com.bbva.clientmanager.service.ClientService", Level.INFO, 100)).isEqualTo(100);
+    }
+
+    @Test
+    void testErroresYAdvertenciasPasanSiempre() {
+        MuestreoFilter filtro = filtro("com.bbva.clientmanager.controller=10", "org.hibernate.SQL=1");
+
+        assertThat(aceptados(filtro, CONTROLLER, Level.WARN, 100)).isEqualTo(100);
+        assertThat(aceptados(filtro, CONTROLLER, Level.ERROR, 100)).isEqualTo(100);
+        assertThat(aceptados(filtro, SQL, Level.ERROR, 100)).isEqualTo(100);
+    }
+
+    @Test
+    void testLimitaLosEventosPorSegundo() {
+        MuestreoFilter filtro = filtro("", SQL + "=20");
+
+        assertThat(aceptados(filtro, SQL, Level.DEBUG, 1_000)).isBetween(20, 40);
+    }
+
+    @Test
+    void testGanaLaCategoriaMasEspecifica() {
+        MuestreoFilter filtro = filtro("com.bbva.clientmanager=100,com.bbva.clientmanager.controller=1", "");
+
+        assertThat(aceptados(filtro, CONTROLLER, Level.INFO, 100)).isEqualTo(100);
+        assertThat(aceptados(filtro, "com.bbva.clientmanager.service.ClientService", Level.INFO, 100)).isEqualTo(1);
+    }
+
+    @Test
+    void testLaCategoriaRestoCubreLosLoggersSinCategoria() {
+        MuestreoFilter filtro = filtro("com.bbva.clientmanager.controller=100", "*=20");
+        String sesion = "org.hibernate.engine.internal.StatisticalLoggingSessionEventListener";
+
+        assertThat(aceptados(filtro, sesion, Level.INFO, 1_000)).isBetween(20, 40);
+        assertThat(aceptados(filtro, sesion, Level.WARN, 100)).isEqualTo(100);
+        assertThat(aceptados(filtro, CONTROLLER, Level.INFO, 100)).isEqualTo(1);
+    }
+
+    @Test
+    void testConfiguracionInvalidaNoArrancaElFiltro() {
+        MuestreoFilter filtro = filtro("com.bbva.clientmanager.controller", "");
+
+        assertThat(filtro.isStarted()).isFalse();
+        assertThat(aceptados(filtro, CONTROLLER, Level.INFO, 10)).isEqualTo(10);
+    }
+
+    private MuestreoFilter filtro(String muestreo, String limites) {
+        MuestreoFilter filtro = new MuestreoFilter();
+        filtro.setContext(context);
+        filtro.setMuestreo(muestreo);
+        filtro.setLimites(limites);
+        filtro.start();
+        return filtro;
+    }
+
+    private int aceptados(MuestreoFilter filtro, String logger, Level nivel, int eventos) {
+        int aceptados = 0;
+        for (int i = 0; i < eventos; i++) {
+            LoggingEvent evento = new LoggingEvent(null, context.getLogger(logger), nivel, "evento", null, null);
+            aceptados += filtro.decide(evento) == FilterReply.NEUTRAL ? 1 : 0;
+        }
+        return aceptados;
+    }
+}
@@ -0,0 +1,214 @@
+package com.bbva.clientmanager.protocol;
+
+import com.bbva.clientmanager.dto.ClientLookupResponseDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.exception.ClientNotFoundException;
+import com.bbva.clientmanager.exception.SolicitudInvalidaException;
+import com.bbva.clientmanager.security.JwtKeys;
+import com.bbva.clientmanager.security.JwtUtil;
+import com.bbva.clientmanager.service.IClientService;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BinaryClientServerTest {
+    private final IClientService clientService = mock(IClientService.class);
+    private JwtKeys jwtKeys;
+    private JwtUtil jwtUtil;
+    private BinaryClientServer server;
+
+    @BeforeEach
+    void iniciar() throws IOException {
+        jwtKeys = new JwtKeys("", "", 3_600_000, 3_600_000);
+        jwtUtil = new JwtUtil(jwtKeys, 60_000);
+        // Buffers chicos para que los listados ocupen varios segmentos del pool.
+        server = new BinaryClientServer(clientService, jwtUtil, true, 0, 4, 100, 256, 65_536, 1_024, 16);
+        server.iniciar();
+    }
+
+    @AfterEach
+    void detener() {
+        server.detener();
+        jwtKeys.cerrar();
+    }
+
+    @Test
+    void testFindByIdDevuelveTodosLosCampos() throws Exception {
+        ClientResponseDTO esperado = client(1L);
+        esperado.setTelefono(null);
+        esperado.setNombre("Verónica");
+        when(clientService.findById(1L)).thenReturn(esperado);
+
+        try (BinaryClient client = conectar()) {
+            ClientResponseDTO recibido = client.findById(1L).get(5, TimeUnit.SECONDS);
+
+            assertThat(recibido).usingRecursiveComparison().isEqualTo(esperado);
+        }
+    }
+
+    @Test
+    void testErroresDelServicioLleganComoLasMismasExcepciones() throws Exception {
+        when(clientService.findById(9L)).thenThrow(new ClientNotFoundException("Client con id 9 no encontrado."));
+
+        try (BinaryClient client = conectar()) {
+            CompletionException error = assertThrows(CompletionException.class, () -> client.findById(9L).join());
+
+            assertThat(error.getCause()).isInstanceOf(ClientNotFoundException.class)
+                    .hasMessage("Client con id 9 no encontrado.");
+        }
+    }
+
+    @Test
+    void testFindAllByIdDevuelveEncontradosYNoEncontrados() throws Exception {
+        when(clientService.findAllById(List.of(1L, 2L, 3L)))
+                .thenReturn(new ClientLookupResponseDTO(List.of(client(1L), client(3L)), List.of(2L)));
+
+        try (BinaryClient client = conectar()) {
+            ClientLookupResponseDTO respuesta = client.findAllById(List.of(1L, 2L, 3L)).get(5, TimeUnit.SECONDS);
+
+            assertThat(respuesta.getClients()).extracting(ClientResponseDTO::getId).containsExactly(1L, 3L);
+            assertThat(respuesta.getNoEncontrados()).containsExactly(2L);
+        }
+    }
+
+    @Test
+    void testListadoGrandeOcupaVariosBuffersDelPool() throws Exception {
+        List<ClientResponseDTO> clients = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            clients.add(client(id));
+        }
+        ClientResponseDTO largo = client(501L);
+        largo.setCalle("x".repeat(3_000));
+        clients.add(largo);
+        when(clientService.findByProductoBancario("CJAH")).thenReturn(clients);
+
+        try (BinaryClient client = conectar()) {
+            List<ClientResponseDTO> recibidos = client.findByProductoBancario(TipoProductoBancario.CJAH).get(5, TimeUnit.SECONDS);
+
+            assertThat(recibidos).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(clients);
+        }
+    }
+
+    @Test
+    void testRespuestasLleganFueraDeOrdenPorLaMismaConexion() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(clientService.findById(1L)).thenAnswer(invocacion -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return client(1L);
+        });
+        when(clientService.findById(2L)).thenReturn(client(2L));
+
+        try (BinaryClient client = conectar()) {
+            CompletableFuture<ClientResponseDTO> lenta = client.findById(1L);
+            ClientResponseDTO rapida = client.findById(2L).get(5, TimeUnit.SECONDS);
+
+            assertThat(rapida.getId()).isEqualTo(2L);
+            assertThat(lenta).isNotDone();
+            liberar.countDown();
+            assertThat(lenta.get(5, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    void testRechazaTokenInvalido() {
+        IOException error = assertThrows(IOException.class,
+                () -> BinaryClient.conectar("localhost", server.getPuerto(), "no-es-un-token"));
+
+        assertThat(error.getCause()).hasMessage("Token inválido o expirado.");
+    }
+
+    @Test
+    void testRechazaLasSolicitudesAlVencerElTokenDeLaConexion() throws Exception {
+        when(clientService.findById(1L)).thenReturn(client(1L));
+        String token = new JwtUtil(jwtKeys, 1_000).generateToken("sa");
+
+        try (BinaryClient client = BinaryClient.conectar("localhost", server.getPuerto(), token)) {
+            assertThat(client.findById(1L).get(5, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+            Thread.sleep(1_100);
+
+            CompletionException error = assertThrows(CompletionException.class, () -> client.findById(1L).join());
+
+            assertThat(error.getCause()).hasMessage("El token de la conexión expiró o fue revocado.");
+        }
+    }
+
+    @Test
+    void testRechazaLasSolicitudesSiSeBorraLaClaveDelToken(@TempDir Path claves) throws Exception {
+        detener();
+        Files.writeString(claves.resolve("2026-01.hs256"),
+                Base64.getEncoder().encodeToString(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded()));
+        jwtKeys = new JwtKeys(claves.toString(), "", 3_600_000, 3_600_000);
+        jwtUtil = new JwtUtil(jwtKeys, 60_000);
+        server = new BinaryClientServer(clientService, jwtUtil, true, 0, 4, 100, 256, 65_536, 1_024, 16);
+        server.iniciar();
+        when(clientService.findById(1L)).thenReturn(client(1L));
+
+        try (BinaryClient client = conectar()) {
+            assertThat(client.findById(1L).get(5, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+            Files.writeString(claves.resolve("2026-02.hs256"),
+                    Base64.getEncoder().encodeToString(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded()));
+            Files.delete(claves.resolve("2026-01.hs256"));
+            jwtKeys.recargar();
+
+            CompletionException error = assertThrows(CompletionException.class, () -> client.findById(1L).join());
+
+            assertThat(error.getCause()).hasMessage("El token de la conexión expiró o fue revocado.");
+        }
+    }
+
+    @Test
+    void testSolicitudInvalidaNoCierraLaConexion() throws Exception {
+        when(clientService.findAllById(List.of())).thenThrow(new SolicitudInvalidaException("Debe indicar al menos un id."));
+        when(clientService.findById(1L)).thenReturn(client(1L));
+
+        try (BinaryClient client = conectar()) {
+            CompletionException error = assertThrows(CompletionException.class, () -> client.findAllById(List.of()).join());
+
+            assertThat(error.getCause()).isInstanceOf(SolicitudInvalidaException.class);
+            assertThat(client.findById(1L).get(5, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+        }
+    }
+
+    private BinaryClient conectar() throws IOException {
+        return BinaryClient.conectar("localhost", server.getPuerto(), jwtUtil.generateToken("sa"));
+    }
+
+    private static ClientResponseDTO client(Long id) {
+        ClientResponseDTO dto = new ClientResponseDTO();
+        dto.setId(id);
+        dto.setTipoDocumento("DNI");
+        dto.setDocumento(String.valueOf(30_000_000 + id));
+        dto.setNombre("Nombre " + id);
+        dto.setApellido("Apellido");
+        dto.setCalle("Calle Falsa");
+        dto.setNumero(id.intValue());
+        dto.setCodigoPostal("C1000");
+        dto.setTelefono("1140000000");
+        dto.setCelular("1150000000");
+        dto.setFechaCreacion(LocalDateTime.of(2026, 1, 2, 3, 4, 5, 123_456_789));
+        dto.setFechaModificacion(LocalDateTime.of(2026, 2, 3, 4, 5, 6));
+        dto.setProductoBancarioList(List.of("CJAH", "TJCREDITO"));
+        return dto;
+    }
+}
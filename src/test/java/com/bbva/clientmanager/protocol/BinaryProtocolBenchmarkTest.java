@@ -0,0 +1,139 @@
+package com.bbva.clientmanager.protocol;
+
+import com.bbva.clientmanager.ClientManagerApplication;
+import com.bbva.clientmanager.security.JwtUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compara el throughput de GET por id por la API REST con el protocolo binario, sobre la misma
+ * aplicación y los mismos clientes: con CONCURRENTES hilos que esperan cada respuesta (REST con su
+ * pool de conexiones HTTP, binario compartiendo una sola conexión) y con un único hilo que mantiene
+ * VENTANA solicitudes en vuelo por la conexión binaria.
+ * Se excluye del build normal; correr con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+public class BinaryProtocolBenchmarkTest {
+    private static final int CLIENTES = 100;
+    private static final int CONCURRENTES = 64;
+    private static final int VENTANA = 256;
+    private static final long DURACION_MS = 5_000;
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void compararRestConBinario() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ClientManagerApplication.class)
+                .run("--server.port=0", "--spring.jpa.show-sql=false", "--logging.level.com.bbva=WARN",
+                        "--clientmanager.admission.enabled=false", "--clientmanager.bulkhead.enabled=false",
+                        "--clientmanager.binary.enabled=true", "--clientmanager.binary.port=0")) {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String token = context.getBean(JwtUtil.class).generateToken("sa");
+            List<Long> ids = crear(base, token);
+
+            long rest = medir(CONCURRENTES, i -> {
+                HttpRequest get = HttpRequest.newBuilder(URI.create(base + "/clients/" + ids.get((int) (i % ids.size()))))
+                        .header("Authorization", "Bearer " + token)
+                        .build();
+                httpClient.send(get, HttpResponse.BodyHandlers.discarding());
+            });
+
+            int puerto = context.getBean(BinaryClientServer.class).getPuerto();
+            long binario;
+            long pipelining;
+            try (BinaryClient client = BinaryClient.conectar("localhost", puerto, token)) {
+                binario = medir(CONCURRENTES, i -> client.findById(ids.get((int) (i % ids.size()))).join());
+                pipelining = ventana(client, ids);
+            }
+            System.out.printf("REST: %d GET/s con %d hilos%n", rest, CONCURRENTES);
+            System.out.printf("binario: %d GET/s con %d hilos sobre una conexión%n", binario, CONCURRENTES);
+            System.out.printf("binario: %d GET/s con 1 hilo y %d solicitudes en vuelo%n", pipelining, VENTANA);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operacion {
+        void ejecutar(long i) throws Exception;
+    }
+
+    private long medir(int hilos, Operacion operacion) throws InterruptedException {
+        AtomicBoolean corriendo = new AtomicBoolean(true);
+        AtomicLong respuestas = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        for (int i = 0; i < hilos; i++) {
+            executor.submit(() -> {
+                while (corriendo.get()) {
+                    try {
+                        operacion.ejecutar(respuestas.incrementAndGet());
+                    } catch (Exception e) {
+                        return;
+                    }
+                }
+            });
+        }
+        Thread.sleep(DURACION_MS);
+        corriendo.set(false);
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+        return respuestas.get() * 1000 / DURACION_MS;
+    }
+
+    private long ventana(BinaryClient client, List<Long> ids) throws InterruptedException {
+        Semaphore enVuelo = new Semaphore(VENTANA);
+        AtomicLong respuestas = new AtomicLong();
+        long fin = System.currentTimeMillis() + DURACION_MS;
+        long i = 0;
+        while (System.currentTimeMillis() < fin) {
+            enVuelo.acquire();
+            CompletableFuture<?> respuesta = client.findById(ids.get((int) (i++ % ids.size())));
+            respuesta.whenComplete((r, e) -> {
+                respuestas.incrementAndGet();
+                enVuelo.release();
+            });
+        }
+        enVuelo.acquire(VENTANA);
+        return respuestas.get() * 1000 / DURACION_MS;
+    }
+
+    private List<Long> crear(String base, String token) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int n = 0; n < CLIENTES; n++) {
+            HttpResponse<String> creado = httpClient.send(HttpRequest.newBuilder(URI.create(base + "/clients"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json(n)))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = ID.matcher(creado.body());
+            if (!matcher.find()) {
+                throw new IllegalStateException("No se pudo crear el cliente: " + creado.body());
+            }
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    private static String json(int n) {
+        return "{\"tipoDocumento\":\"DNI\",\"documento\":\"" + (41_000_000 + n) + "\",\"nombre\":\"Carga " + n
+                + "\",\"apellido\":\"Binaria\",\"calle\":\"Calle Falsa\",\"numero\":" + n
+                + ",\"codigoPostal\":\"L0001\",\"celular\":\"1550000000\",\"productoBancarioList\":[\"CJAH\"]}";
+    }
+}
@@ -0,0 +1,113 @@
+package com.bbva.clientmanager.purge;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientSearchRequestDTO;
+import com.bbva.clientmanager.exception.ClientNotFoundException;
+import com.bbva.clientmanager.repository.IClientRepository;
+import com.bbva.clientmanager.service.IClientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "clientmanager.soft-delete.enabled=true",
+        "clientmanager.soft-delete.purge.batch-size=2",
+        "clientmanager.soft-delete.purge.pause-ms=0",
+        "clientmanager.soft-delete.purge.min-age-ms=0",
+        "clientmanager.soft-delete.purge.interval-ms=3600000",
+        "clientmanager.soft-delete.purge.window-start=00:00",
+        "clientmanager.soft-delete.purge.window-end=00:00"
+})
+public class PurgadorBajasTest {
+    @Autowired
+    private IClientService clientService;
+    @Autowired
+    private IClientRepository clientRepository;
+    @Autowired
+    private PurgadorBajas purgadorBajas;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testBajaLogicaOcultaAlClienteYElPurgadorLoBorraEnLotes() throws InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(clientService.create(cliente("3100000" + i)).getId());
+        }
+        Long baja = ids.get(0);
+        long totalAntes = clientService.count(new ClientSearchRequestDTO()).getTotal();
+        ClientSearchRequestDTO porApellido = new ClientSearchRequestDTO();
+        porApellido.setApellido("Purgable");
+        assertThat(clientService.findById(baja).getId()).isEqualTo(baja);
+
+        for (Long id : ids) {
+            clientService.deleteById(id);
+        }
+
+        assertThatThrownBy(() -> clientService.findById(baja)).isInstanceOf(ClientNotFoundException.class);
+        assertThatThrownBy(() -> clientService.deleteById(baja)).isInstanceOf(ClientNotFoundException.class);
+        assertThat(clientService.existsById(baja)).isFalse();
+        assertThat(clientRepository.findById(baja)).isEmpty();
+        assertThat(clientService.count(new ClientSearchRequestDTO()).getTotal()).isEqualTo(totalAntes - ids.size());
+        assertThat(clientService.search(porApellido).getClients()).isEmpty();
+        assertThat(filas("clients", "id", ids)).isEqualTo(ids.size());
+        assertThat(filas("clients_productos_bancarios", "clients_id", ids)).isEqualTo(ids.size());
+
+        double purgadosAntes = meterRegistry.counter("clientmanager.purge.clients").count();
+        long lotesAntes = meterRegistry.timer("clientmanager.purge.batches").count();
+        assertThat(purgadorBajas.purgar()).isEqualTo(ids.size());
+
+        assertThat(filas("clients", "id", ids)).isZero();
+        assertThat(filas("clients_productos_bancarios", "clients_id", ids)).isZero();
+        assertThat(meterRegistry.counter("clientmanager.purge.clients").count() - purgadosAntes).isEqualTo(ids.size());
+        assertThat(meterRegistry.timer("clientmanager.purge.batches").count() - lotesAntes).isEqualTo(3);
+        assertThat(meterRegistry.get("clientmanager.purge.pending").gauge().value()).isZero();
+        assertThat(purgadorBajas.purgar()).isZero();
+    }
+
+    @Test
+    void testVentanaHoraria() {
+        LocalTime una = LocalTime.of(1, 0);
+        LocalTime cinco = LocalTime.of(5, 0);
+        LocalTime veintidos = LocalTime.of(22, 0);
+
+        assertThat(PurgadorBajas.enVentana(LocalTime.of(3, 0), una, cinco)).isTrue();
+        assertThat(PurgadorBajas.enVentana(cinco, una, cinco)).isFalse();
+        assertThat(PurgadorBajas.enVentana(LocalTime.of(23, 30), veintidos, cinco)).isTrue();
+        assertThat(PurgadorBajas.enVentana(LocalTime.of(4, 0), veintidos, cinco)).isTrue();
+        assertThat(PurgadorBajas.enVentana(LocalTime.of(12, 0), veintidos, cinco)).isFalse();
+        assertThat(PurgadorBajas.enVentana(LocalTime.of(12, 0), una, una)).isTrue();
+    }
+
+    private long filas(String tabla, String columna, List<Long> ids) {
+        String marcadores = String.join(", ", ids.stream().map(id -> "?").toList());
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabla + " WHERE " + columna + " IN (" + marcadores + ")",
+                Long.class, ids.toArray());
+    }
+
+    private static ClientRequestDTO cliente(String documento) {
+        ClientRequestDTO dto = new ClientRequestDTO();
+        dto.setTipoDocumento("DNI");
+        dto.setDocumento(documento);
+        dto.setNombre("Baja");
+        dto.setApellido("Purgable");
+        dto.setCalle("Calle Falsa");
+        dto.setNumero(123);
+        dto.setCodigoPostal("C1416");
+        dto.setCelular("1550000000");
+        dto.setProductoBancarioList(List.of("CJAH"));
+        return dto;
+    }
+}
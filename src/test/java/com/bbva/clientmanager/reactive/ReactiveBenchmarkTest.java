@@ -0,0 +1,175 @@
+package com.bbva.clientmanager.reactive;
+
+import com.bbva.clientmanager.ClientManagerApplication;
+import com.bbva.clientmanager.security.JwtUtil;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compara la variante servlet con la reactiva: throughput de GET por id con clientes rápidos y
+ * latencia de esos GET mientras hay muchos clientes lentos que envían el cuerpo de un POST de a poco.
+ * Se excluye del build normal; correr con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+public class ReactiveBenchmarkTest {
+    private static final int CONCURRENTES = 64;
+    private static final long DURACION_MS = 5_000;
+    private static final int LENTOS = 1_000;
+    private static final int SONDEOS = 20;
+    private static final Duration TIMEOUT_SONDEO = Duration.ofSeconds(5);
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    @TempDir
+    Path claves;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void compararServletConReactiva() throws Exception {
+        Files.writeString(claves.resolve("bench.hs256"),
+                Base64.getEncoder().encodeToString(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded()));
+        String[] comunes = {"--server.port=0", "--spring.jpa.show-sql=false", "--logging.level.com.bbva=WARN",
+                "--clientmanager.jwt.keys-dir=" + claves, "--clientmanager.admission.enabled=false",
+                "--clientmanager.bulkhead.enabled=false"};
+
+        String servlet;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ClientManagerApplication.class)
+                .run(comunes)) {
+            servlet = medir("servlet", context, "http-nio");
+        }
+        String reactiva;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ReactiveClientManagerApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(comunes)) {
+            reactiva = medir("reactiva", context, "reactor-http");
+        }
+        System.out.println(servlet);
+        System.out.println(reactiva);
+    }
+
+    private String medir(String nombre, ConfigurableApplicationContext context, String prefijoHilos) throws Exception {
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        String token = "Bearer " + context.getBean(JwtUtil.class).generateToken("sa");
+        HttpResponse<String> creado = httpClient.send(HttpRequest.newBuilder(URI.create(base + "/clients"))
+                .header("Authorization", token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(1)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = ID.matcher(creado.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("No se pudo crear el cliente: " + creado.body());
+        }
+        HttpRequest get = HttpRequest.newBuilder(URI.create(base + "/clients/" + matcher.group(1)))
+                .header("Authorization", token)
+                .timeout(TIMEOUT_SONDEO)
+                .build();
+
+        long porSegundo = throughput(get);
+
+        List<Socket> lentos = new ArrayList<>();
+        try {
+            byte[] cuerpo = json(2).getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < LENTOS; i++) {
+                Socket socket = new Socket("localhost", URI.create(base).getPort());
+                OutputStream out = socket.getOutputStream();
+                out.write(("POST /clients HTTP/1.1\r\nHost: localhost\r\nAuthorization: " + token
+                        + "\r\nContent-Type: application/json\r\nContent-Length: " + cuerpo.length + "\r\n\r\n")
+                        .getBytes(StandardCharsets.US_ASCII));
+                out.write(cuerpo, 0, cuerpo.length / 2);
+                out.flush();
+                lentos.add(socket);
+            }
+            Thread.sleep(1_000);
+
+            List<Long> latencias = new ArrayList<>();
+            int timeouts = 0;
+            for (int i = 0; i < SONDEOS; i++) {
+                long inicio = System.nanoTime();
+                try {
+                    httpClient.send(get, HttpResponse.BodyHandlers.discarding());
+                    latencias.add(System.nanoTime() - inicio);
+                } catch (HttpTimeoutException e) {
+                    timeouts++;
+                }
+            }
+            long hilos = Thread.getAllStackTraces().keySet().stream()
+                    .filter(t -> t.getName().contains(prefijoHilos))
+                    .count();
+            Collections.sort(latencias);
+            return String.format("%s: %d GET/s con %d clientes rápidos; con %d clientes lentos: GET p50=%s p99=%s, "
+                            + "%d/%d sondeos sin respuesta en %ds, %d hilos del servidor HTTP",
+                    nombre, porSegundo, CONCURRENTES, LENTOS, percentil(latencias, 0.5), percentil(latencias, 0.99),
+                    timeouts, SONDEOS, TIMEOUT_SONDEO.toSeconds(), hilos);
+        } finally {
+            for (Socket socket : lentos) {
+                socket.close();
+            }
+        }
+    }
+
+    private long throughput(HttpRequest get) throws InterruptedException {
+        AtomicBoolean corriendo = new AtomicBoolean(true);
+        AtomicLong respuestas = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENTES);
+        for (int i = 0; i < CONCURRENTES; i++) {
+            executor.submit(() -> {
+                while (corriendo.get()) {
+                    try {
+                        httpClient.send(get, HttpResponse.BodyHandlers.discarding());
+                        respuestas.incrementAndGet();
+                    } catch (Exception e) {
+                        return;
+                    }
+                }
+            });
+        }
+        Thread.sleep(DURACION_MS);
+        corriendo.set(false);
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+        return respuestas.get() * 1000 / DURACION_MS;
+    }
+
+    private static String percentil(List<Long> latencias, double p) {
+        if (latencias.isEmpty()) {
+            return "-";
+        }
+        return latencias.get(Math.min(latencias.size() - 1, (int) (latencias.size() * p))) / 1_000_000 + "ms";
+    }
+
+    private static String json(int n) {
+        return "{\"tipoDocumento\":\"DNI\",\"documento\":\"" + (40_000_000 + n) + "\",\"nombre\":\"Carga " + n
+                + "\",\"apellido\":\"Reactiva\",\"calle\":\"Calle Falsa\",\"numero\":" + n
+                + ",\"codigoPostal\":\"L0001\",\"celular\":\"1550000000\",\"productoBancarioList\":[\"CJAH\"]}";
+    }
+}
@@ -0,0 +1,171 @@
+package com.bbva.clientmanager.reactive;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientRequestUpdateDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.TelefonoUpdateDTO;
+import com.bbva.clientmanager.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = ReactiveClientManagerApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive-controller-test;DB_CLOSE_DELAY=-1"
+        })
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+public class ReactiveClientControllerTest {
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private WebTestClient cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = webTestClient.mutate()
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("sa"))
+                .build();
+    }
+
+    @Test
+    void testCreateYFindById() {
+        ClientResponseDTO creado = crear("30000123", List.of("TJDEBITO", "CHEQ"));
+
+        ClientResponseDTO encontrado = cliente.get().uri("/clients/{id}", creado.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ClientResponseDTO.class).returnResult().getResponseBody();
+
+        assertThat(encontrado.getNombre()).isEqualTo("Veronica");
+        assertThat(encontrado.getTipoDocumento()).isEqualTo("DNI");
+        assertThat(encontrado.getProductoBancarioList()).containsExactly("CHEQ", "TJDEBITO");
+        assertThat(encontrado.getFechaCreacion()).isNotNull();
+    }
+
+    @Test
+    void testListadoPorProductoEnStreamNdjson() {
+        Long conPrestamo1 = crear("30000201", List.of("PREST", "CJAH")).getId();
+        crear("30000202", List.of("CJAH"));
+        Long conPrestamo2 = crear("30000203", List.of("PREST")).getId();
+
+        List<ClientResponseDTO> clients = cliente.get().uri("/clients/producto/PREST")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ClientResponseDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(clients).extracting(ClientResponseDTO::getId).containsExactly(conPrestamo1, conPrestamo2);
+        assertThat(clients.get(0).getProductoBancarioList()).containsExactly("CJAH", "PREST");
+    }
+
+    @Test
+    void testValidacionesCompartidasConLaVarianteServlet() {
+        ClientRequestDTO tipoInvalido = request("30000301", List.of("CJAH"));
+        tipoInvalido.setTipoDocumento("LIBRETA");
+        cliente.post().uri("/clients").bodyValue(tipoInvalido)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Tipo de documento inválido: LIBRETA");
+
+        ClientRequestDTO sinCelular = request("30000302", List.of("CJAH"));
+        sinCelular.setCelular(null);
+        cliente.post().uri("/clients").bodyValue(sinCelular)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Error en el campo 'celular': El celular es obligatorio");
+
+        cliente.get().uri("/clients/producto/INEXISTENTE")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Tipo de producto bancario inválido: INEXISTENTE");
+    }
+
+    @Test
+    void testUpdatePartialUpdateYTelefono() {
+        Long id = crear("30000401", List.of("CJAH", "CHEQ")).getId();
+
+        ClientRequestDTO reemplazo = request("30000401", List.of("CHEQ", "PZOF"));
+        reemplazo.setNombre("Vero");
+        ClientResponseDTO actualizado = cliente.put().uri("/clients/{id}", id).bodyValue(reemplazo)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ClientResponseDTO.class).returnResult().getResponseBody();
+        assertThat(actualizado.getNombre()).isEqualTo("Vero");
+        assertThat(actualizado.getProductoBancarioList()).containsExactly("PZOF", "CHEQ");
+
+        ClientRequestUpdateDTO parcial = new ClientRequestUpdateDTO();
+        parcial.setApellido("Sebastián");
+        ClientResponseDTO parcialmente = cliente.patch().uri("/clients/{id}", id).bodyValue(parcial)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ClientResponseDTO.class).returnResult().getResponseBody();
+        assertThat(parcialmente.getApellido()).isEqualTo("Sebastián");
+        assertThat(parcialmente.getNombre()).isEqualTo("Vero");
+        assertThat(parcialmente.getProductoBancarioList()).containsExactly("PZOF", "CHEQ");
+
+        TelefonoUpdateDTO telefono = new TelefonoUpdateDTO();
+        telefono.setTelefono("44445555");
+        cliente.patch().uri("/clients/{id}/telefono", id).bodyValue(telefono)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.telefono").isEqualTo("44445555");
+    }
+
+    @Test
+    void testDeleteById() {
+        Long id = crear("30000501", List.of("CJAH")).getId();
+
+        cliente.delete().uri("/clients/{id}", id).exchange().expectStatus().isNoContent();
+
+        cliente.get().uri("/clients/{id}", id)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("No se encuentra el cliente con id " + id);
+        cliente.delete().uri("/clients/{id}", id).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void testSinTokenRechaza() {
+        webTestClient.get().uri("/clients").exchange().expectStatus().isForbidden();
+    }
+
+    private ClientResponseDTO crear(String documento, List<String> productos) {
+        return cliente.post().uri("/clients").bodyValue(request(documento, productos))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ClientResponseDTO.class).returnResult().getResponseBody();
+    }
+
+    private static ClientRequestDTO request(String documento, List<String> productos) {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento(documento);
+        request.setNombre("Veronica");
+        request.setApellido("Sebastian");
+        request.setCalle("Calle Falsa");
+        request.setNumero(1234);
+        request.setCodigoPostal("C1416");
+        request.setCelular("1557444444");
+        request.setProductoBancarioList(productos);
+        return request;
+    }
+}
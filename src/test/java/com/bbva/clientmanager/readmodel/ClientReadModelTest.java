@@ -0,0 +1,217 @@
+package com.bbva.clientmanager.readmodel;
+
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.entity.ProductoBancario;
+import com.bbva.clientmanager.entity.TipoDocumento;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.event.ClientModificadoEvent;
+import com.bbva.clientmanager.repository.IClientRepository;
+import com.bbva.clientmanager.repository.ResumenIds;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ClientReadModelTest {
+    @TempDir
+    Path directorio;
+
+    private final IClientRepository clientRepository = mock(IClientRepository.class);
+
+    private ClientReadModel readModel(int maxBytes) {
+        return new ClientReadModel(clientRepository, mock(PlatformTransactionManager.class),
+                true, directorio, maxBytes, 2);
+    }
+
+    private static ResumenIds resumen(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> new ResumenIds(1, id, id, ResumenIds.huella(id)))
+                .reduce(ResumenIds.VACIO, ResumenIds::combinar);
+    }
+
+    private static Client client(long id, String nombre, TipoProductoBancario... productos) {
+        Client client = new Client();
+        client.setId(id);
+        client.setTipoDocumento(TipoDocumento.DNI);
+        client.setDocumento("3000000" + id);
+        client.setNombre(nombre);
+        client.setApellido("Pérez");
+        client.setNumero(id == 2 ? null : 100);
+        client.setCodigoPostal("C1416");
+        client.setFechaCreacion(LocalDateTime.of(2025, 1, 2, 3, 4, 5, 123456000));
+        for (TipoProductoBancario tipo : productos) {
+            ProductoBancario producto = new ProductoBancario();
+            producto.setTipoProductoBancario(tipo);
+            client.getProductoBancarioList().add(producto);
+        }
+        return client;
+    }
+
+    @Test
+    void testReconstruyeYBuscaPorIdYProducto() {
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(client(1, "Ana", TipoProductoBancario.PZOF, TipoProductoBancario.CTACTE),
+                        client(2, "Luis")));
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(2)))
+                .thenReturn(List.of(client(3, "Eva", TipoProductoBancario.PZOF)));
+        ClientReadModel readModel = readModel(1 << 16);
+
+        readModel.reconstruir();
+
+        assertThat(readModel.isDisponible()).isTrue();
+        assertThat(readModel.getCantidad()).isEqualTo(3);
+        ClientResponseDTO ana = readModel.findById(1L).orElseThrow();
+        assertThat(ana.getNombre()).isEqualTo("Ana");
+        assertThat(ana.getApellido()).isEqualTo("Pérez");
+        assertThat(ana.getTipoDocumento()).isEqualTo("DNI");
+        assertThat(ana.getNumero()).isEqualTo(100);
+        assertThat(ana.getCalle()).isNull();
+        assertThat(ana.getFechaCreacion()).isEqualTo(LocalDateTime.of(2025, 1, 2, 3, 4, 5, 123456000));
+        assertThat(ana.getProductoBancarioList()).containsExactly("CTACTE", "PZOF");
+        assertThat(readModel.findById(2L).orElseThrow().getNumero()).isNull();
+        assertThat(readModel.findById(4L)).isEmpty();
+        assertThat(readModel.findByProductoBancario(TipoProductoBancario.PZOF))
+                .extracting(ClientResponseDTO::getId).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void testAplicaModificacionesYBajas() {
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any())).thenReturn(List.of());
+        ClientReadModel readModel = readModel(1 << 16);
+        readModel.reconstruir();
+        when(clientRepository.findAllWithProductosByIdIn(List.of(7L)))
+                .thenReturn(List.of(client(7, "Ana")), List.of(client(7, "Ana María", TipoProductoBancario.CHEQ)));
+
+        readModel.onClientModificado(ClientModificadoEvent.alta(7L, null));
+        readModel.onClientModificado(ClientModificadoEvent.modificacion(7L, null));
+
+        assertThat(readModel.findById(7L).orElseThrow().getNombre()).isEqualTo("Ana María");
+        assertThat(readModel.findByProductoBancario(TipoProductoBancario.CHEQ)).hasSize(1);
+
+        readModel.onClientModificado(ClientModificadoEvent.baja(7L, null));
+
+        assertThat(readModel.findById(7L)).isEmpty();
+        assertThat(readModel.findByProductoBancario(TipoProductoBancario.CHEQ)).isEmpty();
+    }
+
+    @Test
+    void testCompactaCuandoSeLlenaElArchivo() {
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any())).thenReturn(List.of());
+        ClientReadModel readModel = readModel(4096);
+        readModel.reconstruir();
+        when(clientRepository.findAllWithProductosByIdIn(eq(List.of(1L)))).thenReturn(List.of(client(1, "Ana")));
+
+        for (int i = 0; i < 200; i++) {
+            readModel.onClientModificado(ClientModificadoEvent.modificacion(1L, null));
+        }
+
+        assertThat(readModel.isDisponible()).isTrue();
+        assertThat(readModel.getCantidad()).isEqualTo(1);
+        assertThat(readModel.getBytesUsados()).isLessThan(4096);
+        assertThat(readModel.findById(1L).orElseThrow().getNombre()).isEqualTo("Ana");
+    }
+
+    @Test
+    void testReabreElArchivoGuardadoSinRecorrerLaBase() {
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(client(1, "Ana", TipoProductoBancario.PZOF), client(2, "Luis")));
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(2))).thenReturn(List.of());
+        ClientReadModel anterior = readModel(1 << 16);
+        anterior.reconstruir();
+        when(clientRepository.findAllWithProductosByIdIn(List.of(3L))).thenReturn(List.of(client(3, "Eva")));
+        anterior.onClientModificado(ClientModificadoEvent.alta(3L, null));
+        anterior.onClientModificado(ClientModificadoEvent.baja(2L, null));
+        anterior.cerrar();
+        when(clientRepository.findByFechaModificacionGreaterThanEqualAndIdGreaterThanOrderByIdAsc(any(), eq(0L), any()))
+                .thenReturn(List.of(client(1, "Ana Modificada", TipoProductoBancario.PZOF)));
+        when(clientRepository.findByFechaModificacionGreaterThanEqualAndIdGreaterThanOrderByIdAsc(any(), eq(1L), any()))
+                .thenReturn(List.of());
+        when(clientRepository.resumirIds()).thenReturn(resumen(1L, 3L));
+
+        ClientReadModel readModel = readModel(1 << 16);
+        readModel.reconstruir();
+
+        assertThat(readModel.isDisponible()).isTrue();
+        assertThat(readModel.getCantidad()).isEqualTo(2);
+        assertThat(readModel.findById(1L).orElseThrow().getNombre()).isEqualTo("Ana Modificada");
+        assertThat(readModel.findById(2L)).isEmpty();
+        assertThat(readModel.findById(3L).orElseThrow().getNombre()).isEqualTo("Eva");
+        verify(clientRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+        readModel.cerrar();
+    }
+
+    @Test
+    void testReconstruyeSiLosIdsGuardadosNoCoincidenAunqueCoincidaLaCantidad() {
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(client(1, "Ana"), client(2, "Luis")));
+        ClientReadModel anterior = readModel(1 << 16);
+        anterior.reconstruir();
+        anterior.cerrar();
+        when(clientRepository.findByFechaModificacionGreaterThanEqualAndIdGreaterThanOrderByIdAsc(any(), anyLong(), any()))
+                .thenReturn(List.of());
+        when(clientRepository.resumirIds()).thenReturn(resumen(1L, 5L));
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(client(1, "Ana"), client(5, "Eva")));
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(5L, Limit.of(2))).thenReturn(List.of());
+
+        ClientReadModel readModel = readModel(1 << 16);
+        readModel.reconstruir();
+
+        assertThat(readModel.isDisponible()).isTrue();
+        assertThat(readModel.findById(2L)).isEmpty();
+        assertThat(readModel.findById(5L).orElseThrow().getNombre()).isEqualTo("Eva");
+        readModel.cerrar();
+    }
+
+    @Test
+    void testReconstruyeSiElArchivoGuardadoEsInvalido() throws IOException {
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(List.of(client(1, "Ana")));
+        ClientReadModel anterior = readModel(1 << 16);
+        anterior.reconstruir();
+        anterior.cerrar();
+        try (FileChannel canal = FileChannel.open(directorio.resolve("clients.rm"), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{42}), ClientReadModel.CABECERA + 20);
+        }
+        ClientReadModel readModel = readModel(1 << 16);
+        readModel.reconstruir();
+
+        assertThat(readModel.isDisponible()).isTrue();
+        assertThat(readModel.findById(1L).orElseThrow().getNombre()).isEqualTo("Ana");
+        verify(clientRepository, times(2)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+        verify(clientRepository, never()).findByFechaModificacionGreaterThanEqualAndIdGreaterThanOrderByIdAsc(any(), anyLong(), any());
+        readModel.cerrar();
+    }
+
+    @Test
+    void testIndiceFueraDelHeapCreceYBorra() {
+        OffHeapLongIndex indice = new OffHeapLongIndex(16);
+        LongStream.rangeClosed(1, 10_000).forEach(id -> indice.put(id, id * 10));
+        LongStream.rangeClosed(1, 10_000).filter(id -> id % 2 == 0).forEach(indice::remove);
+
+        assertThat(indice.size()).isEqualTo(5_000);
+        assertThat(indice.get(9_999)).isEqualTo(99_990);
+        assertThat(indice.get(10_000)).isEqualTo(OffHeapLongIndex.AUSENTE);
+        indice.put(10_000, 1);
+        assertThat(indice.get(10_000)).isEqualTo(1);
+        assertThat(indice.size()).isEqualTo(5_001);
+    }
+}
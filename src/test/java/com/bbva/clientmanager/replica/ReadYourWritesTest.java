@@ -0,0 +1,38 @@
+package com.bbva.clientmanager.replica;
+
+import com.bbva.clientmanager.event.ClientModificadoEvent;
+import com.bbva.clientmanager.security.UsuarioActual;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadYourWritesTest {
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(10_000);
+
+    @Test
+    void testLaEscrituraQuedaANombreDelUsuarioDelEventoYNoDelHiloQueLoPublica() throws Exception {
+        Thread committer = new Thread(() -> readYourWrites.onClientModificado(ClientModificadoEvent.alta(1L, "ana")));
+        committer.start();
+        committer.join();
+
+        assertThat(leeDelPrimario("ana")).isTrue();
+        assertThat(leeDelPrimario("beto")).isFalse();
+        assertThat(leeDelPrimario(null)).isFalse();
+    }
+
+    @Test
+    void testLasEscriturasDelSistemaNoMandanANadieAlPrimario() {
+        readYourWrites.onClientModificado(ClientModificadoEvent.baja(1L, null));
+
+        assertThat(leeDelPrimario(null)).isFalse();
+        assertThat(leeDelPrimario("ana")).isFalse();
+    }
+
+    private boolean leeDelPrimario(String usuario) {
+        AtomicBoolean resultado = new AtomicBoolean();
+        UsuarioActual.ejecutarComo(usuario, () -> resultado.set(readYourWrites.debeLeerDelPrimario()));
+        return resultado.get();
+    }
+}
@@ -0,0 +1,86 @@
+package com.bbva.clientmanager.replica;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.exception.ClientNotFoundException;
+import com.bbva.clientmanager.service.IClientService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "clientmanager.replica.enabled=true",
+        "clientmanager.replica.urls=jdbc:h2:mem:replica-routing-test;DB_CLOSE_DELAY=-1",
+        "clientmanager.replica.replication-delay-ms=500",
+        "clientmanager.replica.read-your-writes-ms=10000",
+        "clientmanager.replica.health-check-ms=60000"})
+public class ReplicaRoutingTest {
+    @Autowired
+    private IClientService clientService;
+    @Autowired
+    private ReplicaSet replicaSet;
+
+    @AfterEach
+    void limpiarUsuario() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testQuienEscribeLeeDelPrimarioYLosDemasDeLaReplica() throws Exception {
+        comoUsuario("ana");
+        ClientResponseDTO creado = clientService.create(request("30000777"));
+        assertThat(clientService.findById(creado.getId()).getNombre()).isEqualTo("Replica");
+
+        comoUsuario("beto");
+        assertThrows(ClientNotFoundException.class, () -> clientService.findById(creado.getId()));
+
+        long limite = System.currentTimeMillis() + 5000;
+        ClientResponseDTO replicado = null;
+        while (replicado == null && System.currentTimeMillis() < limite) {
+            try {
+                replicado = clientService.findById(creado.getId());
+            } catch (ClientNotFoundException e) {
+                Thread.sleep(50);
+            }
+        }
+        assertThat(replicado).isNotNull();
+        assertThat(replicado.getProductoBancarioList()).containsExactly("CJAH");
+    }
+
+    @Test
+    @DirtiesContext
+    void testSiLaReplicaCaeLasLecturasVuelvenAlPrimario() {
+        comoUsuario("carla");
+        ClientResponseDTO creado = clientService.create(request("30000778"));
+        replicaSet.getReplicas().forEach(replica -> replica.getDataSource().close());
+
+        comoUsuario("dario");
+        assertThat(clientService.findById(creado.getId()).getNombre()).isEqualTo("Replica");
+        assertThat(replicaSet.siguiente()).isEmpty();
+    }
+
+    private static void comoUsuario(String usuario) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, List.of()));
+    }
+
+    private static ClientRequestDTO request(String documento) {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento(documento);
+        request.setNombre("Replica");
+        request.setApellido("Test");
+        request.setCodigoPostal("K0001");
+        request.setProductoBancarioList(List.of("CJAH"));
+        return request;
+    }
+}
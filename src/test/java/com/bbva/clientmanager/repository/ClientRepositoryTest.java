@@ -45,4 +45,23 @@ public class ClientRepositoryTest {
         assertThat(updatedClient.getFechaModificacion()).isAfterOrEqualTo(fechaModificacionOriginal);
         assertThat(updatedClient.getFechaCreacion()).isEqualTo(fechaCreacionOriginal);
     }
+
+    @Test
+    public void testResumirIdsCoincideConElCalculoEnJava() {
+        for (String documento : new String[]{"30000124", "30000125", "30000126"}) {
+            Client client = new Client();
+            client.setNombre("Resumen");
+            client.setDocumento(documento);
+            client.setTipoDocumento(TipoDocumento.DNI);
+            clientRepository.save(client);
+        }
+        clientRepository.flush();
+
+        ResumenIds esperado = clientRepository.findAll().stream()
+                .map(client -> new ResumenIds(1, client.getId(), client.getId(), ResumenIds.huella(client.getId())))
+                .reduce(ResumenIds.VACIO, ResumenIds::combinar);
+
+        assertThat(esperado.cantidad()).isGreaterThanOrEqualTo(3);
+        assertThat(clientRepository.resumirIds()).isEqualTo(esperado);
+    }
 }
@@ -0,0 +1,208 @@
+package com.bbva.clientmanager.repository;
+
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.entity.ProductoBancario;
+import com.bbva.clientmanager.entity.TipoDocumento;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.support.SqlCapture;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica, para cada combinación de criterios de la búsqueda y de su conteo, que el resultado
+ * sea el correcto y que el plan de H2 (EXPLAIN) use un índice en cada tabla en lugar de
+ * recorrerla completa.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.bbva.clientmanager.support.SqlCapture")
+public class ClientSearchRepositoryTest {
+    private static final int CLIENTES = 2_000;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final String[] CODIGOS_POSTALES = {"C1000", "C1416", "B1642", "X5000", "S2000"};
+    private static final String[] APELLIDOS = {"Gomez", "Gonzalez", "Perez", "Paz", "Sebastian", "Sosa", "Garcia"};
+    private static final int CRITERIOS = 5;
+
+    @Autowired
+    private IClientRepository clientRepository;
+    @Autowired
+    private IProductoBancarioRepository productoBancarioRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Client> clients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<ProductoBancario> productos = new ArrayList<>();
+        for (TipoProductoBancario tipo : TipoProductoBancario.values()) {
+            ProductoBancario producto = new ProductoBancario();
+            producto.setTipoProductoBancario(tipo);
+            productos.add(productoBancarioRepository.save(producto));
+        }
+        for (int i = 0; i < CLIENTES; i++) {
+            Client client = new Client();
+            client.setTipoDocumento(TipoDocumento.values()[i % TipoDocumento.values().length]);
+            client.setDocumento(String.valueOf(20_000_000 + i));
+            client.setNombre("Cliente " + i);
+            client.setApellido(APELLIDOS[i % APELLIDOS.length] + " " + i);
+            client.setCalle("Calle Falsa");
+            client.setNumero(i);
+            client.setCodigoPostal(CODIGOS_POSTALES[i % CODIGOS_POSTALES.length] + (i % 40));
+            client.setCelular("1550000000");
+            client.setProductoBancarioList(new LinkedHashSet<>(Set.of(productos.get(i % productos.size()))));
+            clients.add(clientRepository.save(client));
+        }
+        entityManager.flush();
+        for (Client client : clients) {
+            client.setFechaCreacion(INICIO.plusHours(client.getNumero()));
+        }
+        entityManager.createNativeQuery("UPDATE clients SET fecha_creacion = DATEADD(HOUR, numero, CAST(:inicio AS TIMESTAMP))")
+                .setParameter("inicio", INICIO)
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    @Test
+    void testCadaCombinacionDeCriteriosDevuelveLoEsperadoUsandoIndices() {
+        Client referencia = clients.get(137);
+        Long despuesDe = clients.get(0).getId();
+        for (int combinacion = 1; combinacion < 1 << CRITERIOS; combinacion++) {
+            BusquedaClientes busqueda = busqueda(combinacion, referencia);
+
+            SqlCapture.reset();
+            List<Long> ids = clientRepository.buscarIds(busqueda, despuesDe, CLIENTES);
+            String sql = SqlCapture.sentencias().get(SqlCapture.sentencias().size() - 1);
+
+            assertThat(ids).as("combinación %s", busqueda)
+                    .containsExactlyElementsOf(esperados(busqueda).stream().filter(id -> id > despuesDe).toList())
+                    .contains(referencia.getId());
+            List<Object> parametros = parametros(busqueda);
+            parametros.add(despuesDe);
+            parametros.add(CLIENTES);
+            assertThat(plan(sql, parametros)).as("plan de %s", busqueda)
+                    .containsIgnoringCase("idx_clients")
+                    .doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    @Test
+    void testPaginaYEscapaComodinesDelApellido() {
+        BusquedaClientes porCodigoPostal = new BusquedaClientes("C10000", null, null, null, null, null);
+        List<Long> todos = esperados(porCodigoPostal);
+
+        assertThat(clientRepository.buscarIds(porCodigoPostal, null, 3)).containsExactlyElementsOf(todos.subList(0, 3));
+        assertThat(clientRepository.buscarIds(porCodigoPostal, todos.get(2), 3)).containsExactlyElementsOf(todos.subList(3, 6));
+        assertThat(clientRepository.buscarIds(new BusquedaClientes(null, "G_mez", null, null, null, null), null, 10)).isEmpty();
+        assertThat(clientRepository.buscarIds(new BusquedaClientes(null, "%", null, null, null, null), null, 10)).isEmpty();
+    }
+
+    @Test
+    void testCadaCombinacionSeCuentaSinRecorrerTablas() {
+        Client referencia = clients.get(137);
+        for (int combinacion = 1; combinacion < 1 << CRITERIOS; combinacion++) {
+            BusquedaClientes busqueda = busqueda(combinacion, referencia);
+
+            SqlCapture.reset();
+            long total = clientRepository.contar(busqueda);
+            String sql = SqlCapture.sentencias().get(SqlCapture.sentencias().size() - 1);
+
+            assertThat(total).as("combinación %s", busqueda).isEqualTo(esperados(busqueda).size());
+            assertThat(sql).as("conteo de %s", busqueda).containsIgnoringCase("count(");
+            assertThat(plan(sql, parametros(busqueda))).as("plan de %s", busqueda)
+                    .doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    @Test
+    void testExistenciaYTotalSinLeerClientes() {
+        entityManager.flush();
+        SqlCapture.reset();
+
+        assertThat(clientRepository.existsById(clients.get(0).getId())).isTrue();
+        assertThat(clientRepository.existsById(-1L)).isFalse();
+        assertThat(SqlCapture.sentencias()).allSatisfy(sql -> assertThat(sql)
+                .containsIgnoringCase("count(")
+                .doesNotContainIgnoringCase("apellido"));
+        assertThat(clientRepository.estimarTotal()).isEqualTo(clientRepository.count());
+    }
+
+    private BusquedaClientes busqueda(int combinacion, Client referencia) {
+        return new BusquedaClientes(
+                (combinacion & 1) != 0 ? referencia.getCodigoPostal() : null,
+                (combinacion & 2) != 0 ? referencia.getApellido().substring(0, 3) : null,
+                (combinacion & 4) != 0 ? referencia.getTipoDocumento() : null,
+                (combinacion & 8) != 0 ? referencia.getFechaCreacion().minusDays(10) : null,
+                (combinacion & 8) != 0 ? referencia.getFechaCreacion().plusDays(10) : null,
+                (combinacion & 16) != 0 ? referencia.getProductoBancarioList().iterator().next().getTipoProductoBancario() : null);
+    }
+
+    private List<Long> esperados(BusquedaClientes busqueda) {
+        Predicate<Client> filtro = client -> true;
+        if (busqueda.codigoPostal() != null) {
+            filtro = filtro.and(client -> client.getCodigoPostal().equals(busqueda.codigoPostal()));
+        }
+        if (busqueda.apellido() != null) {
+            filtro = filtro.and(client -> client.getApellido().startsWith(busqueda.apellido()));
+        }
+        if (busqueda.tipoDocumento() != null) {
+            filtro = filtro.and(client -> client.getTipoDocumento() == busqueda.tipoDocumento());
+        }
+        if (busqueda.fechaDesde() != null) {
+            filtro = filtro.and(client -> !client.getFechaCreacion().isBefore(busqueda.fechaDesde()));
+        }
+        if (busqueda.fechaHasta() != null) {
+            filtro = filtro.and(client -> client.getFechaCreacion().isBefore(busqueda.fechaHasta()));
+        }
+        if (busqueda.productoBancario() != null) {
+            filtro = filtro.and(client -> client.getProductoBancarioList().stream()
+                    .anyMatch(producto -> producto.getTipoProductoBancario() == busqueda.productoBancario()));
+        }
+        return clients.stream().filter(filtro).sorted(Comparator.comparing(Client::getId)).map(Client::getId).toList();
+    }
+
+    /**
+     * Parámetros de la sentencia que generó Hibernate, en el orden en que aparecen los predicados.
+     */
+    private List<Object> parametros(BusquedaClientes busqueda) {
+        List<Object> parametros = new ArrayList<>();
+        if (busqueda.codigoPostal() != null) parametros.add(busqueda.codigoPostal());
+        if (busqueda.apellido() != null) parametros.add(busqueda.apellido() + "%");
+        if (busqueda.tipoDocumento() != null) parametros.add(busqueda.tipoDocumento().name());
+        if (busqueda.fechaDesde() != null) parametros.add(busqueda.fechaDesde());
+        if (busqueda.fechaHasta() != null) parametros.add(busqueda.fechaHasta());
+        if (busqueda.productoBancario() != null) parametros.add(busqueda.productoBancario().name());
+        return parametros;
+    }
+
+    /**
+     * EXPLAIN de la sentencia que generó Hibernate, con los mismos valores de parámetros.
+     */
+    private String plan(String sql, List<Object> parametros) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parametros.size(); i++) {
+                    explain.setObject(i + 1, parametros.get(i));
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+}
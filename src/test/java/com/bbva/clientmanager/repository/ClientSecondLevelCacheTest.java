@@ -0,0 +1,150 @@
+package com.bbva.clientmanager.repository;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.ProductoBulkRequestDTO;
+import com.bbva.clientmanager.dto.TelefonoUpdateDTO;
+import com.bbva.clientmanager.entity.Client;
+import com.bbva.clientmanager.entity.ProductoBancario;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.service.IClientService;
+import com.bbva.clientmanager.service.IProductoBulkService;
+import com.bbva.clientmanager.support.SqlCapture;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.bbva.clientmanager.support.SqlCapture")
+public class ClientSecondLevelCacheTest {
+    @Autowired
+    private IClientService clientService;
+    @Autowired
+    private IProductoBulkService productoBulkService;
+    @Autowired
+    private IClientRepository clientRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate soloLectura;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testClientYSusProductosSeLeenDeLaCacheHastaQueCambian() {
+        ClientResponseDTO creado = clientService.create(request("43000001", "B1900", List.of("CJAH", "CHEQ")));
+        cargar(creado.getId());
+
+        SqlCapture.reset();
+        long aciertos = statistics.getSecondLevelCacheHitCount();
+        assertThat(cargar(creado.getId()).getProductoBancarioList()).hasSize(2);
+        assertThat(SqlCapture.contar("select", "clients")).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount() - aciertos).isGreaterThanOrEqualTo(2);
+
+        TelefonoUpdateDTO telefono = new TelefonoUpdateDTO();
+        telefono.setTelefono("0221-4444");
+        clientService.updateTelefono(creado.getId(), telefono);
+        assertThat(cargar(creado.getId()).getTelefono()).isEqualTo("0221-4444");
+
+        ProductoBulkRequestDTO dto = new ProductoBulkRequestDTO();
+        dto.setIds(List.of(creado.getId()));
+        productoBulkService.revocar("CHEQ", dto);
+        assertThat(cargar(creado.getId()).getProductoBancarioList())
+                .extracting(ProductoBancario::getTipoProductoBancario)
+                .containsExactly(TipoProductoBancario.CJAH);
+    }
+
+    @Test
+    void testFindByIdDelServicioLeeDeLaCache() {
+        ClientResponseDTO creado = clientService.create(request("43000004", "B1902", List.of("CJAH")));
+        clientService.findById(creado.getId());
+
+        SqlCapture.reset();
+        long aciertos = statistics.getSecondLevelCacheHitCount();
+        assertThat(clientService.findById(creado.getId()).getProductoBancarioList()).containsExactly("CJAH");
+        assertThat(SqlCapture.contar("select", "clients")).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount() - aciertos).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void testConsultaPorProductoCacheadaSeInvalidaConUnAlta() {
+        clientService.create(request("43000002", "B1901", List.of("PZOF")));
+        clientService.findByProductoBancario("PZOF");
+
+        long aciertos = statistics.getQueryCacheHitCount();
+        SqlCapture.reset();
+        List<ClientResponseDTO> cacheados = clientService.findByProductoBancario("PZOF");
+        assertThat(statistics.getQueryCacheHitCount() - aciertos).isEqualTo(1);
+        assertThat(SqlCapture.contar("select", "clients")).isZero();
+
+        ClientResponseDTO nuevo = clientService.create(request("43000003", "B1901", List.of("PZOF")));
+        assertThat(clientService.findByProductoBancario("PZOF")).hasSize(cacheados.size() + 1)
+                .extracting(ClientResponseDTO::getId).contains(nuevo.getId());
+        assertThat(meterRegistry.get("clientmanager.l2cache.entries").tag("region", "client").gauge().value())
+                .isPositive();
+    }
+
+    @Test
+    void testSentenciasNativasDesalojanSoloLosClientesAfectados() {
+        ClientResponseDTO afectado = clientService.create(request("43000005", "B1903", List.of("CJAH", "CHEQ")));
+        ClientResponseDTO otro = clientService.create(request("43000006", "B1903", List.of("CJAH", "CHEQ")));
+        cargar(afectado.getId());
+        cargar(otro.getId());
+        assertThat(clientService.findByProductoBancario("CHEQ")).extracting(ClientResponseDTO::getId)
+                .contains(afectado.getId());
+
+        ProductoBulkRequestDTO dto = new ProductoBulkRequestDTO();
+        dto.setIds(List.of(afectado.getId()));
+        productoBulkService.revocar("CHEQ", dto);
+        assertThat(entityManagerFactory.getCache().contains(Client.class, afectado.getId())).isFalse();
+        assertThat(entityManagerFactory.getCache().contains(Client.class, otro.getId())).isTrue();
+        assertThat(clientService.findByProductoBancario("CHEQ")).extracting(ClientResponseDTO::getId)
+                .doesNotContain(afectado.getId()).contains(otro.getId());
+
+        cargar(afectado.getId());
+        clientService.deleteById(afectado.getId());
+        assertThat(entityManagerFactory.getCache().contains(Client.class, afectado.getId())).isFalse();
+        assertThat(entityManagerFactory.getCache().contains(Client.class, otro.getId())).isTrue();
+        assertThat(clientRepository.findById(afectado.getId())).isEmpty();
+    }
+
+    private Client cargar(Long id) {
+        return soloLectura.execute(status -> {
+            Client client = clientRepository.findById(id).orElseThrow();
+            client.getProductoBancarioList().size();
+            return client;
+        });
+    }
+
+    private static ClientRequestDTO request(String documento, String codigoPostal, List<String> productos) {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento(documento);
+        request.setNombre("Cache");
+        request.setApellido("Test");
+        request.setCodigoPostal(codigoPostal);
+        request.setProductoBancarioList(productos);
+        return request;
+    }
+}
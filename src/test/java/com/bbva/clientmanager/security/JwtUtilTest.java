@@ -0,0 +1,151 @@
+package com.bbva.clientmanager.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JwtUtilTest {
+    private static final long DEMORA_ACTIVACION = 3_600_000;
+
+    @TempDir
+    Path claves;
+
+    private final List<JwtKeys> creadas = new ArrayList<>();
+
+    @AfterEach
+    void cerrar() {
+        creadas.forEach(JwtKeys::cerrar);
+    }
+
+    @Test
+    void testTokenDeUnNodoEsValidoEnOtroQueCompartaLasClaves() throws Exception {
+        secreto("2026-01");
+        JwtUtil nodoA = nodo(claves);
+        JwtUtil nodoB = nodo(claves);
+
+        String token = nodoA.generateToken("sa");
+
+        assertThat(nodoB.extractValidUsername(token)).contains("sa");
+        assertThat(new String(Base64.getUrlDecoder().decode(token.split("\\.")[0])))
+                .contains("\"kid\":\"2026-01\"");
+    }
+
+    @Test
+    void testRotacionFirmaConLaNuevaYSigueVerificandoLaAnterior() throws Exception {
+        secreto("2026-01");
+        JwtKeys jwtKeys = claves(claves);
+        JwtUtil jwtUtil = new JwtUtil(jwtKeys, 60_000);
+        String anterior = jwtUtil.generateToken("sa");
+
+        secreto("2026-02");
+        publicadaHace("2026-02", 2 * DEMORA_ACTIVACION);
+        jwtKeys.recargar();
+        String nuevo = jwtUtil.generateToken("sa");
+
+        assertThat(jwtKeys.getClaves().kidFirma()).isEqualTo("2026-02");
+        assertThat(jwtUtil.validateToken(anterior)).isTrue();
+        assertThat(jwtUtil.validateToken(nuevo)).isTrue();
+
+        Files.delete(claves.resolve("2026-01.hs256"));
+        jwtKeys.recargar();
+        assertThat(jwtUtil.validateToken(anterior)).isFalse();
+    }
+
+    @Test
+    void testClaveNuevaNoFirmaHastaCumplirLaDemoraDeActivacion() throws Exception {
+        secreto("2026-01");
+        publicadaHace("2026-01", 2 * DEMORA_ACTIVACION);
+        JwtKeys emisor = claves(claves);
+        secreto("2026-02");
+        emisor.recargar();
+        JwtKeys verificador = claves(claves);
+        assertThat(emisor.getClaves().kidFirma()).isEqualTo("2026-01");
+
+        publicadaHace("2026-02", DEMORA_ACTIVACION + 1_000);
+        emisor.recargar();
+        String token = new JwtUtil(emisor, 60_000).generateToken("sa");
+
+        assertThat(emisor.getClaves().kidFirma()).isEqualTo("2026-02");
+        assertThat(new JwtUtil(verificador, 60_000).extractValidUsername(token)).contains("sa");
+    }
+
+    @Test
+    void testDemoraDeActivacionMenorQueLaRecargaSeRechaza() {
+        assertThrows(IllegalStateException.class, () -> new JwtKeys(claves.toString(), "", 60_000, 30_000));
+    }
+
+    @Test
+    void testNodoSoloVerificacionValidaRs256PeroNoEmite(@TempDir Path publicas) throws Exception {
+        KeyPair par = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        Files.writeString(claves.resolve("rsa-1.private.pem"), pem("PRIVATE KEY", par.getPrivate().getEncoded()));
+        Files.writeString(publicas.resolve("rsa-1.public.pem"), pem("PUBLIC KEY", par.getPublic().getEncoded()));
+        JwtUtil emisor = nodo(claves);
+        JwtUtil verificador = nodo(publicas);
+
+        String token = emisor.generateToken("sa");
+
+        assertThat(verificador.extractValidUsername(token)).contains("sa");
+        assertThrows(IllegalStateException.class, () -> verificador.generateToken("sa"));
+    }
+
+    @Test
+    void testRechazaKidDesconocidoYAlgoritmoCruzado() throws Exception {
+        secreto("2026-01");
+        KeyPair par = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        Files.writeString(claves.resolve("rsa-1.public.pem"), pem("PUBLIC KEY", par.getPublic().getEncoded()));
+        JwtUtil jwtUtil = nodo(claves);
+
+        String kidDesconocido = Jwts.builder().setHeaderParam("kid", "otro").setSubject("sa")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact();
+        String hmacConClavePublica = Jwts.builder().setHeaderParam("kid", "rsa-1").setSubject("sa")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Arrays.copyOf(par.getPublic().getEncoded(), 32)))
+                .compact();
+
+        assertThat(jwtUtil.validateToken(kidDesconocido)).isFalse();
+        assertThat(jwtUtil.validateToken(hmacConClavePublica)).isFalse();
+    }
+
+    private JwtUtil nodo(Path directorio) {
+        return new JwtUtil(claves(directorio), 60_000);
+    }
+
+    private JwtKeys claves(Path directorio) {
+        JwtKeys jwtKeys = new JwtKeys(directorio.toString(), "", 3_600_000, DEMORA_ACTIVACION);
+        creadas.add(jwtKeys);
+        return jwtKeys;
+    }
+
+    private void secreto(String kid) throws Exception {
+        Files.writeString(claves.resolve(kid + ".hs256"),
+                Base64.getEncoder().encodeToString(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded()));
+    }
+
+    private void publicadaHace(String kid, long ms) throws Exception {
+        Files.setLastModifiedTime(claves.resolve(kid + ".hs256"),
+                FileTime.fromMillis(System.currentTimeMillis() - ms));
+    }
+
+    private static String pem(String tipo, byte[] contenido) {
+        return "-----BEGIN " + tipo + "-----\n" + Base64.getMimeEncoder().encodeToString(contenido)
+                + "\n-----END " + tipo + "-----\n";
+    }
+}
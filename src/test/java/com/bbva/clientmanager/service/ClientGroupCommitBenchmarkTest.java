@@ -0,0 +1,90 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara el throughput de altas concurrentes con y sin commit agrupado.
+ * Se excluye del build normal; correr con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class ClientGroupCommitBenchmarkTest {
+    private static final int HILOS = 64;
+    private static final int ALTAS_POR_HILO = 50;
+
+    @Autowired
+    private IClientService clientService;
+
+    private final AtomicInteger documentos = new AtomicInteger(40_000_000);
+
+    @Test
+    void compararThroughput() throws Exception {
+        medir("calentamiento", clientService::create);
+        double directo = medir("directo", clientService::create);
+
+        ClientGroupCommitService groupCommit = new ClientGroupCommitService(clientService, true, 128, 2, 10_000, 5000);
+        groupCommit.iniciar();
+        try {
+            double agrupado = medir("agrupado", groupCommit::create);
+            System.out.printf("Altas/s directo=%.0f agrupado=%.0f (x%.2f), grupos=%d%n",
+                    directo, agrupado, agrupado / directo, groupCommit.getGrupos());
+            assertThat(groupCommit.getGrupos()).isLessThan(groupCommit.getAltas());
+        } finally {
+            groupCommit.detener();
+        }
+    }
+
+    private double medir(String nombre, Function<ClientRequestDTO, ?> alta) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < ALTAS_POR_HILO; i++) {
+                    alta.apply(request());
+                }
+                return null;
+            }));
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> futuro : futuros) {
+            futuro.get();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        executor.shutdown();
+        double porSegundo = HILOS * ALTAS_POR_HILO / segundos;
+        System.out.printf("%s: %d altas en %.2f s (%.0f altas/s)%n", nombre, HILOS * ALTAS_POR_HILO, segundos, porSegundo);
+        return porSegundo;
+    }
+
+    private ClientRequestDTO request() {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento(String.valueOf(documentos.incrementAndGet()));
+        request.setNombre("Bench");
+        request.setApellido("Mark");
+        request.setCalle("Calle Falsa");
+        request.setNumero(1);
+        request.setCodigoPostal("B0001");
+        request.setCelular("1557444444");
+        request.setProductoBancarioList(List.of("CJAH", "TJDEBITO"));
+        return request;
+    }
+}
@@ -0,0 +1,172 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.exception.CapacidadExcedidaException;
+import com.bbva.clientmanager.exception.ValorEnumInvalidoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ClientGroupCommitServiceTest {
+    private final IClientService clientService = mock(IClientService.class);
+    private final AtomicLong ids = new AtomicLong();
+    private ClientGroupCommitService groupCommit;
+
+    private ClientGroupCommitService iniciar(int maxLote, long maxEsperaMs) {
+        return iniciar(maxLote, maxEsperaMs, 5000);
+    }
+
+    private ClientGroupCommitService iniciar(int maxLote, long maxEsperaMs, long timeoutMs) {
+        groupCommit = new ClientGroupCommitService(clientService, true, maxLote, maxEsperaMs, 1000, timeoutMs);
+        groupCommit.iniciar();
+        return groupCommit;
+    }
+
+    @AfterEach
+    void tearDown() {
+        groupCommit.detener();
+    }
+
+    private static ClientRequestDTO request(String nombre) {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setNombre(nombre);
+        return request;
+    }
+
+    private ClientResponseDTO creado(ClientRequestDTO request) {
+        ClientResponseDTO dto = new ClientResponseDTO();
+        dto.setId(ids.incrementAndGet());
+        dto.setNombre(request.getNombre());
+        return dto;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAgrupaAltasConcurrentesYRespondeACadaUna() throws Exception {
+        when(clientService.createAll(anyList(), anyList())).thenAnswer(inv -> ((List<ClientRequestDTO>) inv.getArgument(0)).stream()
+                .map(r -> "malo".equals(r.getNombre())
+                        ? ResultadoCreacion.fallido(new ValorEnumInvalidoException("inválido"))
+                        : ResultadoCreacion.creado(creado(r)))
+                .toList());
+        iniciar(100, 50);
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<ClientResponseDTO>> futuros = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String nombre = i == 7 ? "malo" : "cliente-" + i;
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                return groupCommit.create(request(nombre));
+            }));
+        }
+        largada.countDown();
+
+        for (int i = 0; i < 20; i++) {
+            if (i == 7) {
+                Future<ClientResponseDTO> malo = futuros.get(i);
+                Exception e = assertThrows(Exception.class, malo::get);
+                assertThat(e.getCause()).isInstanceOf(ValorEnumInvalidoException.class);
+            } else {
+                assertThat(futuros.get(i).get().getNombre()).isEqualTo("cliente-" + i);
+            }
+        }
+        executor.shutdown();
+        assertThat(groupCommit.getAltas()).isEqualTo(20);
+        assertThat(groupCommit.getGrupos()).isLessThan(20);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCadaAltaLlevaElUsuarioQueLaEncolo() throws Exception {
+        Map<String, String> usuarioPorNombre = new ConcurrentHashMap<>();
+        when(clientService.createAll(anyList(), anyList())).thenAnswer(inv -> {
+            List<ClientRequestDTO> requests = inv.getArgument(0);
+            List<String> usuarios = inv.getArgument(1);
+            for (int i = 0; i < requests.size(); i++) {
+                usuarioPorNombre.put(requests.get(i).getNombre(), usuarios.get(i));
+            }
+            return requests.stream().map(r -> ResultadoCreacion.creado(creado(r))).toList();
+        });
+        iniciar(100, 50);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<ClientResponseDTO>> futuros = new ArrayList<>();
+        for (String usuario : List.of("ana", "beto", "carla", "dario")) {
+            futuros.add(executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(usuario, null, List.of()));
+                largada.await();
+                return groupCommit.create(request("alta-" + usuario));
+            }));
+        }
+        largada.countDown();
+        for (Future<ClientResponseDTO> futuro : futuros) {
+            futuro.get();
+        }
+        executor.shutdown();
+
+        assertThat(usuarioPorNombre).containsExactlyInAnyOrderEntriesOf(Map.of(
+                "alta-ana", "ana", "alta-beto", "beto", "alta-carla", "carla", "alta-dario", "dario"));
+    }
+
+    @Test
+    void testSiFallaElGrupoReintentaCadaAltaPorSeparado() {
+        when(clientService.createAll(anyList(), anyList())).thenThrow(new IllegalStateException("constraint"));
+        when(clientService.create(any())).thenAnswer(inv -> {
+            ClientRequestDTO request = inv.getArgument(0);
+            if ("duplicado".equals(request.getNombre())) {
+                throw new IllegalStateException("duplicado");
+            }
+            return creado(request);
+        });
+        iniciar(10, 1);
+
+        assertThat(groupCommit.create(request("ok")).getNombre()).isEqualTo("ok");
+        assertThrows(IllegalStateException.class, () -> groupCommit.create(request("duplicado")));
+        assertThat(groupCommit.getReintentosIndividuales()).isEqualTo(2);
+    }
+
+    @Test
+    void testUnErrorDelGrupoNoDetieneAlCommitter() {
+        when(clientService.createAll(anyList(), anyList()))
+                .thenThrow(new StackOverflowError())
+                .thenAnswer(inv -> List.of(ResultadoCreacion.creado(creado(inv.<List<ClientRequestDTO>>getArgument(0).get(0)))));
+        iniciar(10, 1);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> groupCommit.create(request("primero")));
+        assertThat(e.getCause()).isInstanceOf(StackOverflowError.class);
+        assertThat(groupCommit.create(request("segundo")).getNombre()).isEqualTo("segundo");
+    }
+
+    @Test
+    void testVenceElTiempoDeEsperaSiElGrupoNoSeConfirma() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(clientService.createAll(anyList(), anyList())).thenAnswer(inv -> {
+            liberar.await();
+            return List.of(ResultadoCreacion.creado(creado(inv.<List<ClientRequestDTO>>getArgument(0).get(0))));
+        });
+        iniciar(1, 1, 100);
+
+        assertThrows(CapacidadExcedidaException.class, () -> groupCommit.create(request("lento")));
+        liberar.countDown();
+    }
+}
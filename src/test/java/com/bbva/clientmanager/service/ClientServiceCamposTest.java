@@ -0,0 +1,72 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.exception.ClientNotFoundException;
+import com.bbva.clientmanager.exception.SolicitudInvalidaException;
+import com.bbva.clientmanager.support.SqlCapture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.bbva.clientmanager.support.SqlCapture")
+public class ClientServiceCamposTest {
+    @Autowired
+    private IClientService clientService;
+
+    private ClientResponseDTO creado;
+
+    @BeforeEach
+    void setUp() {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento("30000123");
+        request.setNombre("Veronica");
+        request.setApellido("Sebastian");
+        request.setCalle("Calle Falsa");
+        request.setNumero(1234);
+        request.setCodigoPostal("C1416");
+        request.setCelular("1557444444");
+        request.setProductoBancarioList(List.of("PZOF"));
+        creado = clientService.create(request);
+        SqlCapture.reset();
+    }
+
+    @Test
+    void testCamposReducidosNoLeenProductosNiOtrasColumnas() {
+        Map<String, Object> result = clientService.findById(creado.getId(), List.of("nombre", "celular"));
+
+        assertThat(result).containsOnlyKeys("id", "nombre", "celular");
+        assertThat(result.get("nombre")).isEqualTo("Veronica");
+        assertThat(SqlCapture.sentencias()).hasSize(1);
+        assertThat(SqlCapture.sentencias().get(0)).doesNotContain("calle", "documento", "productos_bancarios");
+    }
+
+    @Test
+    void testProductosSoloSiSePiden() {
+        List<Map<String, Object>> result = clientService.findByProductoBancario("PZOF",
+                List.of("tipoDocumento", "productoBancarioList"));
+
+        Map<String, Object> client = result.stream()
+                .filter(c -> c.get("id").equals(creado.getId()))
+                .findFirst().orElseThrow();
+        assertThat(client).containsOnlyKeys("id", "tipoDocumento", "productoBancarioList");
+        assertThat(client.get("tipoDocumento")).isEqualTo("DNI");
+        assertThat(client.get("productoBancarioList")).isEqualTo(List.of("PZOF"));
+        assertThat(SqlCapture.sentencias()).hasSize(2);
+    }
+
+    @Test
+    void testCampoInvalidoYClienteInexistente() {
+        assertThrows(SolicitudInvalidaException.class, () -> clientService.findAll(List.of("saldo")));
+        assertThrows(ClientNotFoundException.class, () -> clientService.findById(-1L, List.of("nombre")));
+    }
+}
@@ -0,0 +1,77 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientRequestUpdateDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.support.SqlCapture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.bbva.clientmanager.support.SqlCapture")
+public class ClientServiceProductosTest {
+    private static final String JOIN_TABLE = "clients_productos_bancarios";
+
+    @Autowired
+    private IClientService clientService;
+
+    private ClientResponseDTO creado;
+
+    @BeforeEach
+    void setUp() {
+        creado = clientService.create(request(List.of("CHEQ", "CJAH")));
+        SqlCapture.reset();
+    }
+
+    @Test
+    void testUpdateConMismosProductosNoEscribeTablaIntermedia() {
+        ClientResponseDTO result = clientService.update(creado.getId(), request(List.of("CJAH", "CHEQ", "CJAH")));
+
+        assertThat(SqlCapture.contar("insert", JOIN_TABLE)).isZero();
+        assertThat(SqlCapture.contar("delete", JOIN_TABLE)).isZero();
+        assertThat(result.getProductoBancarioList()).containsExactly("CJAH", "CHEQ");
+    }
+
+    @Test
+    void testUpdateSoloEscribeDiferencias() {
+        ClientResponseDTO result = clientService.update(creado.getId(), request(List.of("CHEQ", "TJCREDITO")));
+
+        assertThat(SqlCapture.contar("insert", JOIN_TABLE)).isEqualTo(1);
+        assertThat(SqlCapture.contar("delete", JOIN_TABLE)).isEqualTo(1);
+        assertThat(result.getProductoBancarioList()).containsExactly("CHEQ", "TJCREDITO");
+        assertThat(result.getFechaModificacion()).isAfterOrEqualTo(creado.getFechaModificacion());
+    }
+
+    @Test
+    void testPartialUpdateQuitaUnProducto() {
+        ClientRequestUpdateDTO dto = new ClientRequestUpdateDTO();
+        dto.setProductoBancarioList(List.of("CHEQ"));
+
+        ClientResponseDTO result = clientService.partialUpdate(creado.getId(), dto);
+
+        assertThat(SqlCapture.contar("insert", JOIN_TABLE)).isZero();
+        assertThat(SqlCapture.contar("delete", JOIN_TABLE)).isEqualTo(1);
+        assertThat(result.getProductoBancarioList()).containsExactly("CHEQ");
+    }
+
+    private ClientRequestDTO request(List<String> productos) {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento("30000123");
+        request.setNombre("Veronica");
+        request.setApellido("Sebastian");
+        request.setCalle("Calle Falsa");
+        request.setNumero(1234);
+        request.setCodigoPostal("C1416");
+        request.setTelefono("45678788");
+        request.setCelular("1557444444");
+        request.setProductoBancarioList(productos);
+        return request;
+    }
+}
@@ -1,31 +1,48 @@
 package com.bbva.clientmanager.service;
 
+import com.bbva.clientmanager.archive.ArchivoClientes;
+import com.bbva.clientmanager.dto.ClientCountResponseDTO;
+import com.bbva.clientmanager.dto.ClientLookupResponseDTO;
 import com.bbva.clientmanager.dto.ClientRequestDTO;
 import com.bbva.clientmanager.dto.ClientRequestUpdateDTO;
 import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.ClientSearchRequestDTO;
+import com.bbva.clientmanager.dto.ClientSearchResponseDTO;
 import com.bbva.clientmanager.dto.TelefonoUpdateDTO;
 import com.bbva.clientmanager.entity.Client;
 import com.bbva.clientmanager.entity.ProductoBancario;
 import com.bbva.clientmanager.entity.TipoDocumento;
 import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.event.ClientModificadoEvent;
 import com.bbva.clientmanager.exception.ClientNotFoundException;
+import com.bbva.clientmanager.exception.SolicitudInvalidaException;
 import com.bbva.clientmanager.exception.ValorEnumInvalidoException;
+import com.bbva.clientmanager.readmodel.ClientReadModel;
+import com.bbva.clientmanager.repository.BusquedaClientes;
 import com.bbva.clientmanager.repository.IClientRepository;
 import com.bbva.clientmanager.repository.IProductoBancarioRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDateTime;
 
+
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
@@ -37,6 +54,14 @@ public class ClientServiceTest {
     private IProductoBancarioRepository productoBancarioRepository;
     @Mock
     private ObjectMapper objectMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ClientReadModel readModel;
+    @Mock
+    private IClientViewService clientViewService;
+    @Mock
+    private ObjectProvider<ArchivoClientes> archivo;
     @InjectMocks
     private ClientService clientService;
 
@@ -75,7 +100,7 @@ public class ClientServiceTest {
         client.setCodigoPostal("C1416");
         client.setTelefono("45678788");
         client.setCelular("1557444444");
-        client.setProductoBancarioList(List.of(productoBancario));
+        client.setProductoBancarioList(Set.of(productoBancario));
 
         when(productoBancarioRepository.findByTipoProductoBancarioIn(anyList()))
                 .thenReturn(List.of(productoBancario));
@@ -112,6 +137,43 @@ public class ClientServiceTest {
         verify(clientRepository).findById(1L);
     }
 
+    @Test
+    void testCreateAllLeeProductosUnaVezYAislaErrores() {
+        ClientRequestDTO valido = new ClientRequestDTO();
+        valido.setTipoDocumento("DNI");
+        valido.setNombre("Veronica");
+        valido.setProductoBancarioList(List.of("CHEQ"));
+        ClientRequestDTO invalido = new ClientRequestDTO();
+        invalido.setTipoDocumento("PASAPORTE_X");
+        ProductoBancario cheque = new ProductoBancario();
+        cheque.setTipoProductoBancario(TipoProductoBancario.CHEQ);
+        when(productoBancarioRepository.findAll()).thenReturn(List.of(cheque));
+
+        List<ResultadoCreacion> result = clientService.createAll(List.of(valido, invalido, valido), Arrays.asList("ana", "ana", null));
+
+        assertEquals(3, result.size());
+        assertEquals(List.of("CHEQ"), result.get(0).client().getProductoBancarioList());
+        assertInstanceOf(ValorEnumInvalidoException.class, result.get(1).error());
+        assertNotNull(result.get(2).client());
+        verify(productoBancarioRepository, never()).findByTipoProductoBancarioIn(anyList());
+        verify(clientRepository).saveAll(argThat(clients -> ((List<Client>) clients).size() == 2));
+        ArgumentCaptor<Object> eventos = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(eventos.capture());
+        assertEquals(Arrays.asList("ana", null), eventos.getAllValues().stream()
+                .map(evento -> ((ClientModificadoEvent) evento).usuario()).toList());
+    }
+
+    @Test
+    void testFindByIdDesdeReadModel() {
+        ClientResponseDTO dto = new ClientResponseDTO();
+        dto.setId(1L);
+        when(readModel.isDisponible()).thenReturn(true);
+        when(readModel.findById(1L)).thenReturn(Optional.of(dto));
+
+        assertSame(dto, clientService.findById(1L));
+        verifyNoInteractions(clientRepository);
+    }
+
     @Test
     void testFindByIdThrowsClientNotFoundException() {
         when(clientRepository.findById(1L)).thenReturn(Optional.empty());
@@ -120,6 +182,37 @@ public class ClientServiceTest {
         assertTrue(ex.getMessage().contains("No se encuentra el cliente"));
     }
 
+    @Test
+    void testFindByIdBuscaEnElArchivoSiNoEstaEnLaTabla() {
+        ArchivoClientes archivoClientes = mock(ArchivoClientes.class);
+        ClientResponseDTO dto = new ClientResponseDTO();
+        dto.setId(1L);
+        when(archivo.getIfAvailable()).thenReturn(archivoClientes);
+        when(clientRepository.findById(1L)).thenReturn(Optional.empty());
+        when(archivoClientes.buscar(1L)).thenReturn(Optional.of(dto));
+
+        assertSame(dto, clientService.findById(1L));
+    }
+
+    @Test
+    void testFindAllByIdRespetaOrdenYReportaFaltantes() {
+        Client otro = new Client();
+        otro.setId(5L);
+        otro.setNombre("Otro");
+        otro.setTipoDocumento(TipoDocumento.DNI);
+        when(clientRepository.findAllWithProductosByIdIn(List.of(1L, 3L, 5L))).thenReturn(List.of(client, otro));
+
+        ClientLookupResponseDTO result = clientService.findAllById(List.of(5L, 3L, 1L, 5L));
+
+        assertEquals(List.of(5L, 1L), result.getClients().stream().map(ClientResponseDTO::getId).toList());
+        assertEquals(List.of(3L), result.getNoEncontrados());
+    }
+
+    @Test
+    void testFindAllByIdSinIdsLanzaSolicitudInvalida() {
+        assertThrows(SolicitudInvalidaException.class, () -> clientService.findAllById(List.of()));
+    }
+
     @Test
     void testFindAll() {
         when(clientRepository.findAll()).thenReturn(List.of(client));
@@ -136,7 +229,7 @@ public class ClientServiceTest {
         ProductoBancario producto = new ProductoBancario();
         producto.setId(1L);
         producto.setTipoProductoBancario(TipoProductoBancario.CHEQ);
-        client.setProductoBancarioList(List.of(producto));
+        client.setProductoBancarioList(Set.of(producto));
 
         when(clientRepository.findByProductoBancarioList_TipoProductoBancario(TipoProductoBancario.CHEQ))
                 .thenReturn(List.of(client));
@@ -161,23 +254,29 @@ public class ClientServiceTest {
 
     @Test
     void testDeleteById() {
-        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(clientRepository.eliminar(1L)).thenReturn(true);
 
         clientService.deleteById(1L);
 
-        verify(clientRepository).deleteById(1L);
+        verify(clientRepository).eliminar(1L);
+        verify(clientRepository, never()).findById(1L);
+        verify(clientRepository, never()).existsById(1L);
+        verifyNoInteractions(archivo);
+        verify(eventPublisher).publishEvent(ClientModificadoEvent.baja(1L, null));
     }
 
     @Test
     void testDeleteByIdThrowsClientNotFoundException() {
-        when(clientRepository.findById(99L)).thenReturn(Optional.empty());
+        when(clientRepository.eliminar(99L)).thenReturn(false);
 
         ClientNotFoundException ex = assertThrows(ClientNotFoundException.class, () -> {
             clientService.deleteById(99L);
         });
 
         assertTrue(ex.getMessage().contains("No se encuentra el cliente"));
-        verify(clientRepository).findById(99L);
+        verify(clientRepository).eliminar(99L);
+        verify(clientRepository, never()).findById(99L);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -228,4 +327,82 @@ public class ClientServiceTest {
         verify(clientRepository).save(any(Client.class));
     }
 
+    @Test
+    void testSearchComponeCriteriosPresentesYPagina() {
+        Client otro = new Client();
+        otro.setId(2L);
+        otro.setTipoDocumento(TipoDocumento.DNI);
+        BusquedaClientes esperada = new BusquedaClientes("C1416", "Seb", TipoDocumento.DNI, null, null, null);
+        when(clientRepository.buscarIds(esperada, 0L, 3)).thenReturn(List.of(1L, 2L, 7L));
+        when(clientRepository.findAllWithProductosByIdIn(List.of(1L, 2L))).thenReturn(List.of(otro, client));
+
+        ClientSearchRequestDTO request = new ClientSearchRequestDTO();
+        request.setCodigoPostal("C1416");
+        request.setApellido(" Seb ");
+        request.setTipoDocumento("DNI");
+        request.setProductoBancario("");
+        request.setDespuesDe(0L);
+        request.setTamanio(2);
+        ClientSearchResponseDTO result = clientService.search(request);
+
+        assertEquals(List.of(1L, 2L), result.getClients().stream().map(ClientResponseDTO::getId).toList());
+        assertEquals(2, result.getTamanio());
+        assertTrue(result.isHayMas());
+        assertEquals(2L, result.getSiguiente());
+    }
+
+    @Test
+    void testSearchSinCriteriosOPaginaInvalidaLanzaSolicitudInvalida() {
+        assertThrows(SolicitudInvalidaException.class, () -> clientService.search(new ClientSearchRequestDTO()));
+
+        ClientSearchRequestDTO tamanioExcedido = new ClientSearchRequestDTO();
+        tamanioExcedido.setCodigoPostal("C1416");
+        tamanioExcedido.setTamanio(101);
+        assertThrows(SolicitudInvalidaException.class, () -> clientService.search(tamanioExcedido));
+
+        ClientSearchRequestDTO cursorNegativo = new ClientSearchRequestDTO();
+        cursorNegativo.setCodigoPostal("C1416");
+        cursorNegativo.setDespuesDe(-1L);
+        assertThrows(SolicitudInvalidaException.class, () -> clientService.search(cursorNegativo));
+
+        ClientSearchRequestDTO fechasInvertidas = new ClientSearchRequestDTO();
+        fechasInvertidas.setFechaDesde(LocalDateTime.of(2025, 1, 1, 0, 0));
+        fechasInvertidas.setFechaHasta(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertThrows(SolicitudInvalidaException.class, () -> clientService.search(fechasInvertidas));
+
+        ClientSearchRequestDTO productoInvalido = new ClientSearchRequestDTO();
+        productoInvalido.setProductoBancario("INVALIDO");
+        assertThrows(ValorEnumInvalidoException.class, () -> clientService.search(productoInvalido));
+        verifyNoInteractions(clientRepository);
+    }
+
+    @Test
+    void testCountConCriteriosCuentaSinLeerClientes() {
+        BusquedaClientes esperada = new BusquedaClientes(null, null, null, null, null, TipoProductoBancario.CJAH);
+        when(clientRepository.contar(esperada)).thenReturn(42L);
+
+        ClientSearchRequestDTO request = new ClientSearchRequestDTO();
+        request.setProductoBancario("CJAH");
+        ClientCountResponseDTO result = clientService.count(request);
+
+        assertEquals(42L, result.getTotal());
+        assertFalse(result.isEstimado());
+        verify(clientRepository, never()).buscarIds(any(), any(), anyInt());
+        verify(clientRepository, never()).findAllWithProductosByIdIn(any());
+    }
+
+    @Test
+    void testCountSinCriteriosEstimaSoloPorEncimaDelUmbral() {
+        when(clientRepository.estimarTotal()).thenReturn(500L, 250_000L);
+        when(clientRepository.count()).thenReturn(498L);
+
+        ClientCountResponseDTO exacto = clientService.count(new ClientSearchRequestDTO());
+        ClientCountResponseDTO estimado = clientService.count(new ClientSearchRequestDTO());
+
+        assertEquals(498L, exacto.getTotal());
+        assertFalse(exacto.isEstimado());
+        assertEquals(250_000L, estimado.getTotal());
+        assertTrue(estimado.isEstimado());
+        verify(clientRepository).count();
+    }
 }
@@ -0,0 +1,103 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientRequestUpdateDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.ConsistenciaViewDTO;
+import com.bbva.clientmanager.entity.ClientView;
+import com.bbva.clientmanager.entity.TipoProductoBancario;
+import com.bbva.clientmanager.repository.IClientViewRepository;
+import com.bbva.clientmanager.support.SqlCapture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "clientmanager.client-view.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.bbva.clientmanager.support.SqlCapture"})
+public class ClientViewServiceTest {
+    @Autowired
+    private IClientService clientService;
+    @Autowired
+    private IClientViewService clientViewService;
+    @Autowired
+    private IClientViewRepository clientViewRepository;
+
+    private ClientResponseDTO creado;
+
+    @BeforeEach
+    void setUp() {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento("30000777");
+        request.setNombre("Marta");
+        request.setApellido("Vista");
+        request.setCalle("Calle Falsa");
+        request.setNumero(742);
+        request.setCodigoPostal("V0033");
+        request.setCelular("1557444444");
+        request.setProductoBancarioList(List.of("PREST", "CJAH"));
+        creado = clientService.create(request);
+    }
+
+    @Test
+    void testLaVistaAcompaniaCadaEscritura() {
+        ClientView vista = clientViewRepository.findById(creado.getId()).orElseThrow();
+        assertThat(vista.getProductosBancarios()).containsExactly("CJAH", "PREST");
+
+        ClientRequestUpdateDTO dto = new ClientRequestUpdateDTO();
+        dto.setProductoBancarioList(List.of("TJDEBITO"));
+        clientService.partialUpdate(creado.getId(), dto);
+
+        assertThat(clientViewRepository.findById(creado.getId()).orElseThrow().getProductosBancarios())
+                .containsExactly("TJDEBITO");
+
+        clientService.deleteById(creado.getId());
+
+        assertThat(clientViewRepository.existsById(creado.getId())).isFalse();
+    }
+
+    @Test
+    void testLecturasUsanSoloLaVista() {
+        SqlCapture.reset();
+
+        ClientResponseDTO result = clientService.findById(creado.getId());
+        List<ClientResponseDTO> conPrestamo = clientService.findByProductoBancario("PREST");
+
+        assertThat(result.getNombre()).isEqualTo("Marta");
+        assertThat(result.getProductoBancarioList()).containsExactly("CJAH", "PREST");
+        assertThat(conPrestamo).extracting(ClientResponseDTO::getId).contains(creado.getId());
+        assertThat(SqlCapture.sentencias()).hasSize(3)
+                .allMatch(sql -> sql.contains("client_view") && !sql.contains("join"))
+                .anyMatch(sql -> sql.matches("select \\w+\\.id from client_view \\w+ where \\w+\\.productos in .*"));
+    }
+
+    @Test
+    void testVerificadorDetectaYReparaDiferencias() {
+        clientViewService.verificar(true);
+        ClientView vista = clientViewRepository.findById(creado.getId()).orElseThrow();
+        vista.setNombre("Otro nombre");
+        vista.setProductos(ClientView.bit(TipoProductoBancario.CHEQ));
+        clientViewRepository.save(vista);
+        ClientView huerfana = new ClientView();
+        huerfana.setId(Long.MAX_VALUE);
+        clientViewRepository.save(huerfana);
+
+        ConsistenciaViewDTO detectado = clientViewService.verificar(false);
+
+        assertThat(detectado.getFilasDesactualizadas()).isEqualTo(1);
+        assertThat(detectado.getFilasHuerfanas()).isEqualTo(1);
+        assertThat(clientViewRepository.existsById(Long.MAX_VALUE)).isTrue();
+
+        clientViewService.verificar(true);
+        ConsistenciaViewDTO despues = clientViewService.verificar(false);
+
+        assertThat(despues.getFilasFaltantes() + despues.getFilasDesactualizadas() + despues.getFilasHuerfanas()).isZero();
+        assertThat(clientService.findById(creado.getId()).getNombre()).isEqualTo("Marta");
+    }
+}
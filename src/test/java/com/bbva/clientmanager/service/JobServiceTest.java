@@ -0,0 +1,217 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.JobRequestDTO;
+import com.bbva.clientmanager.dto.JobResponseDTO;
+import com.bbva.clientmanager.dto.ProductoBulkRequestDTO;
+import com.bbva.clientmanager.entity.EstadoJob;
+import com.bbva.clientmanager.entity.Job;
+import com.bbva.clientmanager.entity.TipoJob;
+import com.bbva.clientmanager.exception.JobNotFoundException;
+import com.bbva.clientmanager.exception.SolicitudInvalidaException;
+import com.bbva.clientmanager.exception.ValorEnumInvalidoException;
+import com.bbva.clientmanager.repository.IJobRepository;
+import com.bbva.clientmanager.service.job.JobHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "clientmanager.bulk.chunk-size=2")
+public class JobServiceTest {
+    @Autowired
+    private IJobService jobService;
+    @Autowired
+    private IClientService clientService;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void testElPoolDeJobsSeValidaContraElPoolDeEscritura() {
+        HikariDataSource escritura = new HikariDataSource();
+        escritura.setMaximumPoolSize(3);
+        LazyConnectionDataSourceProxy conBulkheads = new LazyConnectionDataSourceProxy(escritura);
+
+        assertThat(JobService.maximoConexiones(conBulkheads)).isEqualTo(3);
+        assertThat(JobService.maximoConexiones(dataSource)).isEqualTo(4);
+        assertThrows(IllegalStateException.class, () -> new JobService(null, null, null, List.of(), 3, 10, conBulkheads));
+    }
+
+    @Test
+    void testUnLoteFallidoDejaElJobEnSuUltimoCheckpoint() throws Exception {
+        Job guardado = new Job();
+        guardado.setId(1L);
+        guardado.setTipo(TipoJob.EXPORTAR);
+        guardado.setEstado(EstadoJob.EN_CURSO);
+        guardado.setParametros("{}");
+        guardado.setFechaInicio(LocalDateTime.now());
+        AtomicReference<Job> checkpoint = new AtomicReference<>(guardado);
+        IJobRepository jobRepository = mock(IJobRepository.class);
+        when(jobRepository.findById(1L)).thenAnswer(invocation -> Optional.of(copia(checkpoint.get())));
+        when(jobRepository.findByEstadoInOrderById(any())).thenReturn(List.of(guardado));
+        when(jobRepository.save(any(Job.class))).thenAnswer(invocation -> {
+            checkpoint.set(copia(invocation.getArgument(0)));
+            return invocation.getArgument(0);
+        });
+        JobHandler falla = new JobHandler() {
+            @Override
+            public Set<TipoJob> tipos() {
+                return Set.of(TipoJob.EXPORTAR);
+            }
+
+            @Override
+            public void validar(TipoJob tipo, JobRequestDTO parametros) {
+            }
+
+            @Override
+            public boolean procesarLote(Job job, JobRequestDTO parametros) {
+                job.setCursor(job.getCursor() + 10);
+                job.setProcesados(job.getProcesados() + 10);
+                if (job.getCursor() > 10) {
+                    throw new IllegalStateException("x".repeat(5_000));
+                }
+                return true;
+            }
+        };
+        JobService service = new JobService(jobRepository, new ObjectMapper(), mock(PlatformTransactionManager.class),
+                List.of(falla), 1, 10, null);
+
+        service.reanudarPendientes();
+        for (int i = 0; i < 100 && checkpoint.get().getEstado() != EstadoJob.FALLIDO; i++) {
+            Thread.sleep(20);
+        }
+        service.detener();
+
+        Job fallido = checkpoint.get();
+        assertThat(fallido.getEstado()).isEqualTo(EstadoJob.FALLIDO);
+        assertThat(fallido.getCursor()).isEqualTo(10);
+        assertThat(fallido.getProcesados()).isEqualTo(10);
+        assertThat(fallido.getUltimoError()).hasSize(Job.LARGO_ULTIMO_ERROR);
+        assertThat(fallido.getFechaFin()).isNotNull();
+    }
+
+    @Test
+    void testCancelarNoPisaElProgresoDelJob() throws Exception {
+        clientService.create(cliente("J4000", null));
+        JobRequestDTO dto = new JobRequestDTO();
+        dto.setTipo("EXPORTAR");
+        JobResponseDTO result = esperar(jobService.submit(dto).getId());
+
+        JobResponseDTO cancelado = jobService.cancel(result.getId());
+
+        assertThat(cancelado.getEstado()).isEqualTo("COMPLETADO");
+        assertThat(cancelado.getProcesados()).isEqualTo(result.getProcesados());
+        assertThrows(JobNotFoundException.class, () -> jobService.cancel(-1L));
+    }
+
+    @Test
+    void testImportarCuentaErroresSinCortarElJob() throws Exception {
+        JobRequestDTO dto = new JobRequestDTO();
+        dto.setTipo("IMPORTAR");
+        dto.setClientes(List.of(cliente("J1000", List.of("CHEQ")), cliente("J1000", List.of("INVALIDO")),
+                cliente("J1000", null)));
+
+        JobResponseDTO result = esperar(jobService.submit(dto).getId());
+
+        assertThat(result.getEstado()).isEqualTo("COMPLETADO");
+        assertThat(result.getTotal()).isEqualTo(3L);
+        assertThat(result.getProcesados()).isEqualTo(3);
+        assertThat(result.getErrores()).isEqualTo(1);
+        assertThat(result.getUltimoError()).contains("posición 1");
+    }
+
+    @Test
+    void testAsignarProductoPorLotes() throws Exception {
+        List<Long> ids = List.of(clientService.create(cliente("J2000", null)).getId(),
+                clientService.create(cliente("J2000", null)).getId(),
+                clientService.create(cliente("J2000", null)).getId());
+        ProductoBulkRequestDTO filtro = new ProductoBulkRequestDTO();
+        filtro.setIds(ids);
+        JobRequestDTO dto = new JobRequestDTO();
+        dto.setTipo("ASIGNAR_PRODUCTO");
+        dto.setProductoBancario("TJCREDITO");
+        dto.setFiltro(filtro);
+
+        JobResponseDTO result = esperar(jobService.submit(dto).getId());
+
+        assertThat(result.getEstado()).isEqualTo("COMPLETADO");
+        assertThat(result.getProcesados()).isEqualTo(3);
+        assertThat(clientService.findById(ids.get(2)).getProductoBancarioList()).containsExactly("TJCREDITO");
+    }
+
+    @Test
+    void testExportarEscribeUnaLineaPorCliente() throws Exception {
+        clientService.create(cliente("J3000", null));
+        JobRequestDTO dto = new JobRequestDTO();
+        dto.setTipo("EXPORTAR");
+
+        JobResponseDTO result = esperar(jobService.submit(dto).getId());
+
+        assertThat(result.getEstado()).isEqualTo("COMPLETADO");
+        assertThat(Files.readAllLines(Path.of(result.getResultado()))).hasSize((int) result.getProcesados());
+        assertThat(jobService.cancel(result.getId()).getEstado()).isEqualTo("COMPLETADO");
+    }
+
+    @Test
+    void testValidacionesAlEncolar() {
+        JobRequestDTO invalido = new JobRequestDTO();
+        invalido.setTipo("NO_EXISTE");
+        assertThrows(ValorEnumInvalidoException.class, () -> jobService.submit(invalido));
+
+        JobRequestDTO sinClientes = new JobRequestDTO();
+        sinClientes.setTipo("IMPORTAR");
+        assertThrows(SolicitudInvalidaException.class, () -> jobService.submit(sinClientes));
+
+        assertThrows(JobNotFoundException.class, () -> jobService.findById(-1L));
+    }
+
+    private JobResponseDTO esperar(Long id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            JobResponseDTO job = jobService.findById(id);
+            if (!job.getEstado().equals("PENDIENTE") && !job.getEstado().equals("EN_CURSO")) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("El job " + id + " no terminó a tiempo");
+    }
+
+    private static Job copia(Job job) {
+        Job copia = new Job();
+        BeanUtils.copyProperties(job, copia);
+        return copia;
+    }
+
+    private ClientRequestDTO cliente(String codigoPostal, List<String> productos) {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento("30000123");
+        request.setNombre("Veronica");
+        request.setApellido("Sebastian");
+        request.setCalle("Calle Falsa");
+        request.setNumero(1234);
+        request.setCodigoPostal(codigoPostal);
+        request.setCelular("1557444444");
+        request.setProductoBancarioList(productos);
+        return request;
+    }
+}
@@ -0,0 +1,112 @@
+package com.bbva.clientmanager.service;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientRequestUpdateDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.ProductoBulkRequestDTO;
+import com.bbva.clientmanager.dto.ProductoBulkResponseDTO;
+import com.bbva.clientmanager.exception.SolicitudInvalidaException;
+import com.bbva.clientmanager.exception.ValorEnumInvalidoException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "clientmanager.bulk.chunk-size=2")
+public class ProductoBulkServiceTest {
+    @Autowired
+    private IProductoBulkService productoBulkService;
+    @Autowired
+    private IClientService clientService;
+
+    @Test
+    void testAsignarPorCodigoPostalSoloAfectaFaltantes() {
+        List<ClientResponseDTO> clientes = crear("B7600", 5, List.of("CJAH"));
+        clientService.partialUpdate(clientes.get(0).getId(), productos(List.of("CJAH", "TJCREDITO")));
+
+        ProductoBulkRequestDTO dto = new ProductoBulkRequestDTO();
+        dto.setCodigoPostal("B7600");
+        ProductoBulkResponseDTO result = productoBulkService.asignar("TJCREDITO", dto);
+
+        assertThat(result.getClientesAfectados()).isEqualTo(4);
+        assertThat(result.getLotes()).isEqualTo(3);
+        clientes.forEach(c -> assertThat(clientService.findById(c.getId()).getProductoBancarioList())
+                .containsExactly("CJAH", "TJCREDITO"));
+        assertThat(clientService.findById(clientes.get(1).getId()).getFechaModificacion())
+                .isAfterOrEqualTo(clientes.get(1).getFechaModificacion());
+    }
+
+    @Test
+    void testRevocarPorIdsEnLotes() {
+        List<ClientResponseDTO> clientes = crear("X1000", 5, List.of("CHEQ", "PREST"));
+        List<Long> ids = new ArrayList<>(clientes.stream().map(ClientResponseDTO::getId).toList());
+        ids.remove(2);
+
+        ProductoBulkRequestDTO dto = new ProductoBulkRequestDTO();
+        dto.setIds(ids);
+        ProductoBulkResponseDTO result = productoBulkService.revocar("CHEQ", dto);
+
+        assertThat(result.getClientesAfectados()).isEqualTo(4);
+        assertThat(result.getLotes()).isEqualTo(2);
+        assertThat(clientService.findById(clientes.get(2).getId()).getProductoBancarioList())
+                .containsExactly("PREST", "CHEQ");
+        assertThat(clientService.findById(clientes.get(0).getId()).getProductoBancarioList())
+                .containsExactly("PREST");
+    }
+
+    @Test
+    void testAsignarConProductoExistenteComoFiltro() {
+        List<ClientResponseDTO> clientes = crear("Z9999", 2, List.of());
+        clientService.partialUpdate(clientes.get(1).getId(), productos(List.of("PZOF")));
+
+        ProductoBulkRequestDTO dto = new ProductoBulkRequestDTO();
+        dto.setCodigoPostal("Z9999");
+        dto.setProductoBancario("PZOF");
+        ProductoBulkResponseDTO result = productoBulkService.asignar("TJDEBITO", dto);
+
+        assertThat(result.getClientesAfectados()).isEqualTo(1);
+        assertThat(clientService.findById(clientes.get(0).getId()).getProductoBancarioList()).isEmpty();
+    }
+
+    @Test
+    void testSinFiltroLanzaSolicitudInvalida() {
+        assertThrows(SolicitudInvalidaException.class,
+                () -> productoBulkService.asignar("TJCREDITO", new ProductoBulkRequestDTO()));
+    }
+
+    @Test
+    void testProductoInvalidoLanzaValorEnumInvalido() {
+        ProductoBulkRequestDTO dto = new ProductoBulkRequestDTO();
+        dto.setCodigoPostal("B7600");
+        assertThrows(ValorEnumInvalidoException.class, () -> productoBulkService.asignar("INVALIDO", dto));
+    }
+
+    private List<ClientResponseDTO> crear(String codigoPostal, int cantidad, List<String> productos) {
+        List<ClientResponseDTO> clientes = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            ClientRequestDTO request = new ClientRequestDTO();
+            request.setTipoDocumento("DNI");
+            request.setDocumento("3000012" + i);
+            request.setNombre("Cliente" + i);
+            request.setApellido("Bulk");
+            request.setCalle("Calle Falsa");
+            request.setNumero(100 + i);
+            request.setCodigoPostal(codigoPostal);
+            request.setCelular("1557444444");
+            request.setProductoBancarioList(productos);
+            clientes.add(clientService.create(request));
+        }
+        return clientes;
+    }
+
+    private ClientRequestUpdateDTO productos(List<String> productos) {
+        ClientRequestUpdateDTO dto = new ClientRequestUpdateDTO();
+        dto.setProductoBancarioList(productos);
+        return dto;
+    }
+}
@@ -0,0 +1,96 @@
+package com.bbva.clientmanager.shard;
+
+import com.bbva.clientmanager.dto.ClientRequestDTO;
+import com.bbva.clientmanager.dto.ClientResponseDTO;
+import com.bbva.clientmanager.dto.TelefonoUpdateDTO;
+import com.bbva.clientmanager.exception.ClientNotFoundException;
+import com.bbva.clientmanager.service.IClientService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "clientmanager.sharding.enabled=true",
+        "clientmanager.sharding.urls=jdbc:h2:mem:shard-test-0;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:shard-test-1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard-test-2;DB_CLOSE_DELAY=-1",
+        "clientmanager.client-view.enabled=false"})
+public class ShardedClientRepositoryTest {
+    @Autowired
+    private IClientService clientService;
+    @Autowired
+    private ShardSet shardSet;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void testAltasSeRepartenEntreShardsConIdsUnicos() {
+        List<ClientResponseDTO> creados = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            creados.add(clientService.create(request("4100000" + i, i % 2 == 0 ? "CJAH" : "PREST")));
+        }
+        Set<Long> ids = creados.stream().map(ClientResponseDTO::getId).collect(Collectors.toSet());
+        assertThat(ids).hasSize(12);
+
+        Set<Integer> shardsUsados = new HashSet<>();
+        for (ClientResponseDTO creado : creados) {
+            ShardSet.Shard shard = shardSet.shardDe(creado.getId());
+            shardsUsados.add(shard.getIndice());
+            assertThat(shard.getJdbc().getJdbcTemplate().queryForObject(
+                    "SELECT COUNT(*) FROM clients WHERE id = ?", Long.class, creado.getId())).isEqualTo(1L);
+        }
+        assertThat(shardsUsados).hasSizeGreaterThan(1);
+        assertThat(new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM clients WHERE documento LIKE '4100000%'", Long.class)).isZero();
+
+        List<Long> listado = clientService.findAll().stream().map(ClientResponseDTO::getId).toList();
+        assertThat(listado).containsAll(ids).isSorted();
+        List<ClientResponseDTO> conPrestamo = clientService.findByProductoBancario("PREST");
+        assertThat(conPrestamo).extracting(ClientResponseDTO::getId).isSorted()
+                .containsAll(creados.stream().filter(c -> c.getProductoBancarioList().contains("PREST"))
+                        .map(ClientResponseDTO::getId).toList());
+    }
+
+    @Test
+    void testModificacionYBajaVanAlShardDelCliente() {
+        ClientResponseDTO creado = clientService.create(request("42000000", "CJAH"));
+        TelefonoUpdateDTO telefono = new TelefonoUpdateDTO();
+        telefono.setTelefono("011-5555");
+
+        clientService.updateTelefono(creado.getId(), telefono);
+        ClientResponseDTO leido = clientService.findById(creado.getId());
+        assertThat(leido.getTelefono()).isEqualTo("011-5555");
+        assertThat(leido.getProductoBancarioList()).containsExactly("CJAH");
+
+        clientService.deleteById(creado.getId());
+        assertThrows(ClientNotFoundException.class, () -> clientService.findById(creado.getId()));
+    }
+
+    @Test
+    void testCombinarRespetaElOrdenDeCadaShard() {
+        List<Integer> combinados = ShardSet.combinar(List.of(List.of(1, 4, 9), List.of(), List.of(2, 3, 10)),
+                Integer::compare);
+        assertThat(combinados).containsExactly(1, 2, 3, 4, 9, 10);
+    }
+
+    private static ClientRequestDTO request(String documento, String producto) {
+        ClientRequestDTO request = new ClientRequestDTO();
+        request.setTipoDocumento("DNI");
+        request.setDocumento(documento);
+        request.setNombre("Shard");
+        request.setApellido("Test");
+        request.setCodigoPostal("K0001");
+        request.setProductoBancarioList(List.of(producto));
+        return request;
+    }
+}
@@ -0,0 +1,41 @@
+package com.bbva.clientmanager.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * StatementInspector de Hibernate para los tests: registra cada sentencia SQL
+ * preparada para poder contar las escrituras que genera una operación.
+ *
+ * Se activa con la propiedad
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class SqlCapture implements StatementInspector {
+    private static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        SENTENCIAS.add(sql.toLowerCase(Locale.ROOT));
+        return sql;
+    }
+
+    public static void reset() {
+        SENTENCIAS.clear();
+    }
+
+    public static List<String> sentencias() {
+        return List.copyOf(SENTENCIAS);
+    }
+
+    public static long contar(String operacion, String tabla) {
+        String prefijo = operacion.toLowerCase(Locale.ROOT);
+        String nombreTabla = tabla.toLowerCase(Locale.ROOT);
+        return SENTENCIAS.stream()
+                .filter(sql -> sql.startsWith(prefijo))
+                .filter(sql -> sql.matches("(?s).*\\b" + nombreTabla + "\\b.*"))
+                .count();
+    }
+}
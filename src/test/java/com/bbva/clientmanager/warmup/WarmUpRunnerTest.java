@@ -0,0 +1,63 @@
+package com.bbva.clientmanager.warmup;
+
+import com.bbva.clientmanager.repository.IClientRepository;
+import com.bbva.clientmanager.repository.IClientViewRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "clientmanager.warmup.enabled=true",
+        "clientmanager.warmup.max-duration-ms=3000",
+        "clientmanager.warmup.clients-per-round=3"
+})
+public class WarmUpRunnerTest {
+    @Autowired
+    private WarmUpRunner warmUpRunner;
+    @Autowired
+    private IClientRepository clientRepository;
+    @Autowired
+    private IClientViewRepository clientViewRepository;
+    @Autowired
+    private ApplicationAvailability availability;
+    @Autowired
+    private Readiness readiness;
+
+    @TestConfiguration
+    static class Readiness {
+        private final AtomicInteger rondasAlAceptarTrafico = new AtomicInteger(-1);
+        private final ObjectProvider<WarmUpRunner> warmUpRunner;
+
+        Readiness(ObjectProvider<WarmUpRunner> warmUpRunner) {
+            this.warmUpRunner = warmUpRunner;
+        }
+
+        @EventListener
+        void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+            if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+                rondasAlAceptarTrafico.set(warmUpRunner.getObject().getRondas());
+            }
+        }
+    }
+
+    @Test
+    void testCalientaAntesDeAceptarTraficoSinDejarDatos() {
+        assertThat(warmUpRunner.getRondas()).isPositive();
+        assertThat(readiness.rondasAlAceptarTrafico.get()).isEqualTo(warmUpRunner.getRondas());
+        assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+
+        assertThat(clientRepository.findAll()).noneMatch(client -> "Calentamiento".equals(client.getNombre()));
+        assertThat(clientViewRepository.findAll()).noneMatch(vista -> "Calentamiento".equals(vista.getNombre()));
+    }
+}